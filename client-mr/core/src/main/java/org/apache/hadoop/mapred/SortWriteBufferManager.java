@@ -49,10 +49,12 @@ import org.apache.uniffle.client.response.SendShuffleDataResult;
 import org.apache.uniffle.common.ShuffleBlockInfo;
 import org.apache.uniffle.common.ShuffleServerInfo;
 import org.apache.uniffle.common.compression.Codec;
+import org.apache.uniffle.common.config.RssClientConf;
 import org.apache.uniffle.common.config.RssConf;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.serializer.SerializerFactory;
 import org.apache.uniffle.common.serializer.SerializerInstance;
+import org.apache.uniffle.common.util.ChecksumAlgorithm;
 import org.apache.uniffle.common.util.ChecksumUtils;
 import org.apache.uniffle.common.util.JavaUtils;
 import org.apache.uniffle.common.util.ThreadUtils;
@@ -101,6 +103,7 @@ public class SortWriteBufferManager<K, V> {
   private final ExecutorService sendExecutorService;
   private final RssConf rssConf;
   private final Optional<Codec> codec;
+  private final ChecksumAlgorithm checksumAlgorithm;
   private final Task.CombinerRunner<K, V> combinerRunner;
   private final boolean useUniffleSerializer;
   private SerializerInstance serializerInstance;
@@ -156,6 +159,7 @@ public class SortWriteBufferManager<K, V> {
     this.sendExecutorService = ThreadUtils.getDaemonFixedThreadPool(sendThreadNum, "send-thread");
     this.rssConf = rssConf;
     this.codec = Codec.newInstance(rssConf);
+    this.checksumAlgorithm = rssConf.get(RssClientConf.CHECKSUM_ALGORITHM);
     this.combinerRunner = combinerRunner;
     this.useUniffleSerializer = useUniffleSerializer;
     if (useUniffleSerializer) {
@@ -414,7 +418,7 @@ public class SortWriteBufferManager<K, V> {
     long start = System.currentTimeMillis();
     final byte[] compressed =
         useUniffleSerializer ? data : codec.map(c -> c.compress(data)).orElse(data);
-    final long crc32 = ChecksumUtils.getCrc32(compressed);
+    final long crc = ChecksumUtils.getChecksum(checksumAlgorithm, compressed);
     compressTime += System.currentTimeMillis() - start;
     final long blockId =
         RssMRUtils.getBlockId(partitionId, taskAttemptId, getNextSeqNo(partitionId));
@@ -426,7 +430,7 @@ public class SortWriteBufferManager<K, V> {
         partitionId,
         blockId,
         compressed.length,
-        crc32,
+        crc,
         compressed,
         partitionToServers.get(partitionId),
         uncompressLength,
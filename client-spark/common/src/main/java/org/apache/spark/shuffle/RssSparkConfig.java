@@ -87,6 +87,16 @@ public class RssSparkConfig {
           .defaultValue(true)
           .withDescription("indicates row based shuffle, set false when use in columnar shuffle");
 
+  public static final ConfigOption<Boolean> RSS_COLUMNAR_PASS_THROUGH_ENABLED =
+      ConfigOptions.key("rss.client.columnar.passThrough.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to pass the serialized columnar batches through without compressing them "
+                  + "again when rss.row.based is false, since the columnar engines compress the "
+                  + "batches themselves. The batches added as buffers are sent without being "
+                  + "copied, and the readers don't decompress the blocks either.");
+
   public static final ConfigOption<Boolean> RSS_MEMORY_SPILL_ENABLED =
       ConfigOptions.key("rss.client.memory.spill.enabled")
           .booleanType()
@@ -100,6 +110,23 @@ public class RssSparkConfig {
           .defaultValue(1.0d)
           .withDescription(
               "The buffer size to spill when spill triggered by config spark.rss.writer.buffer.spill.size");
+
+  public static final ConfigOption<Boolean> RSS_WRITE_COMPRESSION_PIPELINE_ENABLED =
+      ConfigOptions.key("rss.client.write.compression.pipeline.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to compress the full write buffers in the executor level compression pool "
+                  + "instead of the task thread, so the serialization of the records overlaps "
+                  + "with the compression and the checksum of the blocks.");
+
+  public static final ConfigOption<Integer> RSS_WRITE_COMPRESSION_PIPELINE_THREADS =
+      ConfigOptions.key("rss.client.write.compression.pipeline.threads")
+          .intType()
+          .checkValue(ConfigUtils.POSITIVE_INTEGER_VALIDATOR_2, "threads must be positive")
+          .defaultValue(4)
+          .withDescription(
+              "The number of threads of the compression pool shared by all the tasks of the executor");
   public static final ConfigOption<Integer> RSS_PARTITION_REASSIGN_MAX_REASSIGNMENT_SERVER_NUM =
       ConfigOptions.key("rss.client.reassign.maxReassignServerNum")
           .intType()
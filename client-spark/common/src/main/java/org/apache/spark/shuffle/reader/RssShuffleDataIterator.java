@@ -75,7 +75,11 @@ public class RssShuffleDataIterator<K, C> extends AbstractIterator<Product2<K, C
             RssSparkConfig.SPARK_SHUFFLE_COMPRESS_KEY.substring(
                 RssSparkConfig.SPARK_RSS_CONFIG_PREFIX.length()),
             RssSparkConfig.SPARK_SHUFFLE_COMPRESS_DEFAULT);
-    this.codec = compress ? Codec.newInstance(rssConf) : Optional.empty();
+    // the columnar batches passed through are handed to the serializer without any copy
+    boolean columnarPassThrough =
+        !rssConf.getBoolean(RssSparkConfig.RSS_ROW_BASED)
+            && rssConf.get(RssSparkConfig.RSS_COLUMNAR_PASS_THROUGH_ENABLED);
+    this.codec = compress && !columnarPassThrough ? Codec.newInstance(rssConf) : Optional.empty();
   }
 
   public Iterator<Tuple2<Object, Object>> createKVIterator(ByteBuffer data) {
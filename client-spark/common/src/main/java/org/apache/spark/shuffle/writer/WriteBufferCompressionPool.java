@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.spark.shuffle.writer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.common.util.ThreadUtils;
+
+/**
+ * The pool compressing the full write buffers, which is shared by the {@link WriteBufferManager}s
+ * of all the tasks in the executor. The queue is bounded, once it's full the task thread compresses
+ * the buffer itself, so the compression never falls far behind the serialization.
+ *
+ * <p>The pool is created with the thread number of the first task using it, the thread number
+ * requested by the later tasks with a different config is ignored with a warning.
+ */
+public class WriteBufferCompressionPool {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WriteBufferCompressionPool.class);
+
+  private static volatile ExecutorService executor;
+  private static volatile int executorThreadNum;
+  private static volatile boolean threadNumMismatchWarned = false;
+
+  private WriteBufferCompressionPool() {}
+
+  public static ExecutorService getOrCreate(int threadNum) {
+    if (executor == null) {
+      synchronized (WriteBufferCompressionPool.class) {
+        if (executor == null) {
+          executor =
+              new ThreadPoolExecutor(
+                  threadNum,
+                  threadNum,
+                  0L,
+                  TimeUnit.MILLISECONDS,
+                  new ArrayBlockingQueue<>(threadNum * 2),
+                  ThreadUtils.getThreadFactory("client-write-compression"),
+                  new ThreadPoolExecutor.CallerRunsPolicy());
+          executorThreadNum = threadNum;
+          LOG.info("Created the write buffer compression pool with {} threads", threadNum);
+        }
+      }
+    }
+    if (threadNum != executorThreadNum && !threadNumMismatchWarned) {
+      threadNumMismatchWarned = true;
+      LOG.warn(
+          "The write buffer compression pool is shared by the executor and already created with {}"
+              + " threads, the requested {} threads are ignored",
+          executorThreadNum,
+          threadNum);
+    }
+    return executor;
+  }
+}
@@ -17,13 +17,17 @@
 
 package org.apache.spark.shuffle.writer;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -36,6 +40,7 @@ import scala.reflect.ManifestFactory$;
 import com.clearspring.analytics.util.Lists;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
+import io.netty.buffer.ByteBuf;
 import org.apache.spark.executor.ShuffleWriteMetrics;
 import org.apache.spark.memory.MemoryConsumer;
 import org.apache.spark.memory.MemoryMode;
@@ -50,9 +55,11 @@ import org.slf4j.LoggerFactory;
 import org.apache.uniffle.common.ShuffleBlockInfo;
 import org.apache.uniffle.common.ShuffleServerInfo;
 import org.apache.uniffle.common.compression.Codec;
+import org.apache.uniffle.common.config.RssClientConf;
 import org.apache.uniffle.common.config.RssConf;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.util.BlockIdLayout;
+import org.apache.uniffle.common.util.ChecksumAlgorithm;
 import org.apache.uniffle.common.util.ChecksumUtils;
 
 public class WriteBufferManager extends MemoryConsumer {
@@ -84,7 +91,8 @@ public class WriteBufferManager extends MemoryConsumer {
   private int bufferSegmentSize;
   private long copyTime = 0;
   private long serializeTime = 0;
-  private long compressTime = 0;
+  private AtomicLong compressTime = new AtomicLong(0);
+  private long compressWaitTime = 0;
   private long writeTime = 0;
   private long estimateTime = 0;
   private long requireMemoryTime = 0;
@@ -94,6 +102,7 @@ public class WriteBufferManager extends MemoryConsumer {
   private long requireMemoryInterval;
   private int requireMemoryRetryMax;
   private Optional<Codec> codec;
+  private ChecksumAlgorithm checksumAlgorithm;
   private Function<List<ShuffleBlockInfo>, List<CompletableFuture<Long>>> spillFunc;
   private long sendSizeLimit;
   private boolean memorySpillEnabled;
@@ -102,6 +111,10 @@ public class WriteBufferManager extends MemoryConsumer {
   private BlockIdLayout blockIdLayout;
   private double bufferSpillRatio;
   private Function<Integer, List<ShuffleServerInfo>> partitionAssignmentRetrieveFunc;
+  // the pool to compress the full buffers, it's null if the compression pipeline is disabled
+  private ExecutorService compressionExecutor;
+  // the blocks being compressed in the compression pool, in the order of submitting
+  private Deque<CompletableFuture<ShuffleBlockInfo>> compressingBlocks = new ArrayDeque<>();
 
   public WriteBufferManager(
       int shuffleId,
@@ -161,7 +174,11 @@ public class WriteBufferManager extends MemoryConsumer {
             RssSparkConfig.SPARK_SHUFFLE_COMPRESS_KEY.substring(
                 RssSparkConfig.SPARK_RSS_CONFIG_PREFIX.length()),
             RssSparkConfig.SPARK_SHUFFLE_COMPRESS_DEFAULT);
-    this.codec = compress ? Codec.newInstance(rssConf) : Optional.empty();
+    // the columnar batches passed through are compressed by the columnar engine already
+    boolean columnarPassThrough =
+        !isRowBased && rssConf.get(RssSparkConfig.RSS_COLUMNAR_PASS_THROUGH_ENABLED);
+    this.codec = compress && !columnarPassThrough ? Codec.newInstance(rssConf) : Optional.empty();
+    this.checksumAlgorithm = rssConf.get(RssClientConf.CHECKSUM_ALGORITHM);
     this.spillFunc = spillFunc;
     this.sendSizeLimit = rssConf.get(RssSparkConfig.RSS_CLIENT_SEND_SIZE_LIMITATION);
     this.memorySpillTimeoutSec = rssConf.get(RssSparkConfig.RSS_MEMORY_SPILL_TIMEOUT);
@@ -169,6 +186,11 @@ public class WriteBufferManager extends MemoryConsumer {
     this.bufferSpillRatio = rssConf.get(RssSparkConfig.RSS_MEMORY_SPILL_RATIO);
     this.blockIdLayout = BlockIdLayout.from(rssConf);
     this.partitionAssignmentRetrieveFunc = partitionAssignmentRetrieveFunc;
+    if (rssConf.get(RssSparkConfig.RSS_WRITE_COMPRESSION_PIPELINE_ENABLED)) {
+      this.compressionExecutor =
+          WriteBufferCompressionPool.getOrCreate(
+              rssConf.get(RssSparkConfig.RSS_WRITE_COMPRESSION_PIPELINE_THREADS));
+    }
   }
 
   public WriteBufferManager(
@@ -205,7 +227,33 @@ public class WriteBufferManager extends MemoryConsumer {
       int partitionId, byte[] serializedData, int serializedDataLength, long start) {
     List<ShuffleBlockInfo> singleOrEmptySendingBlocks =
         insertIntoBuffer(partitionId, serializedData, serializedDataLength);
+    return checkSpillThreshold(singleOrEmptySendingBlocks, start);
+  }
+
+  /**
+   * Add a serialized columnar batch, e.g. an Arrow IPC record batch in direct memory, when
+   * integrate with the vectorized engines. The batch isn't copied and its ownership is taken, it's
+   * sent as it is if the columnar pass through is enabled, otherwise it's copied to be compressed.
+   */
+  public List<ShuffleBlockInfo> addPartitionBatch(int partitionId, ByteBuf batch) {
+    final long start = System.currentTimeMillis();
+    int length = batch.readableBytes();
+    try {
+      // the batch is held until its block is sent, this may spill the buffer of the partition
+      requestMemory(length);
+    } catch (RuntimeException e) {
+      batch.release();
+      throw e;
+    }
+    usedBytes.addAndGet(length);
+    WriterBuffer wb =
+        buffers.computeIfAbsent(partitionId, k -> new WriterBuffer(bufferSegmentSize));
+    wb.addBatch(batch);
+    return checkSpillThreshold(flushIfFull(partitionId, wb), start);
+  }
 
+  private List<ShuffleBlockInfo> checkSpillThreshold(
+      List<ShuffleBlockInfo> singleOrEmptySendingBlocks, long start) {
     // check buffer size > spill threshold
     if (usedBytes.get() - inSendListBytes.get() > spillSize) {
       LOG.info(
@@ -271,10 +319,18 @@ public class WriteBufferManager extends MemoryConsumer {
       wb.addRecord(serializedData, serializedDataLength);
       buffers.put(partitionId, wb);
     }
+    return flushIfFull(partitionId, wb);
+  }
 
+  private List<ShuffleBlockInfo> flushIfFull(int partitionId, WriterBuffer wb) {
     if (wb.getMemoryUsed() > bufferSize) {
       List<ShuffleBlockInfo> sentBlocks = new ArrayList<>(1);
-      sentBlocks.add(createShuffleBlock(partitionId, wb));
+      if (compressionExecutor != null) {
+        submitShuffleBlock(partitionId, wb);
+        sentBlocks.addAll(pollCompressedBlocks(false));
+      } else {
+        sentBlocks.add(createShuffleBlock(partitionId, wb));
+      }
       recordCounter.addAndGet(wb.getRecordCount());
       copyTime += wb.getCopyTime();
       buffers.remove(partitionId);
@@ -292,6 +348,9 @@ public class WriteBufferManager extends MemoryConsumer {
       }
       return sentBlocks;
     }
+    if (!compressingBlocks.isEmpty()) {
+      return pollCompressedBlocks(false);
+    }
     return Collections.emptyList();
   }
 
@@ -355,7 +414,11 @@ public class WriteBufferManager extends MemoryConsumer {
       }
       dataSize += wb.getDataLength();
       memoryUsed += wb.getMemoryUsed();
-      result.add(createShuffleBlock(partitionId, wb));
+      if (compressionExecutor != null) {
+        submitShuffleBlock(partitionId, wb);
+      } else {
+        result.add(createShuffleBlock(partitionId, wb));
+      }
       recordCounter.addAndGet(wb.getRecordCount());
       copyTime += wb.getCopyTime();
       buffers.remove(partitionId);
@@ -364,6 +427,11 @@ public class WriteBufferManager extends MemoryConsumer {
         break;
       }
     }
+    if (!compressingBlocks.isEmpty()) {
+      // the blocks being compressed are flushed too, they are not counted in the spill size
+      // since their memory has been taken as in send list
+      result.addAll(pollCompressedBlocks(true));
+    }
     LOG.info(
         "Flush total buffer for shuffleId["
             + shuffleId
@@ -383,35 +451,119 @@ public class WriteBufferManager extends MemoryConsumer {
 
   // transform records to shuffleBlock
   protected ShuffleBlockInfo createShuffleBlock(int partitionId, WriterBuffer wb) {
-    byte[] data = wb.getData();
+    final long blockId =
+        blockIdLayout.getBlockId(getNextSeqNo(partitionId), partitionId, taskAttemptId);
+    // add memory to indicate bytes which will be sent to shuffle server
+    inSendListBytes.addAndGet(wb.getMemoryUsed());
+    List<ShuffleServerInfo> servers = partitionAssignmentRetrieveFunc.apply(partitionId);
+    ShuffleBlockInfo block =
+        isPassedThrough(wb)
+            ? createColumnarShuffleBlock(partitionId, blockId, wb, servers)
+            : compressShuffleBlock(partitionId, blockId, wb.getData(), wb.getMemoryUsed(), servers);
+    onShuffleBlockCreated(block);
+    return block;
+  }
+
+  /**
+   * Compress the full buffer in the compression pool. Only the compression and the checksum run in
+   * the pool, the created block is returned by {@link #pollCompressedBlocks}.
+   */
+  private void submitShuffleBlock(int partitionId, WriterBuffer wb) {
+    final long blockId =
+        blockIdLayout.getBlockId(getNextSeqNo(partitionId), partitionId, taskAttemptId);
+    final List<ShuffleServerInfo> servers = partitionAssignmentRetrieveFunc.apply(partitionId);
+    if (isPassedThrough(wb)) {
+      // nothing to compress, it's queued to keep the order of the blocks
+      inSendListBytes.addAndGet(wb.getMemoryUsed());
+      compressingBlocks.add(
+          CompletableFuture.completedFuture(
+              createColumnarShuffleBlock(partitionId, blockId, wb, servers)));
+      return;
+    }
+    final byte[] data = wb.getData();
+    final int memoryUsed = wb.getMemoryUsed();
+    inSendListBytes.addAndGet(memoryUsed);
+    compressingBlocks.add(
+        CompletableFuture.supplyAsync(
+            () -> compressShuffleBlock(partitionId, blockId, data, memoryUsed, servers),
+            compressionExecutor));
+  }
+
+  /**
+   * Poll the compressed blocks in the order of submitting.
+   *
+   * @param waitAll whether to wait for all the blocks being compressed
+   */
+  private List<ShuffleBlockInfo> pollCompressedBlocks(boolean waitAll) {
+    List<ShuffleBlockInfo> blocks = new ArrayList<>();
+    while (!compressingBlocks.isEmpty() && (waitAll || compressingBlocks.peekFirst().isDone())) {
+      long start = System.currentTimeMillis();
+      ShuffleBlockInfo block;
+      try {
+        block = compressingBlocks.pollFirst().join();
+      } catch (CompletionException e) {
+        throw new RssException("Failed to compress the shuffle block", e.getCause());
+      }
+      compressWaitTime += System.currentTimeMillis() - start;
+      onShuffleBlockCreated(block);
+      blocks.add(block);
+    }
+    return blocks;
+  }
+
+  // it may run in the compression pool, so only the thread safe states can be updated
+  private ShuffleBlockInfo compressShuffleBlock(
+      int partitionId, long blockId, byte[] data, int memoryUsed, List<ShuffleServerInfo> servers) {
     final int uncompressLength = data.length;
     byte[] compressed = data;
     if (codec.isPresent()) {
       long start = System.currentTimeMillis();
       compressed = codec.get().compress(data);
-      compressTime += System.currentTimeMillis() - start;
+      compressTime.addAndGet(System.currentTimeMillis() - start);
     }
-    final long crc32 = ChecksumUtils.getCrc32(compressed);
-    final long blockId =
-        blockIdLayout.getBlockId(getNextSeqNo(partitionId), partitionId, taskAttemptId);
-    blockCounter.incrementAndGet();
-    uncompressedDataLen += data.length;
-    shuffleWriteMetrics.incBytesWritten(compressed.length);
-    // add memory to indicate bytes which will be sent to shuffle server
-    inSendListBytes.addAndGet(wb.getMemoryUsed());
+    final long crc = ChecksumUtils.getChecksum(checksumAlgorithm, compressed);
     return new ShuffleBlockInfo(
         shuffleId,
         partitionId,
         blockId,
         compressed.length,
-        crc32,
+        crc,
         compressed,
-        partitionAssignmentRetrieveFunc.apply(partitionId),
+        servers,
         uncompressLength,
-        wb.getMemoryUsed(),
+        memoryUsed,
         taskAttemptId);
   }
 
+  private boolean isPassedThrough(WriterBuffer wb) {
+    return wb.hasBatches() && !codec.isPresent();
+  }
+
+  // the columnar batches are sent as they are, without being copied or compressed
+  private ShuffleBlockInfo createColumnarShuffleBlock(
+      int partitionId, long blockId, WriterBuffer wb, List<ShuffleServerInfo> servers) {
+    final int memoryUsed = wb.getMemoryUsed();
+    final ByteBuf data = wb.getDataBuf();
+    final int length = data.readableBytes();
+    return new ShuffleBlockInfo(
+        shuffleId,
+        partitionId,
+        blockId,
+        length,
+        ChecksumUtils.getChecksum(checksumAlgorithm, data),
+        data,
+        servers,
+        length,
+        memoryUsed,
+        taskAttemptId);
+  }
+
+  private void onShuffleBlockCreated(ShuffleBlockInfo block) {
+    blockCounter.incrementAndGet();
+    uncompressedDataLen += block.getUncompressLength();
+    shuffleWriteMetrics.incBytesWritten(block.getLength());
+  }
+
   // it's run in single thread, and is not thread safe
   private int getNextSeqNo(int partitionId) {
     return partitionToSeqNo
@@ -579,7 +731,16 @@ public class WriteBufferManager extends MemoryConsumer {
     inSendListBytes.addAndGet(-freeMemory);
   }
 
-  public void freeAllMemory() {
+  public synchronized void freeAllMemory() {
+    // the unsent columnar batches are off heap, they must be released explicitly
+    buffers.values().forEach(WriterBuffer::release);
+    buffers.clear();
+    for (CompletableFuture<ShuffleBlockInfo> future : compressingBlocks) {
+      if (future.isDone() && !future.isCompletedExceptionally()) {
+        future.join().getData().release();
+      }
+    }
+    compressingBlocks.clear();
     long memory = allocatedBytes.get();
     if (memory > 0) {
       freeMemory(memory);
@@ -614,6 +775,10 @@ public class WriteBufferManager extends MemoryConsumer {
         + serializeTime
         + "], compressTime["
         + compressTime
+        + "], compressWaitTime["
+        + compressWaitTime
+        + "], compressOverlapTime["
+        + Math.max(0L, compressTime.get() - compressWaitTime)
         + "], estimateTime["
         + estimateTime
         + "], requireMemoryTime["
@@ -20,9 +20,15 @@ package org.apache.spark.shuffle.writer;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.uniffle.common.util.Constants;
+import org.apache.uniffle.common.util.NettyUtils;
+
 public class WriterBuffer {
 
   private static final Logger LOG = LoggerFactory.getLogger(WriterBuffer.class);
@@ -34,6 +40,9 @@ public class WriterBuffer {
   private int dataLength = 0;
   private int memoryUsed = 0;
   private long recordCount = 0;
+  // the columnar batches added without copying, they are placed after all the records regardless
+  // of the adding order, the order of the records in a block is never relied on by the readers
+  private CompositeByteBuf batches;
 
   public WriterBuffer(int bufferSize) {
     this.bufferSize = bufferSize;
@@ -70,22 +79,86 @@ public class WriterBuffer {
     recordCount++;
   }
 
+  /** Add a serialized columnar batch without copying it, the ownership of it is taken. */
+  public void addBatch(ByteBuf batch) {
+    if (batches == null) {
+      batches =
+          new CompositeByteBuf(
+              NettyUtils.getSharedUnpooledByteBufAllocator(true),
+              true,
+              Constants.COMPOSITE_BYTE_BUF_MAX_COMPONENTS);
+    }
+    int length = batch.readableBytes();
+    batches.addComponent(true, batch);
+    dataLength += length;
+    memoryUsed += length;
+    recordCount++;
+  }
+
   public boolean askForMemory(long length) {
     return buffer == null || nextOffset + length > bufferSize;
   }
 
+  /** Copy all the data to the heap, the columnar batches are released after being copied. */
   public byte[] getData() {
     byte[] data = new byte[dataLength];
+    int offset = copyRecords(data);
+    if (batches != null) {
+      long start = System.currentTimeMillis();
+      batches.readBytes(data, offset, batches.readableBytes());
+      batches.release();
+      batches = null;
+      copyTime += System.currentTimeMillis() - start;
+    }
+    return data;
+  }
+
+  /**
+   * Get all the data as a buffer, the columnar batches are not copied and their ownership is
+   * transferred to the returned buffer. Same as {@link #getData()}, the records are placed before
+   * the batches.
+   */
+  public ByteBuf getDataBuf() {
+    if (batches == null) {
+      return Unpooled.wrappedBuffer(getData());
+    }
+    CompositeByteBuf data = batches;
+    batches = null;
+    int recordLength = dataLength - data.readableBytes();
+    if (recordLength > 0) {
+      byte[] records = new byte[recordLength];
+      copyRecords(records);
+      data.addComponent(true, 0, Unpooled.wrappedBuffer(records));
+    }
+    return data;
+  }
+
+  public boolean hasBatches() {
+    return batches != null;
+  }
+
+  /** Release the columnar batches of a discarded buffer, the data can't be got afterwards. */
+  public void release() {
+    if (batches != null) {
+      batches.release();
+      batches = null;
+    }
+  }
+
+  private int copyRecords(byte[] data) {
     int offset = 0;
     long start = System.currentTimeMillis();
     for (WrappedBuffer wrappedBuffer : buffers) {
       System.arraycopy(wrappedBuffer.getBuffer(), 0, data, offset, wrappedBuffer.getSize());
       offset += wrappedBuffer.getSize();
     }
-    // nextOffset is the length of current buffer used
-    System.arraycopy(buffer, 0, data, offset, nextOffset);
+    if (buffer != null) {
+      // nextOffset is the length of current buffer used
+      System.arraycopy(buffer, 0, data, offset, nextOffset);
+      offset += nextOffset;
+    }
     copyTime += System.currentTimeMillis() - start;
-    return data;
+    return offset;
   }
 
   public int getDataLength() {
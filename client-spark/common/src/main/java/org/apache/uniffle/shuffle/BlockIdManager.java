@@ -54,6 +54,24 @@ public class BlockIdManager {
         });
   }
 
+  /** Merges the block ids of the bitmap in bulk, the bitmap must not be modified after that. */
+  public void add(int shuffleId, int partitionId, Roaring64NavigableMap ids) {
+    if (ids == null || ids.isEmpty()) {
+      return;
+    }
+    Map<Integer, Roaring64NavigableMap> partitionedBlockIds =
+        blockIds.computeIfAbsent(shuffleId, (k) -> JavaUtils.newConcurrentMap());
+    partitionedBlockIds.compute(
+        partitionId,
+        (id, bitmap) -> {
+          if (bitmap == null) {
+            return ids;
+          }
+          bitmap.or(ids);
+          return bitmap;
+        });
+  }
+
   public Roaring64NavigableMap get(int shuffleId, int partitionId) {
     Map<Integer, Roaring64NavigableMap> partitionedBlockIds = blockIds.get(shuffleId);
     if (partitionedBlockIds == null || partitionedBlockIds.isEmpty()) {
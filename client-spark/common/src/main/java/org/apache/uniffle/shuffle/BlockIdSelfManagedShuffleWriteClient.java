@@ -34,6 +34,7 @@ import org.apache.uniffle.client.request.RssGetShuffleResultForMultiPartRequest;
 import org.apache.uniffle.client.request.RssGetShuffleResultRequest;
 import org.apache.uniffle.client.request.RssReportShuffleResultRequest;
 import org.apache.uniffle.common.ShuffleServerInfo;
+import org.apache.uniffle.common.config.RssClientConf;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.util.BlockIdLayout;
 
@@ -43,6 +44,7 @@ import org.apache.uniffle.common.util.BlockIdLayout;
  */
 public class BlockIdSelfManagedShuffleWriteClient extends ShuffleWriteClientImpl {
   private Supplier<ShuffleManagerClient> managerClientSupplier;
+  private boolean bitmapEncoded;
 
   public BlockIdSelfManagedShuffleWriteClient(
       RssShuffleClientFactory.ExtendWriteClientBuilder builder) {
@@ -52,6 +54,8 @@ public class BlockIdSelfManagedShuffleWriteClient extends ShuffleWriteClientImpl
       throw new RssException("Illegal empty shuffleManagerClient. This should not happen");
     }
     this.managerClientSupplier = builder.getManagerClientSupplier();
+    this.bitmapEncoded =
+        builder.getRssConf().get(RssClientConf.RSS_CLIENT_REPORT_SHUFFLE_RESULT_BITMAP_ENABLED);
   }
 
   @Override
@@ -73,7 +77,7 @@ public class BlockIdSelfManagedShuffleWriteClient extends ShuffleWriteClientImpl
 
     RssReportShuffleResultRequest request =
         new RssReportShuffleResultRequest(
-            appId, shuffleId, taskAttemptId, partitionToBlockIds, bitmapNum);
+            appId, shuffleId, taskAttemptId, partitionToBlockIds, bitmapNum, bitmapEncoded);
     managerClientSupplier.get().reportShuffleResult(request);
   }
 
@@ -17,6 +17,7 @@
 
 package org.apache.uniffle.shuffle.manager;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -586,11 +587,30 @@ public class ShuffleManagerGrpcService extends ShuffleManagerImplBase {
       int partitionId = partitionToBlockIds.getPartitionId();
       List<Long> blockIds = partitionToBlockIds.getBlockIdsList();
       blockIdManager.add(shuffleId, partitionId, blockIds);
+      if (partitionToBlockIds.hasSerializedBitmap()) {
+        try {
+          blockIdManager.add(
+              shuffleId,
+              partitionId,
+              RssUtils.deserializeBitMap(partitionToBlockIds.getSerializedBitmap().toByteArray()));
+        } catch (IOException e) {
+          LOG.error("Failed to deserialize the block ids of partition {}", partitionId, e);
+          RssProtos.ReportShuffleResultResponse reply =
+              RssProtos.ReportShuffleResultResponse.newBuilder()
+                  .setStatus(RssProtos.StatusCode.INTERNAL_ERROR)
+                  .setRetMsg(e.getMessage())
+                  .build();
+          responseObserver.onNext(reply);
+          responseObserver.onCompleted();
+          return;
+        }
+      }
     }
 
     RssProtos.ReportShuffleResultResponse reply =
         RssProtos.ReportShuffleResultResponse.newBuilder()
             .setStatus(RssProtos.StatusCode.SUCCESS)
+            .setSerializedBitmapSupported(true)
             .build();
     responseObserver.onNext(reply);
     responseObserver.onCompleted();
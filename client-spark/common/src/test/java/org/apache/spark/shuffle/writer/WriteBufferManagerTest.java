@@ -22,12 +22,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import com.google.common.collect.Maps;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.spark.SparkConf;
 import org.apache.spark.executor.ShuffleWriteMetrics;
@@ -43,6 +47,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +56,7 @@ import org.apache.uniffle.common.compression.Codec;
 import org.apache.uniffle.common.config.RssClientConf;
 import org.apache.uniffle.common.config.RssConf;
 import org.apache.uniffle.common.util.BlockIdLayout;
+import org.apache.uniffle.common.util.ChecksumUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -252,6 +258,95 @@ public class WriteBufferManagerTest {
     assertEquals(0, spyManager.getShuffleWriteMetrics().recordsWritten());
   }
 
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void addPartitionBatchTest(boolean passThrough) {
+    SparkConf conf = getConf();
+    TaskMemoryManager mockTaskMemoryManager = mock(TaskMemoryManager.class);
+    BufferManagerOptions bufferOptions = new BufferManagerOptions(conf);
+    RssConf rssConf = RssSparkConfig.toRssConf(conf);
+    rssConf.set(RssSparkConfig.RSS_ROW_BASED, false);
+    rssConf.set(RssSparkConfig.RSS_COLUMNAR_PASS_THROUGH_ENABLED, passThrough);
+    WriteBufferManager wbm =
+        new WriteBufferManager(
+            0,
+            0,
+            bufferOptions,
+            null,
+            Maps.newHashMap(),
+            mockTaskMemoryManager,
+            new ShuffleWriteMetrics(),
+            rssConf);
+    WriteBufferManager spyManager = spy(wbm);
+    doReturn(512L).when(spyManager).acquireMemory(anyLong());
+
+    byte[] data = new byte[80];
+    new Random().nextBytes(data);
+    ByteBuf batch1 = Unpooled.directBuffer(40).writeBytes(data, 0, 40);
+    ByteBuf batch2 = Unpooled.directBuffer(40).writeBytes(data, 40, 40);
+    List<ShuffleBlockInfo> shuffleBlockInfos = spyManager.addPartitionBatch(0, batch1);
+    assertEquals(1, spyManager.getBuffers().size());
+    assertEquals(0, shuffleBlockInfos.size());
+    assertEquals(40, spyManager.getUsedBytes());
+    shuffleBlockInfos = spyManager.addPartitionBatch(0, batch2);
+    assertEquals(0, spyManager.getBuffers().size());
+    assertEquals(1, shuffleBlockInfos.size());
+
+    ShuffleBlockInfo block = shuffleBlockInfos.get(0);
+    assertEquals(80, block.getUncompressLength());
+    assertEquals(80, block.getFreeMemory());
+    if (passThrough) {
+      // the batches are sent as they are
+      assertEquals(80, block.getLength());
+      assertEquals(
+          ChecksumUtils.getChecksum(rssConf.get(RssClientConf.CHECKSUM_ALGORITHM), data),
+          block.getCrc());
+      assertEquals(Unpooled.wrappedBuffer(data), block.getData());
+      assertEquals(2, ((CompositeByteBuf) block.getData()).numComponents());
+      assertTrue(((CompositeByteBuf) block.getData()).component(0).isDirect());
+    } else {
+      // the batches are copied to be compressed
+      assertEquals(0, batch1.refCnt());
+      assertEquals(0, batch2.refCnt());
+    }
+    spyManager.releaseBlockResource(block);
+    assertEquals(0, batch1.refCnt());
+    assertEquals(0, batch2.refCnt());
+  }
+
+  @Test
+  public void freeAllMemoryReleaseBatchesTest() {
+    SparkConf conf = getConf();
+    TaskMemoryManager mockTaskMemoryManager = mock(TaskMemoryManager.class);
+    BufferManagerOptions bufferOptions = new BufferManagerOptions(conf);
+    RssConf rssConf = RssSparkConfig.toRssConf(conf);
+    rssConf.set(RssSparkConfig.RSS_ROW_BASED, false);
+    rssConf.set(RssSparkConfig.RSS_COLUMNAR_PASS_THROUGH_ENABLED, true);
+    WriteBufferManager wbm =
+        new WriteBufferManager(
+            0,
+            0,
+            bufferOptions,
+            null,
+            Maps.newHashMap(),
+            mockTaskMemoryManager,
+            new ShuffleWriteMetrics(),
+            rssConf);
+    WriteBufferManager spyManager = spy(wbm);
+    doReturn(512L).when(spyManager).acquireMemory(anyLong());
+
+    ByteBuf batch = Unpooled.directBuffer(16).writeBytes(new byte[16]);
+    spyManager.addPartitionBatch(0, batch);
+    spyManager.addPartitionData(0, new byte[16]);
+    assertEquals(1, spyManager.getBuffers().size());
+    assertEquals(1, batch.refCnt());
+
+    // the batches of the discarded buffers are released
+    spyManager.freeAllMemory();
+    assertEquals(0, spyManager.getBuffers().size());
+    assertEquals(0, batch.refCnt());
+  }
+
   @ParameterizedTest
   @MethodSource("testBlockIdLayouts")
   public void createBlockIdTest(BlockIdLayout layout) {
@@ -435,6 +530,33 @@ public class WriteBufferManagerTest {
     Awaitility.await().timeout(5, TimeUnit.SECONDS).until(() -> spyManager.getUsedBytes() == 0);
   }
 
+  @Test
+  public void addRecordWithCompressionPipelineTest() {
+    SparkConf conf = getConf();
+    conf.set(
+        RssSparkConfig.SPARK_RSS_CONFIG_PREFIX
+            + RssSparkConfig.RSS_WRITE_COMPRESSION_PIPELINE_ENABLED.key(),
+        "true");
+    WriteBufferManager wbm = createManager(conf);
+    wbm.setShuffleWriteMetrics(new ShuffleWriteMetrics());
+    List<ShuffleBlockInfo> blocks = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      blocks.addAll(wbm.addRecord(i % 3, "Key" + i, "Value" + i));
+    }
+    blocks.addAll(wbm.clear(1.0));
+
+    assertEquals(0, wbm.getBuffers().size());
+    assertEquals(100, wbm.getRecordCount());
+    assertEquals(wbm.getBlockCount(), blocks.size());
+    assertEquals(
+        blocks.size(), blocks.stream().map(ShuffleBlockInfo::getBlockId).distinct().count());
+    assertEquals(
+        wbm.getShuffleWriteMetrics().bytesWritten(),
+        blocks.stream().mapToLong(ShuffleBlockInfo::getLength).sum());
+    assertEquals(
+        wbm.getInSendListBytes(), blocks.stream().mapToLong(ShuffleBlockInfo::getFreeMemory).sum());
+  }
+
   @Test
   public void testClearWithSpillRatio() {
     SparkConf conf = getConf();
@@ -54,10 +54,12 @@ import org.apache.uniffle.client.api.ShuffleManagerClient;
 import org.apache.uniffle.client.api.ShuffleReadClient;
 import org.apache.uniffle.client.factory.ShuffleClientFactory;
 import org.apache.uniffle.client.util.RssClientConfig;
+import org.apache.uniffle.common.ClientType;
 import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleServerInfo;
 import org.apache.uniffle.common.config.RssClientConf;
 import org.apache.uniffle.common.config.RssConf;
+import org.apache.uniffle.storage.handler.impl.LocalFileBatchReadContext;
 
 import static org.apache.spark.shuffle.RssSparkConfig.RSS_RESUBMIT_STAGE_WITH_FETCH_FAILURE_ENABLED;
 
@@ -243,6 +245,13 @@ public class RssShuffleReader<K, C> implements ShuffleReader<K, C> {
       if (numMaps <= 0) {
         return;
       }
+      // the local data of the coalesced partitions on the same shuffle server are read together
+      LocalFileBatchReadContext localFileBatchReadContext = null;
+      if (endPartition - startPartition > 1
+          && rssConf.get(RssClientConf.RSS_CLIENT_READ_LOCALFILE_BATCH_ENABLED)
+          && rssConf.get(RssClientConf.RSS_CLIENT_TYPE) == ClientType.GRPC_NETTY) {
+        localFileBatchReadContext = new LocalFileBatchReadContext();
+      }
       for (int partition = startPartition; partition < endPartition; partition++) {
         if (partitionToExpectBlocks.get(partition).isEmpty()) {
           LOG.info("{} partition is empty partition", partition);
@@ -280,6 +289,7 @@ public class RssShuffleReader<K, C> implements ShuffleReader<K, C> {
                         .expectedTaskIdsBitmapFilterEnable(expectedTaskIdsBitmapFilterEnable)
                         .retryMax(retryMax)
                         .retryIntervalMax(retryIntervalMax)
+                        .localFileBatchReadContext(localFileBatchReadContext)
                         .rssConf(rssConf));
         RssShuffleDataIterator<K, C> iterator =
             new RssShuffleDataIterator<>(
@@ -54,11 +54,13 @@ import org.apache.uniffle.client.response.SendShuffleDataResult;
 import org.apache.uniffle.common.ShuffleBlockInfo;
 import org.apache.uniffle.common.ShuffleServerInfo;
 import org.apache.uniffle.common.compression.Codec;
+import org.apache.uniffle.common.config.RssClientConf;
 import org.apache.uniffle.common.config.RssConf;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.serializer.SerializerFactory;
 import org.apache.uniffle.common.serializer.SerializerInstance;
 import org.apache.uniffle.common.util.BlockIdLayout;
+import org.apache.uniffle.common.util.ChecksumAlgorithm;
 import org.apache.uniffle.common.util.ChecksumUtils;
 import org.apache.uniffle.common.util.ThreadUtils;
 
@@ -90,6 +92,7 @@ public class WriteBufferManager<K, V> {
   private final double sendThreshold;
   private final int batch;
   private final Optional<Codec> codec;
+  private final ChecksumAlgorithm checksumAlgorithm;
   private final Map<Integer, List<ShuffleServerInfo>> partitionToServers;
   private final Set<Long> allBlockIds = Sets.newConcurrentHashSet();
   // server -> partitionId -> blockIds
@@ -168,6 +171,7 @@ public class WriteBufferManager<K, V> {
     this.sendThreshold = sendThreshold;
     this.batch = batch;
     this.codec = Codec.newInstance(rssConf);
+    this.checksumAlgorithm = rssConf.get(RssClientConf.CHECKSUM_ALGORITHM);
     this.partitionToServers = partitionToServers;
     this.numMaps = numMaps;
     this.isMemoryShuffleEnabled = isMemoryShuffleEnabled;
@@ -404,7 +408,7 @@ public class WriteBufferManager<K, V> {
 
     final byte[] compressed =
         useUniffleSerializer ? data : codec.map(c -> c.compress(data)).orElse(data);
-    final long crc32 = ChecksumUtils.getCrc32(compressed);
+    final long crc = ChecksumUtils.getChecksum(checksumAlgorithm, compressed);
     compressTime += System.currentTimeMillis() - start;
     final long blockId =
         RssTezUtils.getBlockId(partitionId, taskAttemptId, getNextSeqNo(partitionId));
@@ -422,7 +426,7 @@ public class WriteBufferManager<K, V> {
         partitionId,
         blockId,
         compressed.length,
-        crc32,
+        crc,
         compressed,
         partitionToServers.get(partitionId),
         uncompressLength,
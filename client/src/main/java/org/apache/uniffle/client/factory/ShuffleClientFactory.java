@@ -31,6 +31,7 @@ import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleServerInfo;
 import org.apache.uniffle.common.config.RssConf;
 import org.apache.uniffle.common.util.IdHelper;
+import org.apache.uniffle.storage.handler.impl.LocalFileBatchReadContext;
 
 public class ShuffleClientFactory {
 
@@ -224,6 +225,7 @@ public class ShuffleClientFactory {
     private ClientType clientType;
     private int retryMax;
     private long retryIntervalMax;
+    private LocalFileBatchReadContext localFileBatchReadContext;
 
     public ReadClientBuilder appId(String appId) {
       this.appId = appId;
@@ -332,6 +334,12 @@ public class ShuffleClientFactory {
       return this;
     }
 
+    public ReadClientBuilder localFileBatchReadContext(
+        LocalFileBatchReadContext localFileBatchReadContext) {
+      this.localFileBatchReadContext = localFileBatchReadContext;
+      return this;
+    }
+
     public ReadClientBuilder() {}
 
     public String getAppId() {
@@ -418,6 +426,10 @@ public class ShuffleClientFactory {
       return retryIntervalMax;
     }
 
+    public LocalFileBatchReadContext getLocalFileBatchReadContext() {
+      return localFileBatchReadContext;
+    }
+
     public ShuffleReadClientImpl build() {
       return new ShuffleReadClientImpl(this);
     }
@@ -48,6 +48,7 @@ import org.apache.uniffle.common.util.IdHelper;
 import org.apache.uniffle.common.util.RssUtils;
 import org.apache.uniffle.storage.factory.ShuffleHandlerFactory;
 import org.apache.uniffle.storage.handler.api.ClientReadHandler;
+import org.apache.uniffle.storage.handler.impl.LocalFileBatchReadContext;
 import org.apache.uniffle.storage.request.CreateShuffleReadHandlerRequest;
 
 public class ShuffleReadClientImpl implements ShuffleReadClient {
@@ -69,6 +70,7 @@ public class ShuffleReadClientImpl implements ShuffleReadClient {
   private ClientReadHandler clientReadHandler;
   private IdHelper idHelper;
   private BlockIdLayout blockIdLayout;
+  private LocalFileBatchReadContext localFileBatchReadContext;
 
   public ShuffleReadClientImpl(ShuffleClientFactory.ReadClientBuilder builder) {
     // add default value
@@ -151,6 +153,7 @@ public class ShuffleReadClientImpl implements ShuffleReadClient {
     this.idHelper = builder.getIdHelper();
     this.shuffleServerInfoList = builder.getShuffleServerInfoList();
     this.blockIdLayout = BlockIdLayout.from(builder.getRssConf());
+    this.localFileBatchReadContext = builder.getLocalFileBatchReadContext();
 
     CreateShuffleReadHandlerRequest request = new CreateShuffleReadHandlerRequest();
     request.setStorageType(builder.getStorageType());
@@ -173,6 +176,7 @@ public class ShuffleReadClientImpl implements ShuffleReadClient {
     request.setClientType(builder.getClientType());
     request.setRetryMax(builder.getRetryMax());
     request.setRetryIntervalMax(builder.getRetryIntervalMax());
+    request.setLocalFileBatchReadContext(localFileBatchReadContext);
     if (builder.isExpectedTaskIdsBitmapFilterEnable()) {
       request.useExpectedTaskIdsBitmapFilter();
     }
@@ -239,7 +243,9 @@ public class ShuffleReadClientImpl implements ShuffleReadClient {
           try {
             long start = System.currentTimeMillis();
             expectedCrc = bs.getCrc();
-            actualCrc = ChecksumUtils.getCrc32(readBuffer, bs.getOffset(), bs.getLength());
+            actualCrc =
+                ChecksumUtils.getActualChecksum(
+                    expectedCrc, readBuffer, bs.getOffset(), bs.getLength());
             crcCheckTime.addAndGet(System.currentTimeMillis() - start);
           } catch (Exception e) {
             LOG.warn("Can't read data for " + blockIdLayout.asBlockId(bs.getBlockId()), e);
@@ -337,6 +343,9 @@ public class ShuffleReadClientImpl implements ShuffleReadClient {
     if (clientReadHandler != null) {
       clientReadHandler.close();
     }
+    if (localFileBatchReadContext != null) {
+      localFileBatchReadContext.unregister(partitionId);
+    }
   }
 
   @Override
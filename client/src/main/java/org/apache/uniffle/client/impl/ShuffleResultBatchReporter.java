@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.client.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.client.api.ShuffleServerClient;
+import org.apache.uniffle.client.request.RssReportShuffleResultRequest;
+import org.apache.uniffle.client.response.RssReportShuffleResultResponse;
+import org.apache.uniffle.common.ShuffleServerInfo;
+import org.apache.uniffle.common.rpc.StatusCode;
+import org.apache.uniffle.common.util.JavaUtils;
+import org.apache.uniffle.common.util.ThreadUtils;
+
+/**
+ * Coalesces the shuffle results reported by the concurrent tasks of the same executor into batched
+ * requests per shuffle server.
+ *
+ * <p>There is at most one report request in flight for each shuffle server. The results reported
+ * while the request is in flight are queued, and sent together in the next request once it's
+ * finished, so the requests are batched only when the tasks finish at the same time and no latency
+ * is added otherwise. The future of a report is completed after the request containing it is
+ * acknowledged by the shuffle server, so the tasks can still wait for their own results being
+ * durable. The futures of the reports not acknowledged yet are completed with false when the
+ * reporter is closed.
+ */
+public class ShuffleResultBatchReporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ShuffleResultBatchReporter.class);
+
+  private final Function<ShuffleServerInfo, ShuffleServerClient> clientGetter;
+  private final int maxBlockIdsPerBatch;
+  private final boolean bitmapEncoded;
+  private final Map<ShuffleServerInfo, ServerReports> serverReports = JavaUtils.newConcurrentMap();
+  private final ExecutorService executor;
+  private volatile boolean closed = false;
+
+  public ShuffleResultBatchReporter(
+      Function<ShuffleServerInfo, ShuffleServerClient> clientGetter, int maxBlockIdsPerBatch) {
+    this(clientGetter, maxBlockIdsPerBatch, false);
+  }
+
+  public ShuffleResultBatchReporter(
+      Function<ShuffleServerInfo, ShuffleServerClient> clientGetter,
+      int maxBlockIdsPerBatch,
+      boolean bitmapEncoded) {
+    this.clientGetter = clientGetter;
+    this.maxBlockIdsPerBatch = maxBlockIdsPerBatch;
+    this.bitmapEncoded = bitmapEncoded;
+    this.executor = ThreadUtils.getDaemonCachedThreadPool("client-report-shuffle-result");
+  }
+
+  /**
+   * Report the shuffle result of a task to the shuffle server.
+   *
+   * @return the future which is completed with whether the shuffle server accepted the result
+   */
+  public CompletableFuture<Boolean> report(
+      ShuffleServerInfo ssi,
+      String appId,
+      int shuffleId,
+      long taskAttemptId,
+      int bitmapNum,
+      Map<Integer, Set<Long>> partitionToBlockIds) {
+    Report report = new Report(appId, shuffleId, taskAttemptId, bitmapNum, partitionToBlockIds);
+    ServerReports reports = serverReports.computeIfAbsent(ssi, k -> new ServerReports());
+    boolean startSending = false;
+    synchronized (reports) {
+      if (closed) {
+        report.future.complete(false);
+        return report.future;
+      }
+      reports.pending.add(report);
+      if (!reports.sending) {
+        reports.sending = true;
+        startSending = true;
+      }
+    }
+    if (startSending) {
+      try {
+        executor.execute(() -> sendReports(ssi, reports));
+      } catch (Exception e) {
+        List<Report> failed;
+        synchronized (reports) {
+          failed = new ArrayList<>(reports.pending);
+          reports.pending.clear();
+          reports.sending = false;
+        }
+        LOG.warn("Failed to schedule reporting shuffle result to {}", ssi, e);
+        failed.forEach(x -> x.future.complete(false));
+      }
+    }
+    return report.future;
+  }
+
+  public void close() {
+    closed = true;
+    executor.shutdownNow();
+    List<Report> unfinished = new ArrayList<>();
+    for (ServerReports reports : serverReports.values()) {
+      synchronized (reports) {
+        unfinished.addAll(reports.inFlight);
+        unfinished.addAll(reports.pending);
+        reports.inFlight.clear();
+        reports.pending.clear();
+      }
+    }
+    if (!unfinished.isEmpty()) {
+      LOG.warn("Reporting shuffle result of {} tasks is aborted by closing", unfinished.size());
+    }
+    unfinished.forEach(report -> report.future.complete(false));
+  }
+
+  private void sendReports(ShuffleServerInfo ssi, ServerReports reports) {
+    while (true) {
+      List<Report> batch;
+      synchronized (reports) {
+        batch = closed ? new ArrayList<>() : pollBatch(reports.pending);
+        if (batch.isEmpty()) {
+          reports.sending = false;
+          return;
+        }
+        reports.inFlight.addAll(batch);
+      }
+      boolean success = sendBatch(ssi, batch);
+      synchronized (reports) {
+        reports.inFlight.removeAll(batch);
+      }
+      batch.forEach(report -> report.future.complete(success));
+    }
+  }
+
+  /** Poll the pending reports of the same shuffle as the first one, up to the batch limit. */
+  private List<Report> pollBatch(Deque<Report> pending) {
+    List<Report> batch = new ArrayList<>();
+    if (pending.isEmpty()) {
+      return batch;
+    }
+    Report first = pending.pollFirst();
+    batch.add(first);
+    int blockIdNum = first.blockIdNum;
+    Iterator<Report> iterator = pending.iterator();
+    while (iterator.hasNext() && blockIdNum < maxBlockIdsPerBatch) {
+      Report report = iterator.next();
+      if (report.isSameShuffle(first) && blockIdNum + report.blockIdNum <= maxBlockIdsPerBatch) {
+        iterator.remove();
+        batch.add(report);
+        blockIdNum += report.blockIdNum;
+      }
+    }
+    return batch;
+  }
+
+  private boolean sendBatch(ShuffleServerInfo ssi, List<Report> batch) {
+    Report first = batch.get(0);
+    Map<Integer, List<Long>> partitionToBlockIds = new HashMap<>();
+    for (Report report : batch) {
+      for (Map.Entry<Integer, Set<Long>> entry : report.partitionToBlockIds.entrySet()) {
+        partitionToBlockIds
+            .computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+            .addAll(entry.getValue());
+      }
+    }
+    // the task attempt id is only used for logging by the shuffle server
+    RssReportShuffleResultRequest request =
+        new RssReportShuffleResultRequest(
+            first.appId,
+            first.shuffleId,
+            first.taskAttemptId,
+            partitionToBlockIds,
+            first.bitmapNum,
+            bitmapEncoded);
+    try {
+      RssReportShuffleResultResponse response =
+          clientGetter.apply(ssi).reportShuffleResult(request);
+      if (response.getStatusCode() == StatusCode.SUCCESS) {
+        LOG.info(
+            "Report shuffle result of {} tasks to {} for appId[{}], shuffleId[{}] successfully",
+            batch.size(),
+            ssi,
+            first.appId,
+            first.shuffleId);
+        return true;
+      }
+      LOG.warn(
+          "Report shuffle result of {} tasks to {} for appId[{}], shuffleId[{}] failed with {}",
+          batch.size(),
+          ssi,
+          first.appId,
+          first.shuffleId,
+          response.getStatusCode());
+    } catch (Exception e) {
+      LOG.warn(
+          "Report shuffle result of {} tasks is failed to {} for appId[{}], shuffleId[{}]",
+          batch.size(),
+          ssi,
+          first.appId,
+          first.shuffleId,
+          e);
+    }
+    return false;
+  }
+
+  private static class ServerReports {
+    private final Deque<Report> pending = new ArrayDeque<>();
+    // the reports being sent, they are completed by close if the request doesn't return
+    private final List<Report> inFlight = new ArrayList<>();
+    private boolean sending = false;
+  }
+
+  private static class Report {
+    private final String appId;
+    private final int shuffleId;
+    private final long taskAttemptId;
+    private final int bitmapNum;
+    private final Map<Integer, Set<Long>> partitionToBlockIds;
+    private final int blockIdNum;
+    private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+    Report(
+        String appId,
+        int shuffleId,
+        long taskAttemptId,
+        int bitmapNum,
+        Map<Integer, Set<Long>> partitionToBlockIds) {
+      this.appId = appId;
+      this.shuffleId = shuffleId;
+      this.taskAttemptId = taskAttemptId;
+      this.bitmapNum = bitmapNum;
+      this.partitionToBlockIds = partitionToBlockIds;
+      this.blockIdNum = partitionToBlockIds.values().stream().mapToInt(Set::size).sum();
+    }
+
+    boolean isSameShuffle(Report other) {
+      return Objects.equals(appId, other.appId)
+          && shuffleId == other.shuffleId
+          && bitmapNum == other.bitmapNum;
+    }
+  }
+}
@@ -88,6 +88,7 @@ import org.apache.uniffle.common.ShuffleAssignmentsInfo;
 import org.apache.uniffle.common.ShuffleBlockInfo;
 import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleServerInfo;
+import org.apache.uniffle.common.config.RssClientConf;
 import org.apache.uniffle.common.config.RssConf;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.exception.RssFetchFailedException;
@@ -123,6 +124,7 @@ public class ShuffleWriteClientImpl implements ShuffleWriteClient {
   private Set<ShuffleServerInfo> defectiveServers;
   private RssConf rssConf;
   private BlockIdLayout blockIdLayout;
+  private ShuffleResultBatchReporter shuffleResultBatchReporter;
 
   public ShuffleWriteClientImpl(ShuffleClientFactory.WriteClientBuilder builder) {
     // set default value
@@ -161,6 +163,13 @@ public class ShuffleWriteClientImpl implements ShuffleWriteClient {
     }
     this.rssConf = builder.getRssConf();
     this.blockIdLayout = BlockIdLayout.from(rssConf);
+    if (rssConf.get(RssClientConf.RSS_CLIENT_REPORT_SHUFFLE_RESULT_BATCH_ENABLED)) {
+      this.shuffleResultBatchReporter =
+          new ShuffleResultBatchReporter(
+              this::getShuffleServerClient,
+              rssConf.get(RssClientConf.RSS_CLIENT_REPORT_SHUFFLE_RESULT_BATCH_MAX_BLOCK_IDS),
+              rssConf.get(RssClientConf.RSS_CLIENT_REPORT_SHUFFLE_RESULT_BITMAP_ENABLED));
+    }
   }
 
   private boolean sendShuffleDataAsync(
@@ -720,65 +729,97 @@ public class ShuffleWriteClientImpl implements ShuffleWriteClient {
       int bitmapNum) {
     // record blockId count for quora check,but this is not a good realization.
     Map<Long, Integer> blockReportTracker = createBlockReportTracker(serverToPartitionToBlockIds);
-    for (Map.Entry<ShuffleServerInfo, Map<Integer, Set<Long>>> entry :
-        serverToPartitionToBlockIds.entrySet()) {
-      Map<Integer, Set<Long>> requestBlockIds = entry.getValue();
-      if (requestBlockIds.isEmpty()) {
-        continue;
+    if (shuffleResultBatchReporter != null) {
+      // the results are coalesced with the ones of the other tasks, wait for all of them
+      // being acknowledged to keep the results of this task durable once it's finished
+      Map<ShuffleServerInfo, CompletableFuture<Boolean>> futures = new HashMap<>();
+      for (Map.Entry<ShuffleServerInfo, Map<Integer, Set<Long>>> entry :
+          serverToPartitionToBlockIds.entrySet()) {
+        if (!entry.getValue().isEmpty()) {
+          futures.put(
+              entry.getKey(),
+              shuffleResultBatchReporter.report(
+                  entry.getKey(), appId, shuffleId, taskAttemptId, bitmapNum, entry.getValue()));
+        }
       }
-      RssReportShuffleResultRequest request =
-          new RssReportShuffleResultRequest(
-              appId,
-              shuffleId,
-              taskAttemptId,
-              requestBlockIds.entrySet().stream()
-                  .collect(Collectors.toMap(Map.Entry::getKey, e -> new ArrayList<>(e.getValue()))),
-              bitmapNum);
-      ShuffleServerInfo ssi = entry.getKey();
-      try {
-        RssReportShuffleResultResponse response =
-            getShuffleServerClient(ssi).reportShuffleResult(request);
-        if (response.getStatusCode() == StatusCode.SUCCESS) {
-          LOG.info(
-              "Report shuffle result to "
-                  + ssi
-                  + " for appId["
-                  + appId
-                  + "], shuffleId["
-                  + shuffleId
-                  + "] successfully");
-        } else {
-          LOG.warn(
-              "Report shuffle result to "
-                  + ssi
-                  + " for appId["
-                  + appId
-                  + "], shuffleId["
-                  + shuffleId
-                  + "] failed with "
-                  + response.getStatusCode());
+      for (Map.Entry<ShuffleServerInfo, CompletableFuture<Boolean>> entry : futures.entrySet()) {
+        if (!entry.getValue().join()) {
+          recordFailedBlockIds(blockReportTracker, serverToPartitionToBlockIds.get(entry.getKey()));
+        }
+      }
+    } else {
+      for (Map.Entry<ShuffleServerInfo, Map<Integer, Set<Long>>> entry :
+          serverToPartitionToBlockIds.entrySet()) {
+        Map<Integer, Set<Long>> requestBlockIds = entry.getValue();
+        if (requestBlockIds.isEmpty()) {
+          continue;
+        }
+        if (!reportShuffleResult(
+            entry.getKey(), appId, shuffleId, taskAttemptId, bitmapNum, requestBlockIds)) {
           recordFailedBlockIds(blockReportTracker, requestBlockIds);
         }
-      } catch (Exception e) {
-        LOG.warn(
-            "Report shuffle result is failed to "
+      }
+    }
+    if (blockReportTracker.values().stream().anyMatch(cnt -> cnt < replicaWrite)) {
+      throw new RssException(
+          "Quorum check of report shuffle result is failed for appId["
+              + appId
+              + "], shuffleId["
+              + shuffleId
+              + "]");
+    }
+  }
+
+  private boolean reportShuffleResult(
+      ShuffleServerInfo ssi,
+      String appId,
+      int shuffleId,
+      long taskAttemptId,
+      int bitmapNum,
+      Map<Integer, Set<Long>> requestBlockIds) {
+    RssReportShuffleResultRequest request =
+        new RssReportShuffleResultRequest(
+            appId,
+            shuffleId,
+            taskAttemptId,
+            requestBlockIds.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> new ArrayList<>(e.getValue()))),
+            bitmapNum,
+            rssConf.get(RssClientConf.RSS_CLIENT_REPORT_SHUFFLE_RESULT_BITMAP_ENABLED));
+    try {
+      RssReportShuffleResultResponse response =
+          getShuffleServerClient(ssi).reportShuffleResult(request);
+      if (response.getStatusCode() == StatusCode.SUCCESS) {
+        LOG.info(
+            "Report shuffle result to "
                 + ssi
                 + " for appId["
                 + appId
                 + "], shuffleId["
                 + shuffleId
-                + "]");
-        recordFailedBlockIds(blockReportTracker, requestBlockIds);
+                + "] successfully");
+        return true;
       }
-    }
-    if (blockReportTracker.values().stream().anyMatch(cnt -> cnt < replicaWrite)) {
-      throw new RssException(
-          "Quorum check of report shuffle result is failed for appId["
+      LOG.warn(
+          "Report shuffle result to "
+              + ssi
+              + " for appId["
+              + appId
+              + "], shuffleId["
+              + shuffleId
+              + "] failed with "
+              + response.getStatusCode());
+    } catch (Exception e) {
+      LOG.warn(
+          "Report shuffle result is failed to "
+              + ssi
+              + " for appId["
               + appId
               + "], shuffleId["
               + shuffleId
               + "]");
     }
+    return false;
   }
 
   private void recordFailedBlockIds(
@@ -866,7 +907,11 @@ public class ShuffleWriteClientImpl implements ShuffleWriteClient {
       allRequestedPartitionIds.addAll(requestPartitions);
       RssGetShuffleResultForMultiPartRequest request =
           new RssGetShuffleResultForMultiPartRequest(
-              appId, shuffleId, requestPartitions, blockIdLayout);
+              appId,
+              shuffleId,
+              requestPartitions,
+              blockIdLayout,
+              rssConf.get(RssClientConf.RSS_CLIENT_SHUFFLE_RESULT_PARTITION_BITMAPS_ENABLED));
       try {
         RssGetShuffleResultResponse response =
             getShuffleServerClient(shuffleServerInfo).getShuffleResultForMultiPart(request);
@@ -948,6 +993,9 @@ public class ShuffleWriteClientImpl implements ShuffleWriteClient {
       coordinatorClient.close();
     }
     dataTransferPool.shutdownNow();
+    if (shuffleResultBatchReporter != null) {
+      shuffleResultBatchReporter.close();
+    }
   }
 
   @Override
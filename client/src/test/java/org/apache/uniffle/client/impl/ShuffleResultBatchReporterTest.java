@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import org.apache.uniffle.client.api.ShuffleServerClient;
+import org.apache.uniffle.client.request.RssReportShuffleResultRequest;
+import org.apache.uniffle.client.response.RssReportShuffleResultResponse;
+import org.apache.uniffle.common.ShuffleServerInfo;
+import org.apache.uniffle.common.rpc.StatusCode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ShuffleResultBatchReporterTest {
+
+  private final ShuffleServerInfo ssi = new ShuffleServerInfo("127.0.0.1", 19999);
+
+  @Test
+  public void testCoalesceReports() throws Exception {
+    CountDownLatch firstRequestStarted = new CountDownLatch(1);
+    CountDownLatch firstRequestBlocked = new CountDownLatch(1);
+    List<RssReportShuffleResultRequest> requests = new ArrayList<>();
+    ShuffleServerClient client = mock(ShuffleServerClient.class);
+    when(client.reportShuffleResult(any()))
+        .thenAnswer(
+            invocation -> {
+              synchronized (requests) {
+                requests.add(invocation.getArgument(0));
+              }
+              firstRequestStarted.countDown();
+              firstRequestBlocked.await();
+              return new RssReportShuffleResultResponse(StatusCode.SUCCESS);
+            });
+    ShuffleResultBatchReporter reporter = new ShuffleResultBatchReporter(x -> client, 100);
+
+    final CompletableFuture<Boolean> first = reporter.report(ssi, "app", 0, 1L, 1, blockIds(0, 1L));
+    assertTrue(firstRequestStarted.await(10, TimeUnit.SECONDS));
+    // the reports arriving while the first request is in flight are sent together
+    final CompletableFuture<Boolean> second =
+        reporter.report(ssi, "app", 0, 2L, 1, blockIds(0, 2L));
+    final CompletableFuture<Boolean> third = reporter.report(ssi, "app", 0, 3L, 1, blockIds(1, 3L));
+    // the report of another shuffle is sent separately
+    final CompletableFuture<Boolean> fourth =
+        reporter.report(ssi, "app", 1, 4L, 1, blockIds(0, 4L));
+    assertFalse(second.isDone());
+    firstRequestBlocked.countDown();
+
+    assertTrue(first.get(10, TimeUnit.SECONDS));
+    assertTrue(second.get(10, TimeUnit.SECONDS));
+    assertTrue(third.get(10, TimeUnit.SECONDS));
+    assertTrue(fourth.get(10, TimeUnit.SECONDS));
+    assertEquals(3, requests.size());
+    Map<Integer, List<Long>> batched = requests.get(1).getPartitionToBlockIds();
+    assertEquals(2, batched.size());
+    assertEquals(Lists.newArrayList(2L), batched.get(0));
+    assertEquals(Lists.newArrayList(3L), batched.get(1));
+    assertEquals(1, requests.get(2).getShuffleId());
+    reporter.close();
+  }
+
+  @Test
+  public void testBatchLimitAndFailure() throws Exception {
+    CountDownLatch firstRequestStarted = new CountDownLatch(1);
+    CountDownLatch firstRequestBlocked = new CountDownLatch(1);
+    List<RssReportShuffleResultRequest> requests = new ArrayList<>();
+    ShuffleServerClient client = mock(ShuffleServerClient.class);
+    when(client.reportShuffleResult(any()))
+        .thenAnswer(
+            invocation -> {
+              synchronized (requests) {
+                requests.add(invocation.getArgument(0));
+              }
+              firstRequestStarted.countDown();
+              firstRequestBlocked.await();
+              return new RssReportShuffleResultResponse(StatusCode.INTERNAL_ERROR);
+            });
+    ShuffleResultBatchReporter reporter = new ShuffleResultBatchReporter(x -> client, 2);
+
+    final CompletableFuture<Boolean> first = reporter.report(ssi, "app", 0, 1L, 1, blockIds(0, 1L));
+    assertTrue(firstRequestStarted.await(10, TimeUnit.SECONDS));
+    final CompletableFuture<Boolean> second =
+        reporter.report(ssi, "app", 0, 2L, 1, blockIds(0, 2L, 3L));
+    final CompletableFuture<Boolean> third = reporter.report(ssi, "app", 0, 3L, 1, blockIds(0, 4L));
+    firstRequestBlocked.countDown();
+
+    assertFalse(first.get(10, TimeUnit.SECONDS));
+    assertFalse(second.get(10, TimeUnit.SECONDS));
+    assertFalse(third.get(10, TimeUnit.SECONDS));
+    // the second and the third reports exceed the limit together
+    assertEquals(3, requests.size());
+    reporter.close();
+  }
+
+  @Test
+  public void testCloseWithReportsInFlight() throws Exception {
+    CountDownLatch requestStarted = new CountDownLatch(1);
+    CountDownLatch requestBlocked = new CountDownLatch(1);
+    ShuffleServerClient client = mock(ShuffleServerClient.class);
+    when(client.reportShuffleResult(any()))
+        .thenAnswer(
+            invocation -> {
+              requestStarted.countDown();
+              // ignore the interruption like a blocking rpc
+              while (requestBlocked.getCount() > 0) {
+                try {
+                  requestBlocked.await();
+                } catch (InterruptedException e) {
+                  // continue waiting
+                }
+              }
+              return new RssReportShuffleResultResponse(StatusCode.SUCCESS);
+            });
+    ShuffleResultBatchReporter reporter = new ShuffleResultBatchReporter(x -> client, 100);
+
+    final CompletableFuture<Boolean> inFlight =
+        reporter.report(ssi, "app", 0, 1L, 1, blockIds(0, 1L));
+    assertTrue(requestStarted.await(10, TimeUnit.SECONDS));
+    final CompletableFuture<Boolean> pending =
+        reporter.report(ssi, "app", 0, 2L, 1, blockIds(0, 2L));
+    reporter.close();
+
+    assertFalse(inFlight.get(10, TimeUnit.SECONDS));
+    assertFalse(pending.get(10, TimeUnit.SECONDS));
+    // the reports after closing are failed immediately
+    assertFalse(reporter.report(ssi, "app", 0, 3L, 1, blockIds(0, 3L)).get(10, TimeUnit.SECONDS));
+    requestBlocked.countDown();
+  }
+
+  private static Map<Integer, Set<Long>> blockIds(int partitionId, Long... blockIds) {
+    return ImmutableMap.of(partitionId, Sets.newHashSet(blockIds));
+  }
+}
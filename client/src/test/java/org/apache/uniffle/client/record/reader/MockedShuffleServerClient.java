@@ -30,7 +30,10 @@ import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.apache.uniffle.client.api.ShuffleServerClient;
 import org.apache.uniffle.client.request.RssAppHeartBeatRequest;
 import org.apache.uniffle.client.request.RssFinishShuffleRequest;
+import org.apache.uniffle.client.request.RssGetFilteredShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetInMemoryShuffleDataRequest;
+import org.apache.uniffle.client.request.RssGetShuffleDataBatchRequest;
+import org.apache.uniffle.client.request.RssGetShuffleDataFileRequest;
 import org.apache.uniffle.client.request.RssGetShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetShuffleIndexRequest;
 import org.apache.uniffle.client.request.RssGetShuffleResultForMultiPartRequest;
@@ -45,7 +48,10 @@ import org.apache.uniffle.client.request.RssUnregisterShuffleByAppIdRequest;
 import org.apache.uniffle.client.request.RssUnregisterShuffleRequest;
 import org.apache.uniffle.client.response.RssAppHeartBeatResponse;
 import org.apache.uniffle.client.response.RssFinishShuffleResponse;
+import org.apache.uniffle.client.response.RssGetFilteredShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetInMemoryShuffleDataResponse;
+import org.apache.uniffle.client.response.RssGetShuffleDataBatchResponse;
+import org.apache.uniffle.client.response.RssGetShuffleDataFileResponse;
 import org.apache.uniffle.client.response.RssGetShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetShuffleIndexResponse;
 import org.apache.uniffle.client.response.RssGetShuffleResultResponse;
@@ -201,6 +207,22 @@ public class MockedShuffleServerClient implements ShuffleServerClient {
     return null;
   }
 
+  @Override
+  public RssGetFilteredShuffleDataResponse getFilteredShuffleData(
+      RssGetFilteredShuffleDataRequest request) {
+    return null;
+  }
+
+  @Override
+  public RssGetShuffleDataFileResponse getShuffleDataFile(RssGetShuffleDataFileRequest request) {
+    return null;
+  }
+
+  @Override
+  public RssGetShuffleDataBatchResponse getShuffleDataBatch(RssGetShuffleDataBatchRequest request) {
+    return null;
+  }
+
   @Override
   public void close() {}
 
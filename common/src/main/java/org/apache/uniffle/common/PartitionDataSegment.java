@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common;
+
+import java.util.List;
+
+/**
+ * PartitionDataSegment is the data of one partition in a batched read of many partitions. The data
+ * of the partitions are concatenated in the response, and the offsets of the BufferSegments are
+ * relative to the data of this partition.
+ */
+public class PartitionDataSegment {
+  private final int partitionId;
+  private final int length;
+  private final List<BufferSegment> bufferSegments;
+  // the data file offset to continue reading from, -1 if there are no more expected blocks
+  private final long nextOffset;
+
+  public PartitionDataSegment(
+      int partitionId, int length, List<BufferSegment> bufferSegments, long nextOffset) {
+    this.partitionId = partitionId;
+    this.length = length;
+    this.bufferSegments = bufferSegments;
+    this.nextOffset = nextOffset;
+  }
+
+  public int getPartitionId() {
+    return partitionId;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public List<BufferSegment> getBufferSegments() {
+    return bufferSegments;
+  }
+
+  public long getNextOffset() {
+    return nextOffset;
+  }
+}
@@ -224,6 +224,9 @@ public class ConfigUtils {
 
   public static final Function<Integer, Boolean> POSITIVE_INTEGER_VALIDATOR_2 = value -> value > 0;
 
+  public static final Function<Integer, Boolean> NON_NEGATIVE_INTEGER_VALIDATOR =
+      value -> value >= 0;
+
   public static final Function<Double, Boolean> PERCENTAGE_DOUBLE_VALIDATOR =
       value -> Double.compare(value, 100.0) <= 0 && Double.compare(value, 0.0) >= 0;
 }
@@ -176,6 +176,15 @@ public class RssBaseConf extends RssConf {
           .noDefaultValue()
           .withDescription("Common storage path for remote shuffle data");
 
+  public static final ConfigOption<List<Double>> RSS_RPC_METRICS_LATENCY_BUCKETS =
+      ConfigOptions.key("rss.rpc.metrics.latencyBuckets")
+          .doubleType()
+          .asList()
+          .defaultValues(
+              0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 30.0, 60.0)
+          .withDescription(
+              "The upper bounds in seconds of the buckets of the RPC latency histograms");
+
   public static final ConfigOption<Integer> RPC_EXECUTOR_SIZE =
       ConfigOptions.key("rss.rpc.executor.size")
           .intType()
@@ -323,6 +332,23 @@ public class RssBaseConf extends RssConf {
           .defaultValue("8k")
           .withDescription("The buffer size to cache the write index content for HDFS.");
 
+  public static final ConfigOption<Boolean> RSS_STORAGE_HDFS_CONSOLIDATED_ENABLED =
+      ConfigOptions.key("rss.storage.hdfs.consolidated.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to append the data of all the partitions of a shuffle into a few "
+                  + "consolidated files instead of the files per partition for HDFS.");
+
+  public static final ConfigOption<Integer> RSS_STORAGE_HDFS_CONSOLIDATED_FILE_NUMBER =
+      ConfigOptions.key("rss.storage.hdfs.consolidated.fileNumber")
+          .intType()
+          .checkValue(ConfigUtils.POSITIVE_INTEGER_VALIDATOR_2, "file number must be positive")
+          .defaultValue(4)
+          .withDescription(
+              "The max number of the consolidated files written concurrently for a shuffle "
+                  + "by a shuffle server.");
+
   public boolean loadConfFromFile(String fileName, List<ConfigOption<Object>> configOptions) {
     Map<String, String> properties = RssUtils.getPropertiesFromFile(fileName);
     if (properties == null) {
@@ -24,6 +24,7 @@ import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.compression.Codec;
 import org.apache.uniffle.common.netty.IOMode;
 import org.apache.uniffle.common.util.BlockIdLayout;
+import org.apache.uniffle.common.util.ChecksumAlgorithm;
 
 import static org.apache.uniffle.common.compression.Codec.Type.LZ4;
 
@@ -52,6 +53,15 @@ public class RssClientConf {
           .defaultValue(3)
           .withDescription("The zstd compression level, the default level is 3");
 
+  public static final ConfigOption<ChecksumAlgorithm> CHECKSUM_ALGORITHM =
+      ConfigOptions.key("rss.client.checksum.algorithm")
+          .enumType(ChecksumAlgorithm.class)
+          .defaultValue(ChecksumAlgorithm.CRC32)
+          .withDescription(
+              "The checksum algorithm of the shuffle blocks written by the client, available "
+                  + "options: CRC32, CRC32C, XXHASH64 and NONE. The algorithm is recorded in the "
+                  + "checksum of every block, so the reader verifies the blocks of any algorithm.");
+
   public static final ConfigOption<ShuffleDataDistributionType> DATA_DISTRIBUTION_TYPE =
       ConfigOptions.key("rss.client.shuffle.data.distribution.type")
           .enumType(ShuffleDataDistributionType.class)
@@ -105,6 +115,17 @@ public class RssClientConf {
           .withDescription(
               "The timeout value in milliseconds for gRPC and Netty Type RPC Clients, including ShuffleServerClient and ShuffleManagerClient.");
 
+  public static final ConfigOption<Long> REQUIRE_BUFFER_WAIT_TIMEOUT_MS =
+      ConfigOptions.key("rss.client.requireBuffer.waitTimeoutMs")
+          .longType()
+          .checkValue(ConfigUtils.NON_NEGATIVE_LONG_VALIDATOR, "wait timeout must be non-negative")
+          .defaultValue(0L)
+          .withDescription(
+              "The max time in milliseconds the shuffle server holds a require buffer request "
+                  + "when there is no enough memory, instead of failing it and letting the client "
+                  + "sleep and retry. 0 means disabled. The server caps it by "
+                  + "rss.server.requireBuffer.maxWaitTimeoutMs.");
+
   public static final ConfigOption<Integer> RPC_MAX_ATTEMPTS =
       ConfigOptions.key("rss.client.rpc.maxAttempts")
           .intType()
@@ -145,7 +166,9 @@ public class RssClientConf {
       ConfigOptions.key("rss.client.netty.io.mode")
           .enumType(IOMode.class)
           .defaultValue(IOMode.NIO)
-          .withDescription("Netty EventLoopGroup backend, available options: NIO, EPOLL.");
+          .withDescription(
+              "Netty EventLoopGroup backend, available options: NIO, EPOLL, IO_URING. "
+                  + "IO_URING falls back to EPOLL or NIO when it isn't available.");
 
   public static final ConfigOption<Integer> NETTY_IO_CONNECTION_TIMEOUT_MS =
       ConfigOptions.key("rss.client.netty.client.connection.timeout.ms")
@@ -198,6 +221,15 @@ public class RssClientConf {
           .defaultValue(2)
           .withDescription("Number of concurrent connections between client and ShuffleServer.");
 
+  public static final ConfigOption<Boolean> NETTY_CLIENT_LEAST_OUTSTANDING_CONNECTION_ENABLED =
+      ConfigOptions.key("rss.client.netty.client.leastOutstanding.enabled")
+          .booleanType()
+          .defaultValue(true)
+          .withDescription(
+              "Whether to pick the connection with the least outstanding requests to a "
+                  + "ShuffleServer instead of a random one, a new connection is only created "
+                  + "when all the active connections have outstanding requests.");
+
   public static final ConfigOption<Integer> NETTY_CLIENT_RECEIVE_BUFFER =
       ConfigOptions.key("rss.client.netty.client.receive.buffer")
           .intType()
@@ -242,6 +274,78 @@ public class RssClientConf {
           .defaultValue("14m")
           .withDescription("The max data size read from storage");
 
+  public static final ConfigOption<Boolean> RSS_CLIENT_READ_BUFFER_ADAPTIVE_ENABLED =
+      ConfigOptions.key("rss.client.read.buffer.adaptive.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to tune the read buffer size of the memory and local file reads from the "
+                  + "observed latency and throughput, starting with rss.client.read.buffer.size");
+
+  public static final ConfigOption<String> RSS_CLIENT_READ_BUFFER_ADAPTIVE_MIN_SIZE =
+      ConfigOptions.key("rss.client.read.buffer.adaptive.minSize")
+          .stringType()
+          .defaultValue("1m")
+          .withDescription("The min read buffer size when the adaptive read buffer is enabled");
+
+  public static final ConfigOption<String> RSS_CLIENT_READ_BUFFER_ADAPTIVE_MAX_SIZE =
+      ConfigOptions.key("rss.client.read.buffer.adaptive.maxSize")
+          .stringType()
+          .defaultValue("64m")
+          .withDescription("The max read buffer size when the adaptive read buffer is enabled");
+
+  public static final ConfigOption<Long> RSS_CLIENT_READ_BUFFER_ADAPTIVE_TARGET_LATENCY_MS =
+      ConfigOptions.key("rss.client.read.buffer.adaptive.targetLatencyMs")
+          .longType()
+          .checkValue(ConfigUtils.POSITIVE_LONG_VALIDATOR, "The value must be positive")
+          .defaultValue(500L)
+          .withDescription(
+              "The read buffer size is halved once a read takes longer than this latency");
+
+  public static final ConfigOption<Integer> RSS_CLIENT_READ_HADOOP_READ_AHEAD_NUM =
+      ConfigOptions.key("rss.client.read.hadoop.readAheadNum")
+          .intType()
+          .checkValue(ConfigUtils.NON_NEGATIVE_INTEGER_VALIDATOR, "The value must be non-negative")
+          .defaultValue(0)
+          .withDescription(
+              "The number of the following Hadoop files whose first data segment is read ahead "
+                  + "concurrently when reading a partition from Hadoop storage, 0 means disabled");
+
+  public static final ConfigOption<Boolean> RSS_CLIENT_READ_HADOOP_CONSOLIDATED_ENABLED =
+      ConfigOptions.key("rss.client.read.hadoop.consolidated.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to read the consolidated files written by the shuffle servers with "
+                  + "rss.storage.hdfs.consolidated.enabled besides the files per partition");
+
+  public static final ConfigOption<Boolean> RSS_CLIENT_READ_LOCALFILE_SERVER_FILTER_ENABLED =
+      ConfigOptions.key("rss.client.read.localfile.serverFilter.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to let the shuffle servers filter the blocks of the expected tasks when "
+                  + "reading LOCAL_ORDER partitions from local files, instead of fetching the "
+                  + "whole index to the client");
+
+  public static final ConfigOption<Boolean> RSS_CLIENT_READ_LOCALFILE_SHORT_CIRCUIT_ENABLED =
+      ConfigOptions.key("rss.client.read.localfile.shortCircuit.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to map the local data files of the shuffle servers on the same host into "
+                  + "memory directly, instead of fetching the data through the network. It only "
+                  + "works with the GRPC and GRPC_NETTY client types");
+
+  public static final ConfigOption<Boolean> RSS_CLIENT_READ_LOCALFILE_BATCH_ENABLED =
+      ConfigOptions.key("rss.client.read.localfile.batch.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether the reducer of coalesced partitions reads the local data of many partitions "
+                  + "on the same shuffle server in one request. It only works with the GRPC_NETTY "
+                  + "client type on Spark 3, as Spark 2 doesn't coalesce the partitions");
+
   public static final ConfigOption<ClientType> RSS_CLIENT_TYPE =
       ConfigOptions.key("rss.client.type")
           .enumType(ClientType.class)
@@ -264,6 +368,43 @@ public class RssClientConf {
           .withDescription(
               "Whether to support rss client block send failure retry, default value is false.");
 
+  public static final ConfigOption<Boolean> RSS_CLIENT_REPORT_SHUFFLE_RESULT_BATCH_ENABLED =
+      ConfigOptions.key("rss.client.reportShuffleResult.batch.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to coalesce the shuffle results reported by the concurrent tasks of the "
+                  + "same executor into batched requests per shuffle server. The task still waits "
+                  + "for its own result being acknowledged before it's finished.");
+
+  public static final ConfigOption<Integer> RSS_CLIENT_REPORT_SHUFFLE_RESULT_BATCH_MAX_BLOCK_IDS =
+      ConfigOptions.key("rss.client.reportShuffleResult.batch.maxBlockIds")
+          .intType()
+          .checkValue(ConfigUtils.POSITIVE_INTEGER_VALIDATOR_2, "max block ids must be positive")
+          .defaultValue(100000)
+          .withDescription(
+              "The max number of block ids in a batched report shuffle result request, "
+                  + "the result of a single task is never split");
+
+  public static final ConfigOption<Boolean> RSS_CLIENT_REPORT_SHUFFLE_RESULT_BITMAP_ENABLED =
+      ConfigOptions.key("rss.client.reportShuffleResult.bitmap.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to report the block ids of each partition as a serialized Roaring bitmap "
+                  + "instead of the raw block ids, which shrinks the request and lets the "
+                  + "receiver merge them in bulk. The old shuffle servers which don't acknowledge "
+                  + "the bitmaps are sent the raw block ids again.");
+
+  public static final ConfigOption<Boolean> RSS_CLIENT_SHUFFLE_RESULT_PARTITION_BITMAPS_ENABLED =
+      ConfigOptions.key("rss.client.shuffleResult.partitionBitmaps.enabled")
+          .booleanType()
+          .defaultValue(true)
+          .withDescription(
+              "Whether to request the block ids of each partition separately when getting the "
+                  + "shuffle result of multiple partitions, so the shuffle server can serve the "
+                  + "cached serialized block ids and the client merges them one by one.");
+
   public static final ConfigOption<Integer> RSS_CLIENT_REMOTE_MERGE_FETCH_INIT_SLEEP_MS =
       ConfigOptions.key("rss.client.remote.merge.fetch.initSleepMs")
           .intType()
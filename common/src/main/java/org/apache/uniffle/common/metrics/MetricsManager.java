@@ -120,6 +120,10 @@ public class MetricsManager {
         .register(collectorRegistry);
   }
 
+  public Histogram.Child addLabeledHistogram(String name, double[] buckets) {
+    return addHistogram(name, buckets, defaultLabelNames).labels(defaultLabelValues);
+  }
+
   public Summary addSummary(String name) {
     Summary.Builder builder = Summary.build().name(name).help("Summary " + name);
     for (int i = 0; i < QUANTILES.length; i++) {
@@ -19,5 +19,10 @@ package org.apache.uniffle.common.netty;
 
 public enum IOMode {
   NIO,
-  EPOLL
+  EPOLL,
+  /**
+   * The io_uring transport of netty, which needs the netty-incubator-transport-native-io_uring
+   * jar in the classpath and a kernel supporting io_uring, it falls back to EPOLL or NIO if not.
+   */
+  IO_URING
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common.netty.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCountUtil;
+
+import org.apache.uniffle.common.netty.protocol.CompositeFileRegion;
+
+/** A ManagedBuffer made of other ManagedBuffers, which are kept zero-copy when sent by Netty. */
+public class CompositeManagedBuffer extends ManagedBuffer {
+
+  private final List<ManagedBuffer> buffers;
+  private final int size;
+
+  public CompositeManagedBuffer(List<ManagedBuffer> buffers) {
+    this.buffers = buffers;
+    this.size = buffers.stream().mapToInt(ManagedBuffer::size).sum();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public ByteBuf byteBuf() {
+    return Unpooled.wrappedBuffer(this.nioByteBuffer());
+  }
+
+  @Override
+  public ByteBuffer nioByteBuffer() {
+    ByteBuffer buf = ByteBuffer.allocate(size);
+    for (ManagedBuffer buffer : buffers) {
+      buf.put(buffer.nioByteBuffer().duplicate());
+    }
+    buf.flip();
+    return buf;
+  }
+
+  @Override
+  public ManagedBuffer retain() {
+    buffers.forEach(ManagedBuffer::retain);
+    return this;
+  }
+
+  @Override
+  public ManagedBuffer release() {
+    buffers.forEach(ManagedBuffer::release);
+    return this;
+  }
+
+  @Override
+  public Object convertToNetty() {
+    List<Object> parts = Lists.newArrayListWithCapacity(buffers.size());
+    try {
+      for (ManagedBuffer buffer : buffers) {
+        parts.add(buffer.convertToNetty());
+      }
+    } catch (RuntimeException e) {
+      parts.forEach(ReferenceCountUtil::release);
+      throw e;
+    }
+    return new CompositeFileRegion(parts);
+  }
+}
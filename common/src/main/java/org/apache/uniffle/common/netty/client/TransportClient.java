@@ -65,6 +65,11 @@ public class TransportClient implements Closeable {
     return channel.remoteAddress();
   }
 
+  /** The number of the requests sent through this connection and waiting for the response. */
+  public int getNumOutstandingRequests() {
+    return handler.numOutstandingRequests();
+  }
+
   public ChannelFuture sendRpc(Message message, RpcResponseCallback callback) {
     if (logger.isTraceEnabled()) {
       logger.trace("Pushing data to {}", NettyUtils.getRemoteAddress(channel));
@@ -93,6 +98,8 @@ public class TransportClient implements Closeable {
     try {
       return result.get(timeoutMs, TimeUnit.MILLISECONDS);
     } catch (Exception e) {
+      // the response won't be waited for any more, so it isn't outstanding
+      handler.removeRpcRequest(message.getRequestId());
       throw new RssException(e);
     }
   }
@@ -72,6 +72,8 @@ public class TransportClientFactory implements Closeable {
 
   private final int numConnectionsPerPeer;
 
+  private final boolean leastOutstandingConnectionEnabled;
+
   private final Class<? extends Channel> socketChannelClass;
   private EventLoopGroup workerGroup;
   private ByteBufAllocator byteBufAllocator;
@@ -81,9 +83,10 @@ public class TransportClientFactory implements Closeable {
     this.conf = context.getConf();
     this.connectionPool = JavaUtils.newConcurrentMap();
     this.numConnectionsPerPeer = conf.numConnectionsPerPeer();
+    this.leastOutstandingConnectionEnabled = conf.isLeastOutstandingConnectionEnabled();
     this.rand = new Random();
 
-    IOMode ioMode = conf.ioMode();
+    IOMode ioMode = NettyUtils.resolveIOMode(conf.ioMode());
     this.socketChannelClass = NettyUtils.getClientChannelClass(ioMode);
     int clientThreads =
         conf.clientThreads() > 0
@@ -133,7 +136,7 @@ public class TransportClientFactory implements Closeable {
             unresolvedAddress, x -> new ClientPool(numConnectionsPerPeer));
 
     int clientIndex =
-        partitionId < 0 ? rand.nextInt(numConnectionsPerPeer) : partitionId % numConnectionsPerPeer;
+        partitionId < 0 ? pickClientIndex(clientPool) : partitionId % numConnectionsPerPeer;
     TransportClient cachedClient = clientPool.clients[clientIndex];
 
     if (cachedClient != null && cachedClient.isActive()) {
@@ -187,6 +190,44 @@ public class TransportClientFactory implements Closeable {
     return createClient(remoteHost, remotePort, -1);
   }
 
+  /**
+   * Pick the active connection with the least outstanding requests. An empty or inactive slot is
+   * picked to create a new connection only when all the active connections are busy, so the
+   * requests are spread over the connections by their load instead of randomly.
+   */
+  private int pickClientIndex(ClientPool clientPool) {
+    // start from a random slot so that the ties are not always broken by the first slot
+    int start = rand.nextInt(numConnectionsPerPeer);
+    if (!leastOutstandingConnectionEnabled) {
+      return start;
+    }
+    int leastIndex = -1;
+    int leastOutstanding = Integer.MAX_VALUE;
+    int emptyIndex = -1;
+    for (int i = 0; i < numConnectionsPerPeer; i++) {
+      int index = (start + i) % numConnectionsPerPeer;
+      TransportClient client = clientPool.clients[index];
+      if (client == null || !client.isActive()) {
+        if (emptyIndex < 0) {
+          emptyIndex = index;
+        }
+        continue;
+      }
+      int outstanding = client.getNumOutstandingRequests();
+      if (outstanding < leastOutstanding) {
+        leastIndex = index;
+        leastOutstanding = outstanding;
+      }
+    }
+    if (leastIndex < 0 || (leastOutstanding > 0 && emptyIndex >= 0)) {
+      return emptyIndex;
+    }
+    if (logger.isTraceEnabled()) {
+      logger.trace("Pick connection {} with {} outstanding requests", leastIndex, leastOutstanding);
+    }
+    return leastIndex;
+  }
+
   /**
    * Create a completely new {@link TransportClient} to the given remote host / port. This
    * connection is not pooled.
@@ -53,6 +53,10 @@ public class TransportConf {
     return rssConf.get(RssClientConf.NETTY_CLIENT_NUM_CONNECTIONS_PER_PEER);
   }
 
+  public boolean isLeastOutstandingConnectionEnabled() {
+    return rssConf.get(RssClientConf.NETTY_CLIENT_LEAST_OUTSTANDING_CONNECTION_ENABLED);
+  }
+
   public boolean preferDirectBufs() {
     return rssConf.get(RssClientConf.NETTY_CLIENT_PREFER_DIRECT_BUFS);
   }
@@ -59,7 +59,7 @@ public class TransportResponseHandler extends MessageHandler<RpcResponse> {
 
   @Override
   public void handle(RpcResponse message) throws Exception {
-    RpcResponseCallback listener = outstandingRpcRequests.get(message.getRequestId());
+    RpcResponseCallback listener = outstandingRpcRequests.remove(message.getRequestId());
     if (listener == null) {
       logger.error(
           "Ignoring response from {} since it is not outstanding, {} {}",
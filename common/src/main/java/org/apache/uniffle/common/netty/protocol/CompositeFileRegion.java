@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common.netty.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.FileRegion;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * A FileRegion which transfers a list of parts in order, so the data of many files can be sent in
+ * one message without copying them into memory first.
+ *
+ * <p>Each part must be either a {@link ByteBuf} or a {@link FileRegion}, and is released when this
+ * region is deallocated.
+ */
+public class CompositeFileRegion extends AbstractFileRegion {
+
+  private final List<Object> parts;
+  private final long count;
+  private int currentPart;
+  private long totalBytesTransferred;
+
+  public CompositeFileRegion(List<Object> parts) {
+    long count = 0;
+    for (Object part : parts) {
+      Preconditions.checkArgument(
+          part instanceof ByteBuf || part instanceof FileRegion,
+          "Part must be a ByteBuf or a FileRegion.");
+      count +=
+          part instanceof ByteBuf ? ((ByteBuf) part).readableBytes() : ((FileRegion) part).count();
+    }
+    this.parts = parts;
+    this.count = count;
+  }
+
+  @Override
+  public long count() {
+    return count;
+  }
+
+  @Override
+  public long position() {
+    return 0;
+  }
+
+  @Override
+  public long transferred() {
+    return totalBytesTransferred;
+  }
+
+  @Override
+  public long transferTo(WritableByteChannel target, long position) throws IOException {
+    Preconditions.checkArgument(position == totalBytesTransferred, "Invalid position.");
+    long written = 0;
+    while (currentPart < parts.size()) {
+      Object part = parts.get(currentPart);
+      boolean finished;
+      if (part instanceof FileRegion) {
+        FileRegion region = (FileRegion) part;
+        written += region.transferTo(target, region.transferred());
+        finished = region.transferred() >= region.count();
+      } else {
+        ByteBuf buf = (ByteBuf) part;
+        written += copyByteBuf(buf, target);
+        finished = !buf.isReadable();
+      }
+      if (!finished) {
+        // the target can't accept more data now
+        break;
+      }
+      currentPart++;
+    }
+    totalBytesTransferred += written;
+    return written;
+  }
+
+  private int copyByteBuf(ByteBuf buf, WritableByteChannel target) throws IOException {
+    int written = 0;
+    for (ByteBuffer buffer : buf.nioBuffers()) {
+      int remaining = buffer.remaining();
+      int w = target.write(buffer);
+      written += w;
+      if (w < remaining) {
+        break;
+      }
+    }
+    buf.skipBytes(written);
+    return written;
+  }
+
+  @Override
+  protected void deallocate() {
+    parts.forEach(ReferenceCountUtil::release);
+  }
+
+  @Override
+  public CompositeFileRegion touch(Object o) {
+    super.touch(o);
+    parts.forEach(part -> ReferenceCountUtil.touch(part, o));
+    return this;
+  }
+}
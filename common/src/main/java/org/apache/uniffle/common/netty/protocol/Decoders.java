@@ -25,6 +25,7 @@ import com.google.common.collect.Maps;
 import io.netty.buffer.ByteBuf;
 
 import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.PartitionDataSegment;
 import org.apache.uniffle.common.ShuffleBlockInfo;
 import org.apache.uniffle.common.ShufflePartitionedBlock;
 import org.apache.uniffle.common.ShuffleServerInfo;
@@ -48,7 +49,7 @@ public class Decoders {
     long crc = byteBuf.readLong();
     long taskAttemptId = byteBuf.readLong();
     int dataLength = byteBuf.readInt();
-    ByteBuf data = NettyUtils.getSharedUnpooledByteBufAllocator(true).directBuffer(dataLength);
+    ByteBuf data = NettyUtils.getShuffleDataAllocator().directBuffer(dataLength);
     data.writeBytes(byteBuf, dataLength);
     int lengthOfShuffleServers = byteBuf.readInt();
     List<ShuffleServerInfo> serverInfos = Lists.newArrayList();
@@ -83,7 +84,7 @@ public class Decoders {
     final long crc = byteBuf.readLong();
     final long taskAttemptId = byteBuf.readLong();
     int dataLength = byteBuf.readInt();
-    ByteBuf data = NettyUtils.getSharedUnpooledByteBufAllocator(true).directBuffer(dataLength);
+    ByteBuf data = NettyUtils.getShuffleDataAllocator().directBuffer(dataLength);
     data.writeBytes(byteBuf, dataLength);
     int lengthOfShuffleServers = byteBuf.readInt();
     List<ShuffleServerInfo> serverInfos = Lists.newArrayList();
@@ -127,4 +128,18 @@ public class Decoders {
     }
     return bufferSegments;
   }
+
+  public static List<PartitionDataSegment> decodePartitionDataSegments(ByteBuf byteBuf) {
+    List<PartitionDataSegment> partitionDataSegments = Lists.newArrayList();
+    int size = byteBuf.readInt();
+    for (int i = 0; i < size; i++) {
+      int partitionId = byteBuf.readInt();
+      int length = byteBuf.readInt();
+      long nextOffset = byteBuf.readLong();
+      List<BufferSegment> bufferSegments = decodeBufferSegments(byteBuf);
+      partitionDataSegments.add(
+          new PartitionDataSegment(partitionId, length, bufferSegments, nextOffset));
+    }
+    return partitionDataSegments;
+  }
 }
@@ -22,6 +22,7 @@ import java.util.List;
 import io.netty.buffer.ByteBuf;
 
 import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.PartitionDataSegment;
 import org.apache.uniffle.common.PartitionRange;
 import org.apache.uniffle.common.ShuffleBlockInfo;
 import org.apache.uniffle.common.ShuffleServerInfo;
@@ -95,4 +96,27 @@ public class Encoders {
   public static int encodeLengthOfBufferSegments(List<BufferSegment> bufferSegments) {
     return Integer.BYTES + bufferSegments.size() * (3 * Long.BYTES + 3 * Integer.BYTES);
   }
+
+  public static void encodePartitionDataSegments(
+      List<PartitionDataSegment> partitionDataSegments, ByteBuf byteBuf) {
+    byteBuf.writeInt(partitionDataSegments.size());
+    for (PartitionDataSegment partitionDataSegment : partitionDataSegments) {
+      byteBuf.writeInt(partitionDataSegment.getPartitionId());
+      byteBuf.writeInt(partitionDataSegment.getLength());
+      byteBuf.writeLong(partitionDataSegment.getNextOffset());
+      encodeBufferSegments(partitionDataSegment.getBufferSegments(), byteBuf);
+    }
+  }
+
+  public static int encodeLengthOfPartitionDataSegments(
+      List<PartitionDataSegment> partitionDataSegments) {
+    int encodeLength = Integer.BYTES;
+    for (PartitionDataSegment partitionDataSegment : partitionDataSegments) {
+      encodeLength +=
+          2 * Integer.BYTES
+              + Long.BYTES
+              + encodeLengthOfBufferSegments(partitionDataSegment.getBufferSegments());
+    }
+    return encodeLength;
+  }
 }
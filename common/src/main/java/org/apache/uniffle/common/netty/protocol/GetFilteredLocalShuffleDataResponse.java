@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common.netty.protocol;
+
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+
+import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.netty.buffer.ManagedBuffer;
+import org.apache.uniffle.common.netty.buffer.NettyManagedBuffer;
+import org.apache.uniffle.common.rpc.StatusCode;
+import org.apache.uniffle.common.util.ByteBufUtils;
+
+public class GetFilteredLocalShuffleDataResponse extends RpcResponse {
+  private List<BufferSegment> bufferSegments;
+  private long nextOffset;
+
+  public GetFilteredLocalShuffleDataResponse(
+      long requestId,
+      StatusCode statusCode,
+      String retMessage,
+      List<BufferSegment> bufferSegments,
+      long nextOffset,
+      ManagedBuffer managedBuffer) {
+    super(requestId, statusCode, retMessage, managedBuffer);
+    this.bufferSegments = bufferSegments;
+    this.nextOffset = nextOffset;
+  }
+
+  @Override
+  public int encodedLength() {
+    return super.encodedLength()
+        + Encoders.encodeLengthOfBufferSegments(bufferSegments)
+        + Long.BYTES;
+  }
+
+  @Override
+  public void encode(ByteBuf buf) {
+    super.encode(buf);
+    Encoders.encodeBufferSegments(bufferSegments, buf);
+    buf.writeLong(nextOffset);
+  }
+
+  public static GetFilteredLocalShuffleDataResponse decode(ByteBuf byteBuf, boolean decodeBody) {
+    long requestId = byteBuf.readLong();
+    StatusCode statusCode = StatusCode.fromCode(byteBuf.readInt());
+    String retMessage = ByteBufUtils.readLengthAndString(byteBuf);
+    List<BufferSegment> bufferSegments = Decoders.decodeBufferSegments(byteBuf);
+    long nextOffset = byteBuf.readLong();
+    if (decodeBody) {
+      NettyManagedBuffer nettyManagedBuffer = new NettyManagedBuffer(byteBuf);
+      return new GetFilteredLocalShuffleDataResponse(
+          requestId, statusCode, retMessage, bufferSegments, nextOffset, nettyManagedBuffer);
+    } else {
+      return new GetFilteredLocalShuffleDataResponse(
+          requestId,
+          statusCode,
+          retMessage,
+          bufferSegments,
+          nextOffset,
+          NettyManagedBuffer.EMPTY_BUFFER);
+    }
+  }
+
+  @Override
+  public Type type() {
+    return Type.GET_FILTERED_LOCAL_SHUFFLE_DATA_RESPONSE;
+  }
+
+  public List<BufferSegment> getBufferSegments() {
+    return bufferSegments;
+  }
+
+  public long getNextOffset() {
+    return nextOffset;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common.netty.protocol;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import org.apache.uniffle.common.netty.DecodeException;
+import org.apache.uniffle.common.netty.EncodeException;
+import org.apache.uniffle.common.util.ByteBufUtils;
+import org.apache.uniffle.common.util.RssUtils;
+
+public class GetLocalShuffleDataBatchRequest extends RequestMessage {
+  private String appId;
+  private int shuffleId;
+  private int partitionNumPerRange;
+  private int partitionNum;
+  // the data file offset to continue reading from for each partition, in the order to read
+  private Map<Integer, Long> partitionOffsets;
+  private int readBufferSize;
+  private Roaring64NavigableMap expectedTaskIdsBitmap;
+  private long timestamp;
+
+  public GetLocalShuffleDataBatchRequest(
+      long requestId,
+      String appId,
+      int shuffleId,
+      int partitionNumPerRange,
+      int partitionNum,
+      Map<Integer, Long> partitionOffsets,
+      int readBufferSize,
+      Roaring64NavigableMap expectedTaskIdsBitmap,
+      long timestamp) {
+    super(requestId);
+    this.appId = appId;
+    this.shuffleId = shuffleId;
+    this.partitionNumPerRange = partitionNumPerRange;
+    this.partitionNum = partitionNum;
+    this.partitionOffsets = partitionOffsets;
+    this.readBufferSize = readBufferSize;
+    this.expectedTaskIdsBitmap = expectedTaskIdsBitmap;
+    this.timestamp = timestamp;
+  }
+
+  @Override
+  public Type type() {
+    return Type.GET_LOCAL_SHUFFLE_DATA_BATCH_REQUEST;
+  }
+
+  @Override
+  public int encodedLength() {
+    return (int)
+        (REQUEST_ID_ENCODE_LENGTH
+            + ByteBufUtils.encodedLength(appId)
+            + 6 * Integer.BYTES
+            + Long.BYTES
+            + partitionOffsets.size() * (Integer.BYTES + Long.BYTES)
+            + expectedTaskIdsBitmap.serializedSizeInBytes());
+  }
+
+  @Override
+  public void encode(ByteBuf buf) throws EncodeException {
+    buf.writeLong(getRequestId());
+    ByteBufUtils.writeLengthAndString(buf, appId);
+    buf.writeInt(shuffleId);
+    buf.writeInt(partitionNumPerRange);
+    buf.writeInt(partitionNum);
+    buf.writeInt(partitionOffsets.size());
+    for (Map.Entry<Integer, Long> entry : partitionOffsets.entrySet()) {
+      buf.writeInt(entry.getKey());
+      buf.writeLong(entry.getValue());
+    }
+    buf.writeInt(readBufferSize);
+    buf.writeLong(timestamp);
+    try {
+      buf.writeInt((int) expectedTaskIdsBitmap.serializedSizeInBytes());
+      buf.writeBytes(RssUtils.serializeBitMap(expectedTaskIdsBitmap));
+    } catch (IOException ioException) {
+      throw new EncodeException(
+          "serializeBitMap failed while encode GetLocalShuffleDataBatchRequest!", ioException);
+    }
+  }
+
+  public static GetLocalShuffleDataBatchRequest decode(ByteBuf byteBuf) throws DecodeException {
+    long requestId = byteBuf.readLong();
+    String appId = ByteBufUtils.readLengthAndString(byteBuf);
+    int shuffleId = byteBuf.readInt();
+    int partitionNumPerRange = byteBuf.readInt();
+    int partitionNum = byteBuf.readInt();
+    int partitionSize = byteBuf.readInt();
+    Map<Integer, Long> partitionOffsets = new LinkedHashMap<>(partitionSize);
+    for (int i = 0; i < partitionSize; i++) {
+      partitionOffsets.put(byteBuf.readInt(), byteBuf.readLong());
+    }
+    int readBufferSize = byteBuf.readInt();
+    long timestamp = byteBuf.readLong();
+    byte[] bytes = ByteBufUtils.readByteArray(byteBuf);
+    Roaring64NavigableMap expectedTaskIdsBitmap;
+    try {
+      expectedTaskIdsBitmap = RssUtils.deserializeBitMap(bytes);
+    } catch (IOException ioException) {
+      throw new DecodeException(
+          "deserializeBitMap failed while decode GetLocalShuffleDataBatchRequest!", ioException);
+    }
+    return new GetLocalShuffleDataBatchRequest(
+        requestId,
+        appId,
+        shuffleId,
+        partitionNumPerRange,
+        partitionNum,
+        partitionOffsets,
+        readBufferSize,
+        expectedTaskIdsBitmap,
+        timestamp);
+  }
+
+  public String getAppId() {
+    return appId;
+  }
+
+  public int getShuffleId() {
+    return shuffleId;
+  }
+
+  public int getPartitionNumPerRange() {
+    return partitionNumPerRange;
+  }
+
+  public int getPartitionNum() {
+    return partitionNum;
+  }
+
+  public Map<Integer, Long> getPartitionOffsets() {
+    return partitionOffsets;
+  }
+
+  public int getReadBufferSize() {
+    return readBufferSize;
+  }
+
+  public Roaring64NavigableMap getExpectedTaskIdsBitmap() {
+    return expectedTaskIdsBitmap;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  @Override
+  public String getOperationType() {
+    return "getLocalShuffleDataBatch";
+  }
+}
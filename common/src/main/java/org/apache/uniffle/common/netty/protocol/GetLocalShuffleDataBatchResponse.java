@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common.netty.protocol;
+
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+
+import org.apache.uniffle.common.PartitionDataSegment;
+import org.apache.uniffle.common.netty.buffer.ManagedBuffer;
+import org.apache.uniffle.common.netty.buffer.NettyManagedBuffer;
+import org.apache.uniffle.common.rpc.StatusCode;
+import org.apache.uniffle.common.util.ByteBufUtils;
+
+public class GetLocalShuffleDataBatchResponse extends RpcResponse {
+  // the data of these partitions are concatenated in the body in the same order
+  private List<PartitionDataSegment> partitionDataSegments;
+
+  public GetLocalShuffleDataBatchResponse(
+      long requestId,
+      StatusCode statusCode,
+      String retMessage,
+      List<PartitionDataSegment> partitionDataSegments,
+      ManagedBuffer managedBuffer) {
+    super(requestId, statusCode, retMessage, managedBuffer);
+    this.partitionDataSegments = partitionDataSegments;
+  }
+
+  @Override
+  public int encodedLength() {
+    return super.encodedLength()
+        + Encoders.encodeLengthOfPartitionDataSegments(partitionDataSegments);
+  }
+
+  @Override
+  public void encode(ByteBuf buf) {
+    super.encode(buf);
+    Encoders.encodePartitionDataSegments(partitionDataSegments, buf);
+  }
+
+  public static GetLocalShuffleDataBatchResponse decode(ByteBuf byteBuf, boolean decodeBody) {
+    long requestId = byteBuf.readLong();
+    StatusCode statusCode = StatusCode.fromCode(byteBuf.readInt());
+    String retMessage = ByteBufUtils.readLengthAndString(byteBuf);
+    List<PartitionDataSegment> partitionDataSegments =
+        Decoders.decodePartitionDataSegments(byteBuf);
+    if (decodeBody) {
+      NettyManagedBuffer nettyManagedBuffer = new NettyManagedBuffer(byteBuf);
+      return new GetLocalShuffleDataBatchResponse(
+          requestId, statusCode, retMessage, partitionDataSegments, nettyManagedBuffer);
+    } else {
+      return new GetLocalShuffleDataBatchResponse(
+          requestId,
+          statusCode,
+          retMessage,
+          partitionDataSegments,
+          NettyManagedBuffer.EMPTY_BUFFER);
+    }
+  }
+
+  @Override
+  public Type type() {
+    return Type.GET_LOCAL_SHUFFLE_DATA_BATCH_RESPONSE;
+  }
+
+  public List<PartitionDataSegment> getPartitionDataSegments() {
+    return partitionDataSegments;
+  }
+}
@@ -64,7 +64,11 @@ public abstract class Message implements Encodable {
     GET_SHUFFLE_RESULT_FOR_MULTI_PART_RESPONSE(19),
     REQUIRE_BUFFER_RESPONSE(20),
     GET_SORTED_SHUFFLE_DATA_REQUEST(21),
-    GET_SORTED_SHUFFLE_DATA_RESPONSE(22);
+    GET_SORTED_SHUFFLE_DATA_RESPONSE(22),
+    GET_FILTERED_LOCAL_SHUFFLE_DATA_REQUEST(23),
+    GET_FILTERED_LOCAL_SHUFFLE_DATA_RESPONSE(24),
+    GET_LOCAL_SHUFFLE_DATA_BATCH_REQUEST(25),
+    GET_LOCAL_SHUFFLE_DATA_BATCH_RESPONSE(26);
 
     private final byte id;
 
@@ -138,6 +142,14 @@ public abstract class Message implements Encodable {
           return GET_SORTED_SHUFFLE_DATA_REQUEST;
         case 22:
           return GET_SORTED_SHUFFLE_DATA_RESPONSE;
+        case 23:
+          return GET_FILTERED_LOCAL_SHUFFLE_DATA_REQUEST;
+        case 24:
+          return GET_FILTERED_LOCAL_SHUFFLE_DATA_RESPONSE;
+        case 25:
+          return GET_LOCAL_SHUFFLE_DATA_BATCH_REQUEST;
+        case 26:
+          return GET_LOCAL_SHUFFLE_DATA_BATCH_RESPONSE;
         case -1:
           throw new IllegalArgumentException("User type messages cannot be decoded.");
         default:
@@ -168,6 +180,14 @@ public abstract class Message implements Encodable {
         return GetSortedShuffleDataRequest.decode(in);
       case GET_SORTED_SHUFFLE_DATA_RESPONSE:
         return GetSortedShuffleDataResponse.decode(in, true);
+      case GET_FILTERED_LOCAL_SHUFFLE_DATA_REQUEST:
+        return GetFilteredLocalShuffleDataRequest.decode(in);
+      case GET_FILTERED_LOCAL_SHUFFLE_DATA_RESPONSE:
+        return GetFilteredLocalShuffleDataResponse.decode(in, true);
+      case GET_LOCAL_SHUFFLE_DATA_BATCH_REQUEST:
+        return GetLocalShuffleDataBatchRequest.decode(in);
+      case GET_LOCAL_SHUFFLE_DATA_BATCH_RESPONSE:
+        return GetLocalShuffleDataBatchResponse.decode(in, true);
       default:
         throw new IllegalArgumentException("Unexpected message type: " + msgType);
     }
@@ -39,6 +39,7 @@ public enum StatusCode {
   EXCEED_HUGE_PARTITION_HARD_LIMIT(12),
   APP_NOT_FOUND(13),
   INTERNAL_NOT_RETRY_ERROR(14),
+  NOT_SUPPORTED(15),
   UNKNOWN(-1);
 
   static final Map<Integer, StatusCode> VALUE_MAP =
@@ -48,6 +48,8 @@ import org.apache.uniffle.common.exception.RssException;
  */
 public class LocalOrderSegmentSplitter implements SegmentSplitter {
   private static final Logger LOGGER = LoggerFactory.getLogger(LocalOrderSegmentSplitter.class);
+  // the length of an index entry, see FileBasedShuffleSegment
+  private static final int INDEX_ENTRY_LENGTH = 4 * Long.BYTES + 2 * Integer.BYTES;
 
   private Roaring64NavigableMap expectTaskIds;
   private int readBufferSize;
@@ -159,6 +161,73 @@ public class LocalOrderSegmentSplitter implements SegmentSplitter {
     return dataFileSegments;
   }
 
+  /**
+   * Split the first data segment of the expected blocks located at or after the given offset of the
+   * data file, following the same rules as {@link #split}. The next data segment can be split from
+   * the end of the returned one, so that the shuffle server can serve the expected blocks segment
+   * by segment without sending the index to the client.
+   *
+   * @return null if there are no more expected blocks
+   */
+  public ShuffleDataSegment splitFrom(ShuffleIndexResult shuffleIndexResult, long fromOffset) {
+    if (shuffleIndexResult == null || shuffleIndexResult.isEmpty()) {
+      return null;
+    }
+    ByteBuffer indexData = shuffleIndexResult.getIndexData();
+    long dataFileLen = shuffleIndexResult.getDataFileLen();
+    int base = indexData.position();
+    int indexNum = indexData.remaining() / INDEX_ENTRY_LENGTH;
+
+    // the blocks are appended to the data file, so the offsets in the index are increasing
+    int index = 0;
+    int high = indexNum;
+    while (index < high) {
+      int mid = (index + high) >>> 1;
+      if (indexData.getLong(base + mid * INDEX_ENTRY_LENGTH) < fromOffset) {
+        index = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    List<BufferSegment> bufferSegments = Lists.newArrayList();
+    long fileOffset = -1;
+    int bufferOffset = 0;
+    int lastExpectedBlockIndex = -1;
+    for (; index < indexNum; index++) {
+      int position = base + index * INDEX_ENTRY_LENGTH;
+      long offset = indexData.getLong(position);
+      int length = indexData.getInt(position + 8);
+      if (dataFileLen != -1 && offset + length > dataFileLen) {
+        // the block is being flushed
+        break;
+      }
+      if (bufferOffset >= readBufferSize) {
+        break;
+      }
+      long taskAttemptId = indexData.getLong(position + 32);
+      if (!expectTaskIds.contains(taskAttemptId)) {
+        continue;
+      }
+      if (lastExpectedBlockIndex != -1 && index - lastExpectedBlockIndex != 1) {
+        break;
+      }
+      if (fileOffset == -1) {
+        fileOffset = offset;
+      }
+      int uncompressLength = indexData.getInt(position + 12);
+      long crc = indexData.getLong(position + 16);
+      long blockId = indexData.getLong(position + 24);
+      bufferSegments.add(
+          new BufferSegment(blockId, bufferOffset, length, uncompressLength, crc, taskAttemptId));
+      bufferOffset += length;
+      lastExpectedBlockIndex = index;
+    }
+    return bufferSegments.isEmpty()
+        ? null
+        : new ShuffleDataSegment(fileOffset, bufferOffset, bufferSegments);
+  }
+
   private List<Long> getExpectedTaskIds(Roaring64NavigableMap expectTaskIds) {
     List<Long> taskIds = new ArrayList<>();
     expectTaskIds.forEach(value -> taskIds.add(value));
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common.serializer;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Unlike FileSerInputStream, which issues a channel read for every call, this stream reads the file
+ * through a heap buffer. It is used when a whole file is consumed record by record, for example the
+ * intermediate runs spilled by the remote merge.
+ */
+public class BufferedFileSerInputStream extends SerInputStream {
+
+  private final long start;
+  private final long end;
+  private InputStream input;
+  private long pos;
+
+  public BufferedFileSerInputStream(File file, long start, long end, int bufferSize)
+      throws IOException {
+    if (start < 0) {
+      throw new IOException("Negative position for channel!");
+    }
+    FileInputStream fileInput = new FileInputStream(file);
+    try {
+      fileInput.getChannel().position(start);
+    } catch (IOException e) {
+      fileInput.close();
+      throw e;
+    }
+    this.input = new BufferedInputStream(fileInput, bufferSize);
+    this.start = start;
+    this.end = end;
+    this.pos = start;
+  }
+
+  @Override
+  public int available() {
+    return (int) (end - pos);
+  }
+
+  @Override
+  public long getStart() {
+    return start;
+  }
+
+  @Override
+  public long getEnd() {
+    return end;
+  }
+
+  @Override
+  public void transferTo(ByteBuf to, int len) throws IOException {
+    int remaining = len;
+    while (remaining > 0) {
+      int c = to.writeBytes(input, remaining);
+      if (c < 0) {
+        throw new IOException("Unexpected end of stream, " + remaining + " bytes are missing");
+      }
+      remaining -= c;
+      pos += c;
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (pos >= end) {
+      return -1;
+    }
+    int b = input.read();
+    if (b >= 0) {
+      pos++;
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] bs, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (pos >= end) {
+      return -1;
+    }
+    int ret = input.read(bs, off, (int) Math.min(len, end - pos));
+    if (ret > 0) {
+      pos += ret;
+    }
+    return ret;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.input != null) {
+      this.input.close();
+      this.input = null;
+    }
+  }
+}
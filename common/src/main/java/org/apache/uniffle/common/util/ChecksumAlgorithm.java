@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common.util;
+
+/**
+ * The checksum algorithm of the shuffle blocks. The id of the algorithm is kept in the highest
+ * byte of the 64 bits checksum of the block, so the checksum describes itself through the block
+ * metadata, the index files and the protocol without any format change. The highest byte of the
+ * legacy CRC32 checksums is always 0, so the data written before stays readable.
+ */
+public enum ChecksumAlgorithm {
+  /** java.util.zip.CRC32, the legacy algorithm. */
+  CRC32(0),
+  /** CRC32C, which is intrinsified by the JVM since Java 9. */
+  CRC32C(1),
+  /** xxHash64 truncated to the lower 56 bits. */
+  XXHASH64(2),
+  /** No checksum, the blocks are not verified by the reader. */
+  NONE(3);
+
+  static final int ID_SHIFT = 56;
+  static final long VALUE_MASK = (1L << ID_SHIFT) - 1;
+
+  private final int id;
+
+  ChecksumAlgorithm(int id) {
+    this.id = id;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  long tag(long value) {
+    return ((long) id << ID_SHIFT) | (value & VALUE_MASK);
+  }
+
+  /** Get the algorithm which generated the given checksum. */
+  public static ChecksumAlgorithm fromChecksum(long checksum) {
+    int id = (int) (checksum >>> ID_SHIFT);
+    for (ChecksumAlgorithm algorithm : values()) {
+      if (algorithm.id == id) {
+        return algorithm;
+      }
+    }
+    throw new IllegalArgumentException("Unknown checksum algorithm id " + id);
+  }
+}
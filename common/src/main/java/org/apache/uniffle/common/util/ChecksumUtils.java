@@ -17,12 +17,51 @@
 
 package org.apache.uniffle.common.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import net.jpountz.xxhash.StreamingXXHash64;
+import net.jpountz.xxhash.XXHash64;
+import net.jpountz.xxhash.XXHashFactory;
 
 public class ChecksumUtils {
 
   private static final int LENGTH_PER_CRC = 4 * 1024;
+  private static final long XXHASH64_SEED = 0L;
+  private static final XXHashFactory XXHASH_FACTORY = XXHashFactory.fastestInstance();
+  private static final XXHash64 XXHASH64 = XXHASH_FACTORY.hash64();
+  // java.util.zip.CRC32C is only available since Java 9, fall back to the pure java
+  // implementation of Guava on Java 8
+  private static final MethodHandle CRC32C_CONSTRUCTOR;
+  private static final MethodHandle CRC32C_UPDATE_BUFFER;
+
+  static {
+    MethodHandle constructor = null;
+    MethodHandle updateBuffer = null;
+    try {
+      Class<?> clazz = Class.forName("java.util.zip.CRC32C");
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      constructor =
+          lookup
+              .findConstructor(clazz, MethodType.methodType(void.class))
+              .asType(MethodType.methodType(Checksum.class));
+      updateBuffer =
+          lookup
+              .findVirtual(clazz, "update", MethodType.methodType(void.class, ByteBuffer.class))
+              .asType(MethodType.methodType(void.class, Checksum.class, ByteBuffer.class));
+    } catch (ReflectiveOperationException e) {
+      // Java 8
+    }
+    CRC32C_CONSTRUCTOR = constructor;
+    CRC32C_UPDATE_BUFFER = updateBuffer;
+  }
 
   public static long getCrc32(byte[] buf) {
     return getCrc32(buf, 0, buf.length);
@@ -56,4 +95,158 @@ public class ChecksumUtils {
     }
     return crc32.getValue();
   }
+
+  /**
+   * Get the checksum of the data with the given algorithm, the id of the algorithm is kept in the
+   * highest byte of the checksum, see {@link ChecksumAlgorithm}.
+   */
+  public static long getChecksum(ChecksumAlgorithm algorithm, byte[] buf) {
+    return getChecksum(algorithm, buf, 0, buf.length);
+  }
+
+  public static long getChecksum(ChecksumAlgorithm algorithm, byte[] buf, int offset, int length) {
+    switch (algorithm) {
+      case CRC32:
+        return getCrc32(buf, offset, length);
+      case CRC32C:
+        return algorithm.tag(getCrc32c(buf, offset, length));
+      case XXHASH64:
+        return algorithm.tag(XXHASH64.hash(buf, offset, length, XXHASH64_SEED));
+      case NONE:
+        return algorithm.tag(0L);
+      default:
+        throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm);
+    }
+  }
+
+  public static long getChecksum(
+      ChecksumAlgorithm algorithm, ByteBuffer byteBuffer, int offset, int length) {
+    switch (algorithm) {
+      case CRC32:
+        return getCrc32(byteBuffer, offset, length);
+      case CRC32C:
+        return algorithm.tag(getCrc32c(byteBuffer, offset, length));
+      case XXHASH64:
+        return algorithm.tag(XXHASH64.hash(byteBuffer, offset, length, XXHASH64_SEED));
+      case NONE:
+        return algorithm.tag(0L);
+      default:
+        throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm);
+    }
+  }
+
+  /**
+   * Get the checksum of the readable bytes of the buffer. A composite buffer is checksummed
+   * component by component, so the components are never copied into a single buffer.
+   */
+  public static long getChecksum(ChecksumAlgorithm algorithm, ByteBuf byteBuf) {
+    if (byteBuf.nioBufferCount() == 1) {
+      ByteBuffer byteBuffer = byteBuf.nioBuffer();
+      return getChecksum(algorithm, byteBuffer, byteBuffer.position(), byteBuffer.remaining());
+    }
+    ByteBuffer[] byteBuffers = byteBuf.nioBuffers();
+    switch (algorithm) {
+      case CRC32:
+        CRC32 crc32 = new CRC32();
+        for (ByteBuffer byteBuffer : byteBuffers) {
+          crc32.update(byteBuffer);
+        }
+        return crc32.getValue();
+      case CRC32C:
+        if (CRC32C_CONSTRUCTOR == null) {
+          Hasher hasher = Hashing.crc32c().newHasher();
+          forEachChunk(byteBuffers, hasher::putBytes);
+          return algorithm.tag(hasher.hash().padToLong());
+        }
+        Checksum crc32c = newCrc32c();
+        for (ByteBuffer byteBuffer : byteBuffers) {
+          updateCrc32c(crc32c, byteBuffer);
+        }
+        return algorithm.tag(crc32c.getValue());
+      case XXHASH64:
+        StreamingXXHash64 xxhash64 = XXHASH_FACTORY.newStreamingHash64(XXHASH64_SEED);
+        forEachChunk(byteBuffers, xxhash64::update);
+        return algorithm.tag(xxhash64.getValue());
+      case NONE:
+        return algorithm.tag(0L);
+      default:
+        throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm);
+    }
+  }
+
+  /**
+   * Verify the data with the expected checksum, the algorithm is got from the expected checksum
+   * itself, so the blocks written by the legacy CRC32 and the other algorithms can be mixed.
+   *
+   * @return the actual checksum of the data, which equals the expected one if the data is valid
+   */
+  public static long getActualChecksum(
+      long expectedChecksum, ByteBuffer byteBuffer, int offset, int length) {
+    return getChecksum(
+        ChecksumAlgorithm.fromChecksum(expectedChecksum), byteBuffer, offset, length);
+  }
+
+  private static long getCrc32c(byte[] buf, int offset, int length) {
+    if (CRC32C_CONSTRUCTOR == null) {
+      return Hashing.crc32c().hashBytes(buf, offset, length).padToLong();
+    }
+    Checksum crc32c = newCrc32c();
+    crc32c.update(buf, offset, length);
+    return crc32c.getValue();
+  }
+
+  private static long getCrc32c(ByteBuffer byteBuffer, int offset, int length) {
+    if (byteBuffer.hasArray()) {
+      return getCrc32c(byteBuffer.array(), byteBuffer.arrayOffset() + offset, length);
+    }
+    ByteBuffer crcBuffer = byteBuffer.duplicate();
+    crcBuffer.position(offset);
+    crcBuffer.limit(offset + length);
+    if (CRC32C_CONSTRUCTOR == null) {
+      Hasher hasher = Hashing.crc32c().newHasher();
+      byte[] chunk = new byte[Math.min(LENGTH_PER_CRC, length)];
+      while (crcBuffer.hasRemaining()) {
+        int len = Math.min(chunk.length, crcBuffer.remaining());
+        crcBuffer.get(chunk, 0, len);
+        hasher.putBytes(chunk, 0, len);
+      }
+      return hasher.hash().padToLong();
+    }
+    Checksum crc32c = newCrc32c();
+    updateCrc32c(crc32c, crcBuffer);
+    return crc32c.getValue();
+  }
+
+  private static void updateCrc32c(Checksum crc32c, ByteBuffer byteBuffer) {
+    try {
+      CRC32C_UPDATE_BUFFER.invokeExact(crc32c, byteBuffer);
+    } catch (Throwable t) {
+      throw new IllegalStateException("Failed to update the CRC32C checksum", t);
+    }
+  }
+
+  // the hashes without the ByteBuffer support are updated with the chunks copied to the heap
+  private static void forEachChunk(ByteBuffer[] byteBuffers, ChunkConsumer consumer) {
+    byte[] chunk = new byte[LENGTH_PER_CRC];
+    for (ByteBuffer byteBuffer : byteBuffers) {
+      ByteBuffer buffer = byteBuffer.duplicate();
+      while (buffer.hasRemaining()) {
+        int len = Math.min(chunk.length, buffer.remaining());
+        buffer.get(chunk, 0, len);
+        consumer.accept(chunk, 0, len);
+      }
+    }
+  }
+
+  private interface ChunkConsumer {
+    void accept(byte[] chunk, int offset, int length);
+  }
+
+  private static Checksum newCrc32c() {
+    try {
+      return (Checksum) CRC32C_CONSTRUCTOR.invokeExact();
+    } catch (Throwable t) {
+      throw new IllegalStateException("Failed to create the CRC32C checksum", t);
+    }
+  }
 }
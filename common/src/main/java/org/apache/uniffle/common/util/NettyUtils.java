@@ -17,19 +17,25 @@
 
 package org.apache.uniffle.common.util;
 
+import java.lang.reflect.Constructor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.internal.PlatformDependent;
 import org.slf4j.Logger;
@@ -49,6 +55,38 @@ public class NettyUtils {
   private static final AtomicReferenceArray<PooledByteBufAllocator>
       SHARED_POOLED_BYTE_BUF_ALLOCATOR = new AtomicReferenceArray<>(2);
   private static volatile UnpooledByteBufAllocator sharedUnpooledByteBufAllocator;
+  // the max chunk size supported by the PooledByteBufAllocator
+  private static final long MAX_POOLED_CHUNK_SIZE = 1L << 30;
+  private static volatile PooledByteBufAllocator pooledShuffleDataAllocator;
+
+  // the io_uring transport is in the incubator of netty 4.1, it's loaded by reflection so that
+  // the jar is only needed when the IO_URING mode is used
+  private static final String IO_URING_PACKAGE = "io.netty.incubator.channel.uring.";
+
+  /**
+   * Returns the IOMode which can be used in the current environment. IO_URING falls back to EPOLL,
+   * or NIO if epoll isn't available either, when the io_uring transport isn't in the classpath or
+   * isn't supported by the kernel.
+   */
+  public static IOMode resolveIOMode(IOMode mode) {
+    if (mode != IOMode.IO_URING) {
+      return mode;
+    }
+    Throwable cause;
+    try {
+      Class<?> ioUring = Class.forName(IO_URING_PACKAGE + "IOUring");
+      if ((Boolean) ioUring.getMethod("isAvailable").invoke(null)) {
+        return mode;
+      }
+      cause = (Throwable) ioUring.getMethod("unavailabilityCause").invoke(null);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      cause = e;
+    }
+    IOMode fallbackMode = Epoll.isAvailable() ? IOMode.EPOLL : IOMode.NIO;
+    logger.warn(
+        "The io_uring transport is not available, fall back to {}: {}", fallbackMode, cause);
+    return fallbackMode;
+  }
 
   /** Creates a Netty EventLoopGroup based on the IOMode. */
   public static EventLoopGroup createEventLoop(IOMode mode, int numThreads, String threadPrefix) {
@@ -59,11 +97,43 @@ public class NettyUtils {
         return new NioEventLoopGroup(numThreads, threadFactory);
       case EPOLL:
         return new EpollEventLoopGroup(numThreads, threadFactory);
+      case IO_URING:
+        return createIOUringEventLoop(numThreads, threadFactory);
+      default:
+        throw new IllegalArgumentException("Unknown io mode: " + mode);
+    }
+  }
+
+  /**
+   * Creates a Netty EventLoopGroup based on the IOMode with the default thread factory of netty.
+   */
+  public static EventLoopGroup createEventLoop(IOMode mode, int numThreads) {
+    switch (mode) {
+      case NIO:
+        return new NioEventLoopGroup(numThreads);
+      case EPOLL:
+        return new EpollEventLoopGroup(numThreads);
+      case IO_URING:
+        return createIOUringEventLoop(numThreads, null);
       default:
         throw new IllegalArgumentException("Unknown io mode: " + mode);
     }
   }
 
+  private static EventLoopGroup createIOUringEventLoop(
+      int numThreads, ThreadFactory threadFactory) {
+    try {
+      Class<?> clazz = Class.forName(IO_URING_PACKAGE + "IOUringEventLoopGroup");
+      if (threadFactory == null) {
+        return (EventLoopGroup) clazz.getConstructor(int.class).newInstance(numThreads);
+      }
+      Constructor<?> constructor = clazz.getConstructor(int.class, ThreadFactory.class);
+      return (EventLoopGroup) constructor.newInstance(numThreads, threadFactory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to create the io_uring event loop", e);
+    }
+  }
+
   /** Returns the correct (client) SocketChannel class based on IOMode. */
   public static Class<? extends Channel> getClientChannelClass(IOMode mode) {
     switch (mode) {
@@ -71,11 +141,35 @@ public class NettyUtils {
         return NioSocketChannel.class;
       case EPOLL:
         return EpollSocketChannel.class;
+      case IO_URING:
+        return loadIOUringClass("IOUringSocketChannel", Channel.class);
+      default:
+        throw new IllegalArgumentException("Unknown io mode: " + mode);
+    }
+  }
+
+  /** Returns the correct ServerSocketChannel class based on IOMode. */
+  public static Class<? extends ServerChannel> getServerChannelClass(IOMode mode) {
+    switch (mode) {
+      case NIO:
+        return NioServerSocketChannel.class;
+      case EPOLL:
+        return EpollServerSocketChannel.class;
+      case IO_URING:
+        return loadIOUringClass("IOUringServerSocketChannel", ServerChannel.class);
       default:
         throw new IllegalArgumentException("Unknown io mode: " + mode);
     }
   }
 
+  private static <T> Class<? extends T> loadIOUringClass(String name, Class<T> superClass) {
+    try {
+      return Class.forName(IO_URING_PACKAGE + name).asSubclass(superClass);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("Failed to load the io_uring channel " + name, e);
+    }
+  }
+
   /**
    * Returns the default number of threads for both the Netty client and server thread pools. If
    * numUsableCores is 0, we will use Runtime get an approximate number of available cores.
@@ -126,6 +220,59 @@ public class NettyUtils {
     return sharedUnpooledByteBufAllocator;
   }
 
+  /**
+   * Returns the allocator for the received shuffle data. It's the pooled allocator once {@link
+   * #initPooledShuffleDataAllocator} is called, otherwise the shared un-pooled one.
+   */
+  public static ByteBufAllocator getShuffleDataAllocator() {
+    PooledByteBufAllocator allocator = pooledShuffleDataAllocator;
+    return allocator != null ? allocator : getSharedUnpooledByteBufAllocator(true);
+  }
+
+  public static PooledByteBufAllocator getPooledShuffleDataAllocator() {
+    return pooledShuffleDataAllocator;
+  }
+
+  /**
+   * Initializes the pooled allocator for the received shuffle data. The shuffle blocks are usually
+   * larger than the default chunk size, so the chunk size (pageSize &lt;&lt; maxOrder) should be
+   * large enough to keep them from being allocated as un-pooled huge buffers.
+   */
+  public static synchronized PooledByteBufAllocator initPooledShuffleDataAllocator(
+      int numArenas, int pageSize, int maxOrder, int smallCacheSize, int normalCacheSize) {
+    if (((long) pageSize << maxOrder) > MAX_POOLED_CHUNK_SIZE) {
+      throw new IllegalArgumentException(
+          "The chunk size of the pooled allocator (pageSize["
+              + pageSize
+              + "] << maxOrder["
+              + maxOrder
+              + "]) must not exceed "
+              + MAX_POOLED_CHUNK_SIZE);
+    }
+    if (numArenas <= 0) {
+      numArenas =
+          Math.min(
+              PooledByteBufAllocator.defaultNumDirectArena(),
+              Runtime.getRuntime().availableProcessors());
+    }
+    pooledShuffleDataAllocator =
+        new PooledByteBufAllocator(
+            true, 0, numArenas, pageSize, maxOrder, smallCacheSize, normalCacheSize, true);
+    logger.info(
+        "Init pooled shuffle data allocator with {} arenas, chunk size: {}",
+        numArenas,
+        pooledShuffleDataAllocator.metric().chunkSize());
+    return pooledShuffleDataAllocator;
+  }
+
+  /**
+   * Stops allocating the received shuffle data from the pooled allocator, the buffers allocated
+   * from it are still released to it.
+   */
+  public static synchronized void clearPooledShuffleDataAllocator() {
+    pooledShuffleDataAllocator = null;
+  }
+
   public static PooledByteBufAllocator createPooledByteBufAllocator(
       boolean allowDirectBufs, boolean allowCache, int numCores) {
     numCores = defaultNumThreads(numCores);
@@ -183,6 +183,17 @@ public class RssUtils {
     return siteLocalAddress;
   }
 
+  /** Whether the host is resolved to an address of the network interfaces of this machine. */
+  public static boolean isLocalAddress(String host) {
+    try {
+      InetAddress address = InetAddress.getByName(host);
+      return address.isLoopbackAddress() || NetworkInterface.getByInetAddress(address) != null;
+    } catch (Exception e) {
+      LOGGER.debug("Can't resolve host {}", host, e);
+      return false;
+    }
+  }
+
   public static int startServiceOnPort(
       ServerInterface service, String serviceName, int servicePort, RssBaseConf conf) {
     if (servicePort < 0 || servicePort > 65535) {
@@ -23,6 +23,8 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import org.apache.uniffle.common.config.RssBaseConf;
+import org.apache.uniffle.common.netty.handle.TransportChannelHandler;
+import org.apache.uniffle.common.netty.protocol.RpcResponse;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -113,4 +115,50 @@ public class TransportClientFactoryTest extends TransportClientTestBase {
     assertNotEquals(client1, client2);
     transportClientFactory.close();
   }
+
+  @Test
+  public void testLeastOutstandingClient() throws IOException, InterruptedException {
+    RssBaseConf rssBaseConf = new RssBaseConf();
+    rssBaseConf.setInteger("rss.client.netty.client.connections.per.peer", 3);
+    TransportConf transportConf = new TransportConf(rssBaseConf);
+    TransportContext transportContext = new TransportContext(transportConf);
+    TransportClientFactory transportClientFactory = transportContext.createClientFactory();
+    int port = SERVER_PORT_RANGE_START;
+    // the idle connection is reused
+    TransportClient client1 = transportClientFactory.createClient("localhost", port);
+    assertEquals(client1, transportClientFactory.createClient("localhost", port));
+
+    // a new connection is created when the active one is busy
+    addOutstandingRequest(client1);
+    TransportClient client2 = transportClientFactory.createClient("localhost", port);
+    assertNotEquals(client1, client2);
+    assertEquals(0, client2.getNumOutstandingRequests());
+    assertEquals(client2, transportClientFactory.createClient("localhost", port));
+
+    // the connection with the least outstanding requests is picked
+    addOutstandingRequest(client2);
+    addOutstandingRequest(client2);
+    TransportClient client3 = transportClientFactory.createClient("localhost", port);
+    addOutstandingRequest(client3);
+    addOutstandingRequest(client3);
+    assertEquals(client1, transportClientFactory.createClient("localhost", port));
+    transportClientFactory.close();
+  }
+
+  private void addOutstandingRequest(TransportClient client) {
+    client
+        .getChannel()
+        .pipeline()
+        .get(TransportChannelHandler.class)
+        .getResponseHandler()
+        .addResponseCallback(
+            TransportClient.requestId(),
+            new RpcResponseCallback() {
+              @Override
+              public void onSuccess(RpcResponse response) {}
+
+              @Override
+              public void onFailure(Throwable e) {}
+            });
+  }
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.common.netty.client;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import org.apache.uniffle.common.exception.RssException;
+import org.apache.uniffle.common.netty.handle.TransportResponseHandler;
+import org.apache.uniffle.common.netty.protocol.GetLocalShuffleIndexRequest;
+import org.apache.uniffle.common.netty.protocol.RpcResponse;
+import org.apache.uniffle.common.rpc.StatusCode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TransportClientTest {
+
+  @Test
+  public void testNumOutstandingRequests() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    TransportResponseHandler handler = new TransportResponseHandler(channel);
+    TransportClient client = new TransportClient(channel, handler);
+    List<Long> responded = Lists.newArrayList();
+    RpcResponseCallback callback =
+        new RpcResponseCallback() {
+          @Override
+          public void onSuccess(RpcResponse response) {
+            responded.add(response.getRequestId());
+          }
+
+          @Override
+          public void onFailure(Throwable e) {}
+        };
+    assertEquals(0, client.getNumOutstandingRequests());
+
+    // the count goes up as the requests are sent
+    long requestId1 = TransportClient.requestId();
+    long requestId2 = TransportClient.requestId();
+    client.sendRpc(new GetLocalShuffleIndexRequest(requestId1, "appId", 0, 1, 1, 1), callback);
+    assertEquals(1, client.getNumOutstandingRequests());
+    client.sendRpc(new GetLocalShuffleIndexRequest(requestId2, "appId", 0, 2, 1, 1), callback);
+    assertEquals(2, client.getNumOutstandingRequests());
+
+    // and goes down as they are completed
+    handler.handle(new RpcResponse(requestId2, StatusCode.SUCCESS, ""));
+    assertEquals(1, client.getNumOutstandingRequests());
+    handler.handle(new RpcResponse(requestId1, StatusCode.SUCCESS, ""));
+    assertEquals(0, client.getNumOutstandingRequests());
+    assertEquals(Lists.newArrayList(requestId2, requestId1), responded);
+
+    // the request timed out isn't outstanding any more
+    assertThrows(
+        RssException.class,
+        () ->
+            client.sendRpcSync(
+                new GetLocalShuffleIndexRequest(TransportClient.requestId(), "appId", 0, 3, 1, 1),
+                10));
+    assertEquals(0, client.getNumOutstandingRequests());
+    channel.finishAndReleaseAll();
+  }
+}
@@ -29,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.PartitionDataSegment;
 import org.apache.uniffle.common.ShuffleBlockInfo;
 import org.apache.uniffle.common.ShufflePartitionedBlock;
 import org.apache.uniffle.common.ShuffleServerInfo;
@@ -345,4 +346,85 @@ public class NettyProtocolTest {
 
     byteBuf.release();
   }
+
+  @Test
+  public void testGetLocalShuffleDataBatchRequest() {
+    Map<Integer, Long> partitionOffsets = Maps.newLinkedHashMap();
+    partitionOffsets.put(3, 100L);
+    partitionOffsets.put(1, 0L);
+    GetLocalShuffleDataBatchRequest request =
+        new GetLocalShuffleDataBatchRequest(
+            1,
+            "test_app",
+            2,
+            1,
+            10,
+            partitionOffsets,
+            1024,
+            Roaring64NavigableMap.bitmapOf(1, 2, 3),
+            System.currentTimeMillis());
+
+    int encodeLength = request.encodedLength();
+    ByteBuf byteBuf = Unpooled.buffer(encodeLength);
+    request.encode(byteBuf);
+
+    assertEquals(byteBuf.readableBytes(), encodeLength);
+
+    GetLocalShuffleDataBatchRequest decodedRequest =
+        GetLocalShuffleDataBatchRequest.decode(byteBuf);
+
+    assertEquals(request.getRequestId(), decodedRequest.getRequestId());
+    assertEquals(request.getAppId(), decodedRequest.getAppId());
+    assertEquals(request.getShuffleId(), decodedRequest.getShuffleId());
+    assertEquals(request.getPartitionNumPerRange(), decodedRequest.getPartitionNumPerRange());
+    assertEquals(request.getPartitionNum(), decodedRequest.getPartitionNum());
+    // the partitions are read in the requested order
+    assertEquals(
+        Lists.newArrayList(partitionOffsets.entrySet()),
+        Lists.newArrayList(decodedRequest.getPartitionOffsets().entrySet()));
+    assertEquals(request.getReadBufferSize(), decodedRequest.getReadBufferSize());
+    assertEquals(request.getExpectedTaskIdsBitmap(), decodedRequest.getExpectedTaskIdsBitmap());
+    assertEquals(request.getTimestamp(), decodedRequest.getTimestamp());
+
+    byteBuf.release();
+  }
+
+  @Test
+  public void testGetLocalShuffleDataBatchResponse() {
+    byte[] data = new byte[] {1, 2, 3, 4, 5};
+    List<BufferSegment> bufferSegments =
+        Lists.newArrayList(
+            new BufferSegment(1, 0, 3, 10, 123, 1), new BufferSegment(2, 3, 2, 10, 345, 1));
+    List<PartitionDataSegment> partitionDataSegments =
+        Lists.newArrayList(
+            new PartitionDataSegment(3, 5, bufferSegments, 105L),
+            new PartitionDataSegment(1, 0, Lists.newArrayList(), -1L));
+    ManagedBuffer managedBuffer = new NettyManagedBuffer(Unpooled.wrappedBuffer(data).retain());
+    GetLocalShuffleDataBatchResponse response =
+        new GetLocalShuffleDataBatchResponse(
+            1, StatusCode.SUCCESS, "", partitionDataSegments, managedBuffer);
+
+    int encodeLength = response.encodedLength();
+    ByteBuf byteBuf = Unpooled.buffer(encodeLength);
+    response.encode(byteBuf);
+
+    assertEquals(byteBuf.readableBytes(), encodeLength);
+
+    GetLocalShuffleDataBatchResponse decodedResponse =
+        GetLocalShuffleDataBatchResponse.decode(byteBuf, true);
+
+    assertEquals(response.getRequestId(), decodedResponse.getRequestId());
+    assertEquals(response.getStatusCode(), decodedResponse.getStatusCode());
+    assertEquals(partitionDataSegments.size(), decodedResponse.getPartitionDataSegments().size());
+    for (int i = 0; i < partitionDataSegments.size(); i++) {
+      PartitionDataSegment expected = partitionDataSegments.get(i);
+      PartitionDataSegment actual = decodedResponse.getPartitionDataSegments().get(i);
+      assertEquals(expected.getPartitionId(), actual.getPartitionId());
+      assertEquals(expected.getLength(), actual.getLength());
+      assertEquals(expected.getBufferSegments(), actual.getBufferSegments());
+      assertEquals(expected.getNextOffset(), actual.getNextOffset());
+    }
+
+    byteBuf.release();
+  }
 }
@@ -31,6 +31,7 @@ import org.apache.uniffle.common.ShuffleDataSegment;
 import org.apache.uniffle.common.ShuffleIndexResult;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LocalOrderSegmentSplitterTest {
@@ -359,6 +360,49 @@ public class LocalOrderSegmentSplitterTest {
     assertEquals(1, dataSegments.get(1).getLength());
   }
 
+  @Test
+  public void testSplitFrom() {
+    LocalOrderSegmentSplitter splitter =
+        new LocalOrderSegmentSplitter(Roaring64NavigableMap.bitmapOf(1), 32);
+    assertNull(splitter.splitFrom(new ShuffleIndexResult(), 0));
+
+    byte[] data =
+        generateData(Pair.of(32, 1), Pair.of(16, 1), Pair.of(10, 2), Pair.of(16, 1), Pair.of(6, 1));
+    checkSplitFrom(splitter, new ShuffleIndexResult(ByteBuffer.wrap(data), -1));
+    // the last block is being flushed
+    checkSplitFrom(splitter, new ShuffleIndexResult(ByteBuffer.wrap(data), 76));
+
+    data =
+        generateData(
+            Pair.of(8, 4),
+            Pair.of(8, 5),
+            Pair.of(8, 6),
+            Pair.of(8, 7),
+            Pair.of(8, 8),
+            Pair.of(8, 9),
+            Pair.of(8, 6),
+            Pair.of(8, 9));
+    splitter = new LocalOrderSegmentSplitter(Roaring64NavigableMap.bitmapOf(6, 7, 9), 1000);
+    checkSplitFrom(splitter, new ShuffleIndexResult(ByteBuffer.wrap(data), -1));
+    splitter = new LocalOrderSegmentSplitter(Roaring64NavigableMap.bitmapOf(6, 7, 9), 8);
+    checkSplitFrom(splitter, new ShuffleIndexResult(ByteBuffer.wrap(data), -1));
+    splitter = new LocalOrderSegmentSplitter(Roaring64NavigableMap.bitmapOf(10), 8);
+    assertNull(splitter.splitFrom(new ShuffleIndexResult(ByteBuffer.wrap(data), -1), 0));
+  }
+
+  private void checkSplitFrom(LocalOrderSegmentSplitter splitter, ShuffleIndexResult index) {
+    List<ShuffleDataSegment> expected = splitter.split(index);
+    long offset = 0;
+    for (ShuffleDataSegment expectedSegment : expected) {
+      ShuffleDataSegment segment = splitter.splitFrom(index, offset);
+      assertEquals(expectedSegment.getOffset(), segment.getOffset());
+      assertEquals(expectedSegment.getLength(), segment.getLength());
+      assertEquals(expectedSegment.getBufferSegments(), segment.getBufferSegments());
+      offset = segment.getOffset() + segment.getLength();
+    }
+    assertNull(splitter.splitFrom(index, offset));
+  }
+
   @SafeVarargs
   public static byte[] generateData(Pair<Integer, Integer>... configEntries) {
     ByteBuffer byteBuffer = ByteBuffer.allocate(configEntries.length * 40);
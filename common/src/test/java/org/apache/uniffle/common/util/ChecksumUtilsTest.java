@@ -26,10 +26,17 @@ import java.nio.file.Paths;
 import java.util.Random;
 import java.util.zip.CRC32;
 
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 public class ChecksumUtilsTest {
 
@@ -112,4 +119,65 @@ public class ChecksumUtilsTest {
     directOffsetBuffer.put(data);
     assertEquals(expectCrc, ChecksumUtils.getCrc32(directOffsetBuffer, offset, length));
   }
+
+  @ParameterizedTest
+  @EnumSource(ChecksumAlgorithm.class)
+  public void checksumAlgorithmTest(ChecksumAlgorithm algorithm) {
+    int length = 64 * 1024 + 7;
+    byte[] data = new byte[length];
+    Random random = new Random();
+    random.nextBytes(data);
+    long expected = ChecksumUtils.getChecksum(algorithm, data);
+    assertEquals(algorithm, ChecksumAlgorithm.fromChecksum(expected));
+
+    // the heap, direct and offset buffers get the same checksum
+    assertEquals(
+        expected, ChecksumUtils.getActualChecksum(expected, ByteBuffer.wrap(data), 0, length));
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(length + 5);
+    directBuffer.put(new byte[5]);
+    directBuffer.put(data);
+    assertEquals(expected, ChecksumUtils.getActualChecksum(expected, directBuffer, 5, length));
+
+    data[random.nextInt(length)] ^= 1;
+    long actual = ChecksumUtils.getActualChecksum(expected, ByteBuffer.wrap(data), 0, length);
+    if (algorithm == ChecksumAlgorithm.NONE) {
+      assertEquals(expected, actual);
+    } else {
+      assertNotEquals(expected, actual);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(ChecksumAlgorithm.class)
+  public void compositeByteBufChecksumTest(ChecksumAlgorithm algorithm) {
+    int length = 64 * 1024 + 7;
+    byte[] data = new byte[length];
+    new Random().nextBytes(data);
+    long expected = ChecksumUtils.getChecksum(algorithm, data);
+
+    assertEquals(expected, ChecksumUtils.getChecksum(algorithm, Unpooled.wrappedBuffer(data)));
+    // the heap and direct components get the same checksum as the whole data
+    CompositeByteBuf composite = Unpooled.compositeBuffer();
+    composite.addComponent(true, Unpooled.wrappedBuffer(data, 0, 100));
+    ByteBuf directBuffer = Unpooled.directBuffer(length - 100);
+    directBuffer.writeBytes(data, 100, length - 100);
+    composite.addComponent(true, directBuffer);
+    assertEquals(expected, ChecksumUtils.getChecksum(algorithm, composite));
+    composite.release();
+  }
+
+  @Test
+  public void legacyCrc32Test() {
+    byte[] data = new byte[1024];
+    new Random().nextBytes(data);
+    long legacyCrc = ChecksumUtils.getCrc32(data);
+    assertEquals(ChecksumAlgorithm.CRC32, ChecksumAlgorithm.fromChecksum(legacyCrc));
+    assertEquals(legacyCrc, ChecksumUtils.getChecksum(ChecksumAlgorithm.CRC32, data));
+    assertEquals(
+        legacyCrc, ChecksumUtils.getActualChecksum(legacyCrc, ByteBuffer.wrap(data), 0, 1024));
+
+    long crc32c = ChecksumUtils.getChecksum(ChecksumAlgorithm.CRC32C, data);
+    assertEquals(
+        Hashing.crc32c().hashBytes(data).padToLong(), crc32c & ChecksumAlgorithm.VALUE_MASK);
+  }
 }
@@ -17,7 +17,9 @@
 
 package org.apache.uniffle.common.util;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -31,12 +33,16 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.Epoll;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.incubator.channel.uring.IOUring;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -47,6 +53,12 @@ import org.apache.uniffle.common.netty.protocol.RpcResponse;
 import org.apache.uniffle.common.rpc.StatusCode;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class NettyUtilsTest {
   private EventLoopGroup bossGroup;
@@ -112,6 +124,95 @@ public class NettyUtilsTest {
     channelRef.get().closeFuture().await(3L, TimeUnit.SECONDS);
   }
 
+  @Test
+  public void resolveIOModeTest() {
+    assertEquals(IOMode.NIO, NettyUtils.resolveIOMode(IOMode.NIO));
+    assertEquals(IOMode.EPOLL, NettyUtils.resolveIOMode(IOMode.EPOLL));
+    IOMode ioMode = NettyUtils.resolveIOMode(IOMode.IO_URING);
+    if (IOUring.isAvailable()) {
+      assertEquals(IOMode.IO_URING, ioMode);
+    } else {
+      // the kernel doesn't support io_uring, so it falls back
+      assertEquals(Epoll.isAvailable() ? IOMode.EPOLL : IOMode.NIO, ioMode);
+    }
+    EventLoopGroup eventLoopGroup = NettyUtils.createEventLoop(ioMode, 1);
+    assertNotNull(NettyUtils.getServerChannelClass(ioMode));
+    assertNotNull(NettyUtils.getClientChannelClass(ioMode));
+    eventLoopGroup.shutdownGracefully();
+  }
+
+  @Test
+  public void ioUringRoundTripTest() throws Exception {
+    assumeTrue(IOUring.isAvailable(), "io_uring isn't supported by the kernel");
+    EventLoopGroup serverGroup = NettyUtils.createEventLoop(IOMode.IO_URING, 1, "io-uring-server");
+    EventLoopGroup clientGroup = NettyUtils.createEventLoop(IOMode.IO_URING, 1, "io-uring-client");
+    try {
+      Channel serverChannel =
+          new ServerBootstrap()
+              .group(serverGroup)
+              .channel(NettyUtils.getServerChannelClass(IOMode.IO_URING))
+              .childHandler(
+                  new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                      ctx.writeAndFlush(msg);
+                    }
+                  })
+              .bind("localhost", 0)
+              .sync()
+              .channel();
+      CompletableFuture<String> received = new CompletableFuture<>();
+      Channel clientChannel =
+          new Bootstrap()
+              .group(clientGroup)
+              .channel(NettyUtils.getClientChannelClass(IOMode.IO_URING))
+              .handler(
+                  new SimpleChannelInboundHandler<ByteBuf>() {
+                    @Override
+                    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                      received.complete(msg.toString(StandardCharsets.UTF_8));
+                    }
+                  })
+              .connect(serverChannel.localAddress())
+              .sync()
+              .channel();
+      clientChannel.writeAndFlush(Unpooled.copiedBuffer(EXPECTED_MESSAGE, StandardCharsets.UTF_8));
+      assertEquals(EXPECTED_MESSAGE, received.get(10, TimeUnit.SECONDS));
+      clientChannel.close().sync();
+      serverChannel.close().sync();
+    } finally {
+      clientGroup.shutdownGracefully();
+      serverGroup.shutdownGracefully();
+    }
+  }
+
+  @Test
+  public void initPooledShuffleDataAllocatorTest() {
+    try {
+      PooledByteBufAllocator allocator =
+          NettyUtils.initPooledShuffleDataAllocator(2, 8192, 11, 0, 0);
+      assertSame(allocator, NettyUtils.getShuffleDataAllocator());
+      assertEquals(2, allocator.metric().numDirectArenas());
+      assertEquals(16 * 1024 * 1024, allocator.metric().chunkSize());
+      ByteBuf buf = NettyUtils.getShuffleDataAllocator().directBuffer(1024);
+      assertTrue(buf.isDirect());
+      // the pooled memory is allocated by chunks
+      assertEquals(16 * 1024 * 1024, allocator.metric().usedDirectMemory());
+      buf.release();
+
+      // the chunk size can't exceed 1GB
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> NettyUtils.initPooledShuffleDataAllocator(2, 1024 * 1024, 11, 0, 0));
+      assertSame(allocator, NettyUtils.getShuffleDataAllocator());
+    } finally {
+      NettyUtils.clearPooledShuffleDataAllocator();
+    }
+    assertNull(NettyUtils.getPooledShuffleDataAllocator());
+    assertSame(
+        NettyUtils.getSharedUnpooledByteBufAllocator(true), NettyUtils.getShuffleDataAllocator());
+  }
+
   @BeforeEach
   public void startNettyServer() {
     Supplier<ChannelHandler[]> handlerSupplier = () -> new ChannelHandler[] {new MockDecoder()};
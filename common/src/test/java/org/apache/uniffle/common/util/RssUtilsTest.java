@@ -101,6 +101,15 @@ public class RssUtilsTest {
     }
   }
 
+  @Test
+  public void testIsLocalAddress() throws Exception {
+    assertTrue(RssUtils.isLocalAddress("localhost"));
+    assertTrue(RssUtils.isLocalAddress("127.0.0.1"));
+    assertTrue(RssUtils.isLocalAddress(RssUtils.getHostIp()));
+    assertFalse(RssUtils.isLocalAddress("8.8.8.8"));
+    assertFalse(RssUtils.isLocalAddress("unknown.host.invalid"));
+  }
+
   @Test
   public void testStartServiceOnPort() throws InterruptedException {
     RssBaseConf rssBaseConf = new RssBaseConf();
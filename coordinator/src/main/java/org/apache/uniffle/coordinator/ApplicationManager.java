@@ -50,12 +50,17 @@ import org.apache.uniffle.coordinator.access.checker.AccessQuotaChecker;
 import org.apache.uniffle.coordinator.conf.ClientConf;
 import org.apache.uniffle.coordinator.conf.LegacyClientConfParser;
 import org.apache.uniffle.coordinator.metric.CoordinatorMetrics;
+import org.apache.uniffle.coordinator.replication.CoordinatorStateLog;
+import org.apache.uniffle.coordinator.replication.ReplicatedStateStore;
 import org.apache.uniffle.coordinator.strategy.storage.AppBalanceSelectStorageStrategy;
 import org.apache.uniffle.coordinator.strategy.storage.LowestIOSampleCostSelectStorageStrategy;
 import org.apache.uniffle.coordinator.strategy.storage.RankValue;
 import org.apache.uniffle.coordinator.strategy.storage.SelectStorageStrategy;
+import org.apache.uniffle.proto.RssProtos.ApplicationState;
+import org.apache.uniffle.proto.RssProtos.CoordinatorStateEntry;
+import org.apache.uniffle.proto.RssProtos.RemoteStorageAssignment;
 
-public class ApplicationManager implements Closeable {
+public class ApplicationManager implements Closeable, ReplicatedStateStore {
 
   private static final Logger LOG = LoggerFactory.getLogger(ApplicationManager.class);
   // TODO: Add anomaly detection for other storage
@@ -75,6 +80,7 @@ public class ApplicationManager implements Closeable {
   private Map<String, Map<String, AppInfo>> currentUserAndApp = JavaUtils.newConcurrentMap();
   private Map<String, String> appIdToUser = JavaUtils.newConcurrentMap();
   private QuotaManager quotaManager;
+  private volatile CoordinatorStateLog stateLog;
   // it's only for test case to check if status check has problem
   private boolean hasErrorInStatusCheck = false;
 
@@ -131,6 +137,31 @@ public class ApplicationManager implements Closeable {
 
   public void registerApplicationInfo(
       String appId, String user, String version, String gitCommitId) {
+    doRegisterApplicationInfo(appId, user, version, gitCommitId);
+    appendApplicationState(appId, user, version, gitCommitId);
+  }
+
+  // the peers refresh the update time of the application when applying the entry, and only the
+  // latest entry of the application is kept in the log, so the heartbeats between two shipments
+  // are coalesced into one entry
+  private void appendApplicationState(
+      String appId, String user, String version, String gitCommitId) {
+    CoordinatorStateLog log = stateLog;
+    if (log != null) {
+      log.append(
+          CoordinatorStateEntry.newBuilder()
+              .setKey(CoordinatorStateLog.applicationKey(appId))
+              .setApplication(
+                  ApplicationState.newBuilder()
+                      .setAppId(appId)
+                      .setUser(user)
+                      .setVersion(version)
+                      .setGitCommitId(gitCommitId)));
+    }
+  }
+
+  private void doRegisterApplicationInfo(
+      String appId, String user, String version, String gitCommitId) {
     // using computeIfAbsent is just for MR and spark which is used RssShuffleManager as
     // implementation class
     // in such case by default, there is no currentUserAndApp, so a unified user implementation
@@ -166,6 +197,8 @@ public class ApplicationManager implements Closeable {
         appInfo = new AppInfo(appId, currentTimeMs, currentTimeMs, "", "");
         appAndTime.put(appId, appInfo);
       }
+      // replicate the heartbeat, otherwise the peers expire the alive application
+      appendApplicationState(appId, user, appInfo.getVersion(), appInfo.getGitCommitId());
     }
   }
 
@@ -243,9 +276,54 @@ public class ApplicationManager implements Closeable {
     }
     RemoteStorageInfo pickStorage = selectStorageStrategy.pickStorage(appId);
     incRemoteStorageCounter(pickStorage.getPath());
+    CoordinatorStateLog log = stateLog;
+    if (log != null) {
+      log.append(
+          CoordinatorStateEntry.newBuilder()
+              .setKey(CoordinatorStateLog.remoteStorageKey(appId))
+              .setRemoteStorage(
+                  RemoteStorageAssignment.newBuilder()
+                      .setAppId(appId)
+                      .setPath(pickStorage.getPath())));
+    }
     return appIdToRemoteStorageInfo.get(appId);
   }
 
+  @Override
+  public void setStateLog(CoordinatorStateLog stateLog) {
+    this.stateLog = stateLog;
+    if (quotaManager != null) {
+      quotaManager.setStateLog(stateLog);
+    }
+  }
+
+  @Override
+  public boolean apply(CoordinatorStateEntry entry) {
+    switch (entry.getStateCase()) {
+      case APPLICATION:
+        ApplicationState app = entry.getApplication();
+        if (!app.getQuotaReservation()) {
+          doRegisterApplicationInfo(
+              app.getAppId(), app.getUser(), app.getVersion(), app.getGitCommitId());
+        } else if (quotaManager != null) {
+          quotaManager.applyReservation(app.getUser(), app.getAppId());
+        }
+        return true;
+      case REMOTE_STORAGE:
+        String appId = entry.getRemoteStorage().getAppId();
+        String path = entry.getRemoteStorage().getPath();
+        RemoteStorageInfo remoteStorageInfo = availableRemoteStorageInfo.get(path);
+        if (remoteStorageInfo == null) {
+          LOG.warn("Replicated remote storage {} of {} isn't available", path, appId);
+        } else if (appIdToRemoteStorageInfo.putIfAbsent(appId, remoteStorageInfo) == null) {
+          incRemoteStorageCounter(path);
+        }
+        return true;
+      default:
+        return false;
+    }
+  }
+
   @VisibleForTesting
   public synchronized void incRemoteStorageCounter(String remoteStoragePath) {
     RankValue counter = remoteStoragePathRankValue.get(remoteStoragePath);
@@ -353,9 +431,14 @@ public class ApplicationManager implements Closeable {
         }
       }
       LOG.info("Start to check status for {} applications.", appIds.size());
+      CoordinatorStateLog log = stateLog;
       for (String appId : expiredAppIds) {
         LOG.info("Remove expired application : {}.", appId);
         appIds.remove(appId);
+        if (log != null) {
+          log.remove(CoordinatorStateLog.applicationKey(appId));
+          log.remove(CoordinatorStateLog.remoteStorageKey(appId));
+        }
         if (appIdToRemoteStorageInfo.containsKey(appId)) {
           decRemoteStorageCounter(appIdToRemoteStorageInfo.get(appId).getPath());
           appIdToRemoteStorageInfo.remove(appId);
@@ -21,6 +21,8 @@ import java.io.Closeable;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.uniffle.proto.RssProtos.ShuffleServerHeartBeatRequest;
+
 public interface ClusterManager extends Closeable {
 
   /**
@@ -30,6 +32,15 @@ public interface ClusterManager extends Closeable {
    */
   void add(ServerNode shuffleServerInfo);
 
+  /**
+   * Update a registered server in place with a delta heartbeat.
+   *
+   * @param delta the delta heartbeat which only contains the changed fields
+   * @return the updated server node, null if the server isn't registered and a full heartbeat is
+   *     required
+   */
+  ServerNode update(ShuffleServerHeartBeatRequest delta);
+
   /**
    * Get available nodes from the cluster
    *
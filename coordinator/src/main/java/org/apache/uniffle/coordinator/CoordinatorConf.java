@@ -256,6 +256,29 @@ public class CoordinatorConf extends RssBaseConf {
           .asList()
           .defaultValues("appHeartbeat", "heartbeat")
           .withDescription("Exclude record rpc audit operation list, separated by ','");
+  public static final ConfigOption<Boolean> COORDINATOR_STATE_REPLICATION_ENABLED =
+      ConfigOptions.key("rss.coordinator.state.replication.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to replicate the application, quota and assignment state to the peer "
+                  + "coordinators, so a standby coordinator can take over with the state intact");
+  public static final ConfigOption<List<String>> COORDINATOR_STATE_REPLICATION_PEERS =
+      ConfigOptions.key("rss.coordinator.state.replication.peers")
+          .stringType()
+          .asList()
+          .noDefaultValue()
+          .withDescription("The peer coordinators to replicate the state to, as host:port");
+  public static final ConfigOption<Long> COORDINATOR_STATE_REPLICATION_INTERVAL =
+      ConfigOptions.key("rss.coordinator.state.replication.interval")
+          .longType()
+          .defaultValue(1000L)
+          .withDescription("The interval (ms) to ship the state log to the peer coordinators");
+  public static final ConfigOption<Integer> COORDINATOR_STATE_REPLICATION_BATCH_SIZE =
+      ConfigOptions.key("rss.coordinator.state.replication.batchSize")
+          .intType()
+          .defaultValue(1000)
+          .withDescription("The max number of state log entries shipped in one request");
 
   public CoordinatorConf() {}
 
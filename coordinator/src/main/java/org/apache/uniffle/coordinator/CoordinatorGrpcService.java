@@ -43,6 +43,7 @@ import org.apache.uniffle.coordinator.access.AccessCheckResult;
 import org.apache.uniffle.coordinator.access.AccessInfo;
 import org.apache.uniffle.coordinator.audit.CoordinatorRpcAuditContext;
 import org.apache.uniffle.coordinator.conf.RssClientConfFetchInfo;
+import org.apache.uniffle.coordinator.replication.CoordinatorStateReplicator;
 import org.apache.uniffle.coordinator.strategy.assignment.PartitionRangeAssignment;
 import org.apache.uniffle.coordinator.util.CoordinatorUtils;
 import org.apache.uniffle.proto.CoordinatorServerGrpc;
@@ -64,6 +65,8 @@ import org.apache.uniffle.proto.RssProtos.GetShuffleServerNumResponse;
 import org.apache.uniffle.proto.RssProtos.GetShuffleServerRequest;
 import org.apache.uniffle.proto.RssProtos.RemoteStorage;
 import org.apache.uniffle.proto.RssProtos.RemoteStorageConfItem;
+import org.apache.uniffle.proto.RssProtos.ReplicateStateRequest;
+import org.apache.uniffle.proto.RssProtos.ReplicateStateResponse;
 import org.apache.uniffle.proto.RssProtos.ReportShuffleClientOpRequest;
 import org.apache.uniffle.proto.RssProtos.ReportShuffleClientOpResponse;
 import org.apache.uniffle.proto.RssProtos.ShuffleServerHeartBeatRequest;
@@ -235,16 +238,28 @@ public class CoordinatorGrpcService extends CoordinatorServerGrpc.CoordinatorSer
       ShuffleServerHeartBeatRequest request,
       StreamObserver<ShuffleServerHeartBeatResponse> responseObserver) {
     try (CoordinatorRpcAuditContext auditContext = createAuditContext("heartbeat")) {
-      final ServerNode serverNode = toServerNode(request);
-      auditContext.withArgs("serverNode=" + serverNode.getId());
-      coordinatorServer.getClusterManager().add(serverNode);
-      final ShuffleServerHeartBeatResponse response =
+      auditContext.withArgs("serverNode=" + request.getServerId().getId());
+      final ShuffleServerHeartBeatResponse.Builder builder =
           ShuffleServerHeartBeatResponse.newBuilder()
               .setRetMsg("")
               .setStatus(StatusCode.SUCCESS)
-              .build();
+              .setDeltaSupported(true);
+      final ServerNode serverNode;
+      if (request.getDelta()) {
+        serverNode = coordinatorServer.getClusterManager().update(request);
+        if (serverNode == null) {
+          LOG.info(
+              "Got delta heartbeat from unregistered server {}, require a full one",
+              request.getServerId().getId());
+          builder.setRequireFullSnapshot(true);
+        }
+      } else {
+        serverNode = toServerNode(request);
+        coordinatorServer.getClusterManager().add(serverNode);
+      }
+      final ShuffleServerHeartBeatResponse response = builder.build();
       if (LOG.isDebugEnabled()) {
-        LOG.debug("Got heartbeat from {}", serverNode);
+        LOG.debug("Got heartbeat from {}, delta: {}", serverNode, request.getDelta());
       }
       auditContext.withStatusCode(response.getStatus());
       responseObserver.onNext(response);
@@ -509,6 +524,34 @@ public class CoordinatorGrpcService extends CoordinatorServerGrpc.CoordinatorSer
     }
   }
 
+  @Override
+  public void replicateState(
+      ReplicateStateRequest request, StreamObserver<ReplicateStateResponse> responseObserver) {
+    try (CoordinatorRpcAuditContext auditContext = createAuditContext("replicateState")) {
+      auditContext.withArgs(
+          "coordinatorId="
+              + request.getCoordinatorId()
+              + ", fromSequence="
+              + request.getFromSequence()
+              + ", entries="
+              + request.getEntriesCount());
+      CoordinatorStateReplicator stateReplicator = coordinatorServer.getStateReplicator();
+      ReplicateStateResponse response;
+      if (stateReplicator == null) {
+        response =
+            ReplicateStateResponse.newBuilder()
+                .setStatus(StatusCode.INTERNAL_ERROR)
+                .setRetMsg("State replication is disabled")
+                .build();
+      } else {
+        response = stateReplicator.apply(request);
+      }
+      auditContext.withStatusCode(response.getStatus());
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+    }
+  }
+
   private ServerNode toServerNode(ShuffleServerHeartBeatRequest request) {
     ServerStatus serverStatus =
         request.hasStatus() ? ServerStatus.fromProto(request.getStatus()) : ServerStatus.ACTIVE;
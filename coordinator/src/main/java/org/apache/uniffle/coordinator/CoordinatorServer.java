@@ -17,6 +17,7 @@
 
 package org.apache.uniffle.coordinator;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 import io.prometheus.client.CollectorRegistry;
@@ -45,6 +46,9 @@ import org.apache.uniffle.coordinator.conf.DynamicClientConfService;
 import org.apache.uniffle.coordinator.conf.RssClientConfApplyManager;
 import org.apache.uniffle.coordinator.metric.CoordinatorGrpcMetrics;
 import org.apache.uniffle.coordinator.metric.CoordinatorMetrics;
+import org.apache.uniffle.coordinator.replication.CoordinatorStateReplicator;
+import org.apache.uniffle.coordinator.replication.GrpcCoordinatorStatePeer;
+import org.apache.uniffle.coordinator.replication.ReplicatedStateStore;
 import org.apache.uniffle.coordinator.strategy.assignment.AssignmentStrategy;
 import org.apache.uniffle.coordinator.strategy.assignment.AssignmentStrategyFactory;
 import org.apache.uniffle.coordinator.util.CoordinatorUtils;
@@ -69,6 +73,7 @@ public class CoordinatorServer {
   private RssClientConfApplyManager clientConfApplyManager;
   private AccessManager accessManager;
   private ApplicationManager applicationManager;
+  private CoordinatorStateReplicator stateReplicator;
   private GRPCMetrics grpcMetrics;
   private MetricReporter metricReporter;
   private String id;
@@ -108,6 +113,10 @@ public class CoordinatorServer {
         "{} version: {}", this.getClass().getSimpleName(), Constants.VERSION_AND_REVISION_SHORT);
     jettyServer.start();
     rpcListenPort = server.start();
+    if (stateReplicator != null) {
+      stateReplicator.start(
+          coordinatorConf.get(CoordinatorConf.COORDINATOR_STATE_REPLICATION_INTERVAL));
+    }
     if (metricReporter != null) {
       metricReporter.start();
     }
@@ -132,6 +141,9 @@ public class CoordinatorServer {
     if (jettyServer != null) {
       jettyServer.stop();
     }
+    if (stateReplicator != null) {
+      stateReplicator.close();
+    }
     if (applicationManager != null) {
       applicationManager.close();
     }
@@ -196,6 +208,9 @@ public class CoordinatorServer {
     AssignmentStrategyFactory assignmentStrategyFactory =
         new AssignmentStrategyFactory(coordinatorConf, clusterManager);
     this.assignmentStrategy = assignmentStrategyFactory.getAssignmentStrategy();
+    if (coordinatorConf.get(CoordinatorConf.COORDINATOR_STATE_REPLICATION_ENABLED)) {
+      initStateReplication();
+    }
     this.accessManager =
         new AccessManager(
             coordinatorConf, clusterManager, applicationManager.getQuotaManager(), hadoopConf);
@@ -227,6 +242,33 @@ public class CoordinatorServer {
             JvmMetrics.getCollectorRegistry()));
   }
 
+  private void initStateReplication() {
+    stateReplicator =
+        new CoordinatorStateReplicator(
+            id,
+            startTimeMs,
+            coordinatorConf.get(CoordinatorConf.COORDINATOR_STATE_REPLICATION_BATCH_SIZE));
+    stateReplicator.register(applicationManager);
+    if (assignmentStrategy instanceof ReplicatedStateStore) {
+      stateReplicator.register((ReplicatedStateStore) assignmentStrategy);
+    }
+    List<String> peers = coordinatorConf.get(CoordinatorConf.COORDINATOR_STATE_REPLICATION_PEERS);
+    if (peers == null) {
+      return;
+    }
+    long timeoutMs = coordinatorConf.get(CoordinatorConf.COORDINATOR_STATE_REPLICATION_INTERVAL);
+    for (String peer : peers) {
+      String[] hostAndPort = peer.trim().split(":");
+      if (hostAndPort.length != 2) {
+        throw new RssException("Invalid peer coordinator " + peer + ", it should be host:port");
+      }
+      stateReplicator.addPeer(
+          new GrpcCoordinatorStatePeer(
+              hostAndPort[0], Integer.parseInt(hostAndPort[1]), timeoutMs));
+    }
+    LOG.info("Replicate the coordinator state to {}", peers);
+  }
+
   private void registerMetrics() throws Exception {
     LOG.info("Register metrics");
     CollectorRegistry coordinatorCollectorRegistry = new CollectorRegistry(true);
@@ -269,6 +311,10 @@ public class CoordinatorServer {
     return clientConfApplyManager;
   }
 
+  public CoordinatorStateReplicator getStateReplicator() {
+    return stateReplicator;
+  }
+
   public GRPCMetrics getGrpcMetrics() {
     return grpcMetrics;
   }
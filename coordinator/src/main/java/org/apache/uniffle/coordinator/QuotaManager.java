@@ -40,6 +40,9 @@ import org.apache.uniffle.common.util.Constants;
 import org.apache.uniffle.common.util.JavaUtils;
 import org.apache.uniffle.common.util.ThreadUtils;
 import org.apache.uniffle.coordinator.metric.CoordinatorMetrics;
+import org.apache.uniffle.coordinator.replication.CoordinatorStateLog;
+import org.apache.uniffle.proto.RssProtos.ApplicationState;
+import org.apache.uniffle.proto.RssProtos.CoordinatorStateEntry;
 
 /** QuotaManager is a manager for resource restriction. */
 public class QuotaManager {
@@ -51,6 +54,7 @@ public class QuotaManager {
   private FileSystem hadoopFileSystem;
   private final AtomicLong quotaFileLastModify = new AtomicLong(0L);
   private final Map<String, Integer> defaultUserApps = JavaUtils.newConcurrentMap();
+  private volatile CoordinatorStateLog stateLog;
 
   public QuotaManager(CoordinatorConf conf) {
     this.quotaFilePath = conf.get(CoordinatorConf.COORDINATOR_QUOTA_DEFAULT_PATH);
@@ -130,6 +134,17 @@ public class QuotaManager {
         if (appInfo == null) {
           appInfo = new AppInfo(uuid, currentTimeMillis, currentTimeMillis, "", "");
           appAndTimes.put(uuid, appInfo);
+          CoordinatorStateLog log = stateLog;
+          if (log != null) {
+            log.append(
+                CoordinatorStateEntry.newBuilder()
+                    .setKey(CoordinatorStateLog.applicationKey(uuid))
+                    .setApplication(
+                        ApplicationState.newBuilder()
+                            .setAppId(uuid)
+                            .setUser(user)
+                            .setQuotaReservation(true)));
+          }
         } else {
           appInfo.setUpdateTime(currentTimeMillis);
         }
@@ -149,8 +164,11 @@ public class QuotaManager {
     String[] appIdAndUuid = appId.split("_");
     String uuidFromApp = appIdAndUuid[appIdAndUuid.length - 1];
     // if appId created successfully, we need to remove the uuid
+    CoordinatorStateLog log = stateLog;
     synchronized (this) {
-      appAndTime.remove(uuidFromApp);
+      if (appAndTime.remove(uuidFromApp) != null && log != null) {
+        log.remove(CoordinatorStateLog.applicationKey(uuidFromApp));
+      }
       // thread safe is guaranteed by synchronized
       AppInfo appInfo = appAndTime.get(appId);
       if (appInfo == null) {
@@ -162,6 +180,21 @@ public class QuotaManager {
     }
   }
 
+  void setStateLog(CoordinatorStateLog stateLog) {
+    this.stateLog = stateLog;
+  }
+
+  /** Apply the uuid reserved by the quota check on a peer coordinator. */
+  void applyReservation(String user, String uuid) {
+    Map<String, AppInfo> appAndTimes =
+        currentUserAndApp.computeIfAbsent(user, x -> JavaUtils.newConcurrentMap());
+    long currentTimeMillis = System.currentTimeMillis();
+    synchronized (this) {
+      appAndTimes.putIfAbsent(
+          uuid, new AppInfo(uuid, currentTimeMillis, currentTimeMillis, "", ""));
+    }
+  }
+
   protected void updateQuotaMetrics() {
     for (Map.Entry<String, Map<String, AppInfo>> userAndApp : currentUserAndApp.entrySet()) {
       String user = userAndApp.getKey();
@@ -28,6 +28,7 @@ import com.google.common.collect.Sets;
 
 import org.apache.uniffle.common.ServerStatus;
 import org.apache.uniffle.common.storage.StorageInfo;
+import org.apache.uniffle.common.storage.StorageInfoUtils;
 import org.apache.uniffle.proto.RssProtos;
 import org.apache.uniffle.proto.RssProtos.ShuffleServerId;
 
@@ -36,15 +37,15 @@ public class ServerNode implements Comparable<ServerNode> {
   private String id;
   private String ip;
   private int grpcPort;
-  private long usedMemory;
-  private long preAllocatedMemory;
-  private long availableMemory;
-  private int eventNumInFlush;
+  private volatile long usedMemory;
+  private volatile long preAllocatedMemory;
+  private volatile long availableMemory;
+  private volatile int eventNumInFlush;
   private long registrationTime;
-  private long timestamp;
-  private Set<String> tags;
-  private ServerStatus status;
-  private Map<String, StorageInfo> storageInfo;
+  private volatile long timestamp;
+  private volatile Set<String> tags;
+  private volatile ServerStatus status;
+  private volatile Map<String, StorageInfo> storageInfo;
   private int nettyPort = -1;
   private int jettyPort = -1;
   private long startTime = -1;
@@ -232,6 +233,43 @@ public class ServerNode implements Comparable<ServerNode> {
     appInfos.forEach(appInfo -> appIdToInfos.put(appInfo.getAppId(), appInfo));
   }
 
+  /**
+   * Update the node in place with a delta heartbeat, the fields, storages and applications which
+   * are absent in the delta keep their previous values.
+   */
+  void applyDelta(RssProtos.ShuffleServerHeartBeatRequest delta) {
+    if (delta.hasUsedMemory()) {
+      usedMemory = delta.getUsedMemory();
+    }
+    if (delta.hasPreAllocatedMemory()) {
+      preAllocatedMemory = delta.getPreAllocatedMemory();
+    }
+    if (delta.hasAvailableMemory()) {
+      availableMemory = delta.getAvailableMemory();
+    }
+    if (delta.hasEventNumInFlush()) {
+      eventNumInFlush = delta.getEventNumInFlush();
+    }
+    if (delta.getTagsChanged()) {
+      tags = Sets.newHashSet(delta.getTagsList());
+    }
+    if (delta.hasStatus()) {
+      status = ServerStatus.fromProto(delta.getStatus());
+    }
+    if (delta.getStorageInfoCount() > 0 || delta.getRemovedStoragesCount() > 0) {
+      // copy on write, the storage info may be iterated by the assignment and the web service
+      Map<String, StorageInfo> newStorageInfo = Maps.newHashMap(storageInfo);
+      newStorageInfo.putAll(StorageInfoUtils.fromProto(delta.getStorageInfoMap()));
+      delta.getRemovedStoragesList().forEach(newStorageInfo::remove);
+      storageInfo = newStorageInfo;
+    }
+    delta
+        .getApplicationInfoList()
+        .forEach(appInfo -> appIdToInfos.put(appInfo.getAppId(), appInfo));
+    delta.getRemovedApplicationsList().forEach(appIdToInfos::remove);
+    timestamp = System.currentTimeMillis();
+  }
+
   public ShuffleServerId convertToGrpcProto() {
     return ShuffleServerId.newBuilder()
         .setId(id)
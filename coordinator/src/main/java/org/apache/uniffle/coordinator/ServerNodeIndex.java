@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.coordinator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import org.apache.uniffle.common.ServerStatus;
+import org.apache.uniffle.common.util.JavaUtils;
+
+/**
+ * The index of the server nodes grouped by their status and tag combination. There are only a few
+ * distinct groups even for thousands of servers, so a lookup only checks the tags of the groups and
+ * then visits the matched nodes, and a heartbeat only moves the node between two groups.
+ *
+ * <p>The map of the groups is copy-on-write and only replaced when a new group appears, so the
+ * lookups are lock free. The updates are guarded by the index itself, the callers also hold it to
+ * update the index together with the map of the alive servers.
+ */
+class ServerNodeIndex {
+
+  private volatile Map<GroupKey, Map<String, ServerNode>> groups = ImmutableMap.of();
+  // server id -> the group key of the server, guarded by this
+  private final Map<String, GroupKey> serverGroupKeys = JavaUtils.newConcurrentMap();
+
+  synchronized void put(ServerNode node) {
+    GroupKey key = new GroupKey(node.getStatus(), node.getTags());
+    GroupKey previous = serverGroupKeys.put(node.getId(), key);
+    if (previous != null && !previous.equals(key)) {
+      groups.get(previous).remove(node.getId());
+    }
+    Map<String, ServerNode> group = groups.get(key);
+    if (group == null) {
+      group = JavaUtils.newConcurrentMap();
+      groups =
+          ImmutableMap.<GroupKey, Map<String, ServerNode>>builder()
+              .putAll(groups)
+              .put(key, group)
+              .build();
+    }
+    group.put(node.getId(), node);
+  }
+
+  /** Remove the node if it's still indexed, the newer node with the same id is kept. */
+  synchronized void remove(ServerNode node) {
+    GroupKey key = serverGroupKeys.get(node.getId());
+    // the nodes are equal by id, so compare the instances
+    if (key != null && groups.get(key).get(node.getId()) == node) {
+      groups.get(key).remove(node.getId());
+      serverGroupKeys.remove(node.getId());
+    }
+  }
+
+  /** Whether the node is indexed, rather than another node with the same id. */
+  synchronized boolean contains(ServerNode node) {
+    GroupKey key = serverGroupKeys.get(node.getId());
+    return key != null && groups.get(key).get(node.getId()) == node;
+  }
+
+  synchronized void clear() {
+    serverGroupKeys.clear();
+    groups = ImmutableMap.of();
+  }
+
+  /** Get the nodes with the status and all the required tags, which are accepted by the filter. */
+  List<ServerNode> get(
+      ServerStatus status, Set<String> requiredTags, Predicate<ServerNode> filter) {
+    List<ServerNode> nodes = Lists.newArrayList();
+    for (Map.Entry<GroupKey, Map<String, ServerNode>> entry : groups.entrySet()) {
+      GroupKey key = entry.getKey();
+      if (key.status == status && key.tags.containsAll(requiredTags)) {
+        for (ServerNode node : entry.getValue().values()) {
+          // the status of the node may be changed after it is indexed
+          if (status.equals(node.getStatus()) && filter.test(node)) {
+            nodes.add(node);
+          }
+        }
+      }
+    }
+    return nodes;
+  }
+
+  private static class GroupKey {
+    private final ServerStatus status;
+    private final Set<String> tags;
+
+    GroupKey(ServerStatus status, Set<String> tags) {
+      this.status = status;
+      this.tags = ImmutableSet.copyOf(tags);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      GroupKey that = (GroupKey) o;
+      return status == that.status && tags.equals(that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(status, tags);
+    }
+  }
+}
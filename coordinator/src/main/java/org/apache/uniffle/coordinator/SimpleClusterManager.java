@@ -58,6 +58,7 @@ import org.apache.uniffle.common.filesystem.HadoopFilesystemProvider;
 import org.apache.uniffle.common.util.JavaUtils;
 import org.apache.uniffle.common.util.ThreadUtils;
 import org.apache.uniffle.coordinator.metric.CoordinatorMetrics;
+import org.apache.uniffle.proto.RssProtos.ShuffleServerHeartBeatRequest;
 
 public class SimpleClusterManager implements ClusterManager {
 
@@ -71,6 +72,7 @@ public class SimpleClusterManager implements ClusterManager {
   Set<ServerNode> unhealthyNodes = Sets.newHashSet();
   // tag -> nodes
   private Map<String, Set<ServerNode>> tagToNodes = JavaUtils.newConcurrentMap();
+  private final ServerNodeIndex serverNodeIndex = new ServerNodeIndex();
   private AtomicLong excludeLastModify = new AtomicLong(0L);
   private long heartbeatTimeout;
   private ReconfigurableConfManager.Reconfigurable<Integer> shuffleNodesMax;
@@ -152,14 +154,22 @@ public class SimpleClusterManager implements ClusterManager {
         }
       }
       for (ServerNode server : lostNodes) {
-        ServerNode sn = servers.remove(server.getId());
-        unhealthyNodes.remove(sn);
-        if (sn != null) {
-          clientCache.invalidate(sn);
-          for (Set<ServerNode> nodesWithTag : tagToNodes.values()) {
-            nodesWithTag.remove(sn);
+        boolean removed;
+        // the server may register again with a new node after it's found lost, only remove the
+        // lost node together with its index
+        synchronized (serverNodeIndex) {
+          // the nodes are equal by id, so compare the instances
+          removed = servers.get(server.getId()) == server;
+          if (removed) {
+            servers.remove(server.getId());
+            serverNodeIndex.remove(server);
           }
         }
+        if (removed) {
+          unhealthyNodes.remove(server);
+          clientCache.invalidate(server);
+          removeFromTagToNodes(server, server.getTags());
+        }
       }
       if (!lostNodes.isEmpty() || outputAliveServerCount % periodicOutputIntervalTimes == 0) {
         LOG.info(
@@ -295,54 +305,78 @@ public class SimpleClusterManager implements ClusterManager {
       // inherit registration time
       node.setRegistrationTime(regTime);
     }
-    servers.put(node.getId(), node);
+    synchronized (serverNodeIndex) {
+      servers.put(node.getId(), node);
+      serverNodeIndex.put(node);
+    }
 
-    Set<String> tags = node.getTags();
-    // remove node with all tags to deal with the situation of tag change
-    for (Set<ServerNode> nodes : tagToNodes.values()) {
-      nodes.remove(node);
+    // remove node with the previous tags to deal with the situation of tag change
+    if (pre != null) {
+      removeFromTagToNodes(pre, pre.getTags());
     }
     // add node to related tags
-    for (String tag : tags) {
-      tagToNodes.computeIfAbsent(tag, key -> Sets.newConcurrentHashSet());
-      tagToNodes.get(tag).add(node);
+    for (String tag : node.getTags()) {
+      tagToNodes.computeIfAbsent(tag, key -> Sets.newConcurrentHashSet()).add(node);
     }
   }
 
   @Override
-  public List<ServerNode> getServerList(Set<String> requiredTags) {
-    List<ServerNode> availableNodes = Lists.newArrayList();
-    for (ServerNode node : servers.values()) {
-      if (!ServerStatus.ACTIVE.equals(node.getStatus())) {
-        continue;
+  public ServerNode update(ShuffleServerHeartBeatRequest delta) {
+    ServerNode node = servers.get(delta.getServerId().getId());
+    if (node == null) {
+      return null;
+    }
+    ServerStatus preStatus = node.getStatus();
+    Set<String> preTags = node.getTags();
+    node.applyDelta(delta);
+    synchronized (serverNodeIndex) {
+      // the node may be removed as lost concurrently, let the server register again
+      if (servers.get(node.getId()) != node) {
+        return null;
       }
-      if (!excludedNodes.contains(node.getId()) && node.getTags().containsAll(requiredTags)) {
-        availableNodes.add(node);
+      // the node missing in the index is indexed again, otherwise it's never assigned until its
+      // status or tags change
+      if (preStatus != node.getStatus()
+          || preTags != node.getTags()
+          || !serverNodeIndex.contains(node)) {
+        serverNodeIndex.put(node);
       }
     }
-    return availableNodes;
+    if (preTags != node.getTags()) {
+      removeFromTagToNodes(node, preTags);
+      for (String tag : node.getTags()) {
+        tagToNodes.computeIfAbsent(tag, key -> Sets.newConcurrentHashSet()).add(node);
+      }
+    }
+    return node;
   }
 
-  @Override
-  public List<ServerNode> getServerList(Set<String> requiredTags, Set<String> faultyServerIds) {
-    List<ServerNode> availableNodes = Lists.newArrayList();
-    for (ServerNode node : servers.values()) {
-      if (!ServerStatus.ACTIVE.equals(node.getStatus())) {
-        continue;
-      }
-      if (isNodeAvailable(requiredTags, faultyServerIds, node)) {
-        availableNodes.add(node);
+  private void removeFromTagToNodes(ServerNode node, Set<String> tags) {
+    for (String tag : tags) {
+      Set<ServerNode> nodesWithTag = tagToNodes.get(tag);
+      if (nodesWithTag != null) {
+        nodesWithTag.remove(node);
       }
     }
-    return availableNodes;
   }
 
-  private boolean isNodeAvailable(
-      Set<String> requiredTags, Set<String> faultyServerIds, ServerNode node) {
+  @Override
+  public List<ServerNode> getServerList(Set<String> requiredTags) {
+    return serverNodeIndex.get(
+        ServerStatus.ACTIVE, requiredTags, node -> !excludedNodes.contains(node.getId()));
+  }
+
+  @Override
+  public List<ServerNode> getServerList(Set<String> requiredTags, Set<String> faultyServerIds) {
+    return serverNodeIndex.get(
+        ServerStatus.ACTIVE, requiredTags, node -> isNodeAvailable(faultyServerIds, node));
+  }
+
+  private boolean isNodeAvailable(Set<String> faultyServerIds, ServerNode node) {
     if (faultyServerIds != null && faultyServerIds.contains(node.getId())) {
       return false;
     }
-    return !excludedNodes.contains(node.getId()) && node.getTags().containsAll(requiredTags);
+    return !excludedNodes.contains(node.getId());
   }
 
   @Override
@@ -414,6 +448,7 @@ public class SimpleClusterManager implements ClusterManager {
   @VisibleForTesting
   public void clear() {
     servers.clear();
+    serverNodeIndex.clear();
   }
 
   @Override
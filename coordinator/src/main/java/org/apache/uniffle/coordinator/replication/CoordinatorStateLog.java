@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.coordinator.replication;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.uniffle.proto.RssProtos.CoordinatorStateEntry;
+
+/**
+ * The append-only log of the state changes of a coordinator. Every entry has a key and only the
+ * latest entry of a key is kept, so the log is bounded by the size of the live state, and reading
+ * it from the beginning gives a full snapshot of the state.
+ */
+public class CoordinatorStateLog {
+
+  // sequence -> entry, guarded by this
+  private final NavigableMap<Long, CoordinatorStateEntry> entries = new TreeMap<>();
+  // key -> the sequence of its latest entry, guarded by this
+  private final Map<String, Long> keyToSequence = Maps.newHashMap();
+  private long lastSequence = 0;
+
+  public synchronized long append(CoordinatorStateEntry.Builder entry) {
+    long sequence = ++lastSequence;
+    CoordinatorStateEntry built = entry.setSequence(sequence).build();
+    Long previous = keyToSequence.put(built.getKey(), sequence);
+    if (previous != null) {
+      entries.remove(previous);
+    }
+    entries.put(sequence, built);
+    return sequence;
+  }
+
+  /** Remove the entry of the key when the state expires, the peers expire it on their own. */
+  public synchronized void remove(String key) {
+    Long sequence = keyToSequence.remove(key);
+    if (sequence != null) {
+      entries.remove(sequence);
+    }
+  }
+
+  /** Read at most maxEntries entries after the sequence. */
+  public synchronized List<CoordinatorStateEntry> read(long afterSequence, int maxEntries) {
+    List<CoordinatorStateEntry> result = Lists.newArrayList();
+    for (CoordinatorStateEntry entry : entries.tailMap(afterSequence, false).values()) {
+      if (result.size() >= maxEntries) {
+        break;
+      }
+      result.add(entry);
+    }
+    return result;
+  }
+
+  public synchronized long getLastSequence() {
+    return lastSequence;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public static String applicationKey(String appId) {
+    return "app/" + appId;
+  }
+
+  public static String remoteStorageKey(String appId) {
+    return "storage/" + appId;
+  }
+
+  public static String serverPartitionsKey(String serverId) {
+    return "server/" + serverId;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.coordinator.replication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.common.util.JavaUtils;
+import org.apache.uniffle.common.util.ThreadUtils;
+import org.apache.uniffle.proto.RssProtos.CoordinatorStateEntry;
+import org.apache.uniffle.proto.RssProtos.ReplicateStateRequest;
+import org.apache.uniffle.proto.RssProtos.ReplicateStateResponse;
+import org.apache.uniffle.proto.RssProtos.StatusCode;
+
+/**
+ * Ships the state log of this coordinator to the peer coordinators, and applies the logs shipped
+ * from the peers to the local stores. Every peer acknowledges the last sequence it has applied, so
+ * a peer which restarts gets the whole log again, which is a full snapshot of the state.
+ */
+public class CoordinatorStateReplicator implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CoordinatorStateReplicator.class);
+
+  private final String coordinatorId;
+  private final long epoch;
+  private final int batchSize;
+  private final CoordinatorStateLog stateLog = new CoordinatorStateLog();
+  private final List<ReplicatedStateStore> stores = new CopyOnWriteArrayList<>();
+  // peer -> the last sequence of this coordinator applied by the peer
+  private final Map<CoordinatorStatePeer, Long> peerToAppliedSequence =
+      JavaUtils.newConcurrentMap();
+  // coordinator id -> the applied position of the log shipped from the coordinator
+  private final Map<String, AppliedPosition> appliedPositions = JavaUtils.newConcurrentMap();
+  private ScheduledExecutorService shipScheduler;
+
+  public CoordinatorStateReplicator(String coordinatorId, long epoch, int batchSize) {
+    this.coordinatorId = coordinatorId;
+    this.epoch = epoch;
+    this.batchSize = batchSize;
+  }
+
+  public void register(ReplicatedStateStore store) {
+    store.setStateLog(stateLog);
+    stores.add(store);
+  }
+
+  public void addPeer(CoordinatorStatePeer peer) {
+    peerToAppliedSequence.put(peer, 0L);
+  }
+
+  public void start(long intervalMs) {
+    shipScheduler = ThreadUtils.getDaemonSingleThreadScheduledExecutor("CoordinatorStateShipper");
+    shipScheduler.scheduleAtFixedRate(this::ship, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @VisibleForTesting
+  public void ship() {
+    for (Map.Entry<CoordinatorStatePeer, Long> entry : peerToAppliedSequence.entrySet()) {
+      CoordinatorStatePeer peer = entry.getKey();
+      long appliedSequence = entry.getValue();
+      ReplicateStateRequest request =
+          ReplicateStateRequest.newBuilder()
+              .setCoordinatorId(coordinatorId)
+              .setEpoch(epoch)
+              .setFromSequence(appliedSequence)
+              .addAllEntries(stateLog.read(appliedSequence, batchSize))
+              .build();
+      try {
+        ReplicateStateResponse response = peer.replicate(request);
+        if (response.getStatus() == StatusCode.SUCCESS) {
+          peerToAppliedSequence.put(peer, response.getAppliedSequence());
+        } else {
+          LOG.warn(
+              "Failed to replicate state to {}, status: {}, {}",
+              peer.getDesc(),
+              response.getStatus(),
+              response.getRetMsg());
+        }
+      } catch (Exception e) {
+        LOG.warn("Error happened when replicating state to {}", peer.getDesc(), e);
+      }
+    }
+  }
+
+  /** Apply the entries shipped from a peer coordinator. */
+  public synchronized ReplicateStateResponse apply(ReplicateStateRequest request) {
+    AppliedPosition position = appliedPositions.get(request.getCoordinatorId());
+    if (position == null || position.epoch != request.getEpoch()) {
+      LOG.info(
+          "Start to apply the state of coordinator {} with epoch {}",
+          request.getCoordinatorId(),
+          request.getEpoch());
+      position = new AppliedPosition(request.getEpoch());
+      appliedPositions.put(request.getCoordinatorId(), position);
+    }
+    // if some entries are missed, e.g. this coordinator restarted, nothing is applied and the
+    // peer will resend the log from the applied position
+    if (request.getFromSequence() <= position.sequence) {
+      for (CoordinatorStateEntry entry : request.getEntriesList()) {
+        if (entry.getSequence() > position.sequence) {
+          applyEntry(entry);
+          position.sequence = entry.getSequence();
+        }
+      }
+    }
+    return ReplicateStateResponse.newBuilder()
+        .setStatus(StatusCode.SUCCESS)
+        .setRetMsg("")
+        .setAppliedSequence(position.sequence)
+        .build();
+  }
+
+  private void applyEntry(CoordinatorStateEntry entry) {
+    try {
+      for (ReplicatedStateStore store : stores) {
+        if (store.apply(entry)) {
+          return;
+        }
+      }
+      LOG.warn("No store applies the replicated state entry {}", entry.getKey());
+    } catch (Exception e) {
+      LOG.warn("Error happened when applying the replicated state entry {}", entry.getKey(), e);
+    }
+  }
+
+  public CoordinatorStateLog getStateLog() {
+    return stateLog;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (shipScheduler != null) {
+      shipScheduler.shutdownNow();
+    }
+    for (CoordinatorStatePeer peer : peerToAppliedSequence.keySet()) {
+      peer.close();
+    }
+  }
+
+  private static class AppliedPosition {
+    private final long epoch;
+    private long sequence = 0;
+
+    AppliedPosition(long epoch) {
+      this.epoch = epoch;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.coordinator.replication;
+
+import org.apache.uniffle.client.impl.grpc.CoordinatorGrpcClient;
+import org.apache.uniffle.proto.RssProtos.ReplicateStateRequest;
+import org.apache.uniffle.proto.RssProtos.ReplicateStateResponse;
+
+public class GrpcCoordinatorStatePeer implements CoordinatorStatePeer {
+
+  private final CoordinatorGrpcClient client;
+  private final long timeoutMs;
+
+  public GrpcCoordinatorStatePeer(String host, int port, long timeoutMs) {
+    this.client = new CoordinatorGrpcClient(host, port);
+    this.timeoutMs = timeoutMs;
+  }
+
+  @Override
+  public String getDesc() {
+    return client.getDesc();
+  }
+
+  @Override
+  public ReplicateStateResponse replicate(ReplicateStateRequest request) {
+    return client.replicateState(request, timeoutMs);
+  }
+
+  @Override
+  public void close() {
+    client.close();
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.coordinator.replication;
+
+import org.apache.uniffle.proto.RssProtos.CoordinatorStateEntry;
+
+/** A store of the coordinator state which is replicated to the peer coordinators. */
+public interface ReplicatedStateStore {
+
+  /**
+   * Set the log which the local changes of the state are appended to.
+   *
+   * @param stateLog the state log of the coordinator
+   */
+  void setStateLog(CoordinatorStateLog stateLog);
+
+  /**
+   * Apply an entry replicated from a peer coordinator, the change must not be appended to the local
+   * state log again.
+   *
+   * @param entry the replicated entry
+   * @return whether the entry belongs to this store
+   */
+  boolean apply(CoordinatorStateEntry entry);
+}
@@ -18,10 +18,13 @@
 package org.apache.uniffle.coordinator.strategy.assignment;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -100,7 +103,10 @@ public class BasicAssignmentStrategy extends AbstractAssignmentStrategy {
     // status,
     // random the order of list to avoid always pick same nodes
     Collections.shuffle(servers);
-    Collections.sort(servers);
+    // the available memory is updated in place by the heartbeats, sort on a snapshot of it
+    Map<ServerNode, Long> availableMemory = Maps.newHashMapWithExpectedSize(servers.size());
+    servers.forEach(server -> availableMemory.put(server, server.getAvailableMemory()));
+    servers.sort(Comparator.comparing(availableMemory::get, Comparator.reverseOrder()));
     if (expectedNum > servers.size()) {
       LOG.warn("Can't get expected servers [{}] and found only [{}]", expectedNum, servers.size());
       return servers;
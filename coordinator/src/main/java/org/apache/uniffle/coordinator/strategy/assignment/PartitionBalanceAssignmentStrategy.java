@@ -25,6 +25,7 @@ import java.util.Set;
 import java.util.SortedMap;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +36,10 @@ import org.apache.uniffle.common.util.JavaUtils;
 import org.apache.uniffle.coordinator.ClusterManager;
 import org.apache.uniffle.coordinator.CoordinatorConf;
 import org.apache.uniffle.coordinator.ServerNode;
+import org.apache.uniffle.coordinator.replication.CoordinatorStateLog;
+import org.apache.uniffle.coordinator.replication.ReplicatedStateStore;
+import org.apache.uniffle.proto.RssProtos.CoordinatorStateEntry;
+import org.apache.uniffle.proto.RssProtos.ServerPartitionAssignment;
 
 /**
  * PartitionBalanceAssignmentStrategy will consider allocating partitions from two aspects
@@ -46,7 +51,8 @@ import org.apache.uniffle.coordinator.ServerNode;
  * request one partition, then S1 (2G, 0) S2 (5G, 2) s3(1G, 0), we request one partition, then Third
  * round, we request one partition, then S1 (2G, 1) S2 (5G, 2) s3(1G, 0) ....
  */
-public class PartitionBalanceAssignmentStrategy extends AbstractAssignmentStrategy {
+public class PartitionBalanceAssignmentStrategy extends AbstractAssignmentStrategy
+    implements ReplicatedStateStore {
 
   private static final Logger LOG =
       LoggerFactory.getLogger(PartitionBalanceAssignmentStrategy.class);
@@ -54,6 +60,7 @@ public class PartitionBalanceAssignmentStrategy extends AbstractAssignmentStrate
   private ClusterManager clusterManager;
   private Map<ServerNode, PartitionAssignmentInfo> serverToPartitions =
       JavaUtils.newConcurrentMap();
+  private volatile CoordinatorStateLog stateLog;
 
   public PartitionBalanceAssignmentStrategy(ClusterManager clusterManager, CoordinatorConf conf) {
     super(conf);
@@ -116,6 +123,9 @@ public class PartitionBalanceAssignmentStrategy extends AbstractAssignmentStrate
       serverToPartitions = newPartitionInfos;
       int averagePartitions = totalPartitionNum * replica / clusterManager.getShuffleNodesMax();
       int assignPartitions = Math.max(averagePartitions, 1);
+      // the available memory is updated in place by the heartbeats, sort on a snapshot of it
+      Map<ServerNode, Long> availableMemory = Maps.newHashMapWithExpectedSize(nodes.size());
+      nodes.forEach(node -> availableMemory.put(node, node.getAvailableMemory()));
       nodes.sort(
           new Comparator<ServerNode>() {
             @Override
@@ -123,11 +133,11 @@ public class PartitionBalanceAssignmentStrategy extends AbstractAssignmentStrate
               PartitionAssignmentInfo partitionInfo1 = serverToPartitions.get(o1);
               PartitionAssignmentInfo partitionInfo2 = serverToPartitions.get(o2);
               double v1 =
-                  o1.getAvailableMemory()
+                  availableMemory.get(o1)
                       * 1.0
                       / (partitionInfo1.getPartitionNum() + assignPartitions);
               double v2 =
-                  o2.getAvailableMemory()
+                  availableMemory.get(o2)
                       * 1.0
                       / (partitionInfo2.getPartitionNum() + assignPartitions);
               return Double.compare(v2, v1);
@@ -160,10 +170,46 @@ public class PartitionBalanceAssignmentStrategy extends AbstractAssignmentStrate
       assignments.values().stream()
           .flatMap(Collection::stream)
           .forEach(server -> serverToPartitions.get(server).incrementPartitionNum());
+      CoordinatorStateLog log = stateLog;
+      if (log != null) {
+        for (ServerNode server : candidatesNodes) {
+          PartitionAssignmentInfo partitionInfo = serverToPartitions.get(server);
+          log.append(
+              CoordinatorStateEntry.newBuilder()
+                  .setKey(CoordinatorStateLog.serverPartitionsKey(server.getId()))
+                  .setServerPartitions(
+                      ServerPartitionAssignment.newBuilder()
+                          .setServerId(server.getId())
+                          .setPartitionNum(partitionInfo.getPartitionNum())
+                          .setTimestamp(partitionInfo.getTimestamp())));
+        }
+      }
     }
     return new PartitionRangeAssignment(assignments);
   }
 
+  @Override
+  public void setStateLog(CoordinatorStateLog stateLog) {
+    this.stateLog = stateLog;
+  }
+
+  @Override
+  public boolean apply(CoordinatorStateEntry entry) {
+    if (entry.getStateCase() != CoordinatorStateEntry.StateCase.SERVER_PARTITIONS) {
+      return false;
+    }
+    ServerPartitionAssignment assignment = entry.getServerPartitions();
+    synchronized (this) {
+      // the server nodes are equal by id, the info is picked up by the next assignment
+      PartitionAssignmentInfo partitionInfo =
+          serverToPartitions.computeIfAbsent(
+              new ServerNode(assignment.getServerId()), key -> new PartitionAssignmentInfo());
+      partitionInfo.setPartitionNum(assignment.getPartitionNum());
+      partitionInfo.setTimestamp(assignment.getTimestamp());
+    }
+    return true;
+  }
+
   @VisibleForTesting
   Map<ServerNode, PartitionAssignmentInfo> getServerToPartitions() {
     return serverToPartitions;
@@ -183,6 +229,10 @@ public class PartitionBalanceAssignmentStrategy extends AbstractAssignmentStrate
       return partitionNum;
     }
 
+    public void setPartitionNum(int partitionNum) {
+      this.partitionNum = partitionNum;
+    }
+
     public void resetPartitionNum() {
       this.partitionNum = 0;
     }
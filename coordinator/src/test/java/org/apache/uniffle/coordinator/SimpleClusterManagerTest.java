@@ -28,6 +28,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Uninterruptibles;
 import org.apache.commons.collections4.CollectionUtils;
@@ -41,12 +42,19 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.uniffle.common.ClientType;
 import org.apache.uniffle.common.ServerStatus;
+import org.apache.uniffle.common.storage.StorageInfo;
+import org.apache.uniffle.common.storage.StorageMedia;
+import org.apache.uniffle.common.storage.StorageStatus;
 import org.apache.uniffle.common.util.JavaUtils;
 import org.apache.uniffle.coordinator.metric.CoordinatorMetrics;
+import org.apache.uniffle.proto.RssProtos;
+import org.apache.uniffle.proto.RssProtos.ShuffleServerHeartBeatRequest;
 
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SimpleClusterManagerTest {
@@ -128,6 +136,149 @@ public class SimpleClusterManagerTest {
     }
   }
 
+  @Test
+  public void getServerListAfterStatusAndTagChangeTest() throws Exception {
+    CoordinatorConf ssc = new CoordinatorConf();
+    ssc.setLong(CoordinatorConf.COORDINATOR_HEARTBEAT_TIMEOUT, 30 * 1000L);
+    try (SimpleClusterManager clusterManager = new SimpleClusterManager(ssc, new Configuration())) {
+      ServerNode sn1 = new ServerNode("sn1", "ip", 0, 100L, 50L, 20, 10, grpcTags);
+      ServerNode sn2 = new ServerNode("sn2", "ip", 0, 100L, 50L, 21, 10, testTags);
+      clusterManager.add(sn1);
+      clusterManager.add(sn2);
+      assertEquals(2, clusterManager.getServerList(testTags).size());
+      assertEquals(1, clusterManager.getServerList(grpcTags).size());
+      assertEquals(
+          Sets.newHashSet("sn2"),
+          clusterManager.getServerList(testTags, Sets.newHashSet("sn1")).stream()
+              .map(ServerNode::getId)
+              .collect(Collectors.toSet()));
+
+      // status changes
+      sn1 = new ServerNode("sn1", "ip", 0, 100L, 50L, 20, 10, grpcTags, ServerStatus.UNHEALTHY);
+      clusterManager.add(sn1);
+      assertEquals(0, clusterManager.getServerList(grpcTags).size());
+      assertEquals(1, clusterManager.getServerList(testTags).size());
+      sn1 = new ServerNode("sn1", "ip", 0, 100L, 50L, 20, 10, grpcTags);
+      clusterManager.add(sn1);
+      assertEquals(1, clusterManager.getServerList(grpcTags).size());
+
+      // tag changes back and forth
+      sn2 = new ServerNode("sn2", "ip", 0, 100L, 50L, 21, 10, grpcTags);
+      clusterManager.add(sn2);
+      assertEquals(2, clusterManager.getServerList(grpcTags).size());
+      sn2 = new ServerNode("sn2", "ip", 0, 100L, 50L, 21, 10, testTags);
+      clusterManager.add(sn2);
+      List<ServerNode> serverNodes = clusterManager.getServerList(grpcTags);
+      assertEquals(1, serverNodes.size());
+      assertEquals("sn1", serverNodes.get(0).getId());
+
+      clusterManager.clear();
+      assertEquals(0, clusterManager.getServerList(testTags).size());
+    }
+  }
+
+  @Test
+  public void updateWithDeltaHeartbeatTest() throws Exception {
+    CoordinatorConf ssc = new CoordinatorConf();
+    ssc.setLong(CoordinatorConf.COORDINATOR_HEARTBEAT_TIMEOUT, 30 * 1000L);
+    try (SimpleClusterManager clusterManager = new SimpleClusterManager(ssc, new Configuration())) {
+      RssProtos.ShuffleServerId serverId =
+          RssProtos.ShuffleServerId.newBuilder().setId("sn1").build();
+      // an unregistered server requires a full heartbeat
+      assertNull(
+          clusterManager.update(
+              ShuffleServerHeartBeatRequest.newBuilder()
+                  .setServerId(serverId)
+                  .setDelta(true)
+                  .build()));
+
+      Map<String, StorageInfo> storageInfo = Maps.newHashMap();
+      storageInfo.put(
+          "/mnt1", new StorageInfo("/mnt1", StorageMedia.HDD, 100, 10, StorageStatus.NORMAL));
+      storageInfo.put(
+          "/mnt2", new StorageInfo("/mnt2", StorageMedia.HDD, 100, 20, StorageStatus.NORMAL));
+      ServerNode sn1 =
+          new ServerNode(
+              "sn1", "ip", 0, 100L, 50L, 20, 10, grpcTags, ServerStatus.ACTIVE, storageInfo);
+      clusterManager.add(sn1);
+      assertEquals(1, clusterManager.getServerList(grpcTags).size());
+
+      StorageInfo newStorageInfo =
+          new StorageInfo("/mnt1", StorageMedia.HDD, 100, 50, StorageStatus.NORMAL);
+      ServerNode updated =
+          clusterManager.update(
+              ShuffleServerHeartBeatRequest.newBuilder()
+                  .setServerId(serverId)
+                  .setDelta(true)
+                  .setAvailableMemory(30)
+                  .putStorageInfo("/mnt1", newStorageInfo.toProto())
+                  .addRemovedStorages("/mnt2")
+                  .build());
+      assertSame(sn1, updated);
+      assertEquals(100L, sn1.getUsedMemory());
+      assertEquals(30, sn1.getAvailableMemory());
+      assertEquals(1, sn1.getStorageInfo().size());
+      assertEquals(newStorageInfo, sn1.getStorageInfo().get("/mnt1"));
+      assertEquals(1, clusterManager.getServerList(grpcTags).size());
+
+      // tags and status changes move the node in the index
+      clusterManager.update(
+          ShuffleServerHeartBeatRequest.newBuilder()
+              .setServerId(serverId)
+              .setDelta(true)
+              .setTagsChanged(true)
+              .addAllTags(nettyTags)
+              .build());
+      assertEquals(0, clusterManager.getServerList(grpcTags).size());
+      assertEquals(1, clusterManager.getServerList(nettyTags).size());
+      assertFalse(clusterManager.getTagToNodes().get(ClientType.GRPC.name()).contains(sn1));
+      clusterManager.update(
+          ShuffleServerHeartBeatRequest.newBuilder()
+              .setServerId(serverId)
+              .setDelta(true)
+              .setStatus(RssProtos.ServerStatus.UNHEALTHY)
+              .build());
+      assertEquals(ServerStatus.UNHEALTHY, sn1.getStatus());
+      assertEquals(0, clusterManager.getServerList(nettyTags).size());
+    }
+  }
+
+  @Test
+  public void deltaHeartbeatAfterExpiredTest() throws Exception {
+    CoordinatorConf ssc = new CoordinatorConf();
+    ssc.setLong(CoordinatorConf.COORDINATOR_HEARTBEAT_TIMEOUT, 300L);
+    try (SimpleClusterManager clusterManager = new SimpleClusterManager(ssc, new Configuration())) {
+      RssProtos.ShuffleServerId serverId =
+          RssProtos.ShuffleServerId.newBuilder().setId("sn1").build();
+      ShuffleServerHeartBeatRequest deltaHeartbeat =
+          ShuffleServerHeartBeatRequest.newBuilder()
+              .setServerId(serverId)
+              .setDelta(true)
+              .setAvailableMemory(30)
+              .build();
+      clusterManager.add(new ServerNode("sn1", "ip", 0, 100L, 50L, 20, 10, grpcTags));
+      await()
+          .atMost(2, TimeUnit.SECONDS)
+          .until(() -> clusterManager.getServerList(grpcTags).isEmpty());
+
+      // the expired server is required to send a full heartbeat
+      assertNull(clusterManager.update(deltaHeartbeat));
+      ServerNode sn1 = new ServerNode("sn1", "ip", 0, 100L, 50L, 20, 10, grpcTags);
+      clusterManager.add(sn1);
+      assertSame(sn1, clusterManager.update(deltaHeartbeat));
+      List<ServerNode> nodes = clusterManager.getServerList(grpcTags);
+      assertEquals(1, nodes.size());
+      assertSame(sn1, nodes.get(0));
+
+      // the delta heartbeats keep the node assignable
+      for (int i = 0; i < 3; i++) {
+        Thread.sleep(200L);
+        assertSame(sn1, clusterManager.update(deltaHeartbeat));
+        assertEquals(1, clusterManager.getServerList(grpcTags).size());
+      }
+    }
+  }
+
   @Test
   public void getLostServerListTest() throws Exception {
     CoordinatorConf coordinatorConf = new CoordinatorConf();
@@ -372,6 +523,23 @@ public class SimpleClusterManagerTest {
     clusterManager.add(node);
   }
 
+  @Test
+  public void removeLostNodeFromIndexTest() {
+    ServerNodeIndex index = new ServerNodeIndex();
+    ServerNode lost = new ServerNode("sn1", "ip", 0, 100L, 50L, 20, 10, testTags);
+    index.put(lost);
+    // the server registers again before the lost node is removed
+    ServerNode registered = new ServerNode("sn1", "ip", 0, 100L, 50L, 20, 10, testTags);
+    index.put(registered);
+    index.remove(lost);
+    List<ServerNode> nodes = index.get(ServerStatus.ACTIVE, testTags, node -> true);
+    assertEquals(1, nodes.size());
+    assertSame(registered, nodes.get(0));
+
+    index.remove(registered);
+    assertTrue(index.get(ServerStatus.ACTIVE, testTags, node -> true).isEmpty());
+  }
+
   @Test
   public void heartbeatTimeoutTest() throws Exception {
     CoordinatorConf ssc = new CoordinatorConf();
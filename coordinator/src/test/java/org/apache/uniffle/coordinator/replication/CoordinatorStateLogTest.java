@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.coordinator.replication;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import org.apache.uniffle.proto.RssProtos.CoordinatorStateEntry;
+import org.apache.uniffle.proto.RssProtos.RemoteStorageAssignment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CoordinatorStateLogTest {
+
+  @Test
+  public void appendAndReadTest() {
+    CoordinatorStateLog stateLog = new CoordinatorStateLog();
+    assertEquals(1, stateLog.append(entry("app1", "path1")));
+    assertEquals(2, stateLog.append(entry("app2", "path1")));
+    assertEquals(3, stateLog.append(entry("app3", "path1")));
+    // only the latest entry of a key is kept
+    assertEquals(4, stateLog.append(entry("app1", "path2")));
+    assertEquals(3, stateLog.size());
+    assertEquals(4, stateLog.getLastSequence());
+
+    assertEquals(Lists.newArrayList(2L, 3L, 4L), sequences(stateLog.read(0, 10)));
+    assertEquals(Lists.newArrayList(2L, 3L), sequences(stateLog.read(0, 2)));
+    assertEquals(Lists.newArrayList(4L), sequences(stateLog.read(3, 10)));
+    assertEquals("path2", stateLog.read(3, 10).get(0).getRemoteStorage().getPath());
+    assertEquals(0, stateLog.read(4, 10).size());
+
+    stateLog.remove(CoordinatorStateLog.remoteStorageKey("app2"));
+    assertEquals(Lists.newArrayList(3L, 4L), sequences(stateLog.read(0, 10)));
+    // the sequence keeps increasing after a removal
+    assertEquals(5, stateLog.append(entry("app2", "path1")));
+  }
+
+  private CoordinatorStateEntry.Builder entry(String appId, String path) {
+    return CoordinatorStateEntry.newBuilder()
+        .setKey(CoordinatorStateLog.remoteStorageKey(appId))
+        .setRemoteStorage(RemoteStorageAssignment.newBuilder().setAppId(appId).setPath(path));
+  }
+
+  private List<Long> sequences(List<CoordinatorStateEntry> entries) {
+    return entries.stream().map(CoordinatorStateEntry::getSequence).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.coordinator.replication;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.uniffle.coordinator.AppInfo;
+import org.apache.uniffle.coordinator.ApplicationManager;
+import org.apache.uniffle.coordinator.CoordinatorConf;
+import org.apache.uniffle.coordinator.metric.CoordinatorMetrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoordinatorStateReplicatorTest {
+
+  private static final String REMOTE_PATH = "hdfs://path1";
+
+  private ApplicationManager activeApplicationManager;
+  private ApplicationManager standbyApplicationManager;
+  private CoordinatorStateReplicator activeReplicator;
+  private CoordinatorStateReplicator standbyReplicator;
+  private InProcessCoordinatorStatePeer peer;
+
+  @BeforeAll
+  public static void setup() {
+    CoordinatorMetrics.register();
+  }
+
+  @AfterAll
+  public static void clear() {
+    CoordinatorMetrics.clear();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    setUp(new CoordinatorConf());
+  }
+
+  private void setUp(CoordinatorConf conf) {
+    activeApplicationManager = new ApplicationManager(conf);
+    activeApplicationManager.refreshRemoteStorage(REMOTE_PATH, "");
+    standbyApplicationManager = new ApplicationManager(conf);
+    standbyApplicationManager.refreshRemoteStorage(REMOTE_PATH, "");
+
+    activeReplicator = new CoordinatorStateReplicator("active", 1L, 2);
+    activeReplicator.register(activeApplicationManager);
+    standbyReplicator = new CoordinatorStateReplicator("standby", 1L, 2);
+    standbyReplicator.register(standbyApplicationManager);
+    peer = new InProcessCoordinatorStatePeer(standbyReplicator);
+    activeReplicator.addPeer(peer);
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    activeApplicationManager.close();
+    standbyApplicationManager.close();
+    activeReplicator.close();
+    standbyReplicator.close();
+  }
+
+  @Test
+  public void replicateApplicationStateTest() {
+    assertFalse(activeApplicationManager.getQuotaManager().checkQuota("user1", "uuid1"));
+    activeReplicator.ship();
+    Map<String, AppInfo> standbyApps =
+        standbyApplicationManager.getCurrentUserAndApp().get("user1");
+    assertTrue(standbyApps.containsKey("uuid1"));
+
+    // the registration replaces the uuid reserved by the quota check
+    String appId = "application_1_uuid1";
+    activeApplicationManager.registerApplicationInfo(appId, "user1");
+    activeApplicationManager.pickRemoteStorage(appId);
+    assertEquals(2, activeReplicator.getStateLog().size());
+    activeReplicator.ship();
+    assertTrue(standbyApps.containsKey(appId));
+    assertFalse(standbyApps.containsKey("uuid1"));
+    assertEquals(
+        REMOTE_PATH,
+        standbyApplicationManager.getAppIdToRemoteStorageInfo().get(appId).getPath());
+    assertEquals(
+        1,
+        standbyApplicationManager
+            .getRemoteStoragePathRankValue()
+            .get(REMOTE_PATH)
+            .getAppNum()
+            .get());
+
+    // the shipped entries are not applied again
+    activeReplicator.ship();
+    assertEquals(
+        1,
+        standbyApplicationManager
+            .getRemoteStoragePathRankValue()
+            .get(REMOTE_PATH)
+            .getAppNum()
+            .get());
+    // the replicated state is not appended to the log of the standby
+    assertEquals(0, standbyReplicator.getStateLog().size());
+  }
+
+  @Test
+  public void replicateApplicationHeartbeatTest() throws Exception {
+    tearDown();
+    CoordinatorConf conf = new CoordinatorConf();
+    conf.set(CoordinatorConf.COORDINATOR_APP_EXPIRED, 1000L);
+    setUp(conf);
+    String appId = "application_1";
+    activeApplicationManager.registerApplicationInfo(appId, "user1");
+    activeApplicationManager.pickRemoteStorage(appId);
+    activeReplicator.ship();
+
+    // the heartbeats on the active coordinator keep the application alive on the standby
+    for (int i = 0; i < 8; i++) {
+      Thread.sleep(250L);
+      activeApplicationManager.refreshAppId(appId);
+      activeReplicator.ship();
+    }
+    assertTrue(standbyApplicationManager.getCurrentUserAndApp().get("user1").containsKey(appId));
+    assertEquals(
+        REMOTE_PATH,
+        standbyApplicationManager.getAppIdToRemoteStorageInfo().get(appId).getPath());
+    // the heartbeats are coalesced with the registration in the log
+    assertEquals(2, activeReplicator.getStateLog().size());
+
+    // the standby expires the application without heartbeats
+    Awaitility.await()
+        .atMost(5, TimeUnit.SECONDS)
+        .until(() -> !standbyApplicationManager.getAppIdToRemoteStorageInfo().containsKey(appId));
+  }
+
+  @Test
+  public void replicateToRestartedPeerTest() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      activeApplicationManager.registerApplicationInfo("application_" + i, "user1");
+    }
+    // the batch size is 2
+    for (int i = 0; i < 3; i++) {
+      activeReplicator.ship();
+    }
+    assertEquals(5, standbyApplicationManager.getCurrentUserAndApp().get("user1").size());
+
+    // the restarted standby starts without any state
+    standbyApplicationManager.close();
+    standbyReplicator.close();
+    standbyApplicationManager = new ApplicationManager(new CoordinatorConf());
+    standbyReplicator = new CoordinatorStateReplicator("standby", 2L, 2);
+    standbyReplicator.register(standbyApplicationManager);
+    peer.setTarget(standbyReplicator);
+
+    // the first round finds that the standby has lost the log, then the whole log is resent
+    activeReplicator.ship();
+    assertTrue(standbyApplicationManager.getCurrentUserAndApp().isEmpty());
+    for (int i = 0; i < 3; i++) {
+      activeReplicator.ship();
+    }
+    assertEquals(5, standbyApplicationManager.getCurrentUserAndApp().get("user1").size());
+  }
+}
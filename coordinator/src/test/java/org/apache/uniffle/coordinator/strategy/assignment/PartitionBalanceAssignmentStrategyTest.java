@@ -35,6 +35,8 @@ import org.junit.jupiter.api.Test;
 import org.apache.uniffle.coordinator.CoordinatorConf;
 import org.apache.uniffle.coordinator.ServerNode;
 import org.apache.uniffle.coordinator.SimpleClusterManager;
+import org.apache.uniffle.coordinator.replication.CoordinatorStateReplicator;
+import org.apache.uniffle.coordinator.replication.InProcessCoordinatorStatePeer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -479,4 +481,48 @@ public class PartitionBalanceAssignmentStrategyTest {
       valid(clusterManager, strategy, expect);
     }
   }
+
+  @Test
+  public void testReplicateAssignments() throws Exception {
+    CoordinatorConf ssc = new CoordinatorConf();
+    ssc.setInteger(CoordinatorConf.COORDINATOR_SHUFFLE_NODES_MAX, shuffleNodesMax);
+    List<Long> list = Lists.newArrayList();
+    for (int i = 0; i < 20; i++) {
+      list.add(20L - i);
+    }
+    try (SimpleClusterManager activeClusterManager =
+            new SimpleClusterManager(ssc, new Configuration());
+        SimpleClusterManager standbyClusterManager =
+            new SimpleClusterManager(ssc, new Configuration());
+        CoordinatorStateReplicator activeReplicator =
+            new CoordinatorStateReplicator("active", 1L, 100);
+        CoordinatorStateReplicator standbyReplicator =
+            new CoordinatorStateReplicator("standby", 1L, 100)) {
+      updateServerResource(activeClusterManager, list);
+      updateServerResource(standbyClusterManager, list);
+      PartitionBalanceAssignmentStrategy activeStrategy =
+          new PartitionBalanceAssignmentStrategy(activeClusterManager, ssc);
+      PartitionBalanceAssignmentStrategy standbyStrategy =
+          new PartitionBalanceAssignmentStrategy(standbyClusterManager, ssc);
+      activeReplicator.register(activeStrategy);
+      standbyReplicator.register(standbyStrategy);
+      activeReplicator.addPeer(new InProcessCoordinatorStatePeer(standbyReplicator));
+
+      activeStrategy.assign(100, 1, 1, tags, -1, -1);
+      activeStrategy.assign(50, 1, 2, tags, -1, -1);
+      activeReplicator.ship();
+
+      Map<ServerNode, PartitionAssignmentInfo> expected = activeStrategy.getServerToPartitions();
+      Map<ServerNode, PartitionAssignmentInfo> actual = standbyStrategy.getServerToPartitions();
+      assertEquals(expected.size(), actual.size());
+      for (Map.Entry<ServerNode, PartitionAssignmentInfo> entry : expected.entrySet()) {
+        assertEquals(
+            entry.getValue().getPartitionNum(), actual.get(entry.getKey()).getPartitionNum());
+      }
+      // the standby assigns the next shuffle as the active would do
+      assertEquals(
+          activeStrategy.assign(10, 1, 1, tags, -1, -1).getAssignments(),
+          standbyStrategy.assign(10, 1, 1, tags, -1, -1).getAssignments());
+    }
+  }
 }
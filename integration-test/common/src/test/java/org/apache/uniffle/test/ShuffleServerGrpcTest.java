@@ -79,6 +79,7 @@ import org.apache.uniffle.server.ShuffleServer;
 import org.apache.uniffle.server.ShuffleServerConf;
 import org.apache.uniffle.server.ShuffleServerGrpcMetrics;
 import org.apache.uniffle.server.ShuffleServerMetrics;
+import org.apache.uniffle.server.block.BlockIdSet;
 import org.apache.uniffle.server.storage.HybridStorageManager;
 import org.apache.uniffle.storage.util.StorageType;
 
@@ -352,7 +353,7 @@ public class ShuffleServerGrpcTest extends IntegrationTestBase {
     request = new RssReportShuffleResultRequest("shuffleResultTest", 2, 1L, partitionToBlockIds, 3);
     grpcShuffleServerClient.reportShuffleResult(request);
     // validate bitmap in shuffleTaskManager
-    Roaring64NavigableMap[] bitmaps =
+    BlockIdSet[] bitmaps =
         grpcShuffleServers
             .get(0)
             .getShuffleTaskManager()
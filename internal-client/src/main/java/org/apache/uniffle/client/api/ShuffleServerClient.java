@@ -19,7 +19,10 @@ package org.apache.uniffle.client.api;
 
 import org.apache.uniffle.client.request.RssAppHeartBeatRequest;
 import org.apache.uniffle.client.request.RssFinishShuffleRequest;
+import org.apache.uniffle.client.request.RssGetFilteredShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetInMemoryShuffleDataRequest;
+import org.apache.uniffle.client.request.RssGetShuffleDataBatchRequest;
+import org.apache.uniffle.client.request.RssGetShuffleDataFileRequest;
 import org.apache.uniffle.client.request.RssGetShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetShuffleIndexRequest;
 import org.apache.uniffle.client.request.RssGetShuffleResultForMultiPartRequest;
@@ -34,7 +37,10 @@ import org.apache.uniffle.client.request.RssUnregisterShuffleByAppIdRequest;
 import org.apache.uniffle.client.request.RssUnregisterShuffleRequest;
 import org.apache.uniffle.client.response.RssAppHeartBeatResponse;
 import org.apache.uniffle.client.response.RssFinishShuffleResponse;
+import org.apache.uniffle.client.response.RssGetFilteredShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetInMemoryShuffleDataResponse;
+import org.apache.uniffle.client.response.RssGetShuffleDataBatchResponse;
+import org.apache.uniffle.client.response.RssGetShuffleDataFileResponse;
 import org.apache.uniffle.client.response.RssGetShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetShuffleIndexResponse;
 import org.apache.uniffle.client.response.RssGetShuffleResultResponse;
@@ -78,6 +84,13 @@ public interface ShuffleServerClient {
   RssGetInMemoryShuffleDataResponse getInMemoryShuffleData(
       RssGetInMemoryShuffleDataRequest request);
 
+  RssGetFilteredShuffleDataResponse getFilteredShuffleData(
+      RssGetFilteredShuffleDataRequest request);
+
+  RssGetShuffleDataFileResponse getShuffleDataFile(RssGetShuffleDataFileRequest request);
+
+  RssGetShuffleDataBatchResponse getShuffleDataBatch(RssGetShuffleDataBatchRequest request);
+
   RssStartSortMergeResponse startSortMerge(RssStartSortMergeRequest request);
 
   RssGetSortedShuffleDataResponse getSortedShuffleData(RssGetSortedShuffleDataRequest request);
@@ -29,7 +29,7 @@ import org.apache.uniffle.common.util.JavaUtils;
 
 public class ShuffleServerClientFactory {
 
-  private Map<String, Map<ShuffleServerInfo, ShuffleServerClient>> clients;
+  private final Map<String, Map<ShuffleServerInfo, ShuffleServerClient>> clients;
 
   private ShuffleServerClientFactory() {
     clients = JavaUtils.newConcurrentMap();
@@ -59,25 +59,30 @@ public class ShuffleServerClientFactory {
     }
   }
 
-  public synchronized ShuffleServerClient getShuffleServerClient(
+  public ShuffleServerClient getShuffleServerClient(
       String clientType, ShuffleServerInfo shuffleServerInfo) {
     return getShuffleServerClient(clientType, shuffleServerInfo, new RssConf());
   }
 
-  public synchronized ShuffleServerClient getShuffleServerClient(
+  public ShuffleServerClient getShuffleServerClient(
       String clientType, ShuffleServerInfo shuffleServerInfo, RssConf rssConf) {
-    clients.putIfAbsent(clientType, JavaUtils.newConcurrentMap());
+    // it's called for every sending and reading, so the cached client is got without any lock,
+    // only the creation of a new client is serialized per server by the concurrent map
     Map<ShuffleServerInfo, ShuffleServerClient> serverToClients = clients.get(clientType);
-    if (serverToClients.get(shuffleServerInfo) == null) {
-      serverToClients.put(
-          shuffleServerInfo, createShuffleServerClient(clientType, shuffleServerInfo, rssConf));
+    if (serverToClients == null) {
+      serverToClients = clients.computeIfAbsent(clientType, key -> JavaUtils.newConcurrentMap());
     }
-    return serverToClients.get(shuffleServerInfo);
+    ShuffleServerClient client = serverToClients.get(shuffleServerInfo);
+    if (client != null) {
+      return client;
+    }
+    return serverToClients.computeIfAbsent(
+        shuffleServerInfo, key -> createShuffleServerClient(clientType, key, rssConf));
   }
 
   // Only for tests
   public synchronized void cleanupCache() {
     clients.values().stream().flatMap(x -> x.values().stream()).forEach(ShuffleServerClient::close);
-    this.clients = JavaUtils.newConcurrentMap();
+    clients.clear();
   }
 }
@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.protobuf.Empty;
 import io.grpc.ManagedChannel;
 import io.grpc.StatusRuntimeException;
@@ -71,6 +72,8 @@ import org.apache.uniffle.proto.RssProtos.GetShuffleAssignmentsResponse;
 import org.apache.uniffle.proto.RssProtos.GetShuffleServerListResponse;
 import org.apache.uniffle.proto.RssProtos.PartitionRangeAssignment;
 import org.apache.uniffle.proto.RssProtos.RemoteStorageConfItem;
+import org.apache.uniffle.proto.RssProtos.ReplicateStateRequest;
+import org.apache.uniffle.proto.RssProtos.ReplicateStateResponse;
 import org.apache.uniffle.proto.RssProtos.ShuffleServerHeartBeatRequest;
 import org.apache.uniffle.proto.RssProtos.ShuffleServerHeartBeatResponse;
 import org.apache.uniffle.proto.RssProtos.ShuffleServerId;
@@ -79,6 +82,10 @@ public class CoordinatorGrpcClient extends GrpcClient implements CoordinatorClie
 
   private static final Logger LOG = LoggerFactory.getLogger(CoordinatorGrpcClient.class);
   private CoordinatorServerBlockingStub blockingStub;
+  // the last full heartbeat acknowledged by the coordinator, which is the base of the deltas
+  private ShuffleServerHeartBeatRequest lastAckedHeartBeat;
+  private boolean deltaSupported = false;
+  private int heartBeatsSinceFullSnapshot = 0;
 
   public CoordinatorGrpcClient(String host, int port) {
     this(host, port, 3);
@@ -113,6 +120,10 @@ public class CoordinatorGrpcClient extends GrpcClient implements CoordinatorClie
     return blockingStub.getShuffleServerList(Empty.newBuilder().build());
   }
 
+  public ReplicateStateResponse replicateState(ReplicateStateRequest request, long timeoutMs) {
+    return blockingStub.withDeadlineAfter(timeoutMs, TimeUnit.MILLISECONDS).replicateState(request);
+  }
+
   public ShuffleServerHeartBeatResponse doSendHeartBeat(
       String id,
       String ip,
@@ -129,6 +140,40 @@ public class CoordinatorGrpcClient extends GrpcClient implements CoordinatorClie
       int jettyPort,
       long startTimeMs,
       List<RssProtos.ApplicationInfo> appInfos) {
+    ShuffleServerHeartBeatRequest request =
+        buildHeartBeatRequest(
+            id,
+            ip,
+            port,
+            usedMemory,
+            preAllocatedMemory,
+            availableMemory,
+            eventNumInFlush,
+            tags,
+            serverStatus,
+            storageInfo,
+            nettyPort,
+            jettyPort,
+            startTimeMs,
+            appInfos);
+    return doSendHeartBeat(request, timeout);
+  }
+
+  private ShuffleServerHeartBeatRequest buildHeartBeatRequest(
+      String id,
+      String ip,
+      int port,
+      long usedMemory,
+      long preAllocatedMemory,
+      long availableMemory,
+      int eventNumInFlush,
+      Set<String> tags,
+      ServerStatus serverStatus,
+      Map<String, StorageInfo> storageInfo,
+      int nettyPort,
+      int jettyPort,
+      long startTimeMs,
+      List<RssProtos.ApplicationInfo> appInfos) {
     ShuffleServerId serverId =
         ShuffleServerId.newBuilder()
             .setId(id)
@@ -137,22 +182,60 @@ public class CoordinatorGrpcClient extends GrpcClient implements CoordinatorClie
             .setNettyPort(nettyPort)
             .setJettyPort(jettyPort)
             .build();
-    ShuffleServerHeartBeatRequest request =
-        ShuffleServerHeartBeatRequest.newBuilder()
-            .setServerId(serverId)
-            .setUsedMemory(usedMemory)
-            .setPreAllocatedMemory(preAllocatedMemory)
-            .setAvailableMemory(availableMemory)
-            .setEventNumInFlush(eventNumInFlush)
-            .addAllTags(tags)
-            .setStatusValue(serverStatus.ordinal())
-            .putAllStorageInfo(StorageInfoUtils.toProto(storageInfo))
-            .setStartTimeMs(startTimeMs)
-            .setVersion(Constants.VERSION)
-            .setGitCommitId(Constants.REVISION_SHORT)
-            .addAllApplicationInfo(appInfos)
-            .build();
+    return ShuffleServerHeartBeatRequest.newBuilder()
+        .setServerId(serverId)
+        .setUsedMemory(usedMemory)
+        .setPreAllocatedMemory(preAllocatedMemory)
+        .setAvailableMemory(availableMemory)
+        .setEventNumInFlush(eventNumInFlush)
+        .addAllTags(tags)
+        .setStatusValue(serverStatus.ordinal())
+        .putAllStorageInfo(StorageInfoUtils.toProto(storageInfo))
+        .setStartTimeMs(startTimeMs)
+        .setVersion(Constants.VERSION)
+        .setGitCommitId(Constants.REVISION_SHORT)
+        .addAllApplicationInfo(appInfos)
+        .build();
+  }
 
+  /**
+   * Send the heartbeat, only the changes since the last acknowledged heartbeat are sent if the
+   * coordinator supports delta heartbeats. A failed heartbeat may still be applied by the
+   * coordinator, so the next one after a failure is always a full snapshot.
+   */
+  private synchronized ShuffleServerHeartBeatResponse doSendHeartBeat(
+      ShuffleServerHeartBeatRequest fullRequest,
+      long timeout,
+      boolean deltaEnabled,
+      int fullSnapshotInterval) {
+    boolean sendDelta =
+        deltaEnabled
+            && deltaSupported
+            && lastAckedHeartBeat != null
+            && heartBeatsSinceFullSnapshot < fullSnapshotInterval;
+    ShuffleServerHeartBeatResponse response =
+        doSendHeartBeat(
+            sendDelta ? buildDeltaHeartBeat(lastAckedHeartBeat, fullRequest) : fullRequest,
+            timeout);
+    if (sendDelta
+        && response.getStatus() == RssProtos.StatusCode.SUCCESS
+        && response.getRequireFullSnapshot()) {
+      LOG.info("Coordinator {}:{} requires a full heartbeat", this.host, this.port);
+      sendDelta = false;
+      response = doSendHeartBeat(fullRequest, timeout);
+    }
+    if (response.getStatus() == RssProtos.StatusCode.SUCCESS) {
+      lastAckedHeartBeat = fullRequest;
+      deltaSupported = response.getDeltaSupported();
+      heartBeatsSinceFullSnapshot = sendDelta ? heartBeatsSinceFullSnapshot + 1 : 1;
+    } else {
+      lastAckedHeartBeat = null;
+    }
+    return response;
+  }
+
+  private ShuffleServerHeartBeatResponse doSendHeartBeat(
+      ShuffleServerHeartBeatRequest request, long timeout) {
     RssProtos.StatusCode status;
     ShuffleServerHeartBeatResponse response = null;
 
@@ -178,6 +261,58 @@ public class CoordinatorGrpcClient extends GrpcClient implements CoordinatorClie
     return response;
   }
 
+  /** Build a delta heartbeat which only contains the changes from the previous heartbeat. */
+  @VisibleForTesting
+  static ShuffleServerHeartBeatRequest buildDeltaHeartBeat(
+      ShuffleServerHeartBeatRequest previous, ShuffleServerHeartBeatRequest current) {
+    ShuffleServerHeartBeatRequest.Builder builder =
+        ShuffleServerHeartBeatRequest.newBuilder()
+            .setServerId(current.getServerId())
+            .setDelta(true);
+    if (current.getUsedMemory() != previous.getUsedMemory()) {
+      builder.setUsedMemory(current.getUsedMemory());
+    }
+    if (current.getPreAllocatedMemory() != previous.getPreAllocatedMemory()) {
+      builder.setPreAllocatedMemory(current.getPreAllocatedMemory());
+    }
+    if (current.getAvailableMemory() != previous.getAvailableMemory()) {
+      builder.setAvailableMemory(current.getAvailableMemory());
+    }
+    if (current.getEventNumInFlush() != previous.getEventNumInFlush()) {
+      builder.setEventNumInFlush(current.getEventNumInFlush());
+    }
+    if (!Sets.newHashSet(current.getTagsList()).equals(Sets.newHashSet(previous.getTagsList()))) {
+      builder.setTagsChanged(true).addAllTags(current.getTagsList());
+    }
+    if (current.getStatus() != previous.getStatus()) {
+      builder.setStatus(current.getStatus());
+    }
+
+    Map<String, RssProtos.StorageInfo> previousStorages = previous.getStorageInfoMap();
+    for (Map.Entry<String, RssProtos.StorageInfo> entry : current.getStorageInfoMap().entrySet()) {
+      if (!entry.getValue().equals(previousStorages.get(entry.getKey()))) {
+        builder.putStorageInfo(entry.getKey(), entry.getValue());
+      }
+    }
+    for (String mountPoint : previousStorages.keySet()) {
+      if (!current.containsStorageInfo(mountPoint)) {
+        builder.addRemovedStorages(mountPoint);
+      }
+    }
+
+    Map<String, RssProtos.ApplicationInfo> previousApps = Maps.newHashMap();
+    for (RssProtos.ApplicationInfo appInfo : previous.getApplicationInfoList()) {
+      previousApps.put(appInfo.getAppId(), appInfo);
+    }
+    for (RssProtos.ApplicationInfo appInfo : current.getApplicationInfoList()) {
+      if (!appInfo.equals(previousApps.remove(appInfo.getAppId()))) {
+        builder.addApplicationInfo(appInfo);
+      }
+    }
+    builder.addAllRemovedApplications(previousApps.keySet());
+    return builder.build();
+  }
+
   public RssProtos.GetShuffleAssignmentsResponse doGetShuffleAssignments(
       String appId,
       int shuffleId,
@@ -212,8 +347,8 @@ public class CoordinatorGrpcClient extends GrpcClient implements CoordinatorClie
 
   @Override
   public RssSendHeartBeatResponse sendHeartBeat(RssSendHeartBeatRequest request) {
-    ShuffleServerHeartBeatResponse rpcResponse =
-        doSendHeartBeat(
+    ShuffleServerHeartBeatRequest fullRequest =
+        buildHeartBeatRequest(
             request.getShuffleServerId(),
             request.getShuffleServerIp(),
             request.getShuffleServerPort(),
@@ -221,7 +356,6 @@ public class CoordinatorGrpcClient extends GrpcClient implements CoordinatorClie
             request.getPreAllocatedMemory(),
             request.getAvailableMemory(),
             request.getEventNumInFlush(),
-            request.getTimeout(),
             request.getTags(),
             request.getServerStatus(),
             request.getStorageInfo(),
@@ -229,6 +363,12 @@ public class CoordinatorGrpcClient extends GrpcClient implements CoordinatorClie
             request.getJettyPort(),
             request.getStartTimeMs(),
             request.getAppInfos());
+    ShuffleServerHeartBeatResponse rpcResponse =
+        doSendHeartBeat(
+            fullRequest,
+            request.getTimeout(),
+            request.isDeltaEnabled(),
+            request.getFullSnapshotInterval());
 
     RssSendHeartBeatResponse response;
     RssProtos.StatusCode statusCode = rpcResponse.getStatus();
@@ -20,16 +20,21 @@ package org.apache.uniffle.client.impl.grpc;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
 import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.netty.buffer.Unpooled;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
@@ -39,7 +44,10 @@ import org.apache.uniffle.client.api.ShuffleServerClient;
 import org.apache.uniffle.client.request.RetryableRequest;
 import org.apache.uniffle.client.request.RssAppHeartBeatRequest;
 import org.apache.uniffle.client.request.RssFinishShuffleRequest;
+import org.apache.uniffle.client.request.RssGetFilteredShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetInMemoryShuffleDataRequest;
+import org.apache.uniffle.client.request.RssGetShuffleDataBatchRequest;
+import org.apache.uniffle.client.request.RssGetShuffleDataFileRequest;
 import org.apache.uniffle.client.request.RssGetShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetShuffleIndexRequest;
 import org.apache.uniffle.client.request.RssGetShuffleResultForMultiPartRequest;
@@ -54,7 +62,10 @@ import org.apache.uniffle.client.request.RssUnregisterShuffleByAppIdRequest;
 import org.apache.uniffle.client.request.RssUnregisterShuffleRequest;
 import org.apache.uniffle.client.response.RssAppHeartBeatResponse;
 import org.apache.uniffle.client.response.RssFinishShuffleResponse;
+import org.apache.uniffle.client.response.RssGetFilteredShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetInMemoryShuffleDataResponse;
+import org.apache.uniffle.client.response.RssGetShuffleDataBatchResponse;
+import org.apache.uniffle.client.response.RssGetShuffleDataFileResponse;
 import org.apache.uniffle.client.response.RssGetShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetShuffleIndexResponse;
 import org.apache.uniffle.client.response.RssGetShuffleResultResponse;
@@ -86,18 +97,21 @@ import org.apache.uniffle.proto.RssProtos.AppHeartBeatRequest;
 import org.apache.uniffle.proto.RssProtos.AppHeartBeatResponse;
 import org.apache.uniffle.proto.RssProtos.FinishShuffleRequest;
 import org.apache.uniffle.proto.RssProtos.FinishShuffleResponse;
+import org.apache.uniffle.proto.RssProtos.GetFilteredLocalShuffleDataRequest;
+import org.apache.uniffle.proto.RssProtos.GetFilteredLocalShuffleDataResponse;
+import org.apache.uniffle.proto.RssProtos.GetLocalShuffleDataFileRequest;
+import org.apache.uniffle.proto.RssProtos.GetLocalShuffleDataFileResponse;
 import org.apache.uniffle.proto.RssProtos.GetLocalShuffleDataRequest;
 import org.apache.uniffle.proto.RssProtos.GetLocalShuffleDataResponse;
 import org.apache.uniffle.proto.RssProtos.GetLocalShuffleIndexRequest;
 import org.apache.uniffle.proto.RssProtos.GetLocalShuffleIndexResponse;
 import org.apache.uniffle.proto.RssProtos.GetMemoryShuffleDataRequest;
 import org.apache.uniffle.proto.RssProtos.GetMemoryShuffleDataResponse;
-import org.apache.uniffle.proto.RssProtos.GetShuffleResultForMultiPartRequest;
+import org.apache.uniffle.proto.RssProtos.GetServerCapabilitiesResponse;
 import org.apache.uniffle.proto.RssProtos.GetShuffleResultForMultiPartResponse;
 import org.apache.uniffle.proto.RssProtos.GetShuffleResultRequest;
 import org.apache.uniffle.proto.RssProtos.GetShuffleResultResponse;
 import org.apache.uniffle.proto.RssProtos.MergeContext;
-import org.apache.uniffle.proto.RssProtos.PartitionToBlockIds;
 import org.apache.uniffle.proto.RssProtos.RemoteStorage;
 import org.apache.uniffle.proto.RssProtos.RemoteStorageConfItem;
 import org.apache.uniffle.proto.RssProtos.ReportShuffleResultRequest;
@@ -106,6 +120,7 @@ import org.apache.uniffle.proto.RssProtos.RequireBufferRequest;
 import org.apache.uniffle.proto.RssProtos.RequireBufferResponse;
 import org.apache.uniffle.proto.RssProtos.SendShuffleDataRequest;
 import org.apache.uniffle.proto.RssProtos.SendShuffleDataResponse;
+import org.apache.uniffle.proto.RssProtos.ServerCapability;
 import org.apache.uniffle.proto.RssProtos.ShuffleBlock;
 import org.apache.uniffle.proto.RssProtos.ShuffleCommitRequest;
 import org.apache.uniffle.proto.RssProtos.ShuffleCommitResponse;
@@ -124,7 +139,10 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
   private static final Logger LOG = LoggerFactory.getLogger(ShuffleServerGrpcClient.class);
   protected static final long FAILED_REQUIRE_ID = -1;
   protected long rpcTimeout;
+  protected long requireBufferWaitTimeoutMs;
   private ShuffleServerBlockingStub blockingStub;
+  private volatile Set<ServerCapability> serverCapabilities;
+  private volatile boolean serializedBitmapUnsupported;
   /**
    * A single instance of the Random class is created as a member variable to be reused throughout
    * `ShuffleServerGrpcClient`. This approach has the following benefits: 1. Performance
@@ -171,6 +189,9 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
         0,
         0,
         0);
+    if (rssConf != null) {
+      requireBufferWaitTimeoutMs = rssConf.get(RssClientConf.REQUIRE_BUFFER_WAIT_TIMEOUT_MS);
+    }
   }
 
   public ShuffleServerGrpcClient(
@@ -191,6 +212,40 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
     return blockingStub.withDeadlineAfter(rpcTimeout, TimeUnit.MILLISECONDS);
   }
 
+  /**
+   * Whether the shuffle server supports the optional feature. The capabilities are fetched once by
+   * gRPC, which fails cleanly on the old servers, and those servers support none of them.
+   */
+  protected boolean hasCapability(ServerCapability capability) {
+    Set<ServerCapability> capabilities = serverCapabilities;
+    if (capabilities == null) {
+      try {
+        GetServerCapabilitiesResponse response =
+            getBlockingStub().getServerCapabilities(Empty.getDefaultInstance());
+        if (response.getStatus() != RssProtos.StatusCode.SUCCESS) {
+          LOG.warn(
+              "Failed to get the capabilities of {}:{}, status: {}, errorMsg: {}",
+              host,
+              port,
+              response.getStatus(),
+              response.getRetMsg());
+          return false;
+        }
+        capabilities = EnumSet.noneOf(ServerCapability.class);
+        capabilities.addAll(response.getCapabilitiesList());
+      } catch (StatusRuntimeException e) {
+        if (e.getStatus().getCode() != Status.Code.UNIMPLEMENTED) {
+          LOG.warn("Failed to get the capabilities of {}:{}", host, port, e);
+          return false;
+        }
+        LOG.info("The shuffle server {}:{} doesn't report its capabilities", host, port);
+        capabilities = Collections.emptySet();
+      }
+      serverCapabilities = capabilities;
+    }
+    return capabilities.contains(capability);
+  }
+
   private ShuffleRegisterResponse doRegisterShuffle(
       String appId,
       int shuffleId,
@@ -309,6 +364,7 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
             .addAllPartitionRequireSizes(partitionRequireSizes)
             .setAppId(appId)
             .setRequireSize(requireSize)
+            .setWaitTimeoutMs(requireBufferWaitTimeoutMs)
             .build();
 
     long start = System.currentTimeMillis();
@@ -327,8 +383,13 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
     }
     RequireBufferResponse rpcResponse;
     while (true) {
+      long callStart = System.currentTimeMillis();
       try {
-        rpcResponse = getBlockingStub().requireBuffer(rpcRequest);
+        // The server may hold the request for at most requireBufferWaitTimeoutMs
+        rpcResponse =
+            blockingStub
+                .withDeadlineAfter(rpcTimeout + requireBufferWaitTimeoutMs, TimeUnit.MILLISECONDS)
+                .requireBuffer(rpcRequest);
       } catch (Exception e) {
         LOG.error(
             "Exception happened when requiring pre-allocated buffer from {}:{}", host, port, e);
@@ -369,7 +430,11 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
             Math.min(
                 retryIntervalMax,
                 BACK_OFF_BASE * (1L << Math.min(retry, 16)) + random.nextInt(BACK_OFF_BASE));
-        Thread.sleep(backoffTime);
+        // The time waiting in the server side is a part of the backoff
+        backoffTime -= System.currentTimeMillis() - callStart;
+        if (backoffTime > 0) {
+          Thread.sleep(backoffTime);
+        }
       } catch (Exception e) {
         LOG.warn(
             "Exception happened when requiring pre-allocated buffer from {}:{}", host, port, e);
@@ -744,27 +809,22 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
 
   @Override
   public RssReportShuffleResultResponse reportShuffleResult(RssReportShuffleResultRequest request) {
-    List<PartitionToBlockIds> partitionToBlockIds = Lists.newArrayList();
-    for (Map.Entry<Integer, List<Long>> entry : request.getPartitionToBlockIds().entrySet()) {
-      List<Long> blockIds = entry.getValue();
-      if (blockIds != null && !blockIds.isEmpty()) {
-        partitionToBlockIds.add(
-            PartitionToBlockIds.newBuilder()
-                .setPartitionId(entry.getKey())
-                .addAllBlockIds(entry.getValue())
-                .build());
-      }
-    }
-
-    ReportShuffleResultRequest recRequest =
-        ReportShuffleResultRequest.newBuilder()
-            .setAppId(request.getAppId())
-            .setShuffleId(request.getShuffleId())
-            .setTaskAttemptId(request.getTaskAttemptId())
-            .setBitmapNum(request.getBitmapNum())
-            .addAllPartitionToBlockIds(partitionToBlockIds)
-            .build();
+    boolean bitmapEncoded = request.isBitmapEncoded() && !serializedBitmapUnsupported;
+    ReportShuffleResultRequest recRequest = request.toProto(bitmapEncoded);
     ReportShuffleResultResponse rpcResponse = doReportShuffleResult(recRequest);
+    if (bitmapEncoded
+        && rpcResponse.getStatus() == RssProtos.StatusCode.SUCCESS
+        && !rpcResponse.getSerializedBitmapSupported()) {
+      // the old servers ignore the serialized bitmaps but still succeed, so the block ids are
+      // reported again as the raw block ids, and so are the later reports to this server
+      LOG.warn(
+          "The shuffle server {}:{} doesn't support the block ids reported as bitmaps, "
+              + "report them as the raw block ids",
+          host,
+          port);
+      serializedBitmapUnsupported = true;
+      rpcResponse = doReportShuffleResult(request.toProto(false));
+    }
 
     RssProtos.StatusCode statusCode = rpcResponse.getStatus();
     RssReportShuffleResultResponse response;
@@ -864,32 +924,14 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
   @Override
   public RssGetShuffleResultResponse getShuffleResultForMultiPart(
       RssGetShuffleResultForMultiPartRequest request) {
-    GetShuffleResultForMultiPartRequest rpcRequest =
-        GetShuffleResultForMultiPartRequest.newBuilder()
-            .setAppId(request.getAppId())
-            .setShuffleId(request.getShuffleId())
-            .addAllPartitions(request.getPartitions())
-            .setBlockIdLayout(
-                RssProtos.BlockIdLayout.newBuilder()
-                    .setSequenceNoBits(request.getBlockIdLayout().sequenceNoBits)
-                    .setPartitionIdBits(request.getBlockIdLayout().partitionIdBits)
-                    .setTaskAttemptIdBits(request.getBlockIdLayout().taskAttemptIdBits)
-                    .build())
-            .build();
     GetShuffleResultForMultiPartResponse rpcResponse =
-        getBlockingStub().getShuffleResultForMultiPart(rpcRequest);
+        getBlockingStub().getShuffleResultForMultiPart(request.toProto());
     RssProtos.StatusCode statusCode = rpcResponse.getStatus();
 
     RssGetShuffleResultResponse response;
     switch (statusCode) {
       case SUCCESS:
-        try {
-          response =
-              new RssGetShuffleResultResponse(
-                  StatusCode.SUCCESS, rpcResponse.getSerializedBitmap().toByteArray());
-        } catch (Exception e) {
-          throw new RssException(e);
-        }
+        response = RssGetShuffleResultResponse.fromProto(rpcResponse);
         break;
       default:
         String msg =
@@ -1111,6 +1153,137 @@ public class ShuffleServerGrpcClient extends GrpcClient implements ShuffleServer
     return response;
   }
 
+  @Override
+  public RssGetFilteredShuffleDataResponse getFilteredShuffleData(
+      RssGetFilteredShuffleDataRequest request) {
+    if (!hasCapability(ServerCapability.FILTERED_LOCAL_SHUFFLE_DATA)) {
+      throw new RssException(
+          "The shuffle server " + host + ":" + port + " doesn't support getFilteredShuffleData");
+    }
+    long start = System.currentTimeMillis();
+    ByteString serializedTaskIdsBytes;
+    try {
+      serializedTaskIdsBytes =
+          UnsafeByteOperations.unsafeWrap(RssUtils.serializeBitMap(request.getExpectedTaskIds()));
+    } catch (Exception e) {
+      throw new RssException("Errors on serializing task ids bitmap.", e);
+    }
+
+    GetFilteredLocalShuffleDataRequest rpcRequest =
+        GetFilteredLocalShuffleDataRequest.newBuilder()
+            .setAppId(request.getAppId())
+            .setShuffleId(request.getShuffleId())
+            .setPartitionId(request.getPartitionId())
+            .setPartitionNumPerRange(request.getPartitionNumPerRange())
+            .setPartitionNum(request.getPartitionNum())
+            .setOffset(request.getOffset())
+            .setReadBufferSize(request.getReadBufferSize())
+            .setSerializedExpectedTaskIdsBitmap(serializedTaskIdsBytes)
+            .setTimestamp(start)
+            .build();
+    String requestInfo =
+        "appId["
+            + request.getAppId()
+            + "], shuffleId["
+            + request.getShuffleId()
+            + "], partitionId["
+            + request.getPartitionId()
+            + "], offset["
+            + request.getOffset()
+            + "]";
+    int retry = 0;
+    GetFilteredLocalShuffleDataResponse rpcResponse;
+    while (true) {
+      rpcResponse = getBlockingStub().getFilteredLocalShuffleData(rpcRequest);
+      if (rpcResponse.getStatus() != NO_BUFFER) {
+        break;
+      }
+      waitOrThrow(
+          request, retry, requestInfo, StatusCode.fromProto(rpcResponse.getStatus()), start);
+      retry++;
+    }
+    RssGetFilteredShuffleDataResponse response;
+    switch (rpcResponse.getStatus()) {
+      case SUCCESS:
+        LOG.info(
+            "GetFilteredShuffleData from {}:{} for "
+                + requestInfo
+                + " cost "
+                + (System.currentTimeMillis() - start)
+                + " ms",
+            host,
+            port);
+        response =
+            new RssGetFilteredShuffleDataResponse(
+                StatusCode.SUCCESS,
+                ByteBuffer.wrap(rpcResponse.getData().toByteArray()),
+                toBufferSegments(rpcResponse.getShuffleDataBlockSegmentsList()),
+                rpcResponse.getNextOffset());
+        break;
+      default:
+        String msg =
+            "Can't get filtered shuffle data from "
+                + host
+                + ":"
+                + port
+                + " for "
+                + requestInfo
+                + ", errorMsg:"
+                + rpcResponse.getRetMsg();
+        LOG.error(msg);
+        throw new RssFetchFailedException(msg);
+    }
+    return response;
+  }
+
+  @Override
+  public RssGetShuffleDataFileResponse getShuffleDataFile(RssGetShuffleDataFileRequest request) {
+    GetLocalShuffleDataFileRequest rpcRequest =
+        GetLocalShuffleDataFileRequest.newBuilder()
+            .setAppId(request.getAppId())
+            .setShuffleId(request.getShuffleId())
+            .setPartitionId(request.getPartitionId())
+            .setPartitionNumPerRange(request.getPartitionNumPerRange())
+            .setPartitionNum(request.getPartitionNum())
+            .build();
+    String requestInfo =
+        "appId["
+            + request.getAppId()
+            + "], shuffleId["
+            + request.getShuffleId()
+            + "], partitionId["
+            + request.getPartitionId()
+            + "]";
+    GetLocalShuffleDataFileResponse rpcResponse =
+        getBlockingStub().getLocalShuffleDataFile(rpcRequest);
+    if (rpcResponse.getStatus() != RssProtos.StatusCode.SUCCESS) {
+      String msg =
+          "Can't get shuffle data file from "
+              + host
+              + ":"
+              + port
+              + " for "
+              + requestInfo
+              + ", errorMsg:"
+              + rpcResponse.getRetMsg();
+      LOG.error(msg);
+      throw new RssFetchFailedException(msg);
+    }
+    String dataFilePath = rpcResponse.getDataFilePath();
+    return new RssGetShuffleDataFileResponse(
+        StatusCode.SUCCESS,
+        dataFilePath.isEmpty() ? null : dataFilePath,
+        rpcResponse.getToken(),
+        rpcResponse.getDataFileLen());
+  }
+
+  @Override
+  public RssGetShuffleDataBatchResponse getShuffleDataBatch(RssGetShuffleDataBatchRequest request) {
+    // the data of many partitions are only sent in one response by GRPC_NETTY
+    return new RssGetShuffleDataBatchResponse(
+        StatusCode.NOT_SUPPORTED, null, Collections.emptyList());
+  }
+
   @Override
   public RssStartSortMergeResponse startSortMerge(RssStartSortMergeRequest request) {
     ByteString serializedBlockIdsBytes = ByteString.EMPTY;
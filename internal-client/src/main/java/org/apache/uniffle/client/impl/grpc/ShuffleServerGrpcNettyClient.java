@@ -18,6 +18,7 @@
 package org.apache.uniffle.client.impl.grpc;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,12 +31,16 @@ import org.apache.hbase.thirdparty.org.glassfish.jersey.internal.guava.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.uniffle.client.request.RssGetFilteredShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetInMemoryShuffleDataRequest;
+import org.apache.uniffle.client.request.RssGetShuffleDataBatchRequest;
 import org.apache.uniffle.client.request.RssGetShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetShuffleIndexRequest;
 import org.apache.uniffle.client.request.RssGetSortedShuffleDataRequest;
 import org.apache.uniffle.client.request.RssSendShuffleDataRequest;
+import org.apache.uniffle.client.response.RssGetFilteredShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetInMemoryShuffleDataResponse;
+import org.apache.uniffle.client.response.RssGetShuffleDataBatchResponse;
 import org.apache.uniffle.client.response.RssGetShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetShuffleIndexResponse;
 import org.apache.uniffle.client.response.RssGetSortedShuffleDataResponse;
@@ -50,6 +55,10 @@ import org.apache.uniffle.common.netty.client.TransportClient;
 import org.apache.uniffle.common.netty.client.TransportClientFactory;
 import org.apache.uniffle.common.netty.client.TransportConf;
 import org.apache.uniffle.common.netty.client.TransportContext;
+import org.apache.uniffle.common.netty.protocol.GetFilteredLocalShuffleDataRequest;
+import org.apache.uniffle.common.netty.protocol.GetFilteredLocalShuffleDataResponse;
+import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataBatchRequest;
+import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataBatchResponse;
 import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataRequest;
 import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataResponse;
 import org.apache.uniffle.common.netty.protocol.GetLocalShuffleIndexRequest;
@@ -62,6 +71,7 @@ import org.apache.uniffle.common.netty.protocol.RpcResponse;
 import org.apache.uniffle.common.netty.protocol.SendShuffleDataRequest;
 import org.apache.uniffle.common.rpc.StatusCode;
 import org.apache.uniffle.common.util.RetryUtils;
+import org.apache.uniffle.proto.RssProtos.ServerCapability;
 
 public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
   private static final Logger LOG = LoggerFactory.getLogger(ShuffleServerGrpcNettyClient.class);
@@ -108,6 +118,7 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
       int smallCacheSize) {
     super(host, grpcPort, maxRetryAttempts, rpcTimeoutMs, true, pageSize, maxOrder, smallCacheSize);
     this.nettyPort = nettyPort;
+    this.requireBufferWaitTimeoutMs = rssConf.get(RssClientConf.REQUIRE_BUFFER_WAIT_TIMEOUT_MS);
     TransportContext transportContext = new TransportContext(new TransportConf(rssConf));
     this.clientFactory = new TransportClientFactory(transportContext);
   }
@@ -184,6 +195,7 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
               }
               sendShuffleDataRequest.setRequireId(requireId);
               sendShuffleDataRequest.setTimestamp(System.currentTimeMillis());
+              int outstandingRequests = transportClient.getNumOutstandingRequests();
               long start = System.currentTimeMillis();
               RpcResponse rpcResponse =
                   transportClient.sendRpcSync(sendShuffleDataRequest, rpcTimeout);
@@ -195,7 +207,8 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
                         + allocateSize
                         + " bytes with "
                         + finalBlockNum
-                        + " blocks",
+                        + " blocks, outstanding requests: "
+                        + outstandingRequests,
                     host,
                     port);
               }
@@ -265,6 +278,8 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
             + "], lastBlockId["
             + request.getLastBlockId()
             + "]";
+    // the requests sent through the same connection and not responded yet
+    int outstandingRequests = transportClient.getNumOutstandingRequests();
     long start = System.currentTimeMillis();
     int retry = 0;
     RpcResponse rpcResponse;
@@ -281,12 +296,14 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
     switch (rpcResponse.getStatusCode()) {
       case SUCCESS:
         LOG.info(
-            "GetInMemoryShuffleData size:{}(bytes) from {}:{} for {} cost:{}(ms)",
+            "GetInMemoryShuffleData size:{}(bytes) from {}:{} for {} cost:{}(ms), "
+                + "outstanding requests:{}",
             getMemoryShuffleDataResponse.body().size(),
             host,
             nettyPort,
             requestInfo,
-            System.currentTimeMillis() - start);
+            System.currentTimeMillis() - start,
+            outstandingRequests);
         return new RssGetInMemoryShuffleDataResponse(
             StatusCode.SUCCESS,
             getMemoryShuffleDataResponse.body(),
@@ -306,6 +323,157 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
     }
   }
 
+  @Override
+  public RssGetFilteredShuffleDataResponse getFilteredShuffleData(
+      RssGetFilteredShuffleDataRequest request) {
+    // an old server may close the connection on the unknown message, so it's never sent to them
+    if (!hasCapability(ServerCapability.FILTERED_LOCAL_SHUFFLE_DATA)) {
+      throw new RssException(
+          "The shuffle server "
+              + host
+              + ":"
+              + nettyPort
+              + " doesn't support getFilteredShuffleData");
+    }
+    TransportClient transportClient = getTransportClient();
+    GetFilteredLocalShuffleDataRequest getFilteredLocalShuffleDataRequest =
+        new GetFilteredLocalShuffleDataRequest(
+            requestId(),
+            request.getAppId(),
+            request.getShuffleId(),
+            request.getPartitionId(),
+            request.getPartitionNumPerRange(),
+            request.getPartitionNum(),
+            request.getOffset(),
+            request.getReadBufferSize(),
+            request.getExpectedTaskIds(),
+            System.currentTimeMillis());
+    String requestInfo =
+        "appId["
+            + request.getAppId()
+            + "], shuffleId["
+            + request.getShuffleId()
+            + "], partitionId["
+            + request.getPartitionId()
+            + "], offset["
+            + request.getOffset()
+            + "]";
+    // the requests sent through the same connection and not responded yet
+    int outstandingRequests = transportClient.getNumOutstandingRequests();
+    long start = System.currentTimeMillis();
+    int retry = 0;
+    RpcResponse rpcResponse;
+    GetFilteredLocalShuffleDataResponse getFilteredLocalShuffleDataResponse;
+    while (true) {
+      rpcResponse = transportClient.sendRpcSync(getFilteredLocalShuffleDataRequest, rpcTimeout);
+      getFilteredLocalShuffleDataResponse = (GetFilteredLocalShuffleDataResponse) rpcResponse;
+      if (rpcResponse.getStatusCode() != StatusCode.NO_BUFFER) {
+        break;
+      }
+      waitOrThrow(request, retry, requestInfo, rpcResponse.getStatusCode(), start);
+      retry++;
+    }
+    switch (rpcResponse.getStatusCode()) {
+      case SUCCESS:
+        LOG.info(
+            "GetFilteredShuffleData size:{}(bytes) from {}:{} for {} cost:{}(ms), "
+                + "outstanding requests:{}",
+            getFilteredLocalShuffleDataResponse.body().size(),
+            host,
+            nettyPort,
+            requestInfo,
+            System.currentTimeMillis() - start,
+            outstandingRequests);
+        return new RssGetFilteredShuffleDataResponse(
+            StatusCode.SUCCESS,
+            getFilteredLocalShuffleDataResponse.body(),
+            getFilteredLocalShuffleDataResponse.getBufferSegments(),
+            getFilteredLocalShuffleDataResponse.getNextOffset());
+      default:
+        String msg =
+            "Can't get filtered shuffle data from "
+                + host
+                + ":"
+                + nettyPort
+                + " for "
+                + requestInfo
+                + ", errorMsg:"
+                + getFilteredLocalShuffleDataResponse.getRetMessage();
+        LOG.error(msg);
+        throw new RssFetchFailedException(msg);
+    }
+  }
+
+  @Override
+  public RssGetShuffleDataBatchResponse getShuffleDataBatch(RssGetShuffleDataBatchRequest request) {
+    if (!hasCapability(ServerCapability.LOCAL_SHUFFLE_DATA_BATCH)) {
+      return new RssGetShuffleDataBatchResponse(
+          StatusCode.NOT_SUPPORTED, null, Collections.emptyList());
+    }
+    TransportClient transportClient = getTransportClient();
+    GetLocalShuffleDataBatchRequest getLocalShuffleDataBatchRequest =
+        new GetLocalShuffleDataBatchRequest(
+            requestId(),
+            request.getAppId(),
+            request.getShuffleId(),
+            request.getPartitionNumPerRange(),
+            request.getPartitionNum(),
+            request.getPartitionOffsets(),
+            request.getReadBufferSize(),
+            request.getExpectedTaskIds(),
+            System.currentTimeMillis());
+    String requestInfo =
+        "appId["
+            + request.getAppId()
+            + "], shuffleId["
+            + request.getShuffleId()
+            + "], partitionOffsets"
+            + request.getPartitionOffsets();
+    // the requests sent through the same connection and not responded yet
+    int outstandingRequests = transportClient.getNumOutstandingRequests();
+    long start = System.currentTimeMillis();
+    int retry = 0;
+    RpcResponse rpcResponse;
+    GetLocalShuffleDataBatchResponse getLocalShuffleDataBatchResponse;
+    while (true) {
+      rpcResponse = transportClient.sendRpcSync(getLocalShuffleDataBatchRequest, rpcTimeout);
+      getLocalShuffleDataBatchResponse = (GetLocalShuffleDataBatchResponse) rpcResponse;
+      if (rpcResponse.getStatusCode() != StatusCode.NO_BUFFER) {
+        break;
+      }
+      waitOrThrow(request, retry, requestInfo, rpcResponse.getStatusCode(), start);
+      retry++;
+    }
+    switch (rpcResponse.getStatusCode()) {
+      case SUCCESS:
+        LOG.info(
+            "GetShuffleDataBatch size:{}(bytes) from {}:{} for {} cost:{}(ms), "
+                + "outstanding requests:{}",
+            getLocalShuffleDataBatchResponse.body().size(),
+            host,
+            nettyPort,
+            requestInfo,
+            System.currentTimeMillis() - start,
+            outstandingRequests);
+        return new RssGetShuffleDataBatchResponse(
+            StatusCode.SUCCESS,
+            getLocalShuffleDataBatchResponse.body(),
+            getLocalShuffleDataBatchResponse.getPartitionDataSegments());
+      default:
+        String msg =
+            "Can't get shuffle data batch from "
+                + host
+                + ":"
+                + nettyPort
+                + " for "
+                + requestInfo
+                + ", errorMsg:"
+                + getLocalShuffleDataBatchResponse.getRetMessage();
+        LOG.error(msg);
+        throw new RssFetchFailedException(msg);
+    }
+  }
+
   @Override
   public RssGetShuffleIndexResponse getShuffleIndex(RssGetShuffleIndexRequest request) {
     TransportClient transportClient = getTransportClient();
@@ -325,6 +493,8 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
             + "], partitionId["
             + request.getPartitionId()
             + "]";
+    // the requests sent through the same connection and not responded yet
+    int outstandingRequests = transportClient.getNumOutstandingRequests();
     long start = System.currentTimeMillis();
     int retry = 0;
     RpcResponse rpcResponse;
@@ -341,12 +511,13 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
     switch (rpcResponse.getStatusCode()) {
       case SUCCESS:
         LOG.info(
-            "GetShuffleIndex size:{}(bytes) from {}:{} for {} cost:{}(ms)",
+            "GetShuffleIndex size:{}(bytes) from {}:{} for {} cost:{}(ms), outstanding requests:{}",
             getLocalShuffleIndexResponse.body().size(),
             host,
             nettyPort,
             requestInfo,
-            System.currentTimeMillis() - start);
+            System.currentTimeMillis() - start,
+            outstandingRequests);
         return new RssGetShuffleIndexResponse(
             StatusCode.SUCCESS,
             getLocalShuffleIndexResponse.body(),
@@ -388,6 +559,8 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
             + "], partitionId["
             + request.getPartitionId()
             + "]";
+    // the requests sent through the same connection and not responded yet
+    int outstandingRequests = transportClient.getNumOutstandingRequests();
     long start = System.currentTimeMillis();
     int retry = 0;
     RpcResponse rpcResponse;
@@ -404,12 +577,13 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
     switch (rpcResponse.getStatusCode()) {
       case SUCCESS:
         LOG.info(
-            "GetShuffleData size:{}(bytes) from {}:{} for {} cost:{}(ms)",
+            "GetShuffleData size:{}(bytes) from {}:{} for {} cost:{}(ms), outstanding requests:{}",
             getLocalShuffleDataResponse.body().size(),
             host,
             nettyPort,
             requestInfo,
-            System.currentTimeMillis() - start);
+            System.currentTimeMillis() - start,
+            outstandingRequests);
         return new RssGetShuffleDataResponse(
             StatusCode.SUCCESS, getLocalShuffleDataResponse.body());
       default:
@@ -449,6 +623,8 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
             request.getPartitionId(),
             request.getBlockId());
 
+    // the requests sent through the same connection and not responded yet
+    int outstandingRequests = transportClient.getNumOutstandingRequests();
     long start = System.currentTimeMillis();
     int retry = 0;
     RpcResponse rpcResponse;
@@ -467,11 +643,12 @@ public class ShuffleServerGrpcNettyClient extends ShuffleServerGrpcClient {
     switch (rpcResponse.getStatusCode()) {
       case SUCCESS:
         LOG.info(
-            "GetSortedShuffleData from {}:{} for {} cost {} ms",
+            "GetSortedShuffleData from {}:{} for {} cost {} ms, outstanding requests:{}",
             host,
             nettyPort,
             requestInfo,
-            System.currentTimeMillis() - start);
+            System.currentTimeMillis() - start,
+            outstandingRequests);
         return new RssGetSortedShuffleDataResponse(
             StatusCode.SUCCESS,
             getSortedShuffleDataResponse.getRetMessage(),
@@ -27,13 +27,24 @@ public class RssGetShuffleResultForMultiPartRequest {
   private int shuffleId;
   private Set<Integer> partitions;
   private BlockIdLayout blockIdLayout;
+  private boolean partitionBitmapsEnabled;
 
   public RssGetShuffleResultForMultiPartRequest(
       String appId, int shuffleId, Set<Integer> partitions, BlockIdLayout blockIdLayout) {
+    this(appId, shuffleId, partitions, blockIdLayout, false);
+  }
+
+  public RssGetShuffleResultForMultiPartRequest(
+      String appId,
+      int shuffleId,
+      Set<Integer> partitions,
+      BlockIdLayout blockIdLayout,
+      boolean partitionBitmapsEnabled) {
     this.appId = appId;
     this.shuffleId = shuffleId;
     this.partitions = partitions;
     this.blockIdLayout = blockIdLayout;
+    this.partitionBitmapsEnabled = partitionBitmapsEnabled;
   }
 
   public String getAppId() {
@@ -52,6 +63,10 @@ public class RssGetShuffleResultForMultiPartRequest {
     return blockIdLayout;
   }
 
+  public boolean isPartitionBitmapsEnabled() {
+    return partitionBitmapsEnabled;
+  }
+
   public RssProtos.GetShuffleResultForMultiPartRequest toProto() {
     RssGetShuffleResultForMultiPartRequest request = this;
     RssProtos.GetShuffleResultForMultiPartRequest rpcRequest =
@@ -65,6 +80,7 @@ public class RssGetShuffleResultForMultiPartRequest {
                     .setPartitionIdBits(request.getBlockIdLayout().partitionIdBits)
                     .setTaskAttemptIdBits(request.getBlockIdLayout().taskAttemptIdBits)
                     .build())
+            .setPartitionBitmapsEnabled(request.isPartitionBitmapsEnabled())
             .build();
     return rpcRequest;
   }
@@ -17,11 +17,16 @@
 
 package org.apache.uniffle.client.request;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.Lists;
+import com.google.protobuf.UnsafeByteOperations;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
+import org.apache.uniffle.common.exception.RssException;
+import org.apache.uniffle.common.util.RssUtils;
 import org.apache.uniffle.proto.RssProtos;
 
 public class RssReportShuffleResultRequest {
@@ -31,6 +36,7 @@ public class RssReportShuffleResultRequest {
   private long taskAttemptId;
   private int bitmapNum;
   private Map<Integer, List<Long>> partitionToBlockIds;
+  private boolean bitmapEncoded;
 
   public RssReportShuffleResultRequest(
       String appId,
@@ -38,11 +44,22 @@ public class RssReportShuffleResultRequest {
       long taskAttemptId,
       Map<Integer, List<Long>> partitionToBlockIds,
       int bitmapNum) {
+    this(appId, shuffleId, taskAttemptId, partitionToBlockIds, bitmapNum, false);
+  }
+
+  public RssReportShuffleResultRequest(
+      String appId,
+      int shuffleId,
+      long taskAttemptId,
+      Map<Integer, List<Long>> partitionToBlockIds,
+      int bitmapNum,
+      boolean bitmapEncoded) {
     this.appId = appId;
     this.shuffleId = shuffleId;
     this.taskAttemptId = taskAttemptId;
     this.bitmapNum = bitmapNum;
     this.partitionToBlockIds = partitionToBlockIds;
+    this.bitmapEncoded = bitmapEncoded;
   }
 
   public String getAppId() {
@@ -65,18 +82,33 @@ public class RssReportShuffleResultRequest {
     return partitionToBlockIds;
   }
 
+  public boolean isBitmapEncoded() {
+    return bitmapEncoded;
+  }
+
   public RssProtos.ReportShuffleResultRequest toProto() {
+    return toProto(bitmapEncoded);
+  }
+
+  /** Build the request, the block ids are only serialized as bitmaps if bitmapEncoded is set. */
+  public RssProtos.ReportShuffleResultRequest toProto(boolean bitmapEncoded) {
     RssReportShuffleResultRequest request = this;
     List<RssProtos.PartitionToBlockIds> partitionToBlockIds = Lists.newArrayList();
     for (Map.Entry<Integer, List<Long>> entry : request.getPartitionToBlockIds().entrySet()) {
       List<Long> blockIds = entry.getValue();
-      if (blockIds != null && !blockIds.isEmpty()) {
-        partitionToBlockIds.add(
-            RssProtos.PartitionToBlockIds.newBuilder()
-                .setPartitionId(entry.getKey())
-                .addAllBlockIds(entry.getValue())
-                .build());
+      if (blockIds == null || blockIds.isEmpty()) {
+        continue;
+      }
+      RssProtos.PartitionToBlockIds.Builder builder =
+          RssProtos.PartitionToBlockIds.newBuilder().setPartitionId(entry.getKey());
+      if (bitmapEncoded) {
+        // the block ids of a partition share the partition and task bits and are mostly
+        // sequential, so the serialized bitmap is much smaller than the raw block ids
+        builder.setSerializedBitmap(UnsafeByteOperations.unsafeWrap(serializeBlockIds(blockIds)));
+      } else {
+        builder.addAllBlockIds(blockIds);
       }
+      partitionToBlockIds.add(builder.build());
     }
 
     RssProtos.ReportShuffleResultRequest rpcRequest =
@@ -89,4 +121,17 @@ public class RssReportShuffleResultRequest {
             .build();
     return rpcRequest;
   }
+
+  private static byte[] serializeBlockIds(List<Long> blockIds) {
+    Roaring64NavigableMap bitmap = Roaring64NavigableMap.bitmapOf();
+    for (long blockId : blockIds) {
+      bitmap.addLong(blockId);
+    }
+    bitmap.runOptimize();
+    try {
+      return RssUtils.serializeBitMap(bitmap);
+    } catch (IOException e) {
+      throw new RssException("Failed to serialize the block ids", e);
+    }
+  }
 }
@@ -42,6 +42,8 @@ public class RssSendHeartBeatRequest {
   private final int jettyPort;
   private final long startTimeMs;
   private final List<RssProtos.ApplicationInfo> appInfos;
+  private final boolean deltaEnabled;
+  private final int fullSnapshotInterval;
 
   public RssSendHeartBeatRequest(
       String shuffleServerId,
@@ -59,6 +61,44 @@ public class RssSendHeartBeatRequest {
       int jettyPort,
       long startTimeMs,
       List<RssProtos.ApplicationInfo> appInfos) {
+    this(
+        shuffleServerId,
+        shuffleServerIp,
+        shuffleServerPort,
+        usedMemory,
+        preAllocatedMemory,
+        availableMemory,
+        eventNumInFlush,
+        timeout,
+        tags,
+        serverStatus,
+        storageInfo,
+        nettyPort,
+        jettyPort,
+        startTimeMs,
+        appInfos,
+        false,
+        1);
+  }
+
+  public RssSendHeartBeatRequest(
+      String shuffleServerId,
+      String shuffleServerIp,
+      int shuffleServerPort,
+      long usedMemory,
+      long preAllocatedMemory,
+      long availableMemory,
+      int eventNumInFlush,
+      long timeout,
+      Set<String> tags,
+      ServerStatus serverStatus,
+      Map<String, StorageInfo> storageInfo,
+      int nettyPort,
+      int jettyPort,
+      long startTimeMs,
+      List<RssProtos.ApplicationInfo> appInfos,
+      boolean deltaEnabled,
+      int fullSnapshotInterval) {
     this.shuffleServerId = shuffleServerId;
     this.shuffleServerIp = shuffleServerIp;
     this.shuffleServerPort = shuffleServerPort;
@@ -74,6 +114,8 @@ public class RssSendHeartBeatRequest {
     this.jettyPort = jettyPort;
     this.startTimeMs = startTimeMs;
     this.appInfos = appInfos;
+    this.deltaEnabled = deltaEnabled;
+    this.fullSnapshotInterval = fullSnapshotInterval;
   }
 
   public String getShuffleServerId() {
@@ -135,4 +177,12 @@ public class RssSendHeartBeatRequest {
   public List<RssProtos.ApplicationInfo> getAppInfos() {
     return appInfos;
   }
+
+  public boolean isDeltaEnabled() {
+    return deltaEnabled;
+  }
+
+  public int getFullSnapshotInterval() {
+    return fullSnapshotInterval;
+  }
 }
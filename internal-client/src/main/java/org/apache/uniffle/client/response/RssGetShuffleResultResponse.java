@@ -17,8 +17,10 @@
 
 package org.apache.uniffle.client.response;
 
+import java.io.DataInputStream;
 import java.io.IOException;
 
+import com.google.protobuf.ByteString;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import org.apache.uniffle.common.exception.RssException;
@@ -36,6 +38,11 @@ public class RssGetShuffleResultResponse extends ClientResponse {
     blockIdBitmap = RssUtils.deserializeBitMap(serializedBitmap);
   }
 
+  public RssGetShuffleResultResponse(StatusCode statusCode, Roaring64NavigableMap blockIdBitmap) {
+    super(statusCode);
+    this.blockIdBitmap = blockIdBitmap;
+  }
+
   public Roaring64NavigableMap getBlockIdBitmap() {
     return blockIdBitmap;
   }
@@ -54,9 +61,16 @@ public class RssGetShuffleResultResponse extends ClientResponse {
   public static RssGetShuffleResultResponse fromProto(
       RssProtos.GetShuffleResultForMultiPartResponse rpcResponse) {
     try {
+      Roaring64NavigableMap blockIdBitmap =
+          RssUtils.deserializeBitMap(rpcResponse.getSerializedBitmap().toByteArray());
+      // merge the block ids of the partitions one by one, without copying the whole response
+      for (ByteString partitionBitmap : rpcResponse.getSerializedPartitionBitmapsList()) {
+        Roaring64NavigableMap bitmap = Roaring64NavigableMap.bitmapOf();
+        bitmap.deserialize(new DataInputStream(partitionBitmap.newInput()));
+        blockIdBitmap.or(bitmap);
+      }
       return new RssGetShuffleResultResponse(
-          StatusCode.fromProto(rpcResponse.getStatus()),
-          rpcResponse.getSerializedBitmap().toByteArray());
+          StatusCode.fromProto(rpcResponse.getStatus()), blockIdBitmap);
     } catch (Exception e) {
       throw new RssException(e);
     }
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.client.impl.grpc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import org.apache.uniffle.client.request.RssReportShuffleResultRequest;
+import org.apache.uniffle.common.util.RssUtils;
+import org.apache.uniffle.proto.RssProtos.PartitionToBlockIds;
+import org.apache.uniffle.proto.RssProtos.ReportShuffleResultRequest;
+import org.apache.uniffle.proto.RssProtos.ReportShuffleResultResponse;
+import org.apache.uniffle.proto.RssProtos.StatusCode;
+import org.apache.uniffle.proto.ShuffleServerGrpc.ShuffleServerImplBase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShuffleServerGrpcClientTest {
+
+  private final List<ReportShuffleResultRequest> reportRequests = new CopyOnWriteArrayList<>();
+  private Server server;
+  private ShuffleServerGrpcClient client;
+
+  private void startServer(boolean serializedBitmapSupported) throws Exception {
+    server =
+        NettyServerBuilder.forPort(0)
+            .addService(
+                new ShuffleServerImplBase() {
+                  @Override
+                  public void reportShuffleResult(
+                      ReportShuffleResultRequest request,
+                      StreamObserver<ReportShuffleResultResponse> responseObserver) {
+                    reportRequests.add(request);
+                    responseObserver.onNext(
+                        ReportShuffleResultResponse.newBuilder()
+                            .setStatus(StatusCode.SUCCESS)
+                            .setSerializedBitmapSupported(serializedBitmapSupported)
+                            .build());
+                    responseObserver.onCompleted();
+                  }
+                })
+            .build()
+            .start();
+    client = new ShuffleServerGrpcClient("localhost", server.getPort());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (client != null) {
+      client.close();
+    }
+    if (server != null) {
+      server.shutdownNow();
+    }
+  }
+
+  private RssReportShuffleResultRequest newBitmapRequest(long taskAttemptId) {
+    Map<Integer, List<Long>> partitionToBlockIds =
+        Collections.singletonMap(1, Arrays.asList(1L, 2L, 3L));
+    return new RssReportShuffleResultRequest(
+        "appId", 0, taskAttemptId, partitionToBlockIds, 1, true);
+  }
+
+  @Test
+  public void reportBitmapTest() throws Exception {
+    startServer(true);
+    client.reportShuffleResult(newBitmapRequest(1));
+
+    assertEquals(1, reportRequests.size());
+    PartitionToBlockIds partitionToBlockIds = reportRequests.get(0).getPartitionToBlockIds(0);
+    assertTrue(partitionToBlockIds.hasSerializedBitmap());
+    assertEquals(0, partitionToBlockIds.getBlockIdsCount());
+    assertEquals(
+        Roaring64NavigableMap.bitmapOf(1L, 2L, 3L),
+        RssUtils.deserializeBitMap(partitionToBlockIds.getSerializedBitmap().toByteArray()));
+  }
+
+  @Test
+  public void reportBitmapToOldServerTest() throws Exception {
+    // the old servers ignore the serialized bitmaps without acknowledging them
+    startServer(false);
+    client.reportShuffleResult(newBitmapRequest(1));
+
+    assertEquals(2, reportRequests.size());
+    assertTrue(reportRequests.get(0).getPartitionToBlockIds(0).hasSerializedBitmap());
+    PartitionToBlockIds partitionToBlockIds = reportRequests.get(1).getPartitionToBlockIds(0);
+    assertFalse(partitionToBlockIds.hasSerializedBitmap());
+    assertEquals(Arrays.asList(1L, 2L, 3L), partitionToBlockIds.getBlockIdsList());
+
+    // the later reports send the raw block ids directly
+    client.reportShuffleResult(newBitmapRequest(2));
+    assertEquals(3, reportRequests.size());
+    partitionToBlockIds = reportRequests.get(2).getPartitionToBlockIds(0);
+    assertFalse(partitionToBlockIds.hasSerializedBitmap());
+    assertEquals(Arrays.asList(1L, 2L, 3L), partitionToBlockIds.getBlockIdsList());
+  }
+}
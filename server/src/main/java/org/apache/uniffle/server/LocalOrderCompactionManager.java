@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.common.util.Constants;
+import org.apache.uniffle.common.util.ThreadUtils;
+import org.apache.uniffle.storage.common.FileBasedShuffleSegment;
+import org.apache.uniffle.storage.common.LocalStorage;
+import org.apache.uniffle.storage.handler.api.ShuffleWriteHandler;
+import org.apache.uniffle.storage.util.ShuffleStorageUtils;
+
+/**
+ * Rewrites the local files of the LOCAL_ORDER partitions after the shuffle is finished. Every
+ * flush event only sorts its own blocks by the task attempt id, so the data file is a sequence of
+ * sorted runs and the split readers have to seek over the whole file. The compaction merges the
+ * runs into one run ordered by the task attempt id and swaps the new files in.
+ *
+ * <p>Readers get the block offsets from the index and read the data by the offsets later, possibly
+ * after the swap. So the compacted data file keeps the original data at the original offsets and
+ * appends the ordered run after it, and only the compacted index points to the ordered run. The
+ * data file is swapped before the index, so the offsets of either index are valid in the data file
+ * at any time, at the cost of keeping the original data on the disk. The swap is done while
+ * holding the write handler of the partition, and it is aborted if the files have been appended
+ * since the compaction started.
+ *
+ * <p>The compacted files are written next to the original ones, and a marker file is created
+ * before moving them in. A swap which failed after the marker was created is rolled forward by
+ * {@link #recoverPartition}, otherwise the partially written compacted files are deleted. The local
+ * storages are cleaned at startup, so nothing is left to recover after a restart.
+ */
+public class LocalOrderCompactionManager {
+  private static final Logger LOG = LoggerFactory.getLogger(LocalOrderCompactionManager.class);
+  private static final String COMPACTING_FILE_SUFFIX = ".compacting";
+  private static final String COMPACTED_MARKER_SUFFIX = ".compacted";
+  private static final int MAX_COPY_BYTES = 1024 * 1024;
+
+  private final ExecutorService executor;
+  private final RateLimiter rateLimiter;
+  private final ShuffleIndexCache shuffleIndexCache;
+  // the keys of the shuffles waiting to be compacted
+  private final Set<String> pendingShuffles = Sets.newConcurrentHashSet();
+
+  public LocalOrderCompactionManager(ShuffleServerConf conf, ShuffleIndexCache shuffleIndexCache) {
+    this.executor =
+        ThreadUtils.getDaemonFixedThreadPool(
+            conf.get(ShuffleServerConf.SERVER_LOCAL_ORDER_COMPACTION_THREADS),
+            "localOrderCompaction");
+    this.rateLimiter =
+        RateLimiter.create(conf.get(ShuffleServerConf.SERVER_LOCAL_ORDER_COMPACTION_RATE_LIMIT));
+    this.shuffleIndexCache = shuffleIndexCache;
+  }
+
+  /** Compact all the partitions of the shuffle stored in the given local storages. */
+  public void compactShuffle(String appId, int shuffleId, List<LocalStorage> storages) {
+    String shuffleKey = generateShuffleKey(appId, shuffleId);
+    if (!pendingShuffles.add(shuffleKey)) {
+      return;
+    }
+    executor.submit(
+        () -> {
+          try {
+            for (LocalStorage storage : storages) {
+              if (!pendingShuffles.contains(shuffleKey)) {
+                // the shuffle has been removed
+                return;
+              }
+              compactShuffle(appId, shuffleId, storage);
+            }
+          } finally {
+            pendingShuffles.remove(shuffleKey);
+          }
+        });
+  }
+
+  private void compactShuffle(String appId, int shuffleId, LocalStorage storage) {
+    File shuffleFolder =
+        new File(
+            ShuffleStorageUtils.getFullShuffleDataFolder(
+                storage.getBasePath(), ShuffleStorageUtils.getShuffleDataPath(appId, shuffleId)));
+    File[] partitionFolders = shuffleFolder.listFiles(File::isDirectory);
+    if (partitionFolders == null) {
+      return;
+    }
+    for (File partitionFolder : partitionFolders) {
+      int startPartition;
+      try {
+        startPartition = Integer.parseInt(partitionFolder.getName().split("-")[0]);
+      } catch (NumberFormatException e) {
+        continue;
+      }
+      ShuffleWriteHandler writeHandler = storage.getWriteHandler(appId, shuffleId, startPartition);
+      if (writeHandler == null) {
+        // the partition can't be swapped safely without the write handler
+        continue;
+      }
+      try {
+        compactPartition(appId, shuffleId, startPartition, partitionFolder, writeHandler);
+      } catch (Exception e) {
+        ShuffleServerMetrics.counterTotalLocalOrderCompactionAborted.inc();
+        LOG.warn("Failed to compact the partition in {}", partitionFolder, e);
+      }
+    }
+  }
+
+  /**
+   * Append the blocks of the data file in the partition folder as one run ordered by the task
+   * attempt id, rewrite the index to point to the run, and swap them in while holding the lock of
+   * the write handler.
+   *
+   * @return true if the files have been swapped
+   */
+  @VisibleForTesting
+  boolean compactPartition(
+      String appId, int shuffleId, int startPartition, File partitionFolder, Object writeLock)
+      throws IOException {
+    File[] indexFiles =
+        partitionFolder.listFiles(
+            (dir, name) -> name.endsWith(Constants.SHUFFLE_INDEX_FILE_SUFFIX));
+    if (indexFiles == null || indexFiles.length != 1) {
+      return false;
+    }
+    String indexFileName = indexFiles[0].getName();
+    String fileNamePrefix = indexFileName.substring(0, indexFileName.lastIndexOf("."));
+    Path indexPath = indexFiles[0].toPath();
+    Path dataPath =
+        new File(partitionFolder, ShuffleStorageUtils.generateDataFileName(fileNamePrefix))
+            .toPath();
+    synchronized (writeLock) {
+      // finish the failed swap of an earlier compaction before reading the files
+      recoverPartition(partitionFolder);
+    }
+
+    long indexLength = Files.size(indexPath);
+    long dataLength = Files.size(dataPath);
+    int segmentNum = (int) (indexLength / FileBasedShuffleSegment.SEGMENT_SIZE);
+    if (indexLength != (long) segmentNum * FileBasedShuffleSegment.SEGMENT_SIZE) {
+      // the index is being written
+      return abort(partitionFolder, "the index file is incomplete");
+    }
+    ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+    if (index.capacity() != indexLength) {
+      return abort(partitionFolder, "the index file has been appended");
+    }
+    Integer[] order = new Integer[segmentNum];
+    boolean sorted = true;
+    for (int i = 0; i < segmentNum; i++) {
+      order[i] = i;
+      int position = i * FileBasedShuffleSegment.SEGMENT_SIZE;
+      if (index.getLong(position) + index.getInt(position + 8) > dataLength) {
+        return abort(partitionFolder, "the data file is incomplete");
+      }
+      if (i > 0 && getTaskAttemptId(index, i) < getTaskAttemptId(index, i - 1)) {
+        sorted = false;
+      }
+    }
+    if (sorted) {
+      return false;
+    }
+    // the sort is stable, the blocks of a task keep their order
+    Arrays.sort(order, Comparator.comparingLong(i -> getTaskAttemptId(index, i)));
+
+    Path compactingIndexPath = appendSuffix(indexPath, COMPACTING_FILE_SUFFIX);
+    Path compactingDataPath = appendSuffix(dataPath, COMPACTING_FILE_SUFFIX);
+    Path markerPath = new File(partitionFolder, fileNamePrefix + COMPACTED_MARKER_SUFFIX).toPath();
+    try {
+      ByteBuffer newIndex = ByteBuffer.allocate((int) indexLength);
+      try (FileChannel source = FileChannel.open(dataPath, StandardOpenOption.READ);
+          FileChannel target =
+              FileChannel.open(
+                  compactingDataPath,
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.TRUNCATE_EXISTING,
+                  StandardOpenOption.WRITE)) {
+        // keep the original data for the readers of the original index
+        copy(source, 0, dataLength, target);
+        long newOffset = dataLength;
+        for (int i : order) {
+          int position = i * FileBasedShuffleSegment.SEGMENT_SIZE;
+          long offset = index.getLong(position);
+          int length = index.getInt(position + 8);
+          copy(source, offset, length, target);
+          newIndex.put(index.array(), position, FileBasedShuffleSegment.SEGMENT_SIZE);
+          newIndex.putLong(newIndex.position() - FileBasedShuffleSegment.SEGMENT_SIZE, newOffset);
+          newOffset += length;
+        }
+        target.force(true);
+      }
+      newIndex.flip();
+      try (FileChannel target =
+          FileChannel.open(
+              compactingIndexPath,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE)) {
+        while (newIndex.hasRemaining()) {
+          target.write(newIndex);
+        }
+        target.force(true);
+      }
+
+      synchronized (writeLock) {
+        if (Files.size(indexPath) != indexLength || Files.size(dataPath) != dataLength) {
+          return abort(partitionFolder, "the partition has been appended");
+        }
+        // both compacted files are complete on the disk, the marker commits the swap
+        Files.createFile(markerPath);
+        forceDirectory(partitionFolder.toPath());
+        swap(partitionFolder, fileNamePrefix);
+        if (shuffleIndexCache != null) {
+          shuffleIndexCache.invalidate(appId, shuffleId, startPartition);
+        }
+      }
+    } finally {
+      if (Files.exists(markerPath)) {
+        // the swap failed after being committed, the data and the index must not be left mixed
+        LOG.error("Failed to swap the compacted files in {}, retry it", partitionFolder);
+        synchronized (writeLock) {
+          recoverPartition(partitionFolder);
+          if (shuffleIndexCache != null) {
+            shuffleIndexCache.invalidate(appId, shuffleId, startPartition);
+          }
+        }
+      } else {
+        Files.deleteIfExists(compactingDataPath);
+        Files.deleteIfExists(compactingIndexPath);
+      }
+    }
+    ShuffleServerMetrics.counterTotalLocalOrderCompactedPartition.inc();
+    ShuffleServerMetrics.counterTotalLocalOrderCompactedDataSize.inc(dataLength);
+    LOG.info("Compacted {} blocks with {} bytes in {}", segmentNum, dataLength, partitionFolder);
+    return true;
+  }
+
+  /**
+   * Finish the committed swaps which failed in the partition folder and delete the partially
+   * written compacted files.
+   */
+  @VisibleForTesting
+  static void recoverPartition(File partitionFolder) throws IOException {
+    File[] markers =
+        partitionFolder.listFiles((dir, name) -> name.endsWith(COMPACTED_MARKER_SUFFIX));
+    if (markers != null) {
+      for (File marker : markers) {
+        String name = marker.getName();
+        String fileNamePrefix = name.substring(0, name.length() - COMPACTED_MARKER_SUFFIX.length());
+        swap(partitionFolder, fileNamePrefix);
+        LOG.info("Finished the failed swap of the compacted files in {}", partitionFolder);
+      }
+    }
+    File[] compactingFiles =
+        partitionFolder.listFiles((dir, name) -> name.endsWith(COMPACTING_FILE_SUFFIX));
+    if (compactingFiles != null) {
+      for (File compactingFile : compactingFiles) {
+        Files.deleteIfExists(compactingFile.toPath());
+      }
+    }
+  }
+
+  /**
+   * Move the compacted files over the original ones and then delete the marker. The data file is
+   * moved first, since the original index is still valid with the compacted data file but not the
+   * other way around. The files which have been moved are skipped, so it can be repeated until it
+   * succeeds.
+   */
+  private static void swap(File partitionFolder, String fileNamePrefix) throws IOException {
+    List<String> fileNames =
+        Arrays.asList(
+            ShuffleStorageUtils.generateDataFileName(fileNamePrefix),
+            ShuffleStorageUtils.generateIndexFileName(fileNamePrefix));
+    for (String fileName : fileNames) {
+      Path path = new File(partitionFolder, fileName).toPath();
+      Path compactingPath = appendSuffix(path, COMPACTING_FILE_SUFFIX);
+      if (Files.exists(compactingPath)) {
+        Files.move(
+            compactingPath,
+            path,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      }
+    }
+    forceDirectory(partitionFolder.toPath());
+    Files.deleteIfExists(
+        new File(partitionFolder, fileNamePrefix + COMPACTED_MARKER_SUFFIX).toPath());
+  }
+
+  // persist the created and renamed entries of the directory
+  private static void forceDirectory(Path directory) {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // not supported by some platforms
+      LOG.debug("Failed to force the directory {}", directory, e);
+    }
+  }
+
+  public void removeApp(String appId) {
+    String prefix = appId + Constants.KEY_SPLIT_CHAR;
+    pendingShuffles.removeIf(key -> key.startsWith(prefix));
+  }
+
+  public void removeShuffles(String appId, Collection<Integer> shuffleIds) {
+    for (int shuffleId : shuffleIds) {
+      pendingShuffles.remove(generateShuffleKey(appId, shuffleId));
+    }
+  }
+
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  private void copy(FileChannel source, long offset, long length, FileChannel target)
+      throws IOException {
+    long copied = 0;
+    while (copied < length) {
+      int bytes = (int) Math.min(length - copied, MAX_COPY_BYTES);
+      rateLimiter.acquire(bytes);
+      long transferred = source.transferTo(offset + copied, bytes, target);
+      if (transferred <= 0) {
+        throw new IOException("Unexpected end of the data file at " + (offset + copied));
+      }
+      copied += transferred;
+    }
+  }
+
+  private boolean abort(File partitionFolder, String reason) {
+    ShuffleServerMetrics.counterTotalLocalOrderCompactionAborted.inc();
+    LOG.info("Abort compacting the partition in {} since {}", partitionFolder, reason);
+    return false;
+  }
+
+  private static long getTaskAttemptId(ByteBuffer index, int i) {
+    return index.getLong(i * FileBasedShuffleSegment.SEGMENT_SIZE + 32);
+  }
+
+  private static Path appendSuffix(Path path, String suffix) {
+    return path.resolveSibling(path.getFileName() + suffix);
+  }
+
+  private static String generateShuffleKey(String appId, int shuffleId) {
+    return String.join(Constants.KEY_SPLIT_CHAR, appId, String.valueOf(shuffleId));
+  }
+}
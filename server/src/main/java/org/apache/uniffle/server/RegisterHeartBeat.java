@@ -44,6 +44,8 @@ public class RegisterHeartBeat {
   private final long heartBeatInterval;
   private final ShuffleServer shuffleServer;
   private final String coordinatorQuorum;
+  private final boolean deltaEnabled;
+  private final int fullSnapshotInterval;
   private final CoordinatorGrpcRetryableClient coordinatorClient;
   private final ScheduledExecutorService service =
       ThreadUtils.getDaemonSingleThreadScheduledExecutor("startHeartBeat");
@@ -53,6 +55,8 @@ public class RegisterHeartBeat {
     this.heartBeatInitialDelay = conf.getLong(ShuffleServerConf.SERVER_HEARTBEAT_DELAY);
     this.heartBeatInterval = conf.getLong(ShuffleServerConf.SERVER_HEARTBEAT_INTERVAL);
     this.coordinatorQuorum = conf.getString(ShuffleServerConf.RSS_COORDINATOR_QUORUM);
+    this.deltaEnabled = conf.get(ShuffleServerConf.SERVER_HEARTBEAT_DELTA_ENABLED);
+    this.fullSnapshotInterval = conf.get(ShuffleServerConf.SERVER_HEARTBEAT_FULL_SNAPSHOT_INTERVAL);
     CoordinatorClientFactory factory = CoordinatorClientFactory.getInstance();
     this.coordinatorClient =
         factory.createCoordinatorClient(
@@ -129,7 +133,9 @@ public class RegisterHeartBeat {
             nettyPort,
             jettyPort,
             startTimeMs,
-            appInfos);
+            appInfos,
+            deltaEnabled,
+            fullSnapshotInterval);
 
     if (coordinatorClient.sendHeartBeat(request).getStatusCode() == StatusCode.SUCCESS) {
       return true;
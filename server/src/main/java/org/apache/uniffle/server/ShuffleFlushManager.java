@@ -28,7 +28,6 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.hadoop.conf.Configuration;
-import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +37,8 @@ import org.apache.uniffle.common.ShufflePartitionedBlock;
 import org.apache.uniffle.common.config.RssBaseConf;
 import org.apache.uniffle.common.util.JavaUtils;
 import org.apache.uniffle.common.util.RssUtils;
+import org.apache.uniffle.server.block.BlockIdSet;
+import org.apache.uniffle.server.block.HeapBlockIdSet;
 import org.apache.uniffle.server.flush.EventDiscardException;
 import org.apache.uniffle.server.flush.EventInvalidException;
 import org.apache.uniffle.server.flush.EventRetryException;
@@ -66,8 +67,7 @@ public class ShuffleFlushManager {
   private final boolean storageTypeWithMemory;
   private Configuration hadoopConf;
   // appId -> shuffleId -> committed shuffle blockIds
-  private Map<String, Map<Integer, Roaring64NavigableMap>> committedBlockIds =
-      JavaUtils.newConcurrentMap();
+  private Map<String, Map<Integer, BlockIdSet>> committedBlockIds = JavaUtils.newConcurrentMap();
   private final int retryMax;
 
   private final StorageManager storageManager;
@@ -230,6 +230,11 @@ public class ShuffleFlushManager {
               event.getEncodedLength(), handlerWrapper.isNewlyCreated());
         }
       }
+      ShuffleIndexCache indexCache = shuffleServer.getShuffleTaskManager().getShuffleIndexCache();
+      if (indexCache != null && LocalStorage.STORAGE_HOST.equals(storage.getStorageHost())) {
+        // make the flushed segments visible to the cached index before it is read again
+        indexCache.refresh(event.getAppId(), event.getShuffleId(), event.getStartPartition());
+      }
     } finally {
       ShuffleServerMetrics.gaugeWriteHandler.dec();
     }
@@ -260,23 +265,23 @@ public class ShuffleFlushManager {
       return;
     }
     committedBlockIds.computeIfAbsent(appId, key -> JavaUtils.newConcurrentMap());
-    Map<Integer, Roaring64NavigableMap> shuffleToBlockIds = committedBlockIds.get(appId);
-    shuffleToBlockIds.computeIfAbsent(shuffleId, key -> Roaring64NavigableMap.bitmapOf());
-    Roaring64NavigableMap bitmap = shuffleToBlockIds.get(shuffleId);
+    Map<Integer, BlockIdSet> shuffleToBlockIds = committedBlockIds.get(appId);
+    shuffleToBlockIds.computeIfAbsent(shuffleId, key -> BlockIdSet.create(shuffleServerConf));
+    BlockIdSet bitmap = shuffleToBlockIds.get(shuffleId);
     synchronized (bitmap) {
       for (ShufflePartitionedBlock spb : blocks) {
-        bitmap.addLong(spb.getBlockId());
+        bitmap.add(spb.getBlockId());
       }
     }
   }
 
-  public Roaring64NavigableMap getCommittedBlockIds(String appId, Integer shuffleId) {
-    Map<Integer, Roaring64NavigableMap> shuffleIdToBlockIds = committedBlockIds.get(appId);
+  public BlockIdSet getCommittedBlockIds(String appId, Integer shuffleId) {
+    Map<Integer, BlockIdSet> shuffleIdToBlockIds = committedBlockIds.get(appId);
     if (shuffleIdToBlockIds == null) {
       LOG.warn("Unexpected value when getCommittedBlockIds for appId[" + appId + "]");
-      return Roaring64NavigableMap.bitmapOf();
+      return new HeapBlockIdSet();
     }
-    Roaring64NavigableMap blockIds = shuffleIdToBlockIds.get(shuffleId);
+    BlockIdSet blockIds = shuffleIdToBlockIds.get(shuffleId);
     if (blockIds == null) {
       LOG.warn(
           "Unexpected value when getCommittedBlockIds for appId["
@@ -284,13 +289,14 @@ public class ShuffleFlushManager {
               + "], shuffleId["
               + shuffleId
               + "]");
-      return Roaring64NavigableMap.bitmapOf();
+      return new HeapBlockIdSet();
     }
     return blockIds;
   }
 
   public void removeResources(String appId) {
-    committedBlockIds.remove(appId);
+    Optional.ofNullable(committedBlockIds.remove(appId))
+        .ifPresent(shuffleIdToBlockIds -> shuffleIdToBlockIds.values().forEach(BlockIdSet::close));
   }
 
   protected void initHadoopConf() {
@@ -315,7 +321,12 @@ public class ShuffleFlushManager {
 
   public void removeResourcesOfShuffleId(String appId, Collection<Integer> shuffleIds) {
     Optional.ofNullable(committedBlockIds.get(appId))
-        .ifPresent(shuffleIdToBlockIds -> shuffleIds.forEach(shuffleIdToBlockIds::remove));
+        .ifPresent(
+            shuffleIdToBlockIds ->
+                shuffleIds.forEach(
+                    shuffleId ->
+                        Optional.ofNullable(shuffleIdToBlockIds.remove(shuffleId))
+                            .ifPresent(BlockIdSet::close)));
   }
 
   public ShuffleDataDistributionType getDataDistributionType(String appId) {
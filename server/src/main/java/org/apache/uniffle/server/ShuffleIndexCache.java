@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.common.ShuffleIndexResult;
+import org.apache.uniffle.storage.common.FileBasedShuffleSegment;
+import org.apache.uniffle.storage.handler.impl.LocalFileServerReadHandler;
+
+/**
+ * The in-memory cache of local shuffle index files. A cached index is caught up with the appended
+ * index segments after the flush of the partition and before being served, by reading the tail of
+ * the index file only.
+ */
+public class ShuffleIndexCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ShuffleIndexCache.class);
+
+  private final WeightedPartitionCache<CachedIndex> cache;
+
+  public ShuffleIndexCache(long capacity) {
+    this.cache =
+        new WeightedPartitionCache<>(
+            capacity,
+            index -> index.indexData.length,
+            () -> ShuffleServerMetrics.counterTotalIndexCacheEviction.inc());
+  }
+
+  public ShuffleIndexResult get(
+      String appId, int shuffleId, int startPartition, LocalFileServerReadHandler handler) {
+    CachedIndex cachedIndex = cache.get(appId, shuffleId, startPartition);
+    if (cachedIndex != null && cachedIndex.indexFileName.equals(handler.getIndexFileName())) {
+      CachedIndex latestIndex = catchUp(appId, shuffleId, startPartition, cachedIndex);
+      if (latestIndex != null) {
+        ShuffleServerMetrics.counterTotalIndexCacheHit.inc();
+        return latestIndex.toShuffleIndexResult();
+      }
+    }
+    ShuffleServerMetrics.counterTotalIndexCacheMiss.inc();
+    ShuffleIndexResult result = handler.getShuffleIndex();
+    if (handler.getIndexFileName().isEmpty()) {
+      return result;
+    }
+    byte[] indexData;
+    try {
+      ByteBuffer buffer = result.getIndexData();
+      indexData = new byte[buffer.remaining()];
+      buffer.get(indexData);
+    } finally {
+      result.release();
+    }
+    CachedIndex loadedIndex =
+        new CachedIndex(
+            handler.getIndexFileName(),
+            handler.getDataFileName(),
+            indexData,
+            result.getDataFileLen());
+    cache.put(appId, shuffleId, startPartition, loadedIndex);
+    return loadedIndex.toShuffleIndexResult();
+  }
+
+  /** Catch up the cached index of the partition, if any, after its data has been flushed. */
+  public void refresh(String appId, int shuffleId, int startPartition) {
+    CachedIndex cachedIndex = cache.get(appId, shuffleId, startPartition);
+    if (cachedIndex != null) {
+      catchUp(appId, shuffleId, startPartition, cachedIndex);
+    }
+  }
+
+  /** Drop the cached index of the partition after its files have been replaced. */
+  public void invalidate(String appId, int shuffleId, int startPartition) {
+    cache.invalidate(appId, shuffleId, startPartition);
+  }
+
+  public void removeApp(String appId) {
+    cache.removeApp(appId);
+  }
+
+  public void removeShuffles(String appId, Collection<Integer> shuffleIds) {
+    cache.removeShuffles(appId, shuffleIds);
+  }
+
+  public long getCachedSize() {
+    return cache.getCachedSize();
+  }
+
+  @VisibleForTesting
+  long getCachedIndexNum() {
+    return cache.size();
+  }
+
+  private CachedIndex catchUp(
+      String appId, int shuffleId, int startPartition, CachedIndex cachedIndex) {
+    CachedIndex latestIndex = cachedIndex.catchUp();
+    if (latestIndex == null) {
+      cache.remove(appId, shuffleId, startPartition, cachedIndex);
+    } else if (latestIndex != cachedIndex) {
+      // it may be replaced or removed by others, the latest index is still valid to be served
+      cache.replace(appId, shuffleId, startPartition, cachedIndex, latestIndex);
+    }
+    return latestIndex;
+  }
+
+  private static class CachedIndex {
+    private final String indexFileName;
+    private final String dataFileName;
+    private final byte[] indexData;
+    private final long dataFileLen;
+
+    CachedIndex(String indexFileName, String dataFileName, byte[] indexData, long dataFileLen) {
+      this.indexFileName = indexFileName;
+      this.dataFileName = dataFileName;
+      this.indexData = indexData;
+      this.dataFileLen = dataFileLen;
+    }
+
+    ShuffleIndexResult toShuffleIndexResult() {
+      return new ShuffleIndexResult(ByteBuffer.wrap(indexData), dataFileLen);
+    }
+
+    /**
+     * Returns the index with the segments appended to the index file since it was cached, or null
+     * if the files have been deleted or rewritten.
+     */
+    CachedIndex catchUp() {
+      // the same order as LocalFileServerReadHandler, the index file is checked before the data
+      // file so that the data file length covers all the indexed data which has been flushed
+      long indexFileLen = new File(indexFileName).length();
+      long latestDataFileLen = new File(dataFileName).length();
+      int indexLen =
+          (int) (indexFileLen / FileBasedShuffleSegment.SEGMENT_SIZE)
+              * FileBasedShuffleSegment.SEGMENT_SIZE;
+      if (indexLen < indexData.length || latestDataFileLen < dataFileLen) {
+        return null;
+      }
+      if (indexLen == indexData.length) {
+        return latestDataFileLen == dataFileLen
+            ? this
+            : new CachedIndex(indexFileName, dataFileName, indexData, latestDataFileLen);
+      }
+      byte[] latestIndexData = Arrays.copyOf(indexData, indexLen);
+      try (FileChannel channel =
+          FileChannel.open(new File(indexFileName).toPath(), StandardOpenOption.READ)) {
+        ByteBuffer buffer =
+            ByteBuffer.wrap(latestIndexData, indexData.length, indexLen - indexData.length);
+        long position = indexData.length;
+        while (buffer.hasRemaining()) {
+          int readLen = channel.read(buffer, position);
+          if (readLen < 0) {
+            return null;
+          }
+          position += readLen;
+        }
+      } catch (IOException e) {
+        LOG.warn("Failed to read the appended index segments of {}", indexFileName, e);
+        return null;
+      }
+      return new CachedIndex(indexFileName, dataFileName, latestIndexData, latestDataFileLen);
+    }
+  }
+}
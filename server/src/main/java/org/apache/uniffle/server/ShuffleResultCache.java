@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server;
+
+import java.util.Collection;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import org.apache.uniffle.common.util.BlockIdLayout;
+
+/**
+ * The in-memory cache of the serialized block ids of the partitions, so the shuffle result of a
+ * partition requested by many reducers is serialized only once. The cached block ids of a
+ * partition must be invalidated whenever new block ids of it are reported.
+ */
+public class ShuffleResultCache {
+
+  private final WeightedPartitionCache<CachedResult> cache;
+
+  public ShuffleResultCache(long capacity) {
+    this.cache =
+        new WeightedPartitionCache<>(
+            capacity,
+            result -> result.serializedBlockIds.length,
+            () -> ShuffleServerMetrics.counterTotalShuffleResultCacheEviction.inc());
+  }
+
+  /**
+   * Returns the cached block ids of the partition, or null if they are not cached or cached with
+   * another block id layout.
+   */
+  public CachedResult get(String appId, int shuffleId, int partitionId, BlockIdLayout layout) {
+    CachedResult result = cache.get(appId, shuffleId, partitionId);
+    if (result != null && result.layout.equals(layout)) {
+      ShuffleServerMetrics.counterTotalShuffleResultCacheHit.inc();
+      return result;
+    }
+    ShuffleServerMetrics.counterTotalShuffleResultCacheMiss.inc();
+    return null;
+  }
+
+  public void put(
+      String appId,
+      int shuffleId,
+      int partitionId,
+      BlockIdLayout layout,
+      byte[] serializedBlockIds,
+      long blockNum) {
+    cache.put(
+        appId, shuffleId, partitionId, new CachedResult(layout, serializedBlockIds, blockNum));
+  }
+
+  public void invalidate(String appId, int shuffleId, int partitionId) {
+    cache.invalidate(appId, shuffleId, partitionId);
+  }
+
+  public void removeApp(String appId) {
+    cache.removeApp(appId);
+  }
+
+  public void removeShuffles(String appId, Collection<Integer> shuffleIds) {
+    cache.removeShuffles(appId, shuffleIds);
+  }
+
+  public long getCachedSize() {
+    return cache.getCachedSize();
+  }
+
+  @VisibleForTesting
+  long getCachedResultNum() {
+    return cache.size();
+  }
+
+  public static class CachedResult {
+    private final BlockIdLayout layout;
+    // the serialized Roaring64NavigableMap, it must not be modified as it's served without copy
+    private final byte[] serializedBlockIds;
+    private final long blockNum;
+
+    CachedResult(BlockIdLayout layout, byte[] serializedBlockIds, long blockNum) {
+      this.layout = layout;
+      this.serializedBlockIds = serializedBlockIds;
+      this.blockNum = blockNum;
+    }
+
+    public byte[] getSerializedBlockIds() {
+      return serializedBlockIds;
+    }
+
+    public long getBlockNum() {
+      return blockNum;
+    }
+  }
+}
@@ -29,6 +29,10 @@ import java.util.concurrent.atomic.AtomicReference;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PoolChunkListMetric;
+import io.netty.buffer.PoolChunkMetric;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
 import io.netty.util.internal.PlatformDependent;
 import io.prometheus.client.CollectorRegistry;
 import org.apache.commons.collections4.CollectionUtils;
@@ -55,6 +59,7 @@ import org.apache.uniffle.common.security.SecurityContextFactory;
 import org.apache.uniffle.common.util.Constants;
 import org.apache.uniffle.common.util.ExitUtils;
 import org.apache.uniffle.common.util.JvmPauseMonitor;
+import org.apache.uniffle.common.util.NettyUtils;
 import org.apache.uniffle.common.util.RssUtils;
 import org.apache.uniffle.common.util.ThreadUtils;
 import org.apache.uniffle.common.web.CoalescedCollectorRegistry;
@@ -81,6 +86,11 @@ import static org.apache.uniffle.common.metrics.CommonMetrics.JVM_PAUSE_TOTAL_EX
 import static org.apache.uniffle.common.metrics.CommonMetrics.JVM_PAUSE_WARN_TIME_EXCEEDED;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_DECOMMISSION_CHECK_INTERVAL;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_DECOMMISSION_SHUTDOWN;
+import static org.apache.uniffle.server.ShuffleServerMetrics.POOLED_ALLOCATOR_ACTIVE_BYTES;
+import static org.apache.uniffle.server.ShuffleServerMetrics.POOLED_ALLOCATOR_CHUNK_NUM;
+import static org.apache.uniffle.server.ShuffleServerMetrics.POOLED_ALLOCATOR_FRAGMENTATION_RATIO;
+import static org.apache.uniffle.server.ShuffleServerMetrics.POOLED_ALLOCATOR_THREAD_CACHE_NUM;
+import static org.apache.uniffle.server.ShuffleServerMetrics.POOLED_ALLOCATOR_USED_DIRECT_MEMORY;
 import static org.apache.uniffle.server.ShuffleServerMetrics.USED_DIRECT_MEMORY_SIZE;
 import static org.apache.uniffle.server.ShuffleServerMetrics.USED_DIRECT_MEMORY_SIZE_BY_GRPC_NETTY;
 import static org.apache.uniffle.server.ShuffleServerMetrics.USED_DIRECT_MEMORY_SIZE_BY_NETTY;
@@ -216,9 +226,13 @@ public class ShuffleServer {
     if (shuffleTaskManager != null) {
       shuffleTaskManager.stop();
     }
+    if (shuffleBufferManager != null) {
+      shuffleBufferManager.stop();
+    }
     if (jvmPauseMonitor != null) {
       jvmPauseMonitor.close();
     }
+    NettyUtils.clearPooledShuffleDataAllocator();
     running = false;
     LOG.info("RPC Server Stopped!");
   }
@@ -308,6 +322,10 @@ public class ShuffleServer {
       streamServer = new StreamServer(this);
     }
 
+    if (shuffleServerConf.get(ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_ENABLED)) {
+      initPooledShuffleDataAllocator();
+    }
+
     registerHeartBeat = new RegisterHeartBeat(this);
     shuffleFlushManager = new ShuffleFlushManager(shuffleServerConf, this, storageManager);
     shuffleBufferManager =
@@ -349,6 +367,74 @@ public class ShuffleServer {
     setServer();
   }
 
+  private void initPooledShuffleDataAllocator() {
+    PooledByteBufAllocatorMetric metric =
+        NettyUtils.initPooledShuffleDataAllocator(
+                shuffleServerConf.get(ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_ARENAS),
+                (int)
+                    shuffleServerConf.getSizeAsBytes(
+                        ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_PAGE_SIZE),
+                shuffleServerConf.get(ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_MAX_ORDER),
+                shuffleServerConf.get(
+                    ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_SMALL_CACHE_SIZE),
+                shuffleServerConf.get(
+                    ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_NORMAL_CACHE_SIZE))
+            .metric();
+    registerPooledAllocatorMetrics(metric);
+  }
+
+  @VisibleForTesting
+  static void registerPooledAllocatorMetrics(PooledByteBufAllocatorMetric metric) {
+    ShuffleServerMetrics.addLabeledGauge(
+        POOLED_ALLOCATOR_USED_DIRECT_MEMORY, metric::usedDirectMemory);
+    ShuffleServerMetrics.addLabeledGauge(
+        POOLED_ALLOCATOR_THREAD_CACHE_NUM, metric::numThreadLocalCaches);
+    ShuffleServerMetrics.addLabeledCacheGauge(
+        POOLED_ALLOCATOR_CHUNK_NUM,
+        () ->
+            metric.directArenas().stream()
+                .flatMap(arena -> arena.chunkLists().stream())
+                .mapToLong(
+                    chunkList -> {
+                      long num = 0;
+                      for (PoolChunkMetric ignored : chunkList) {
+                        num++;
+                      }
+                      return num;
+                    })
+                .sum(),
+        10 * 1000L);
+    // The arenas count the whole chunks as active, the active bytes are the allocated bytes of the
+    // chunks, including the buffers cached by the threads
+    ShuffleServerMetrics.addLabeledCacheGauge(
+        POOLED_ALLOCATOR_ACTIVE_BYTES,
+        () -> Math.max(0L, metric.usedDirectMemory() - getPooledFreeBytes(metric)),
+        10 * 1000L);
+    // The ratio of the pooled memory which is not used by the active buffers
+    ShuffleServerMetrics.addLabeledCacheGauge(
+        POOLED_ALLOCATOR_FRAGMENTATION_RATIO,
+        () -> {
+          long usedMemory = metric.usedDirectMemory();
+          if (usedMemory <= 0) {
+            return 0.0;
+          }
+          return Math.min(1.0, (double) getPooledFreeBytes(metric) / usedMemory);
+        },
+        10 * 1000L);
+  }
+
+  private static long getPooledFreeBytes(PooledByteBufAllocatorMetric metric) {
+    long freeBytes = 0;
+    for (PoolArenaMetric arena : metric.directArenas()) {
+      for (PoolChunkListMetric chunkList : arena.chunkLists()) {
+        for (PoolChunkMetric chunk : chunkList) {
+          freeBytes += chunk.freeBytes();
+        }
+      }
+    }
+    return freeBytes;
+  }
+
   private void initServerTags() {
     // it's the system tag for server's version
     tags.add(Constants.SHUFFLE_SERVER_VERSION);
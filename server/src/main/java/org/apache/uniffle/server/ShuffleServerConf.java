@@ -25,6 +25,8 @@ import org.apache.uniffle.common.config.ConfigOption;
 import org.apache.uniffle.common.config.ConfigOptions;
 import org.apache.uniffle.common.config.ConfigUtils;
 import org.apache.uniffle.common.config.RssBaseConf;
+import org.apache.uniffle.common.netty.IOMode;
+import org.apache.uniffle.server.block.BlockIdSetType;
 import org.apache.uniffle.server.buffer.ShuffleBufferType;
 
 public class ShuffleServerConf extends RssBaseConf {
@@ -60,6 +62,63 @@ public class ShuffleServerConf extends RssBaseConf {
               "JVM heap size or off-heap size(when enabling Netty) * ratio for read buffer size, this is only effective when "
                   + "`rss.server.reader.buffer.capacity.ratio` is not explicitly set");
 
+  public static final ConfigOption<Boolean> SERVER_BUFFER_POOLED_ALLOCATOR_ENABLED =
+      ConfigOptions.key("rss.server.buffer.pooledAllocator.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to allocate the received shuffle data from a pooled direct allocator "
+                  + "instead of allocating and freeing a direct buffer for every block. "
+                  + "It applies to both the gRPC and Netty transports");
+
+  public static final ConfigOption<Integer> SERVER_BUFFER_POOLED_ALLOCATOR_ARENAS =
+      ConfigOptions.key("rss.server.buffer.pooledAllocator.arenas")
+          .intType()
+          .defaultValue(-1)
+          .withDescription(
+              "The number of arenas of the pooled allocator, the number of available cores "
+                  + "is used if it's not positive");
+
+  public static final ConfigOption<Long> SERVER_BUFFER_POOLED_ALLOCATOR_PAGE_SIZE =
+      ConfigOptions.key("rss.server.buffer.pooledAllocator.pageSize")
+          .longType()
+          .checkValue(
+              value -> value >= 4096 && value <= (1 << 30) && (value & (value - 1)) == 0,
+              "page size must be a power of 2 in [4096, 1073741824]")
+          .defaultValue(8 * 1024L)
+          .withDescription(
+              "The page size of the pooled allocator, the buffers smaller than it are "
+                  + "allocated from the small size classes. It must be a power of 2 and at "
+                  + "least 4K");
+
+  public static final ConfigOption<Integer> SERVER_BUFFER_POOLED_ALLOCATOR_MAX_ORDER =
+      ConfigOptions.key("rss.server.buffer.pooledAllocator.maxOrder")
+          .intType()
+          .checkValue(value -> value >= 0 && value <= 14, "max order must be in [0, 14]")
+          .defaultValue(11)
+          .withDescription(
+              "The chunk size of the pooled allocator is pageSize << maxOrder, the blocks larger "
+                  + "than the chunk size are not pooled. The default chunk size is 16MB which "
+                  + "covers the usual shuffle block sizes. The chunk size must not exceed 1GB");
+
+  public static final ConfigOption<Integer> SERVER_BUFFER_POOLED_ALLOCATOR_SMALL_CACHE_SIZE =
+      ConfigOptions.key("rss.server.buffer.pooledAllocator.smallCacheSize")
+          .intType()
+          .checkValue(
+              ConfigUtils.NON_NEGATIVE_INTEGER_VALIDATOR, "small cache size must be non-negative")
+          .defaultValue(256)
+          .withDescription(
+              "The number of small buffers cached per size class in the per-thread cache");
+
+  public static final ConfigOption<Integer> SERVER_BUFFER_POOLED_ALLOCATOR_NORMAL_CACHE_SIZE =
+      ConfigOptions.key("rss.server.buffer.pooledAllocator.normalCacheSize")
+          .intType()
+          .checkValue(
+              ConfigUtils.NON_NEGATIVE_INTEGER_VALIDATOR, "normal cache size must be non-negative")
+          .defaultValue(64)
+          .withDescription(
+              "The number of normal buffers cached per size class in the per-thread cache");
+
   public static final ConfigOption<Long> SERVER_HEARTBEAT_DELAY =
       ConfigOptions.key("rss.server.heartbeat.delay")
           .longType()
@@ -78,6 +137,25 @@ public class ShuffleServerConf extends RssBaseConf {
           .defaultValue(10 * 1000L)
           .withDescription("Heartbeat interval to Coordinator (ms)");
 
+  public static final ConfigOption<Boolean> SERVER_HEARTBEAT_DELTA_ENABLED =
+      ConfigOptions.key("rss.server.heartbeat.delta.enabled")
+          .booleanType()
+          .defaultValue(true)
+          .withDescription(
+              "Whether to only send the changed fields to the coordinators which support "
+                  + "delta heartbeats");
+
+  public static final ConfigOption<Integer> SERVER_HEARTBEAT_FULL_SNAPSHOT_INTERVAL =
+      ConfigOptions.key("rss.server.heartbeat.fullSnapshotInterval")
+          .intType()
+          .checkValue(
+              ConfigUtils.POSITIVE_INTEGER_VALIDATOR_2,
+              "full snapshot interval must be positive")
+          .defaultValue(10)
+          .withDescription(
+              "Send a full heartbeat every this number of heartbeats to resync the coordinators "
+                  + "when delta heartbeat is enabled");
+
   public static final ConfigOption<Long> SERVER_NETTY_DIRECT_MEMORY_USAGE_TRACKER_DELAY =
       ConfigOptions.key("rss.server.netty.directMemoryTracker.memoryUsage.initialFetchDelayMs")
           .longType()
@@ -146,6 +224,36 @@ public class ShuffleServerConf extends RssBaseConf {
           .defaultValue(20 * 1000L)
           .withDescription("Expired time (ms) for pre allocated buffer");
 
+  public static final ConfigOption<Long> SERVER_REQUIRE_BUFFER_MAX_WAIT_TIMEOUT_MS =
+      ConfigOptions.key("rss.server.requireBuffer.maxWaitTimeoutMs")
+          .longType()
+          .checkValue(
+              ConfigUtils.NON_NEGATIVE_LONG_VALIDATOR, "max wait timeout must be non-negative")
+          .defaultValue(10 * 1000L)
+          .withDescription(
+              "The max time (ms) a require buffer request can wait in the server side queue for "
+                  + "memory to be released when the client asks to wait. 0 means the request "
+                  + "fails immediately when there is no enough memory");
+
+  public static final ConfigOption<Integer> SERVER_REQUIRE_BUFFER_WAITING_QUEUE_CAPACITY =
+      ConfigOptions.key("rss.server.requireBuffer.waitingQueue.capacity")
+          .intType()
+          .checkValue(
+              ConfigUtils.POSITIVE_INTEGER_VALIDATOR_2, "waiting queue capacity must be positive")
+          .defaultValue(10000)
+          .withDescription(
+              "The max number of require buffer requests waiting for memory, the requests "
+                  + "beyond it fail immediately");
+
+  public static final ConfigOption<Long> SERVER_REQUIRE_BUFFER_WAITING_QUEUE_CHECK_INTERVAL_MS =
+      ConfigOptions.key("rss.server.requireBuffer.waitingQueue.checkIntervalMs")
+          .longType()
+          .checkValue(ConfigUtils.POSITIVE_LONG_VALIDATOR, "check interval must be positive")
+          .defaultValue(100L)
+          .withDescription(
+              "The interval (ms) to expire the timed out require buffer requests and retry "
+                  + "granting memory to the waiting ones");
+
   public static final ConfigOption<Long> SERVER_COMMIT_CHECK_INTERVAL_MAX =
       ConfigOptions.key("rss.server.commit.check.interval.max.ms")
           .longType()
@@ -267,6 +375,63 @@ public class ShuffleServerConf extends RssBaseConf {
           .defaultValue(2 * 1024L * 1024L)
           .withDescription("The index file size hint");
 
+  public static final ConfigOption<Boolean> SERVER_INDEX_CACHE_ENABLED =
+      ConfigOptions.key("rss.server.index.cache.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to cache the local shuffle index files in memory to serve "
+                  + "getLocalShuffleIndex without reading the whole index file again. The filtered "
+                  + "local reads always use the cache");
+
+  public static final ConfigOption<Long> SERVER_INDEX_CACHE_CAPACITY =
+      ConfigOptions.key("rss.server.index.cache.capacity")
+          .longType()
+          .checkValue(ConfigUtils.POSITIVE_LONG_VALIDATOR, "index cache capacity must be positive")
+          .defaultValue(128 * 1024L * 1024L)
+          .withDescription("The max size in bytes of the cached local shuffle index data");
+
+  public static final ConfigOption<Boolean> SERVER_SHUFFLE_RESULT_CACHE_ENABLED =
+      ConfigOptions.key("rss.server.shuffleResult.cache.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to cache the serialized block ids of each partition in memory, so the "
+                  + "shuffle result requested by many reducers is not serialized again");
+
+  public static final ConfigOption<Long> SERVER_SHUFFLE_RESULT_CACHE_CAPACITY =
+      ConfigOptions.key("rss.server.shuffleResult.cache.capacity")
+          .longType()
+          .checkValue(
+              ConfigUtils.POSITIVE_LONG_VALIDATOR, "shuffle result cache capacity must be positive")
+          .defaultValue(64 * 1024L * 1024L)
+          .withDescription("The max size in bytes of the cached serialized block ids");
+
+  public static final ConfigOption<Boolean> SERVER_LOCAL_ORDER_COMPACTION_ENABLED =
+      ConfigOptions.key("rss.server.localOrder.compaction.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to rewrite the local files of LOCAL_ORDER partitions into one run ordered "
+                  + "by task attempt id in the background after the shuffle is finished");
+
+  public static final ConfigOption<Integer> SERVER_LOCAL_ORDER_COMPACTION_THREADS =
+      ConfigOptions.key("rss.server.localOrder.compaction.threads")
+          .intType()
+          .checkValue(
+              ConfigUtils.POSITIVE_INTEGER_VALIDATOR_2, "compaction threads must be positive")
+          .defaultValue(1)
+          .withDescription("The number of threads to compact the LOCAL_ORDER partitions");
+
+  public static final ConfigOption<Long> SERVER_LOCAL_ORDER_COMPACTION_RATE_LIMIT =
+      ConfigOptions.key("rss.server.localOrder.compaction.rateLimit")
+          .longType()
+          .checkValue(ConfigUtils.POSITIVE_LONG_VALIDATOR, "compaction rate limit must be positive")
+          .defaultValue(32 * 1024L * 1024L)
+          .withDescription(
+              "The max bytes per second rewritten by the compaction of all the LOCAL_ORDER "
+                  + "partitions, to leave the disk bandwidth to the foreground reads and writes");
+
   public static final ConfigOption<Boolean> SERVER_UNHEALTHY_ONCE_STORAGE_CORRUPTION =
       ConfigOptions.key("rss.server.health.markUnhealthyOnceStorageCorruption")
           .booleanType()
@@ -478,6 +643,25 @@ public class ShuffleServerConf extends RssBaseConf {
                   + " The cpu usage of the shuffle server will be reduced."
                   + " But SKIP_LIST doesn't support the slow-start feature of MR.");
 
+  public static final ConfigOption<BlockIdSetType> SERVER_BLOCK_ID_SET_TYPE =
+      ConfigOptions.key("rss.server.blockIdSet.type")
+          .enumType(BlockIdSetType.class)
+          .defaultValue(BlockIdSetType.HEAP)
+          .withDescription(
+              "The type for the sets tracking the reported, cached and committed block ids."
+                  + " Setting as HEAP or OFF_HEAP. OFF_HEAP keeps the block ids in Roaring bitmaps"
+                  + " serialized in the direct memory, which reduces the heap footprint and the GC"
+                  + " pauses when the apps have a large number of blocks.");
+
+  public static final ConfigOption<Integer> SERVER_BLOCK_ID_SET_OFF_HEAP_DELTA_THRESHOLD =
+      ConfigOptions.key("rss.server.blockIdSet.offHeap.deltaThreshold")
+          .intType()
+          .checkValue(ConfigUtils.POSITIVE_INTEGER_VALIDATOR_2, "delta threshold must be positive")
+          .defaultValue(4096)
+          .withDescription(
+              "The number of newly added block ids kept on the heap before they are merged into"
+                  + " the direct memory for the OFF_HEAP block id set");
+
   public static final ConfigOption<Long> SERVER_SHUFFLE_FLUSH_THRESHOLD =
       ConfigOptions.key("rss.server.shuffle.flush.threshold")
           .longType()
@@ -488,6 +672,38 @@ public class ShuffleServerConf extends RssBaseConf {
               "Threshold when flushing shuffle data to persistent storage, recommend value would be 256K, "
                   + "512K, or even 1M");
 
+  public static final ConfigOption<Boolean> SERVER_BUFFER_FLUSH_PARTITION_GRANULAR_ENABLED =
+      ConfigOptions.key("rss.server.buffer.flush.partitionGranular.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to pick the single partition buffers to flush when the memory reaches the "
+                  + "high watermark, the biggest and then the oldest buffers are picked first "
+                  + "until the low watermark is reached, instead of flushing all the buffers "
+                  + "of the biggest shuffles");
+
+  public static final ConfigOption<Long> SERVER_BUFFER_FLUSH_MIN_SIZE =
+      ConfigOptions.key("rss.server.buffer.flush.minSize")
+          .longType()
+          .checkValue(
+              ConfigUtils.NON_NEGATIVE_LONG_VALIDATOR, "flush min size must be non negative")
+          .defaultValue(0L)
+          .withDescription(
+              "The partition buffers smaller than this size are kept in memory when picking the "
+                  + "buffers to flush in the partition granular way, unless less than half of "
+                  + "the expected flush size has been picked");
+
+  public static final ConfigOption<Long> SERVER_BUFFER_FLUSH_MAX_AGE_MS =
+      ConfigOptions.key("rss.server.buffer.flush.maxAgeMs")
+          .longType()
+          .checkValue(
+              ConfigUtils.NON_NEGATIVE_LONG_VALIDATOR, "flush max age must be non negative")
+          .defaultValue(600000L)
+          .withDescription(
+              "The partition buffers holding data older than this are picked first regardless "
+                  + "of their sizes when picking the buffers to flush in the partition granular "
+                  + "way, so the small buffers are never starved. 0 means no limit");
+
   public static final ConfigOption<String> STORAGE_MEDIA_PROVIDER_ENV_KEY =
       ConfigOptions.key("rss.server.storageMediaProvider.from.env.key")
           .stringType()
@@ -562,6 +778,15 @@ public class ShuffleServerConf extends RssBaseConf {
           .defaultValue(false)
           .withDescription("If enable epoll model with netty server");
 
+  public static final ConfigOption<IOMode> NETTY_SERVER_IO_MODE =
+      ConfigOptions.key("rss.server.netty.io.mode")
+          .enumType(IOMode.class)
+          .noDefaultValue()
+          .withDescription(
+              "Netty EventLoopGroup backend of the netty server, available options: NIO, EPOLL, "
+                  + "IO_URING. IO_URING falls back to EPOLL or NIO when it isn't available. "
+                  + "rss.server.netty.epoll.enable is used if it's not set.");
+
   public static final ConfigOption<Integer> NETTY_SERVER_ACCEPT_THREAD =
       ConfigOptions.key("rss.server.netty.accept.thread")
           .intType()
@@ -630,32 +855,6 @@ public class ShuffleServerConf extends RssBaseConf {
           .withDescription(
               "refresh interval in ms for TopN shuffle data size of app level calc task.");
 
-  public static final ConfigOption<Integer> SUMMARY_METRIC_WAIT_QUEUE_SIZE =
-      ConfigOptions.key("rss.server.summary.metric.wait.queue.size")
-          .intType()
-          .defaultValue(1000)
-          .withDescription(
-              "size of waiting queue for thread pool that used for calc summary metric.");
-
-  public static final ConfigOption<Integer> SUMMARY_METRIC_THREAD_POOL_CORE_SIZE =
-      ConfigOptions.key("rss.server.summary.metric.thread.pool.core.size")
-          .intType()
-          .defaultValue(2)
-          .withDescription("core thread number of thread pool that used for calc summary metric.");
-
-  public static final ConfigOption<Integer> SUMMARY_METRIC_THREAD_POOL_MAX_SIZE =
-      ConfigOptions.key("rss.server.summary.metric.thread.pool.max.size")
-          .intType()
-          .defaultValue(20)
-          .withDescription("max thread number of thread pool that used for calc summary metric.");
-
-  public static final ConfigOption<Integer> SUMMARY_METRIC_THREAD_POOL_KEEP_ALIVE_TIME =
-      ConfigOptions.key("rss.server.summary.metric.thread.pool.keep.alive.time")
-          .intType()
-          .defaultValue(60)
-          .withDescription(
-              "keep alive time of thread pool that used for calc summary metric, in SECONDS.");
-
   public static final ConfigOption<Boolean> APP_LEVEL_SHUFFLE_BLOCK_SIZE_METRIC_ENABLED =
       ConfigOptions.key("rss.server.metrics.blockSizeStatisticsEnabled")
           .booleanType()
@@ -726,6 +925,37 @@ public class ShuffleServerConf extends RssBaseConf {
           .defaultValue(2)
           .withDescription("The ring buffer size for read block when merge");
 
+  public static final ConfigOption<Boolean> SERVER_MERGE_MULTI_PASS_ENABLE =
+      ConfigOptions.key("rss.server.merge.multiPass.enable")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to merge partitions with more blocks than the fan-in in multiple passes. "
+                  + "Intermediate runs are merged in parallel and spilled to local storage, "
+                  + "then merged in a final pass.");
+
+  public static final ConfigOption<Integer> SERVER_MERGE_MULTI_PASS_FAN_IN =
+      ConfigOptions.key("rss.server.merge.multiPass.fanIn")
+          .intType()
+          .checkValue(value -> value >= 2, "merge fan-in must be at least 2")
+          .defaultValue(100)
+          .withDescription("The maximum number of segments merged by one run in multi-pass merge");
+
+  public static final ConfigOption<Integer> SERVER_MERGE_MULTI_PASS_THREAD_POOL_SIZE =
+      ConfigOptions.key("rss.server.merge.multiPass.threadPoolSize")
+          .intType()
+          .defaultValue(10)
+          .withDescription(
+              "The size of the thread pool to merge the runs of multi-pass merge in parallel, "
+                  + "which is separated from the merge thread pool");
+
+  public static final ConfigOption<Long> SERVER_MERGE_MULTI_PASS_SPILL_BUFFER_SIZE =
+      ConfigOptions.key("rss.server.merge.multiPass.spillBufferSize")
+          .longType()
+          .defaultValue(64 * 1024L)
+          .withDescription(
+              "The buffer size used to write and read each spilled run in multi-pass merge");
+
   public static final ConfigOption<String> SERVER_MERGE_CLASS_LOADER_JARS_PATH =
       ConfigOptions.key("rss.server.merge.classLoaderJarsPath")
           .stringType()
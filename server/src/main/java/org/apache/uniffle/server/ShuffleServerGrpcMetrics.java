@@ -32,6 +32,7 @@ public class ShuffleServerGrpcMetrics extends GRPCMetrics {
   public static final String GET_SHUFFLE_DATA_METHOD = "getLocalShuffleData";
   public static final String GET_MEMORY_SHUFFLE_DATA_METHOD = "getMemoryShuffleData";
   public static final String GET_SHUFFLE_INDEX_METHOD = "getLocalShuffleIndex";
+  public static final String GET_FILTERED_SHUFFLE_DATA_METHOD = "getFilteredLocalShuffleData";
   public static final String GET_SHUFFLE_RESULT_FOR_MULTI_PART_METHOD =
       "getShuffleResultForMultiPart";
   public static final String GET_SORTED_SHUFFLE_DATA_METHOD = "getSortedShuffleData";
@@ -48,6 +49,8 @@ public class ShuffleServerGrpcMetrics extends GRPCMetrics {
   private static final String GRPC_GET_SHUFFLE_DATA = "grpc_get_local_shuffle_data";
   private static final String GRPC_GET_MEMORY_SHUFFLE_DATA = "grpc_get_memory_shuffle_data";
   private static final String GRPC_GET_SHUFFLE_INDEX = "grpc_get_local_shuffle_index";
+  private static final String GRPC_GET_FILTERED_SHUFFLE_DATA =
+      "grpc_get_filtered_local_shuffle_data";
   private static final String GRPC_GET_SORTED_SHUFFLE_DATA = "grpc_get_sorted_shuffle_data";
   private static final String GRPC_START_SORT_MERGE = "grpc_start_sort_merge";
 
@@ -63,6 +66,8 @@ public class ShuffleServerGrpcMetrics extends GRPCMetrics {
   private static final String GRPC_GET_MEMORY_SHUFFLE_DATA_TOTAL =
       "grpc_get_memory_shuffle_data_total";
   private static final String GRPC_GET_SHUFFLE_INDEX_TOTAL = "grpc_get_local_shuffle_index_total";
+  private static final String GRPC_GET_FILTERED_SHUFFLE_DATA_TOTAL =
+      "grpc_get_filtered_local_shuffle_data_total";
   private static final String GRPC_GET_SHUFFLE_RESULT_FOR_MULTI_PART_TOTAL =
       "grpc_get_shuffle_result_for_multi_part_total";
   private static final String GRPC_GET_SORTED_SHUFFLE_DATA_TOTAL =
@@ -77,6 +82,8 @@ public class ShuffleServerGrpcMetrics extends GRPCMetrics {
       "grpc_get_memory_shuffle_data_transport_latency";
   private static final String GRPC_GET_SORTED_SHUFFLE_DATA_TRANSPORT_LATENCY =
       "grpc_get_sorted_shuffle_data_transport_latency";
+  private static final String GRPC_GET_FILTERED_SHUFFLE_DATA_TRANSPORT_LATENCY =
+      "grpc_get_filtered_local_shuffle_data_transport_latency";
 
   private static final String GRPC_SEND_SHUFFLE_DATA_PROCESS_LATENCY =
       "grpc_send_shuffle_data_process_latency";
@@ -90,6 +97,8 @@ public class ShuffleServerGrpcMetrics extends GRPCMetrics {
       "grpc_report_shuffle_result_process_latency";
   private static final String GRPC_GET_SORTED_SHUFFLE_DATA_PROCESS_LATENCY =
       "grpc_get_sorted_shuffle_data_process_latency";
+  private static final String GRPC_GET_FILTERED_SHUFFLE_DATA_PROCESS_LATENCY =
+      "grpc_get_filtered_local_shuffle_data_process_latency";
 
   public ShuffleServerGrpcMetrics(ShuffleServerConf shuffleServerConf, String tags) {
     super(shuffleServerConf, tags);
@@ -122,6 +131,9 @@ public class ShuffleServerGrpcMetrics extends GRPCMetrics {
     gaugeMap.putIfAbsent(
         GET_SORTED_SHUFFLE_DATA_METHOD,
         metricsManager.addLabeledGauge(GRPC_GET_SORTED_SHUFFLE_DATA));
+    gaugeMap.putIfAbsent(
+        GET_FILTERED_SHUFFLE_DATA_METHOD,
+        metricsManager.addLabeledGauge(GRPC_GET_FILTERED_SHUFFLE_DATA));
     gaugeMap.putIfAbsent(
         REPORT_UNIQUE_BLOCKS_METHOD, metricsManager.addLabeledGauge(GRPC_START_SORT_MERGE));
 
@@ -156,39 +168,44 @@ public class ShuffleServerGrpcMetrics extends GRPCMetrics {
     counterMap.putIfAbsent(
         GET_SORTED_SHUFFLE_DATA_METHOD,
         metricsManager.addLabeledCounter(GRPC_GET_SORTED_SHUFFLE_DATA_TOTAL));
+    counterMap.putIfAbsent(
+        GET_FILTERED_SHUFFLE_DATA_METHOD,
+        metricsManager.addLabeledCounter(GRPC_GET_FILTERED_SHUFFLE_DATA_TOTAL));
     counterMap.putIfAbsent(
         REPORT_UNIQUE_BLOCKS_METHOD, metricsManager.addLabeledCounter(GRPC_START_SORT_MERGE_TOTAL));
 
-    transportTimeSummaryMap.putIfAbsent(
-        SEND_SHUFFLE_DATA_METHOD,
-        metricsManager.addLabeledSummary(GRPC_SEND_SHUFFLE_DATA_TRANSPORT_LATENCY));
-    transportTimeSummaryMap.putIfAbsent(
-        GET_SHUFFLE_DATA_METHOD,
-        metricsManager.addLabeledSummary(GRPC_GET_SHUFFLE_DATA_TRANSPORT_LATENCY));
-    transportTimeSummaryMap.putIfAbsent(
+    transportTimeHistogramMap.putIfAbsent(
+        SEND_SHUFFLE_DATA_METHOD, addLatencyHistogram(GRPC_SEND_SHUFFLE_DATA_TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
+        GET_SHUFFLE_DATA_METHOD, addLatencyHistogram(GRPC_GET_SHUFFLE_DATA_TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
         GET_MEMORY_SHUFFLE_DATA_METHOD,
-        metricsManager.addLabeledSummary(GRPC_GET_MEMORY_SHUFFLE_DATA_TRANSPORT_LATENCY));
-    transportTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(GRPC_GET_MEMORY_SHUFFLE_DATA_TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
         GET_SORTED_SHUFFLE_DATA_METHOD,
-        metricsManager.addLabeledSummary(GRPC_GET_SORTED_SHUFFLE_DATA_TRANSPORT_LATENCY));
+        addLatencyHistogram(GRPC_GET_SORTED_SHUFFLE_DATA_TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
+        GET_FILTERED_SHUFFLE_DATA_METHOD,
+        addLatencyHistogram(GRPC_GET_FILTERED_SHUFFLE_DATA_TRANSPORT_LATENCY));
 
-    processTimeSummaryMap.putIfAbsent(
-        SEND_SHUFFLE_DATA_METHOD,
-        metricsManager.addLabeledSummary(GRPC_SEND_SHUFFLE_DATA_PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
-        GET_SHUFFLE_DATA_METHOD,
-        metricsManager.addLabeledSummary(GRPC_GET_SHUFFLE_DATA_PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
+    processTimeHistogramMap.putIfAbsent(
+        SEND_SHUFFLE_DATA_METHOD, addLatencyHistogram(GRPC_SEND_SHUFFLE_DATA_PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
+        GET_SHUFFLE_DATA_METHOD, addLatencyHistogram(GRPC_GET_SHUFFLE_DATA_PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
         GET_MEMORY_SHUFFLE_DATA_METHOD,
-        metricsManager.addLabeledSummary(GRPC_GET_MEMORY_SHUFFLE_DATA_PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(GRPC_GET_MEMORY_SHUFFLE_DATA_PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
         REPORT_SHUFFLE_RESULT_METHOD,
-        metricsManager.addLabeledSummary(GRPC_REPORT_SHUFFLE_RESULT_PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(GRPC_REPORT_SHUFFLE_RESULT_PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
         GET_SHUFFLE_RESULT_FOR_MULTI_PART_METHOD,
-        metricsManager.addLabeledSummary(GRPC_GET_SHUFFLE_RESULT_FOR_MULTI_PART_PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(GRPC_GET_SHUFFLE_RESULT_FOR_MULTI_PART_PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
         GET_SORTED_SHUFFLE_DATA_METHOD,
-        metricsManager.addLabeledSummary(GRPC_GET_SORTED_SHUFFLE_DATA_PROCESS_LATENCY));
+        addLatencyHistogram(GRPC_GET_SORTED_SHUFFLE_DATA_PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
+        GET_FILTERED_SHUFFLE_DATA_METHOD,
+        addLatencyHistogram(GRPC_GET_FILTERED_SHUFFLE_DATA_PROCESS_LATENCY));
   }
 }
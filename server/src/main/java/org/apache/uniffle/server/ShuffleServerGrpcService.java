@@ -17,21 +17,27 @@
 
 package org.apache.uniffle.server;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
 import com.google.protobuf.UnsafeByteOperations;
 import io.grpc.Context;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.netty.buffer.ByteBuf;
 import org.apache.commons.lang3.StringUtils;
@@ -46,6 +52,7 @@ import org.apache.uniffle.common.ReconfigurableRegistry;
 import org.apache.uniffle.common.RemoteStorageInfo;
 import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleDataResult;
+import org.apache.uniffle.common.ShuffleDataSegment;
 import org.apache.uniffle.common.ShuffleIndexResult;
 import org.apache.uniffle.common.ShufflePartitionedBlock;
 import org.apache.uniffle.common.ShufflePartitionedData;
@@ -61,6 +68,7 @@ import org.apache.uniffle.common.rpc.ClientContextServerInterceptor;
 import org.apache.uniffle.common.rpc.StatusCode;
 import org.apache.uniffle.common.util.BlockIdLayout;
 import org.apache.uniffle.common.util.ByteBufUtils;
+import org.apache.uniffle.common.util.NettyUtils;
 import org.apache.uniffle.common.util.OutputUtils;
 import org.apache.uniffle.common.util.RssUtils;
 import org.apache.uniffle.proto.RssProtos;
@@ -68,12 +76,17 @@ import org.apache.uniffle.proto.RssProtos.AppHeartBeatRequest;
 import org.apache.uniffle.proto.RssProtos.AppHeartBeatResponse;
 import org.apache.uniffle.proto.RssProtos.FinishShuffleRequest;
 import org.apache.uniffle.proto.RssProtos.FinishShuffleResponse;
+import org.apache.uniffle.proto.RssProtos.GetFilteredLocalShuffleDataRequest;
+import org.apache.uniffle.proto.RssProtos.GetFilteredLocalShuffleDataResponse;
+import org.apache.uniffle.proto.RssProtos.GetLocalShuffleDataFileRequest;
+import org.apache.uniffle.proto.RssProtos.GetLocalShuffleDataFileResponse;
 import org.apache.uniffle.proto.RssProtos.GetLocalShuffleDataRequest;
 import org.apache.uniffle.proto.RssProtos.GetLocalShuffleDataResponse;
 import org.apache.uniffle.proto.RssProtos.GetLocalShuffleIndexRequest;
 import org.apache.uniffle.proto.RssProtos.GetLocalShuffleIndexResponse;
 import org.apache.uniffle.proto.RssProtos.GetMemoryShuffleDataRequest;
 import org.apache.uniffle.proto.RssProtos.GetMemoryShuffleDataResponse;
+import org.apache.uniffle.proto.RssProtos.GetServerCapabilitiesResponse;
 import org.apache.uniffle.proto.RssProtos.GetShuffleResultForMultiPartRequest;
 import org.apache.uniffle.proto.RssProtos.GetShuffleResultForMultiPartResponse;
 import org.apache.uniffle.proto.RssProtos.GetShuffleResultRequest;
@@ -86,6 +99,7 @@ import org.apache.uniffle.proto.RssProtos.RequireBufferRequest;
 import org.apache.uniffle.proto.RssProtos.RequireBufferResponse;
 import org.apache.uniffle.proto.RssProtos.SendShuffleDataRequest;
 import org.apache.uniffle.proto.RssProtos.SendShuffleDataResponse;
+import org.apache.uniffle.proto.RssProtos.ServerCapability;
 import org.apache.uniffle.proto.RssProtos.ShuffleBlock;
 import org.apache.uniffle.proto.RssProtos.ShuffleCommitRequest;
 import org.apache.uniffle.proto.RssProtos.ShuffleCommitResponse;
@@ -111,11 +125,16 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
   private static final Logger AUDIT_LOGGER =
       LoggerFactory.getLogger("SHUFFLE_SERVER_RPC_AUDIT_LOG");
   private final ShuffleServer shuffleServer;
+  private final boolean pooledAllocatorEnabled;
   private boolean isRpcAuditLogEnabled;
   private List<String> rpcAuditExcludeOpList;
 
   public ShuffleServerGrpcService(ShuffleServer shuffleServer) {
     this.shuffleServer = shuffleServer;
+    pooledAllocatorEnabled =
+        shuffleServer
+            .getShuffleServerConf()
+            .get(ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_ENABLED);
     isRpcAuditLogEnabled =
         shuffleServer
             .getShuffleServerConf()
@@ -480,6 +499,9 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
                   + spd.getPartitionId()
                   + "]";
           try {
+            if (hasFailureOccurred) {
+              continue;
+            }
             ret = manager.cacheShuffleData(appId, shuffleId, isPreAllocated, spd);
             if (ret != StatusCode.SUCCESS) {
               String errorMsg =
@@ -490,7 +512,6 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
               LOG.error(errorMsg);
               responseMessage = errorMsg;
               hasFailureOccurred = true;
-              break;
             } else {
               if (shuffleServer.isRemoteMergeEnable()) {
                 shuffleServer.getShuffleMergeManager().setDirect(appId, shuffleId, false);
@@ -523,9 +544,10 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
             responseMessage = errorMsg;
             LOG.error(errorMsg);
             hasFailureOccurred = true;
-            break;
           } finally {
+            // Once the cache failure occurs, we should explicitly release data held by byteBuf
             if (hasFailureOccurred) {
+              Arrays.stream(spd.getBlockList()).forEach(block -> block.getData().release());
               shuffleServer
                   .getShuffleBufferManager()
                   .releaseMemory(spd.getTotalBlockEncodedLength(), false, false);
@@ -709,79 +731,150 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
   @Override
   public void requireBuffer(
       RequireBufferRequest request, StreamObserver<RequireBufferResponse> responseObserver) {
-    try (ServerRpcAuditContext auditContext = createAuditContext("requireBuffer")) {
-      String appId = request.getAppId();
-      auditContext.withAppId(appId).withShuffleId(request.getShuffleId());
-      String auditArgs = "requireSize=" + request.getRequireSize();
-      if (request.getPartitionIdsList() != null) {
-        auditArgs += ", partitionIdsSize=" + request.getPartitionIdsList().size();
-      }
-      if (request.getPartitionIdsList() != null) {
-        auditArgs +=
-            ", partitionIds=" + OutputUtils.listToSegment(request.getPartitionIdsList(), 1, 10);
-      }
-      auditContext.withArgs(auditArgs);
-      StatusCode status = verifyRequest(appId);
-      if (status != StatusCode.SUCCESS) {
-        auditContext.withStatusCode(status);
-        RequireBufferResponse response =
-            RequireBufferResponse.newBuilder()
-                .setStatus(status.toProto())
-                .setRetMsg(status.toString())
-                .build();
-        responseObserver.onNext(response);
-        responseObserver.onCompleted();
-        return;
+    // The audit context is closed when the response is sent, which may happen asynchronously if
+    // the request waits for the memory in the server side
+    ServerRpcAuditContext auditContext = createAuditContext("requireBuffer");
+    String appId = request.getAppId();
+    auditContext.withAppId(appId).withShuffleId(request.getShuffleId());
+    String auditArgs = "requireSize=" + request.getRequireSize();
+    if (request.getPartitionIdsList() != null) {
+      auditArgs += ", partitionIdsSize=" + request.getPartitionIdsList().size();
+    }
+    if (request.getPartitionIdsList() != null) {
+      auditArgs +=
+          ", partitionIds=" + OutputUtils.listToSegment(request.getPartitionIdsList(), 1, 10);
+    }
+    if (request.getWaitTimeoutMs() > 0) {
+      auditArgs += ", waitTimeoutMs=" + request.getWaitTimeoutMs();
+    }
+    auditContext.withArgs(auditArgs);
+    StatusCode status = verifyRequest(appId);
+    if (status != StatusCode.SUCCESS) {
+      auditContext.withStatusCode(status);
+      RequireBufferResponse response =
+          RequireBufferResponse.newBuilder()
+              .setStatus(status.toProto())
+              .setRetMsg(status.toString())
+              .build();
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+      auditContext.close();
+      return;
+    }
+    CompletableFuture<Pair<Long, List<Integer>>> future;
+    try {
+      if (StringUtils.isEmpty(appId)) {
+        // To be compatible with older client version
+        future =
+            CompletableFuture.completedFuture(
+                Pair.of(
+                    shuffleServer.getShuffleTaskManager().requireBuffer(request.getRequireSize()),
+                    Collections.emptyList()));
+      } else if (request.getWaitTimeoutMs() > 0) {
+        future =
+            shuffleServer
+                .getShuffleTaskManager()
+                .requireBufferAsync(
+                    appId,
+                    request.getShuffleId(),
+                    request.getPartitionIdsList(),
+                    request.getPartitionRequireSizesList(),
+                    request.getRequireSize(),
+                    request.getWaitTimeoutMs());
+      } else {
+        future =
+            CompletableFuture.completedFuture(
+                shuffleServer
+                    .getShuffleTaskManager()
+                    .requireBufferReturnPair(
+                        appId,
+                        request.getShuffleId(),
+                        request.getPartitionIdsList(),
+                        request.getPartitionRequireSizesList(),
+                        request.getRequireSize()));
       }
+    } catch (Exception e) {
+      future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+    }
+    future.whenComplete(
+        (pair, throwable) ->
+            replyRequireBuffer(request, responseObserver, auditContext, pair, throwable));
+  }
+
+  private void replyRequireBuffer(
+      RequireBufferRequest request,
+      StreamObserver<RequireBufferResponse> responseObserver,
+      ServerRpcAuditContext auditContext,
+      Pair<Long, List<Integer>> pair,
+      Throwable throwable) {
+    try {
+      StatusCode status = StatusCode.SUCCESS;
       long requireBufferId = -1;
       String responseMessage = "";
-      String shuffleDataInfo = "appId[" + appId + "], shuffleId[" + request.getShuffleId() + "]";
       List<Integer> needSplitPartitionIds = Collections.emptyList();
-      try {
-        if (StringUtils.isEmpty(appId)) {
-          // To be compatible with older client version
-          requireBufferId =
-              shuffleServer.getShuffleTaskManager().requireBuffer(request.getRequireSize());
+      if (throwable == null) {
+        requireBufferId = pair.getLeft();
+        needSplitPartitionIds = pair.getRight();
+      } else {
+        Throwable cause =
+            throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+        if (cause instanceof NoBufferException) {
+          responseMessage = cause.getMessage();
+          status = StatusCode.NO_BUFFER;
+          ShuffleServerMetrics.counterTotalRequireBufferFailedForRegularPartition.inc();
+          ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
+        } else if (cause instanceof NoBufferForHugePartitionException) {
+          responseMessage = cause.getMessage();
+          status = StatusCode.NO_BUFFER_FOR_HUGE_PARTITION;
+          ShuffleServerMetrics.counterTotalRequireBufferFailedForHugePartition.inc();
+          ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
+        } else if (cause instanceof NoRegisterException) {
+          responseMessage = cause.getMessage();
+          status = StatusCode.NO_REGISTER;
+          ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
+        } else if (cause instanceof ExceedHugePartitionHardLimitException) {
+          status = StatusCode.EXCEED_HUGE_PARTITION_HARD_LIMIT;
+          ShuffleServerMetrics.counterTotalHugePartitionExceedHardLimitNum.inc();
+          ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
+          responseMessage =
+              "ExceedHugePartitionHardLimitException Error happened when requireBuffer for "
+                  + "appId["
+                  + request.getAppId()
+                  + "], shuffleId["
+                  + request.getShuffleId()
+                  + "]: "
+                  + cause.getMessage();
+          LOG.error(responseMessage);
         } else {
-          Pair<Long, List<Integer>> pair =
-              shuffleServer
-                  .getShuffleTaskManager()
-                  .requireBufferReturnPair(
-                      appId,
-                      request.getShuffleId(),
-                      request.getPartitionIdsList(),
-                      request.getPartitionRequireSizesList(),
-                      request.getRequireSize());
-          requireBufferId = pair.getLeft();
-          needSplitPartitionIds = pair.getRight();
+          status = StatusCode.INTERNAL_ERROR;
+          ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
+          responseMessage =
+              "Error happened when requireBuffer for appId["
+                  + request.getAppId()
+                  + "], shuffleId["
+                  + request.getShuffleId()
+                  + "]: "
+                  + cause.getMessage();
+          LOG.error(responseMessage, cause);
         }
-      } catch (NoBufferException e) {
-        responseMessage = e.getMessage();
-        status = StatusCode.NO_BUFFER;
-        ShuffleServerMetrics.counterTotalRequireBufferFailedForRegularPartition.inc();
-        ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
-      } catch (NoBufferForHugePartitionException e) {
-        responseMessage = e.getMessage();
-        status = StatusCode.NO_BUFFER_FOR_HUGE_PARTITION;
-        ShuffleServerMetrics.counterTotalRequireBufferFailedForHugePartition.inc();
-        ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
-      } catch (NoRegisterException e) {
-        responseMessage = e.getMessage();
-        status = StatusCode.NO_REGISTER;
-        ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
-      } catch (ExceedHugePartitionHardLimitException e) {
-        status = StatusCode.EXCEED_HUGE_PARTITION_HARD_LIMIT;
-        ShuffleServerMetrics.counterTotalHugePartitionExceedHardLimitNum.inc();
-        ShuffleServerMetrics.counterTotalRequireBufferFailed.inc();
-        responseMessage =
-            "ExceedHugePartitionHardLimitException Error happened when requireBuffer for "
-                + shuffleDataInfo
-                + ": "
-                + e.getMessage();
-        LOG.error(responseMessage);
       }
       auditContext.withStatusCode(status);
       auditContext.withReturnValue("requireBufferId=" + requireBufferId);
+      if (responseObserver instanceof ServerCallStreamObserver
+          && ((ServerCallStreamObserver<RequireBufferResponse>) responseObserver).isCancelled()) {
+        // The client has given up waiting, release the buffer instead of waiting for it to expire
+        if (requireBufferId != -1) {
+          shuffleServer.getShuffleTaskManager().removeAndReleasePreAllocatedBuffer(requireBufferId);
+        }
+        LOG.warn(
+            "The requireBuffer call of appId[{}], shuffleId[{}] is cancelled by the client",
+            request.getAppId(),
+            request.getShuffleId());
+        return;
+      }
       RequireBufferResponse response =
           RequireBufferResponse.newBuilder()
               .setStatus(status.toProto())
@@ -791,6 +884,8 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
               .build();
       responseObserver.onNext(response);
       responseObserver.onCompleted();
+    } finally {
+      auditContext.close();
     }
   }
 
@@ -848,15 +943,33 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
       int bitmapNum = request.getBitmapNum();
       Map<Integer, long[]> partitionToBlockIds =
           toPartitionBlocksMap(request.getPartitionToBlockIdsList());
-
       auditContext.withAppId(appId).withShuffleId(shuffleId);
+      Map<Integer, Roaring64NavigableMap> partitionToBlockIdBitmaps;
+      try {
+        partitionToBlockIdBitmaps = toPartitionBitmapsMap(request.getPartitionToBlockIdsList());
+      } catch (IOException e) {
+        LOG.error("Failed to deserialize the reported block ids for appId[{}]", appId, e);
+        StatusCode status = StatusCode.INVALID_REQUEST;
+        auditContext.withStatusCode(status);
+        ReportShuffleResultResponse response =
+            ReportShuffleResultResponse.newBuilder()
+                .setStatus(status.toProto())
+                .setRetMsg(e.getMessage())
+                .build();
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+        return;
+      }
+
       auditContext.withArgs(
           "taskAttemptId="
               + taskAttemptId
               + ", bitmapNum="
               + bitmapNum
               + ", partitionToBlockIdsSize="
-              + partitionToBlockIds.size());
+              + partitionToBlockIds.size()
+              + ", partitionToBlockIdBitmapsSize="
+              + partitionToBlockIdBitmaps.size());
 
       StatusCode status = verifyRequest(appId);
       if (status != StatusCode.SUCCESS) {
@@ -885,16 +998,26 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
       try {
         long start = System.currentTimeMillis();
         int expectedBlockCount =
-            partitionToBlockIds.values().stream().mapToInt(x -> x.length).sum();
+            partitionToBlockIds.values().stream().mapToInt(x -> x.length).sum()
+                + partitionToBlockIdBitmaps.values().stream()
+                    .mapToInt(Roaring64NavigableMap::getIntCardinality)
+                    .sum();
         LOG.debug(
             "Accepted blockIds report for {} blocks across {} partitions as shuffle result for task {}",
             expectedBlockCount,
-            partitionToBlockIds.size(),
+            partitionToBlockIds.size() + partitionToBlockIdBitmaps.size(),
             requestInfo);
-        int updatedBlockCount =
-            shuffleServer
-                .getShuffleTaskManager()
-                .addFinishedBlockIds(appId, shuffleId, partitionToBlockIds, bitmapNum);
+        ShuffleTaskManager taskManager = shuffleServer.getShuffleTaskManager();
+        int updatedBlockCount = 0;
+        if (!partitionToBlockIds.isEmpty()) {
+          updatedBlockCount +=
+              taskManager.addFinishedBlockIds(appId, shuffleId, partitionToBlockIds, bitmapNum);
+        }
+        if (!partitionToBlockIdBitmaps.isEmpty()) {
+          updatedBlockCount +=
+              taskManager.addFinishedBlockIdBitmaps(
+                  appId, shuffleId, partitionToBlockIdBitmaps, bitmapNum);
+        }
         long costTime = System.currentTimeMillis() - start;
         shuffleServer
             .getGrpcMetrics()
@@ -917,6 +1040,7 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
           ReportShuffleResultResponse.newBuilder()
               .setStatus(status.toProto())
               .setRetMsg(msg)
+              .setSerializedBitmapSupported(true)
               .build();
       responseObserver.onNext(reply);
       responseObserver.onCompleted();
@@ -1029,24 +1153,45 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
 
       String msg = "OK";
       GetShuffleResultForMultiPartResponse reply;
-      byte[] serializedBlockIds = null;
       String requestInfo =
           "appId[" + appId + "], shuffleId[" + shuffleId + "], partitions=" + partitionIdsOutput;
       ByteString serializedBlockIdsBytes = ByteString.EMPTY;
+      List<ByteString> serializedPartitionBitmaps = Collections.emptyList();
 
       try {
         long start = System.currentTimeMillis();
-        serializedBlockIds =
-            shuffleServer
-                .getShuffleTaskManager()
-                .getFinishedBlockIds(
-                    appId, shuffleId, Sets.newHashSet(partitionsList), blockIdLayout);
-        if (serializedBlockIds == null) {
+        boolean found;
+        if (request.getPartitionBitmapsEnabled()) {
+          // the block ids of each partition are returned separately to be merged by the client,
+          // so the cached serialized block ids can be served without being merged here
+          List<byte[]> partitionBitmaps =
+              shuffleServer
+                  .getShuffleTaskManager()
+                  .getFinishedBlockIdsOfPartitions(
+                      appId, shuffleId, Sets.newHashSet(partitionsList), blockIdLayout);
+          found = partitionBitmaps != null;
+          if (found) {
+            serializedPartitionBitmaps =
+                partitionBitmaps.stream()
+                    .map(UnsafeByteOperations::unsafeWrap)
+                    .collect(Collectors.toList());
+          }
+        } else {
+          byte[] serializedBlockIds =
+              shuffleServer
+                  .getShuffleTaskManager()
+                  .getFinishedBlockIds(
+                      appId, shuffleId, Sets.newHashSet(partitionsList), blockIdLayout);
+          found = serializedBlockIds != null;
+          if (found) {
+            serializedBlockIdsBytes = UnsafeByteOperations.unsafeWrap(serializedBlockIds);
+          }
+        }
+        if (!found) {
           status = StatusCode.INTERNAL_ERROR;
           msg = "Can't get shuffle result for " + requestInfo;
           LOG.warn(msg);
         } else {
-          serializedBlockIdsBytes = UnsafeByteOperations.unsafeWrap(serializedBlockIds);
           long costTime = System.currentTimeMillis() - start;
           shuffleServer
               .getGrpcMetrics()
@@ -1065,6 +1210,7 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
               .setStatus(status.toProto())
               .setRetMsg(msg)
               .setSerializedBitmap(serializedBlockIdsBytes)
+              .addAllSerializedPartitionBitmaps(serializedPartitionBitmaps)
               .build();
       responseObserver.onNext(reply);
       responseObserver.onCompleted();
@@ -1477,6 +1623,271 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
     }
   }
 
+  @Override
+  public void getFilteredLocalShuffleData(
+      GetFilteredLocalShuffleDataRequest request,
+      StreamObserver<GetFilteredLocalShuffleDataResponse> responseObserver) {
+    try (ServerRpcAuditContext auditContext = createAuditContext("getFilteredLocalShuffleData")) {
+      String appId = request.getAppId();
+      int shuffleId = request.getShuffleId();
+      int partitionId = request.getPartitionId();
+      int partitionNumPerRange = request.getPartitionNumPerRange();
+      int partitionNum = request.getPartitionNum();
+      long offset = request.getOffset();
+      int readBufferSize = request.getReadBufferSize();
+
+      auditContext.withAppId(appId).withShuffleId(shuffleId);
+      auditContext.withArgs(
+          "partitionId="
+              + partitionId
+              + ", partitionNumPerRange="
+              + partitionNumPerRange
+              + ", partitionNum="
+              + partitionNum
+              + ", offset="
+              + offset
+              + ", readBufferSize="
+              + readBufferSize);
+
+      StatusCode status = verifyRequest(appId);
+      if (status != StatusCode.SUCCESS) {
+        auditContext.withStatusCode(status);
+        GetFilteredLocalShuffleDataResponse reply =
+            GetFilteredLocalShuffleDataResponse.newBuilder()
+                .setStatus(status.toProto())
+                .setRetMsg(status.toString())
+                .build();
+        responseObserver.onNext(reply);
+        responseObserver.onCompleted();
+        return;
+      }
+
+      long timestamp = request.getTimestamp();
+      if (timestamp > 0) {
+        long transportTime = System.currentTimeMillis() - timestamp;
+        if (transportTime > 0) {
+          shuffleServer
+              .getGrpcMetrics()
+              .recordTransportTime(
+                  ShuffleServerGrpcMetrics.GET_FILTERED_SHUFFLE_DATA_METHOD, transportTime);
+        }
+      }
+      String storageType =
+          shuffleServer.getShuffleServerConf().get(RssBaseConf.RSS_STORAGE_TYPE).name();
+      String msg = "OK";
+      GetFilteredLocalShuffleDataResponse reply;
+      String requestInfo =
+          "appId["
+              + appId
+              + "], shuffleId["
+              + shuffleId
+              + "], partitionId["
+              + partitionId
+              + "], offset["
+              + offset
+              + "]";
+
+      int[] range =
+          ShuffleStorageUtils.getPartitionRange(partitionId, partitionNumPerRange, partitionNum);
+      Storage storage =
+          shuffleServer
+              .getStorageManager()
+              .selectStorage(new ShuffleDataReadEvent(appId, shuffleId, partitionId, range[0]));
+      if (storage != null) {
+        storage.updateReadMetrics(new StorageReadMetrics(appId, shuffleId));
+      }
+
+      if (shuffleServer.getShuffleBufferManager().requireReadMemory(readBufferSize)) {
+        ShuffleDataResult sdr = null;
+        try {
+          long start = System.currentTimeMillis();
+          Roaring64NavigableMap expectedTaskIds =
+              RssUtils.deserializeBitMap(
+                  request.getSerializedExpectedTaskIdsBitmap().toByteArray());
+          ShuffleDataSegment segment =
+              shuffleServer
+                  .getShuffleTaskManager()
+                  .getExpectedShuffleDataSegment(
+                      appId,
+                      shuffleId,
+                      partitionId,
+                      partitionNumPerRange,
+                      partitionNum,
+                      expectedTaskIds,
+                      readBufferSize,
+                      offset);
+          byte[] data = new byte[] {};
+          List<BufferSegment> bufferSegments = Lists.newArrayList();
+          long nextOffset = -1;
+          if (segment != null) {
+            sdr =
+                shuffleServer
+                    .getShuffleTaskManager()
+                    .getShuffleData(
+                        appId,
+                        shuffleId,
+                        partitionId,
+                        partitionNumPerRange,
+                        partitionNum,
+                        storageType,
+                        segment.getOffset(),
+                        segment.getLength());
+            data = sdr.getData();
+            bufferSegments = segment.getBufferSegments();
+            nextOffset = segment.getOffset() + segment.getLength();
+            ShuffleServerMetrics.counterTotalReadDataSize.inc(data.length);
+            ShuffleServerMetrics.counterTotalReadLocalDataFileSize.inc(data.length);
+            ShuffleServerMetrics.gaugeReadLocalDataFileThreadNum.inc();
+            ShuffleServerMetrics.gaugeReadLocalDataFileBufferSize.inc(readBufferSize);
+          }
+          long readTime = System.currentTimeMillis() - start;
+          ShuffleServerMetrics.counterTotalReadTime.inc(readTime);
+          shuffleServer
+              .getGrpcMetrics()
+              .recordProcessTime(
+                  ShuffleServerGrpcMetrics.GET_FILTERED_SHUFFLE_DATA_METHOD, readTime);
+          LOG.info(
+              "Successfully getFilteredLocalShuffleData cost {} ms with {} bytes for {}",
+              readTime,
+              data.length,
+              requestInfo);
+          auditContext.withReturnValue(
+              "len=" + data.length + ", bufferSegmentSize=" + bufferSegments.size());
+          reply =
+              GetFilteredLocalShuffleDataResponse.newBuilder()
+                  .setStatus(status.toProto())
+                  .setRetMsg(msg)
+                  .setData(UnsafeByteOperations.unsafeWrap(data))
+                  .addAllShuffleDataBlockSegments(toShuffleDataBlockSegments(bufferSegments))
+                  .setNextOffset(nextOffset)
+                  .build();
+        } catch (Exception e) {
+          status = StatusCode.INTERNAL_ERROR;
+          msg =
+              "Error happened when get filtered shuffle data for "
+                  + requestInfo
+                  + ", "
+                  + e.getMessage();
+          LOG.error(msg, e);
+          reply =
+              GetFilteredLocalShuffleDataResponse.newBuilder()
+                  .setStatus(status.toProto())
+                  .setRetMsg(msg)
+                  .build();
+        } finally {
+          if (sdr != null) {
+            sdr.release();
+            ShuffleServerMetrics.gaugeReadLocalDataFileThreadNum.dec();
+            ShuffleServerMetrics.gaugeReadLocalDataFileBufferSize.dec(readBufferSize);
+          }
+          shuffleServer.getShuffleBufferManager().releaseReadMemory(readBufferSize);
+        }
+      } else {
+        status = StatusCode.NO_BUFFER;
+        msg = "Can't require memory to get filtered shuffle data";
+        LOG.warn("{} for {}", msg, requestInfo);
+        reply =
+            GetFilteredLocalShuffleDataResponse.newBuilder()
+                .setStatus(status.toProto())
+                .setRetMsg(msg)
+                .build();
+      }
+
+      auditContext.withStatusCode(status);
+      responseObserver.onNext(reply);
+      responseObserver.onCompleted();
+    }
+  }
+
+  @Override
+  public void getLocalShuffleDataFile(
+      GetLocalShuffleDataFileRequest request,
+      StreamObserver<GetLocalShuffleDataFileResponse> responseObserver) {
+    try (ServerRpcAuditContext auditContext = createAuditContext("getLocalShuffleDataFile")) {
+      String appId = request.getAppId();
+      int shuffleId = request.getShuffleId();
+      int partitionId = request.getPartitionId();
+      int partitionNumPerRange = request.getPartitionNumPerRange();
+      int partitionNum = request.getPartitionNum();
+      auditContext.withAppId(appId).withShuffleId(shuffleId);
+      auditContext.withArgs(
+          "partitionId="
+              + partitionId
+              + ", partitionNumPerRange="
+              + partitionNumPerRange
+              + ", partitionNum="
+              + partitionNum);
+
+      StatusCode status = verifyRequest(appId);
+      if (status != StatusCode.SUCCESS) {
+        auditContext.withStatusCode(status);
+        GetLocalShuffleDataFileResponse reply =
+            GetLocalShuffleDataFileResponse.newBuilder()
+                .setStatus(status.toProto())
+                .setRetMsg(status.toString())
+                .build();
+        responseObserver.onNext(reply);
+        responseObserver.onCompleted();
+        return;
+      }
+
+      String msg = "OK";
+      String requestInfo =
+          "appId[" + appId + "], shuffleId[" + shuffleId + "], partitionId[" + partitionId + "]";
+      GetLocalShuffleDataFileResponse.Builder builder =
+          GetLocalShuffleDataFileResponse.newBuilder();
+      try {
+        String dataFileName =
+            shuffleServer
+                .getShuffleTaskManager()
+                .getShuffleDataFileName(
+                    appId, shuffleId, partitionId, partitionNumPerRange, partitionNum);
+        // the token is got before the length, so the file has at least this length if the token
+        // still matches the file opened by the reader
+        String token =
+            dataFileName == null ? null : ShuffleStorageUtils.getFileKey(new File(dataFileName));
+        if (token != null) {
+          long dataFileLen = new File(dataFileName).length();
+          builder.setDataFilePath(dataFileName).setToken(token).setDataFileLen(dataFileLen);
+          auditContext.withReturnValue("len=" + dataFileLen);
+        }
+      } catch (FileNotFoundException e) {
+        LOG.debug("Data file for {} is not found, it can't be read directly", requestInfo);
+      } catch (Exception e) {
+        status = StatusCode.INTERNAL_ERROR;
+        msg =
+            "Error happened when get shuffle data file for " + requestInfo + ", " + e.getMessage();
+        LOG.error(msg, e);
+      }
+
+      auditContext.withStatusCode(status);
+      responseObserver.onNext(builder.setStatus(status.toProto()).setRetMsg(msg).build());
+      responseObserver.onCompleted();
+    }
+  }
+
+  /**
+   * Report the optional features of this shuffle server. The clients only send the requests of the
+   * features after they are reported, since an older shuffle server may close the netty connection
+   * on an unknown message type.
+   */
+  @Override
+  public void getServerCapabilities(
+      Empty request, StreamObserver<GetServerCapabilitiesResponse> responseObserver) {
+    try (ServerRpcAuditContext auditContext = createAuditContext("getServerCapabilities")) {
+      GetServerCapabilitiesResponse reply =
+          GetServerCapabilitiesResponse.newBuilder()
+              .setStatus(StatusCode.SUCCESS.toProto())
+              .setRetMsg("")
+              .addCapabilities(ServerCapability.FILTERED_LOCAL_SHUFFLE_DATA)
+              .addCapabilities(ServerCapability.LOCAL_SHUFFLE_DATA_BATCH)
+              .build();
+      auditContext.withStatusCode(StatusCode.SUCCESS);
+      responseObserver.onNext(reply);
+      responseObserver.onCompleted();
+    }
+  }
+
   @Override
   public void startSortMerge(
       RssProtos.StartSortMergeRequest request,
@@ -1717,7 +2128,7 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
     long dataLength = 0L;
     int i = 0;
     for (ShuffleBlock block : blocks) {
-      ByteBuf data = ByteBufUtils.byteStringToByteBuf(block.getData());
+      ByteBuf data = toShuffleDataByteBuf(block.getData());
       ret[i] =
           new ShufflePartitionedBlock(
               block.getLength(),
@@ -1733,6 +2144,17 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
     return new ShufflePartitionedData(partitionId, encodedLength, dataLength, ret);
   }
 
+  private ByteBuf toShuffleDataByteBuf(ByteString bytes) {
+    if (!pooledAllocatorEnabled) {
+      return ByteBufUtils.byteStringToByteBuf(bytes);
+    }
+    // Copy the data into the pooled direct buffer like the Netty transport does, so the data
+    // cached in the shuffle buffers is managed by the same allocator
+    ByteBuf data = NettyUtils.getShuffleDataAllocator().directBuffer(bytes.size());
+    data.writeBytes(bytes.asReadOnlyByteBuffer());
+    return data;
+  }
+
   private Map<Integer, long[]> toPartitionBlocksMap(List<PartitionToBlockIds> partitionToBlockIds) {
     Map<Integer, long[]> result = Maps.newHashMap();
     for (PartitionToBlockIds ptb : partitionToBlockIds) {
@@ -1748,6 +2170,21 @@ public class ShuffleServerGrpcService extends ShuffleServerImplBase {
     return result;
   }
 
+  private Map<Integer, Roaring64NavigableMap> toPartitionBitmapsMap(
+      List<PartitionToBlockIds> partitionToBlockIds) throws IOException {
+    Map<Integer, Roaring64NavigableMap> result = Maps.newHashMap();
+    for (PartitionToBlockIds ptb : partitionToBlockIds) {
+      if (ptb.hasSerializedBitmap()) {
+        Roaring64NavigableMap bitmap =
+            RssUtils.deserializeBitMap(ptb.getSerializedBitmap().toByteArray());
+        if (!bitmap.isEmpty()) {
+          result.put(ptb.getPartitionId(), bitmap);
+        }
+      }
+    }
+    return result;
+  }
+
   private List<PartitionRange> toPartitionRanges(
       List<ShufflePartitionRange> shufflePartitionRanges) {
     List<PartitionRange> partitionRanges = Lists.newArrayList();
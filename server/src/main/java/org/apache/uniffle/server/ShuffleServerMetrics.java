@@ -61,6 +61,15 @@ public class ShuffleServerMetrics {
   private static final String EVENT_SIZE_THRESHOLD_LEVEL4 = "event_size_threshold_level4";
   public static final String EVENT_QUEUE_SIZE = "event_queue_size";
   private static final String MERGE_EVENT_QUEUE_SIZE = "merge_event_queue_size";
+  private static final String MERGE_PASS_TIME = "merge_pass_time";
+  private static final String MERGE_PASS_LABEL = "merge_pass";
+  public static final String MERGE_PASS_LABEL_FINAL = "final";
+  private static final String TOTAL_MERGE_SPILLED_RUN_NUM = "total_merge_spilled_run_num";
+  private static final String TOTAL_MERGE_SPILLED_SIZE = "total_merge_spilled_size";
+  private static final String REQUIRE_BUFFER_WAIT_TIME = "require_buffer_wait_time";
+  private static final String REQUIRE_BUFFER_WAITING_NUM = "require_buffer_waiting_num";
+  private static final String TOTAL_REQUIRE_BUFFER_WAIT_TIMEOUT =
+      "total_require_buffer_wait_timeout";
   private static final String HADOOP_FLUSH_THREAD_POOL_QUEUE_SIZE =
       "hadoop_flush_thread_pool_queue_size";
   private static final String LOCALFILE_FLUSH_THREAD_POOL_QUEUE_SIZE =
@@ -78,6 +87,19 @@ public class ShuffleServerMetrics {
   private static final String TOTAL_READ_LOCAL_DATA_FILE = "total_read_local_data_file";
   private static final String TOTAL_READ_LOCAL_INDEX_FILE = "total_read_local_index_file";
   private static final String TOTAL_READ_MEMORY_DATA = "total_read_memory_data";
+  private static final String TOTAL_INDEX_CACHE_HIT = "total_index_cache_hit";
+  private static final String TOTAL_INDEX_CACHE_MISS = "total_index_cache_miss";
+  private static final String TOTAL_INDEX_CACHE_EVICTION = "total_index_cache_eviction";
+  private static final String TOTAL_SHUFFLE_RESULT_CACHE_HIT = "total_shuffle_result_cache_hit";
+  private static final String TOTAL_SHUFFLE_RESULT_CACHE_MISS = "total_shuffle_result_cache_miss";
+  private static final String TOTAL_SHUFFLE_RESULT_CACHE_EVICTION =
+      "total_shuffle_result_cache_eviction";
+  private static final String TOTAL_LOCAL_ORDER_COMPACTED_PARTITION =
+      "total_local_order_compacted_partition";
+  private static final String TOTAL_LOCAL_ORDER_COMPACTION_ABORTED =
+      "total_local_order_compaction_aborted";
+  private static final String TOTAL_LOCAL_ORDER_COMPACTED_DATA = "total_local_order_compacted_data";
+  private static final String FLUSHED_BUFFER_SIZE = "flushed_buffer_size";
   private static final String TOTAL_READ_TIME = "total_read_time";
   private static final String TOTAL_REQUIRE_READ_MEMORY = "total_require_read_memory_num";
   private static final String TOTAL_REQUIRE_READ_MEMORY_RETRY =
@@ -104,6 +126,14 @@ public class ShuffleServerMetrics {
   public static final String USED_DIRECT_MEMORY_SIZE_BY_NETTY = "used_direct_memory_size_by_netty";
   public static final String USED_DIRECT_MEMORY_SIZE_BY_GRPC_NETTY =
       "used_direct_memory_size_by_grpc_netty";
+  public static final String POOLED_ALLOCATOR_USED_DIRECT_MEMORY =
+      "pooled_allocator_used_direct_memory";
+  public static final String POOLED_ALLOCATOR_ACTIVE_BYTES = "pooled_allocator_active_bytes";
+  public static final String POOLED_ALLOCATOR_FRAGMENTATION_RATIO =
+      "pooled_allocator_fragmentation_ratio";
+  public static final String POOLED_ALLOCATOR_CHUNK_NUM = "pooled_allocator_chunk_num";
+  public static final String POOLED_ALLOCATOR_THREAD_CACHE_NUM =
+      "pooled_allocator_thread_cache_num";
   private static final String TOTAL_FAILED_WRITTEN_EVENT_NUM = "total_failed_written_event_num";
   private static final String TOTAL_DROPPED_EVENT_NUM = "total_dropped_event_num";
   private static final String TOTAL_HADOOP_WRITE_DATA = "total_hadoop_write_data";
@@ -169,6 +199,9 @@ public class ShuffleServerMetrics {
   public static final String COMMITTED_BLOCK_COUNT = "committed_block_count";
   public static final String REPORTED_BLOCK_COUNT = "reported_block_count";
   public static final String CACHED_BLOCK_COUNT = "cached_block_count";
+  public static final String OFF_HEAP_BLOCK_ID_SET_SIZE = "off_heap_block_id_set_size";
+  public static final String INDEX_CACHE_SIZE = "index_cache_size";
+  public static final String SHUFFLE_RESULT_CACHE_SIZE = "shuffle_result_cache_size";
 
   public static Counter.Child counterTotalAppNum;
   public static Counter.Child counterTotalAppWithHugePartitionNum;
@@ -197,6 +230,16 @@ public class ShuffleServerMetrics {
   public static Counter.Child counterTotalReadLocalDataFileSize;
   public static Counter.Child counterTotalReadLocalIndexFileSize;
   public static Counter.Child counterTotalReadMemoryDataSize;
+  public static Counter.Child counterTotalIndexCacheHit;
+  public static Counter.Child counterTotalIndexCacheMiss;
+  public static Counter.Child counterTotalIndexCacheEviction;
+  public static Counter.Child counterTotalShuffleResultCacheHit;
+  public static Counter.Child counterTotalShuffleResultCacheMiss;
+  public static Counter.Child counterTotalShuffleResultCacheEviction;
+  public static Counter.Child counterTotalLocalOrderCompactedPartition;
+  public static Counter.Child counterTotalLocalOrderCompactionAborted;
+  public static Counter.Child counterTotalLocalOrderCompactedDataSize;
+  public static Histogram.Child histogramFlushedBufferSize;
   public static Counter.Child counterTotalReadTime;
   public static Counter.Child counterTotalFailedWrittenEventNum;
   public static Counter.Child counterTotalDroppedEventNum;
@@ -234,6 +277,12 @@ public class ShuffleServerMetrics {
   public static Gauge.Child gaugeReadBufferUsedSize;
   public static Gauge.Child gaugeWriteHandler;
   public static Gauge.Child gaugeMergeEventQueueSize;
+  public static Histogram histogramMergePassTime;
+  public static Histogram appHistogramRequireBufferWaitTime;
+  public static Gauge.Child gaugeRequireBufferWaitingNum;
+  public static Counter.Child counterTotalRequireBufferWaitTimeout;
+  public static Counter.Child counterTotalMergeSpilledRunNum;
+  public static Counter.Child counterTotalMergeSpilledSize;
   public static Gauge.Child gaugeHadoopFlushThreadPoolQueueSize;
   public static Gauge.Child gaugeLocalfileFlushThreadPoolQueueSize;
   public static Gauge.Child gaugeFallbackFlushThreadPoolQueueSize;
@@ -361,6 +410,10 @@ public class ShuffleServerMetrics {
     incHadoopStorageWriteDataSize(storageHost, size, false);
   }
 
+  public static void observeMergePassTime(String mergePass, long durationMs) {
+    histogramMergePassTime.labels(tags, mergePass).observe(durationMs / 1000.0);
+  }
+
   private static void setUpMetrics(ShuffleServerConf serverConf) {
     counterTotalReceivedDataSize = metricsManager.addLabeledCounter(TOTAL_RECEIVED_DATA);
     counterTotalWriteDataSize = metricsManager.addLabeledCounter(TOTAL_WRITE_DATA);
@@ -390,6 +443,25 @@ public class ShuffleServerMetrics {
     counterTotalReadLocalIndexFileSize =
         metricsManager.addLabeledCounter(TOTAL_READ_LOCAL_INDEX_FILE);
     counterTotalReadMemoryDataSize = metricsManager.addLabeledCounter(TOTAL_READ_MEMORY_DATA);
+    counterTotalIndexCacheHit = metricsManager.addLabeledCounter(TOTAL_INDEX_CACHE_HIT);
+    counterTotalIndexCacheMiss = metricsManager.addLabeledCounter(TOTAL_INDEX_CACHE_MISS);
+    counterTotalIndexCacheEviction = metricsManager.addLabeledCounter(TOTAL_INDEX_CACHE_EVICTION);
+    counterTotalShuffleResultCacheHit =
+        metricsManager.addLabeledCounter(TOTAL_SHUFFLE_RESULT_CACHE_HIT);
+    counterTotalShuffleResultCacheMiss =
+        metricsManager.addLabeledCounter(TOTAL_SHUFFLE_RESULT_CACHE_MISS);
+    counterTotalShuffleResultCacheEviction =
+        metricsManager.addLabeledCounter(TOTAL_SHUFFLE_RESULT_CACHE_EVICTION);
+    counterTotalLocalOrderCompactedPartition =
+        metricsManager.addLabeledCounter(TOTAL_LOCAL_ORDER_COMPACTED_PARTITION);
+    counterTotalLocalOrderCompactionAborted =
+        metricsManager.addLabeledCounter(TOTAL_LOCAL_ORDER_COMPACTION_ABORTED);
+    counterTotalLocalOrderCompactedDataSize =
+        metricsManager.addLabeledCounter(TOTAL_LOCAL_ORDER_COMPACTED_DATA);
+    histogramFlushedBufferSize =
+        metricsManager.addLabeledHistogram(
+            FLUSHED_BUFFER_SIZE,
+            new double[] {65536, 262144, 1048576, 4194304, 16777216, 67108864, 268435456});
     counterTotalReadTime = metricsManager.addLabeledCounter(TOTAL_READ_TIME);
     counterTotalDroppedEventNum = metricsManager.addLabeledCounter(TOTAL_DROPPED_EVENT_NUM);
     counterTotalFailedWrittenEventNum =
@@ -463,6 +535,22 @@ public class ShuffleServerMetrics {
     gaugeReadBufferUsedSize = metricsManager.addLabeledGauge(READ_USED_BUFFER_SIZE);
     gaugeWriteHandler = metricsManager.addLabeledGauge(TOTAL_WRITE_HANDLER);
     gaugeMergeEventQueueSize = metricsManager.addLabeledGauge(MERGE_EVENT_QUEUE_SIZE);
+    histogramMergePassTime =
+        metricsManager.addHistogram(
+            MERGE_PASS_TIME,
+            new double[] {0.1, 0.5, 1, 5, 10, 30, 60, 300, 600},
+            Constants.METRICS_TAG_LABEL_NAME,
+            MERGE_PASS_LABEL);
+    counterTotalMergeSpilledRunNum = metricsManager.addLabeledCounter(TOTAL_MERGE_SPILLED_RUN_NUM);
+    counterTotalMergeSpilledSize = metricsManager.addLabeledCounter(TOTAL_MERGE_SPILLED_SIZE);
+    appHistogramRequireBufferWaitTime =
+        metricsManager.addHistogram(
+            REQUIRE_BUFFER_WAIT_TIME,
+            new double[] {0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30, 60},
+            METRICS_APP_LABEL_NAME);
+    gaugeRequireBufferWaitingNum = metricsManager.addLabeledGauge(REQUIRE_BUFFER_WAITING_NUM);
+    counterTotalRequireBufferWaitTimeout =
+        metricsManager.addLabeledCounter(TOTAL_REQUIRE_BUFFER_WAIT_TIMEOUT);
     gaugeHadoopFlushThreadPoolQueueSize =
         metricsManager.addLabeledGauge(HADOOP_FLUSH_THREAD_POOL_QUEUE_SIZE);
     gaugeLocalfileFlushThreadPoolQueueSize =
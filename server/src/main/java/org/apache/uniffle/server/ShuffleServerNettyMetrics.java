@@ -18,6 +18,8 @@
 package org.apache.uniffle.server;
 
 import org.apache.uniffle.common.metrics.NettyMetrics;
+import org.apache.uniffle.common.netty.protocol.GetFilteredLocalShuffleDataRequest;
+import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataBatchRequest;
 import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataRequest;
 import org.apache.uniffle.common.netty.protocol.GetLocalShuffleIndexRequest;
 import org.apache.uniffle.common.netty.protocol.GetMemoryShuffleDataRequest;
@@ -38,6 +40,10 @@ public class ShuffleServerNettyMetrics extends NettyMetrics {
       "netty_get_memory_shuffle_data_request";
   private static final String NETTY_GET_SORTED_SHUFFLE_DATA_REQUEST =
       "netty_get_sorted_shuffle_data_request";
+  private static final String NETTY_GET_FILTERED_SHUFFLE_DATA_REQUEST =
+      "netty_get_filtered_local_shuffle_data_request";
+  private static final String NETTY_GET_SHUFFLE_DATA_BATCH_REQUEST =
+      "netty_get_local_shuffle_data_batch_request";
 
   public ShuffleServerNettyMetrics(ShuffleServerConf shuffleServerConf, String tags) {
     super(shuffleServerConf, tags);
@@ -60,6 +66,12 @@ public class ShuffleServerNettyMetrics extends NettyMetrics {
     gaugeMap.putIfAbsent(
         GetSortedShuffleDataRequest.class.getName(),
         metricsManager.addLabeledGauge(NETTY_GET_SORTED_SHUFFLE_DATA_REQUEST));
+    gaugeMap.putIfAbsent(
+        GetFilteredLocalShuffleDataRequest.class.getName(),
+        metricsManager.addLabeledGauge(NETTY_GET_FILTERED_SHUFFLE_DATA_REQUEST));
+    gaugeMap.putIfAbsent(
+        GetLocalShuffleDataBatchRequest.class.getName(),
+        metricsManager.addLabeledGauge(NETTY_GET_SHUFFLE_DATA_BATCH_REQUEST));
 
     counterMap.putIfAbsent(
         SendShuffleDataRequest.class.getName(),
@@ -76,39 +88,55 @@ public class ShuffleServerNettyMetrics extends NettyMetrics {
     counterMap.putIfAbsent(
         GetSortedShuffleDataRequest.class.getName(),
         metricsManager.addLabeledCounter(NETTY_GET_SORTED_SHUFFLE_DATA_REQUEST + _TOTAL));
+    counterMap.putIfAbsent(
+        GetFilteredLocalShuffleDataRequest.class.getName(),
+        metricsManager.addLabeledCounter(NETTY_GET_FILTERED_SHUFFLE_DATA_REQUEST + _TOTAL));
+    counterMap.putIfAbsent(
+        GetLocalShuffleDataBatchRequest.class.getName(),
+        metricsManager.addLabeledCounter(NETTY_GET_SHUFFLE_DATA_BATCH_REQUEST + _TOTAL));
 
-    transportTimeSummaryMap.putIfAbsent(
+    transportTimeHistogramMap.putIfAbsent(
         SendShuffleDataRequest.class.getName(),
-        metricsManager.addLabeledSummary(NETTY_SEND_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
-    transportTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(NETTY_SEND_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
         GetLocalShuffleDataRequest.class.getName(),
-        metricsManager.addLabeledSummary(NETTY_GET_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
-    transportTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(NETTY_GET_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
         GetLocalShuffleIndexRequest.class.getName(),
-        metricsManager.addLabeledSummary(NETTY_GET_SHUFFLE_INDEX_REQUEST + _TRANSPORT_LATENCY));
-    transportTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(NETTY_GET_SHUFFLE_INDEX_REQUEST + _TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
         GetMemoryShuffleDataRequest.class.getName(),
-        metricsManager.addLabeledSummary(
-            NETTY_GET_MEMORY_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
-    transportTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(NETTY_GET_MEMORY_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
         GetSortedShuffleDataRequest.class.getName(),
-        metricsManager.addLabeledSummary(
-            NETTY_GET_SORTED_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
+        addLatencyHistogram(NETTY_GET_SORTED_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
+        GetFilteredLocalShuffleDataRequest.class.getName(),
+        addLatencyHistogram(NETTY_GET_FILTERED_SHUFFLE_DATA_REQUEST + _TRANSPORT_LATENCY));
+    transportTimeHistogramMap.putIfAbsent(
+        GetLocalShuffleDataBatchRequest.class.getName(),
+        addLatencyHistogram(NETTY_GET_SHUFFLE_DATA_BATCH_REQUEST + _TRANSPORT_LATENCY));
 
-    processTimeSummaryMap.putIfAbsent(
+    processTimeHistogramMap.putIfAbsent(
         SendShuffleDataRequest.class.getName(),
-        metricsManager.addLabeledSummary(NETTY_SEND_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(NETTY_SEND_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
         GetLocalShuffleDataRequest.class.getName(),
-        metricsManager.addLabeledSummary(NETTY_GET_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(NETTY_GET_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
         GetLocalShuffleIndexRequest.class.getName(),
-        metricsManager.addLabeledSummary(NETTY_GET_SHUFFLE_INDEX_REQUEST + _PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(NETTY_GET_SHUFFLE_INDEX_REQUEST + _PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
         GetMemoryShuffleDataRequest.class.getName(),
-        metricsManager.addLabeledSummary(NETTY_GET_MEMORY_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
-    processTimeSummaryMap.putIfAbsent(
+        addLatencyHistogram(NETTY_GET_MEMORY_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
         GetSortedShuffleDataRequest.class.getName(),
-        metricsManager.addLabeledSummary(NETTY_GET_SORTED_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
+        addLatencyHistogram(NETTY_GET_SORTED_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
+        GetFilteredLocalShuffleDataRequest.class.getName(),
+        addLatencyHistogram(NETTY_GET_FILTERED_SHUFFLE_DATA_REQUEST + _PROCESS_LATENCY));
+    processTimeHistogramMap.putIfAbsent(
+        GetLocalShuffleDataBatchRequest.class.getName(),
+        addLatencyHistogram(NETTY_GET_SHUFFLE_DATA_BATCH_REQUEST + _PROCESS_LATENCY));
   }
 }
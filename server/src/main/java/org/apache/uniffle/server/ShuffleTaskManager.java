@@ -57,6 +57,7 @@ import org.apache.uniffle.common.PartitionRange;
 import org.apache.uniffle.common.RemoteStorageInfo;
 import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleDataResult;
+import org.apache.uniffle.common.ShuffleDataSegment;
 import org.apache.uniffle.common.ShuffleIndexResult;
 import org.apache.uniffle.common.ShufflePartitionedBlock;
 import org.apache.uniffle.common.ShufflePartitionedData;
@@ -69,6 +70,7 @@ import org.apache.uniffle.common.exception.NoRegisterException;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.future.CompletableFutureExtension;
 import org.apache.uniffle.common.rpc.StatusCode;
+import org.apache.uniffle.common.segment.LocalOrderSegmentSplitter;
 import org.apache.uniffle.common.util.BlockIdLayout;
 import org.apache.uniffle.common.util.Constants;
 import org.apache.uniffle.common.util.JavaUtils;
@@ -76,7 +78,11 @@ import org.apache.uniffle.common.util.OutputUtils;
 import org.apache.uniffle.common.util.RssUtils;
 import org.apache.uniffle.common.util.ThreadUtils;
 import org.apache.uniffle.common.util.UnitConverter;
+import org.apache.uniffle.server.block.BlockIdSet;
+import org.apache.uniffle.server.block.HeapBlockIdSet;
+import org.apache.uniffle.server.block.OffHeapBlockIdSet;
 import org.apache.uniffle.server.buffer.PreAllocatedBufferInfo;
+import org.apache.uniffle.server.buffer.RequireMemoryWaitingQueue;
 import org.apache.uniffle.server.buffer.ShuffleBuffer;
 import org.apache.uniffle.server.buffer.ShuffleBufferManager;
 import org.apache.uniffle.server.event.AppPurgeEvent;
@@ -84,9 +90,12 @@ import org.apache.uniffle.server.event.AppUnregisterPurgeEvent;
 import org.apache.uniffle.server.event.PurgeEvent;
 import org.apache.uniffle.server.event.ShufflePurgeEvent;
 import org.apache.uniffle.server.merge.ShuffleMergeManager;
+import org.apache.uniffle.server.storage.LocalStorageManager;
 import org.apache.uniffle.server.storage.StorageManager;
 import org.apache.uniffle.storage.common.Storage;
 import org.apache.uniffle.storage.common.StorageReadMetrics;
+import org.apache.uniffle.storage.handler.api.ServerReadHandler;
+import org.apache.uniffle.storage.handler.impl.LocalFileServerReadHandler;
 import org.apache.uniffle.storage.request.CreateShuffleReadHandlerRequest;
 import org.apache.uniffle.storage.util.ShuffleStorageUtils;
 import org.apache.uniffle.storage.util.StorageType;
@@ -94,8 +103,11 @@ import org.apache.uniffle.storage.util.StorageType;
 import static org.apache.uniffle.server.ShuffleServerConf.CLIENT_MAX_CONCURRENCY_LIMITATION_OF_ONE_PARTITION;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MAX_CONCURRENCY_OF_ONE_PARTITION;
 import static org.apache.uniffle.server.ShuffleServerMetrics.CACHED_BLOCK_COUNT;
+import static org.apache.uniffle.server.ShuffleServerMetrics.INDEX_CACHE_SIZE;
+import static org.apache.uniffle.server.ShuffleServerMetrics.OFF_HEAP_BLOCK_ID_SET_SIZE;
 import static org.apache.uniffle.server.ShuffleServerMetrics.REPORTED_BLOCK_COUNT;
 import static org.apache.uniffle.server.ShuffleServerMetrics.REQUIRE_BUFFER_COUNT;
+import static org.apache.uniffle.server.ShuffleServerMetrics.SHUFFLE_RESULT_CACHE_SIZE;
 
 public class ShuffleTaskManager {
 
@@ -121,7 +133,7 @@ public class ShuffleTaskManager {
   // merge different blockId of partition to one bitmap can reduce memory cost,
   // but when get blockId, performance will degrade a little which can be optimized by client
   // configuration
-  private Map<String, Map<Integer, Roaring64NavigableMap[]>> partitionsToBlockIds;
+  private Map<String, Map<Integer, BlockIdSet[]>> partitionsToBlockIds;
   private final ShuffleBufferManager shuffleBufferManager;
   private Map<String, ShuffleTaskInfo> shuffleTaskInfos = JavaUtils.newConcurrentMap();
   private Map<Long, PreAllocatedBufferInfo> requireBufferIds = JavaUtils.newConcurrentMap();
@@ -130,6 +142,11 @@ public class ShuffleTaskManager {
   private final Cache<String, ReentrantReadWriteLock> appLocks;
   private final long storageRemoveOperationTimeoutSec;
   private ShuffleMergeManager shuffleMergeManager;
+  private final ShuffleIndexCache shuffleIndexCache;
+  // whether getShuffleIndex is served by the index cache, the filtered reads always use it
+  private final boolean indexCacheEnabled;
+  private final ShuffleResultCache shuffleResultCache;
+  private final LocalOrderCompactionManager localOrderCompactionManager;
 
   public ShuffleTaskManager(
       ShuffleServerConf conf,
@@ -200,6 +217,26 @@ public class ShuffleTaskManager {
       shuffleBufferManager.setShuffleTaskManager(this);
     }
 
+    // the filtered reads locate a segment in every request, which must not read the whole index
+    // file each time, so the cache is always created and only filled by them if it's disabled
+    indexCacheEnabled = conf.getBoolean(ShuffleServerConf.SERVER_INDEX_CACHE_ENABLED);
+    shuffleIndexCache =
+        new ShuffleIndexCache(conf.get(ShuffleServerConf.SERVER_INDEX_CACHE_CAPACITY));
+    ShuffleServerMetrics.addLabeledGauge(INDEX_CACHE_SIZE, shuffleIndexCache::getCachedSize);
+    if (conf.getBoolean(ShuffleServerConf.SERVER_SHUFFLE_RESULT_CACHE_ENABLED)) {
+      shuffleResultCache =
+          new ShuffleResultCache(conf.get(ShuffleServerConf.SERVER_SHUFFLE_RESULT_CACHE_CAPACITY));
+      ShuffleServerMetrics.addLabeledGauge(
+          SHUFFLE_RESULT_CACHE_SIZE, shuffleResultCache::getCachedSize);
+    } else {
+      shuffleResultCache = null;
+    }
+    if (conf.getBoolean(ShuffleServerConf.SERVER_LOCAL_ORDER_COMPACTION_ENABLED)) {
+      localOrderCompactionManager = new LocalOrderCompactionManager(conf, shuffleIndexCache);
+    } else {
+      localOrderCompactionManager = null;
+    }
+
     appLocks =
         CacheBuilder.newBuilder()
             .expireAfterAccess(3600, TimeUnit.SECONDS)
@@ -257,15 +294,15 @@ public class ShuffleTaskManager {
     topNShuffleDataSizeOfAppCalcTask.start();
 
     ShuffleServerMetrics.addLabeledGauge(REQUIRE_BUFFER_COUNT, requireBufferIds::size);
+    ShuffleServerMetrics.addLabeledGauge(
+        OFF_HEAP_BLOCK_ID_SET_SIZE, OffHeapBlockIdSet::getTotalOffHeapSize);
     ShuffleServerMetrics.addLabeledCacheGauge(
         REPORTED_BLOCK_COUNT,
         () ->
             partitionsToBlockIds.values().stream()
                 .flatMap(innerMap -> innerMap.values().stream())
                 .flatMapToLong(
-                    arr ->
-                        java.util.Arrays.stream(arr)
-                            .mapToLong(Roaring64NavigableMap::getLongCardinality))
+                    arr -> java.util.Arrays.stream(arr).mapToLong(BlockIdSet::getLongCardinality))
                 .sum(),
         2 * 60 * 1000L /* 2 minutes */);
     ShuffleServerMetrics.addLabeledCacheGauge(
@@ -274,7 +311,7 @@ public class ShuffleTaskManager {
             shuffleTaskInfos.values().stream()
                 .map(ShuffleTaskInfo::getCachedBlockIds)
                 .flatMap(map -> map.values().stream())
-                .mapToLong(Roaring64NavigableMap::getLongCardinality)
+                .mapToLong(BlockIdSet::getLongCardinality)
                 .sum(),
         2 * 60 * 1000L /* 2 minutes */);
   }
@@ -387,8 +424,7 @@ public class ShuffleTaskManager {
     shuffleBufferManager.releasePreAllocatedSize(requireSize);
   }
 
-  @VisibleForTesting
-  void removeAndReleasePreAllocatedBuffer(long requireBufferId) {
+  public void removeAndReleasePreAllocatedBuffer(long requireBufferId) {
     PreAllocatedBufferInfo info = getAndRemovePreAllocatedBuffer(requireBufferId);
     if (info != null) {
       releasePreAllocatedSize(info.getRequireSize());
@@ -398,7 +434,7 @@ public class ShuffleTaskManager {
   public StatusCode commitShuffle(String appId, int shuffleId) throws Exception {
     long start = System.currentTimeMillis();
     refreshAppId(appId);
-    Roaring64NavigableMap cachedBlockIds = getCachedBlockIds(appId, shuffleId);
+    BlockIdSet cachedBlockIds = getCachedBlockIds(appId, shuffleId);
     Roaring64NavigableMap cloneBlockIds;
     ShuffleTaskInfo shuffleTaskInfo =
         shuffleTaskInfos.computeIfAbsent(appId, x -> new ShuffleTaskInfo(appId));
@@ -408,20 +444,22 @@ public class ShuffleTaskManager {
       if (System.currentTimeMillis() - start > commitTimeout) {
         throw new RssException("Shuffle data commit timeout for " + commitTimeout + " ms");
       }
-      synchronized (cachedBlockIds) {
-        cloneBlockIds = RssUtils.cloneBitMap(cachedBlockIds);
-      }
+      cloneBlockIds = cachedBlockIds.toBitmap();
       long expectedCommitted = cloneBlockIds.getLongCardinality();
       shuffleBufferManager.commitShuffleTask(appId, shuffleId);
-      Roaring64NavigableMap committedBlockIds;
-      Roaring64NavigableMap cloneCommittedBlockIds;
       long checkInterval = 1000L;
       while (true) {
-        committedBlockIds = shuffleFlushManager.getCommittedBlockIds(appId, shuffleId);
-        synchronized (committedBlockIds) {
-          cloneCommittedBlockIds = RssUtils.cloneBitMap(committedBlockIds);
-        }
-        cloneBlockIds.andNot(cloneCommittedBlockIds);
+        // only check the remaining block ids rather than copying all the committed block ids,
+        // which may be kept off the heap
+        BlockIdSet committedBlockIds = shuffleFlushManager.getCommittedBlockIds(appId, shuffleId);
+        Roaring64NavigableMap newlyCommitted = Roaring64NavigableMap.bitmapOf();
+        cloneBlockIds.forEach(
+            blockId -> {
+              if (committedBlockIds.contains(blockId)) {
+                newlyCommitted.addLong(blockId);
+              }
+            });
+        cloneBlockIds.andNot(newlyCommitted);
         if (cloneBlockIds.isEmpty()) {
           break;
         }
@@ -452,6 +490,12 @@ public class ShuffleTaskManager {
               + (System.currentTimeMillis() - start)
               + " ms to check");
     }
+    if (localOrderCompactionManager != null
+        && storageManager instanceof LocalStorageManager
+        && shuffleTaskInfo.getDataDistType() == ShuffleDataDistributionType.LOCAL_ORDER) {
+      localOrderCompactionManager.compactShuffle(
+          appId, shuffleId, ((LocalStorageManager) storageManager).getStorages());
+    }
     return StatusCode.SUCCESS;
   }
 
@@ -466,21 +510,84 @@ public class ShuffleTaskManager {
    */
   public int addFinishedBlockIds(
       String appId, Integer shuffleId, Map<Integer, long[]> partitionToBlockIds, int bitmapNum) {
+    BlockIdSet[] blockIds = getOrCreateFinishedBlockIds(appId, shuffleId, bitmapNum);
+    ShuffleTaskInfo taskInfo = getShuffleTaskInfo(appId);
+    if (taskInfo == null) {
+      throw new InvalidRequestException(
+          "ShuffleTaskInfo is not found that should not happen for appId: " + appId);
+    }
+    int totalUpdatedBlockCount = 0;
+    for (Map.Entry<Integer, long[]> entry : partitionToBlockIds.entrySet()) {
+      Integer partitionId = entry.getKey();
+      BlockIdSet bitmap = blockIds[partitionId % bitmapNum];
+      int updatedBlockCount = 0;
+      synchronized (bitmap) {
+        for (long blockId : entry.getValue()) {
+          if (!bitmap.contains(blockId)) {
+            bitmap.add(blockId);
+            updatedBlockCount++;
+            totalUpdatedBlockCount++;
+          }
+        }
+        if (updatedBlockCount > 0) {
+          invalidateShuffleResult(appId, shuffleId, partitionId);
+        }
+      }
+      taskInfo.incBlockNumber(shuffleId, partitionId, updatedBlockCount);
+    }
+    return totalUpdatedBlockCount;
+  }
+
+  /**
+   * Add finished blockIds from client in the serialized bitmaps, the bitmaps are merged into the
+   * reported block ids in bulk.
+   *
+   * @return the number of added blockIds
+   */
+  public int addFinishedBlockIdBitmaps(
+      String appId,
+      Integer shuffleId,
+      Map<Integer, Roaring64NavigableMap> partitionToBlockIds,
+      int bitmapNum) {
+    BlockIdSet[] blockIds = getOrCreateFinishedBlockIds(appId, shuffleId, bitmapNum);
+    ShuffleTaskInfo taskInfo = getShuffleTaskInfo(appId);
+    if (taskInfo == null) {
+      throw new InvalidRequestException(
+          "ShuffleTaskInfo is not found that should not happen for appId: " + appId);
+    }
+    int totalUpdatedBlockCount = 0;
+    for (Map.Entry<Integer, Roaring64NavigableMap> entry : partitionToBlockIds.entrySet()) {
+      Integer partitionId = entry.getKey();
+      BlockIdSet bitmap = blockIds[partitionId % bitmapNum];
+      int updatedBlockCount;
+      synchronized (bitmap) {
+        updatedBlockCount = (int) bitmap.addAll(entry.getValue());
+        if (updatedBlockCount > 0) {
+          invalidateShuffleResult(appId, shuffleId, partitionId);
+        }
+      }
+      totalUpdatedBlockCount += updatedBlockCount;
+      taskInfo.incBlockNumber(shuffleId, partitionId, updatedBlockCount);
+    }
+    return totalUpdatedBlockCount;
+  }
+
+  private BlockIdSet[] getOrCreateFinishedBlockIds(String appId, Integer shuffleId, int bitmapNum) {
     refreshAppId(appId);
-    Map<Integer, Roaring64NavigableMap[]> shuffleIdToPartitions = partitionsToBlockIds.get(appId);
+    Map<Integer, BlockIdSet[]> shuffleIdToPartitions = partitionsToBlockIds.get(appId);
     if (shuffleIdToPartitions == null) {
       throw new RssException("appId[" + appId + "] is expired!");
     }
     shuffleIdToPartitions.computeIfAbsent(
         shuffleId,
         key -> {
-          Roaring64NavigableMap[] blockIds = new Roaring64NavigableMap[bitmapNum];
+          BlockIdSet[] blockIds = new BlockIdSet[bitmapNum];
           for (int i = 0; i < bitmapNum; i++) {
-            blockIds[i] = Roaring64NavigableMap.bitmapOf();
+            blockIds[i] = BlockIdSet.create(conf);
           }
           return blockIds;
         });
-    Roaring64NavigableMap[] blockIds = shuffleIdToPartitions.get(shuffleId);
+    BlockIdSet[] blockIds = shuffleIdToPartitions.get(shuffleId);
     if (blockIds.length != bitmapNum) {
       throw new InvalidRequestException(
           "Request expects "
@@ -489,29 +596,15 @@ public class ShuffleTaskManager {
               + blockIds.length
               + " bitmaps!");
     }
+    return blockIds;
+  }
 
-    ShuffleTaskInfo taskInfo = getShuffleTaskInfo(appId);
-    if (taskInfo == null) {
-      throw new InvalidRequestException(
-          "ShuffleTaskInfo is not found that should not happen for appId: " + appId);
+  // must be called with the lock of the block id set held, so the block ids being cached by the
+  // concurrent getFinishedBlockIdsOfPartitions are never stale
+  private void invalidateShuffleResult(String appId, int shuffleId, int partitionId) {
+    if (shuffleResultCache != null) {
+      shuffleResultCache.invalidate(appId, shuffleId, partitionId);
     }
-    int totalUpdatedBlockCount = 0;
-    for (Map.Entry<Integer, long[]> entry : partitionToBlockIds.entrySet()) {
-      Integer partitionId = entry.getKey();
-      Roaring64NavigableMap bitmap = blockIds[partitionId % bitmapNum];
-      int updatedBlockCount = 0;
-      synchronized (bitmap) {
-        for (long blockId : entry.getValue()) {
-          if (!bitmap.contains(blockId)) {
-            bitmap.addLong(blockId);
-            updatedBlockCount++;
-            totalUpdatedBlockCount++;
-          }
-        }
-      }
-      taskInfo.incBlockNumber(shuffleId, partitionId, updatedBlockCount);
-    }
-    return totalUpdatedBlockCount;
   }
 
   public int updateAndGetCommitCount(String appId, int shuffleId) {
@@ -538,14 +631,14 @@ public class ShuffleTaskManager {
     // With memory storage type should never need cachedBlockIds,
     // since client do not need call finish shuffle rpc
     if (!storageTypeWithMemory) {
-      Roaring64NavigableMap bitmap =
+      BlockIdSet bitmap =
           shuffleTaskInfo
               .getCachedBlockIds()
-              .computeIfAbsent(shuffleId, x -> Roaring64NavigableMap.bitmapOf());
+              .computeIfAbsent(shuffleId, x -> BlockIdSet.create(conf));
 
       synchronized (bitmap) {
         for (ShufflePartitionedBlock spb : spbs) {
-          bitmap.addLong(spb.getBlockId());
+          bitmap.add(spb.getBlockId());
           size += spb.getEncodedLength();
         }
       }
@@ -559,10 +652,10 @@ public class ShuffleTaskManager {
         shuffleBufferManager, shuffleTaskInfo, shuffleId, partitionId, partitionSize);
   }
 
-  public Roaring64NavigableMap getCachedBlockIds(String appId, int shuffleId) {
-    Map<Integer, Roaring64NavigableMap> shuffleIdToBlockIds =
+  public BlockIdSet getCachedBlockIds(String appId, int shuffleId) {
+    Map<Integer, BlockIdSet> shuffleIdToBlockIds =
         shuffleTaskInfos.getOrDefault(appId, new ShuffleTaskInfo(appId)).getCachedBlockIds();
-    Roaring64NavigableMap blockIds = shuffleIdToBlockIds.get(shuffleId);
+    BlockIdSet blockIds = shuffleIdToBlockIds.get(shuffleId);
     if (blockIds == null) {
       LOG.warn(
           "Unexpected value when getCachedBlockIds for appId["
@@ -570,7 +663,7 @@ public class ShuffleTaskManager {
               + "], shuffleId["
               + shuffleId
               + "]");
-      return Roaring64NavigableMap.bitmapOf();
+      return new HeapBlockIdSet();
     }
     return blockIds;
   }
@@ -599,6 +692,37 @@ public class ShuffleTaskManager {
       List<Integer> partitionIds,
       List<Integer> partitionRequireSizes,
       int requireSize) {
+    List<Integer> splitPartitionIds =
+        checkRequiredPartitions(appId, shuffleId, partitionIds, partitionRequireSizes);
+    return Pair.of(requireBuffer(appId, requireSize), splitPartitionIds);
+  }
+
+  /**
+   * Require buffer like {@link #requireBufferReturnPair}, but the request waits for at most
+   * waitTimeoutMs in the server side when there is no enough memory instead of failing immediately.
+   *
+   * @return the future of (requireId, splitPartitionIds), which is completed exceptionally with
+   *     {@link NoBufferException} if the memory can't be allocated in time
+   */
+  public CompletableFuture<Pair<Long, List<Integer>>> requireBufferAsync(
+      String appId,
+      int shuffleId,
+      List<Integer> partitionIds,
+      List<Integer> partitionRequireSizes,
+      int requireSize,
+      long waitTimeoutMs) {
+    List<Integer> splitPartitionIds =
+        checkRequiredPartitions(appId, shuffleId, partitionIds, partitionRequireSizes);
+    return shuffleBufferManager
+        .requireMemoryAsync(appId, requireSize, waitTimeoutMs)
+        .thenApply(v -> Pair.of(addPreAllocatedBuffer(appId, requireSize), splitPartitionIds));
+  }
+
+  private List<Integer> checkRequiredPartitions(
+      String appId,
+      int shuffleId,
+      List<Integer> partitionIds,
+      List<Integer> partitionRequireSizes) {
     ShuffleTaskInfo shuffleTaskInfo = shuffleTaskInfos.get(appId);
     if (null == shuffleTaskInfo) {
       LOG.error("No such app is registered. appId: {}, shuffleId: {}", appId, shuffleId);
@@ -640,7 +764,7 @@ public class ShuffleTaskManager {
         }
       }
     }
-    return Pair.of(requireBuffer(appId, requireSize), splitPartitionIds);
+    return splitPartitionIds;
   }
 
   @VisibleForTesting
@@ -656,12 +780,11 @@ public class ShuffleTaskManager {
   }
 
   public long requireBuffer(String appId, int requireSize) {
-    if (shuffleBufferManager.requireMemory(requireSize, true)) {
-      long requireId = requireBufferId.incrementAndGet();
-      requireBufferIds.put(
-          requireId,
-          new PreAllocatedBufferInfo(appId, requireId, System.currentTimeMillis(), requireSize));
-      return requireId;
+    // The request doesn't wait, but it goes through the waiting queue so it can't overtake the
+    // waiting requests. The future is always completed when the request doesn't wait.
+    CompletableFuture<Void> future = shuffleBufferManager.requireMemoryAsync(appId, requireSize, 0);
+    if (!future.isCompletedExceptionally()) {
+      return addPreAllocatedBuffer(appId, requireSize);
     } else {
       LOG.warn("Failed to require buffer, require size: {}", requireSize);
       throw new NoBufferException("No Buffer For Regular Partition, requireSize: " + requireSize);
@@ -669,8 +792,17 @@ public class ShuffleTaskManager {
   }
 
   public long requireBuffer(int requireSize) {
-    // appId of EMPTY means the client uses the old version that should be upgraded.
-    return requireBuffer("EMPTY", requireSize);
+    // appId of EMPTY means the client uses the old version that should be upgraded, the requests
+    // of these clients share the same app in the require memory waiting queue.
+    return requireBuffer(RequireMemoryWaitingQueue.DEFAULT_APP_ID, requireSize);
+  }
+
+  private long addPreAllocatedBuffer(String appId, int requireSize) {
+    long requireId = requireBufferId.incrementAndGet();
+    requireBufferIds.put(
+        requireId,
+        new PreAllocatedBufferInfo(appId, requireId, System.currentTimeMillis(), requireSize));
+    return requireId;
   }
 
   public boolean requireMemory(int requireSize, boolean isPreAllocated) {
@@ -685,35 +817,26 @@ public class ShuffleTaskManager {
   public byte[] getFinishedBlockIds(
       String appId, Integer shuffleId, Set<Integer> partitions, BlockIdLayout blockIdLayout)
       throws IOException {
-    refreshAppId(appId);
-    for (int partitionId : partitions) {
-      Map.Entry<Range<Integer>, ShuffleBuffer> entry =
-          shuffleBufferManager.getShuffleBufferEntry(appId, shuffleId, partitionId);
-      if (entry == null) {
-        LOG.error(
-            "The empty shuffle buffer, this should not happen. appId: {}, shuffleId: {}, partition: {}, layout: {}",
-            appId,
-            shuffleId,
-            partitionId,
-            blockIdLayout);
-        continue;
-      }
-      Storage storage =
-          storageManager.selectStorage(
-              new ShuffleDataReadEvent(
-                  appId, shuffleId, partitionId, entry.getKey().lowerEndpoint()));
-      // update shuffle's timestamp that was recently read.
-      if (storage != null) {
-        storage.updateReadMetrics(new StorageReadMetrics(appId, shuffleId));
+    if (shuffleResultCache != null && partitions.size() == 1) {
+      // the serialized block ids of the single partition are served from the cache as they are
+      List<byte[]> result =
+          getFinishedBlockIdsOfPartitions(appId, shuffleId, partitions, blockIdLayout);
+      if (result == null) {
+        return null;
       }
+      return result.isEmpty()
+          ? RssUtils.serializeBitMap(Roaring64NavigableMap.bitmapOf())
+          : result.get(0);
     }
-    Map<Integer, Roaring64NavigableMap[]> shuffleIdToPartitions = partitionsToBlockIds.get(appId);
+    refreshAppId(appId);
+    updateReadMetrics(appId, shuffleId, partitions, blockIdLayout);
+    Map<Integer, BlockIdSet[]> shuffleIdToPartitions = partitionsToBlockIds.get(appId);
     if (shuffleIdToPartitions == null) {
       LOG.warn("Empty blockIds for app: {}. This should not happen", appId);
       return null;
     }
 
-    Roaring64NavigableMap[] blockIds = shuffleIdToPartitions.get(shuffleId);
+    BlockIdSet[] blockIds = shuffleIdToPartitions.get(shuffleId);
     if (blockIds == null) {
       LOG.warn("Empty blockIds for app: {}, shuffleId: {}", appId, shuffleId);
       return new byte[] {};
@@ -736,7 +859,7 @@ public class ShuffleTaskManager {
     Roaring64NavigableMap res = Roaring64NavigableMap.bitmapOf();
     for (Map.Entry<Integer, Set<Integer>> entry : bitmapIndexToPartitions.entrySet()) {
       Set<Integer> requestPartitions = entry.getValue();
-      Roaring64NavigableMap bitmap = blockIds[entry.getKey()];
+      BlockIdSet bitmap = blockIds[entry.getKey()];
       getBlockIdsByPartitionId(requestPartitions, bitmap, res, blockIdLayout);
     }
 
@@ -753,12 +876,140 @@ public class ShuffleTaskManager {
     return RssUtils.serializeBitMap(res);
   }
 
-  // filter the specific partition blockId in the bitmap to the resultBitmap
+  /**
+   * Get the serialized block ids of each requested partition separately, the partitions without
+   * any block id are skipped. The serialized block ids are served from the shuffle result cache if
+   * it's enabled, so they must not be modified.
+   *
+   * @return the serialized Roaring64NavigableMap of each partition, or null if the app is expired
+   */
+  public List<byte[]> getFinishedBlockIdsOfPartitions(
+      String appId, Integer shuffleId, Set<Integer> partitions, BlockIdLayout blockIdLayout)
+      throws IOException {
+    refreshAppId(appId);
+    updateReadMetrics(appId, shuffleId, partitions, blockIdLayout);
+    Map<Integer, BlockIdSet[]> shuffleIdToPartitions = partitionsToBlockIds.get(appId);
+    if (shuffleIdToPartitions == null) {
+      LOG.warn("Empty blockIds for app: {}. This should not happen", appId);
+      return null;
+    }
+
+    BlockIdSet[] blockIds = shuffleIdToPartitions.get(shuffleId);
+    if (blockIds == null) {
+      LOG.warn("Empty blockIds for app: {}, shuffleId: {}", appId, shuffleId);
+      return Collections.emptyList();
+    }
+
+    ShuffleTaskInfo taskInfo = getShuffleTaskInfo(appId);
+    long expectedBlockNumber = 0;
+    Map<Integer, Set<Integer>> bitmapIndexToPartitions = Maps.newHashMap();
+    for (int partitionId : partitions) {
+      bitmapIndexToPartitions
+          .computeIfAbsent(partitionId % blockIds.length, k -> Sets.newHashSet())
+          .add(partitionId);
+      expectedBlockNumber += taskInfo.getBlockNumber(shuffleId, partitionId);
+    }
+
+    List<byte[]> result = new ArrayList<>(partitions.size());
+    long actualBlockNumber = 0;
+    for (Map.Entry<Integer, Set<Integer>> entry : bitmapIndexToPartitions.entrySet()) {
+      BlockIdSet bitmap = blockIds[entry.getKey()];
+      // the same lock as addFinishedBlockIds, the block ids can't be changed before being cached
+      synchronized (bitmap) {
+        Map<Integer, Roaring64NavigableMap> uncachedPartitions = Maps.newHashMap();
+        for (int partitionId : entry.getValue()) {
+          ShuffleResultCache.CachedResult cached =
+              shuffleResultCache == null
+                  ? null
+                  : shuffleResultCache.get(appId, shuffleId, partitionId, blockIdLayout);
+          if (cached == null) {
+            uncachedPartitions.put(partitionId, Roaring64NavigableMap.bitmapOf());
+          } else if (cached.getBlockNum() > 0) {
+            result.add(cached.getSerializedBlockIds());
+            actualBlockNumber += cached.getBlockNum();
+          }
+        }
+        if (uncachedPartitions.isEmpty()) {
+          continue;
+        }
+        // split the block ids of all the uncached partitions in one pass
+        bitmap.forEach(
+            blockId -> {
+              Roaring64NavigableMap partitionBlockIds =
+                  uncachedPartitions.get(blockIdLayout.getPartitionId(blockId));
+              if (partitionBlockIds != null) {
+                partitionBlockIds.addLong(blockId);
+              }
+            });
+        for (Map.Entry<Integer, Roaring64NavigableMap> partition : uncachedPartitions.entrySet()) {
+          Roaring64NavigableMap partitionBlockIds = partition.getValue();
+          partitionBlockIds.runOptimize();
+          byte[] serialized = RssUtils.serializeBitMap(partitionBlockIds);
+          long blockNum = partitionBlockIds.getLongCardinality();
+          if (shuffleResultCache != null) {
+            shuffleResultCache.put(
+                appId, shuffleId, partition.getKey(), blockIdLayout, serialized, blockNum);
+          }
+          if (blockNum > 0) {
+            result.add(serialized);
+            actualBlockNumber += blockNum;
+          }
+        }
+      }
+    }
+
+    if (actualBlockNumber != expectedBlockNumber) {
+      throw new RssException(
+          "Inconsistent block number for partitions: "
+              + partitions
+              + ". Excepted: "
+              + expectedBlockNumber
+              + ", actual: "
+              + actualBlockNumber);
+    }
+    return result;
+  }
+
+  private void updateReadMetrics(
+      String appId, int shuffleId, Set<Integer> partitions, BlockIdLayout blockIdLayout) {
+    for (int partitionId : partitions) {
+      Map.Entry<Range<Integer>, ShuffleBuffer> entry =
+          shuffleBufferManager.getShuffleBufferEntry(appId, shuffleId, partitionId);
+      if (entry == null) {
+        LOG.error(
+            "The empty shuffle buffer, this should not happen. appId: {}, shuffleId: {}, partition: {}, layout: {}",
+            appId,
+            shuffleId,
+            partitionId,
+            blockIdLayout);
+        continue;
+      }
+      Storage storage =
+          storageManager.selectStorage(
+              new ShuffleDataReadEvent(
+                  appId, shuffleId, partitionId, entry.getKey().lowerEndpoint()));
+      // update shuffle's timestamp that was recently read.
+      if (storage != null) {
+        storage.updateReadMetrics(new StorageReadMetrics(appId, shuffleId));
+      }
+    }
+  }
+
   protected Roaring64NavigableMap getBlockIdsByPartitionId(
       Set<Integer> requestPartitions,
       Roaring64NavigableMap bitmap,
       Roaring64NavigableMap resultBitmap,
       BlockIdLayout blockIdLayout) {
+    return getBlockIdsByPartitionId(
+        requestPartitions, new HeapBlockIdSet(bitmap), resultBitmap, blockIdLayout);
+  }
+
+  // filter the specific partition blockId in the bitmap to the resultBitmap
+  protected Roaring64NavigableMap getBlockIdsByPartitionId(
+      Set<Integer> requestPartitions,
+      BlockIdSet bitmap,
+      Roaring64NavigableMap resultBitmap,
+      BlockIdLayout blockIdLayout) {
     bitmap.forEach(
         blockId -> {
           int partitionId = blockIdLayout.getPartitionId(blockId);
@@ -818,6 +1069,55 @@ public class ShuffleTaskManager {
       Integer partitionId,
       int partitionNumPerRange,
       int partitionNum) {
+    return getShuffleIndex(
+        appId, shuffleId, partitionId, partitionNumPerRange, partitionNum, indexCacheEnabled);
+  }
+
+  private ShuffleIndexResult getShuffleIndex(
+      String appId,
+      Integer shuffleId,
+      Integer partitionId,
+      int partitionNumPerRange,
+      int partitionNum,
+      boolean useIndexCache) {
+    ServerReadHandler handler =
+        getServerReadHandler(appId, shuffleId, partitionId, partitionNumPerRange, partitionNum);
+    if (useIndexCache && handler instanceof LocalFileServerReadHandler) {
+      int startPartition =
+          ShuffleStorageUtils.getPartitionRange(partitionId, partitionNumPerRange, partitionNum)[0];
+      return shuffleIndexCache.get(
+          appId, shuffleId, startPartition, (LocalFileServerReadHandler) handler);
+    }
+    return handler.getShuffleIndex();
+  }
+
+  /**
+   * Get the local data file of the partition, so the readers on the same host can read it without
+   * going through the network.
+   *
+   * @return null if the partition isn't stored in the local files
+   */
+  public String getShuffleDataFileName(
+      String appId,
+      Integer shuffleId,
+      Integer partitionId,
+      int partitionNumPerRange,
+      int partitionNum) {
+    ServerReadHandler handler =
+        getServerReadHandler(appId, shuffleId, partitionId, partitionNumPerRange, partitionNum);
+    if (handler instanceof LocalFileServerReadHandler) {
+      String dataFileName = ((LocalFileServerReadHandler) handler).getDataFileName();
+      return dataFileName.isEmpty() ? null : dataFileName;
+    }
+    return null;
+  }
+
+  private ServerReadHandler getServerReadHandler(
+      String appId,
+      Integer shuffleId,
+      Integer partitionId,
+      int partitionNumPerRange,
+      int partitionNum) {
     refreshAppId(appId);
     String storageType = conf.get(RssBaseConf.RSS_STORAGE_TYPE).name();
     CreateShuffleReadHandlerRequest request = new CreateShuffleReadHandlerRequest();
@@ -836,7 +1136,42 @@ public class ShuffleTaskManager {
     if (storage == null) {
       throw new FileNotFoundException("No such data in current storage manager.");
     }
-    return storage.getOrCreateReadHandler(request).getShuffleIndex();
+    return storage.getOrCreateReadHandler(request);
+  }
+
+  /**
+   * Locate the next data segment of the expected tasks' blocks at or after the given offset of
+   * the local data file, so that the reader can be served without fetching the whole index. The
+   * index is always read from the index cache, so only the appended segments are read from the
+   * index file by the following requests.
+   *
+   * @return null if there are no more expected blocks
+   */
+  public ShuffleDataSegment getExpectedShuffleDataSegment(
+      String appId,
+      Integer shuffleId,
+      Integer partitionId,
+      int partitionNumPerRange,
+      int partitionNum,
+      Roaring64NavigableMap expectedTaskIds,
+      int readBufferSize,
+      long fromOffset) {
+    ShuffleIndexResult shuffleIndexResult =
+        getShuffleIndex(appId, shuffleId, partitionId, partitionNumPerRange, partitionNum, true);
+    try {
+      return new LocalOrderSegmentSplitter(expectedTaskIds, readBufferSize)
+          .splitFrom(shuffleIndexResult, fromOffset);
+    } finally {
+      shuffleIndexResult.release();
+    }
+  }
+
+  public ShuffleIndexCache getShuffleIndexCache() {
+    return shuffleIndexCache;
+  }
+
+  public ShuffleResultCache getShuffleResultCache() {
+    return shuffleResultCache;
   }
 
   public void checkResourceStatus() {
@@ -886,7 +1221,8 @@ public class ShuffleTaskManager {
       final ShuffleTaskInfo taskInfo = shuffleTaskInfos.get(appId);
       if (taskInfo != null) {
         for (Integer shuffleId : shuffleIds) {
-          taskInfo.getCachedBlockIds().remove(shuffleId);
+          Optional.ofNullable(taskInfo.getCachedBlockIds().remove(shuffleId))
+              .ifPresent(BlockIdSet::close);
           taskInfo.getCommitCounts().remove(shuffleId);
           taskInfo.getCommitLocks().remove(shuffleId);
         }
@@ -895,7 +1231,7 @@ public class ShuffleTaskManager {
           .ifPresent(
               x -> {
                 for (Integer shuffleId : shuffleIds) {
-                  x.remove(shuffleId);
+                  Optional.ofNullable(x.remove(shuffleId)).ifPresent(this::closeBlockIdSets);
                 }
               });
       shuffleBufferManager.removeBufferByShuffleId(appId, shuffleIds);
@@ -911,6 +1247,13 @@ public class ShuffleTaskManager {
           },
           storageRemoveOperationTimeoutSec,
           operationMsg);
+      shuffleIndexCache.removeShuffles(appId, shuffleIds);
+      if (shuffleResultCache != null) {
+        shuffleResultCache.removeShuffles(appId, shuffleIds);
+      }
+      if (localOrderCompactionManager != null) {
+        localOrderCompactionManager.removeShuffles(appId, shuffleIds);
+      }
       if (shuffleMergeManager != null) {
         shuffleMergeManager.removeBuffer(appId, shuffleIds);
       }
@@ -975,7 +1318,9 @@ public class ShuffleTaskManager {
       partitionInfoSummary.append("The app task info: ").append(shuffleTaskInfo);
       LOG.info("Removing app summary info: {}", partitionInfoSummary);
 
-      partitionsToBlockIds.remove(appId);
+      Optional.ofNullable(partitionsToBlockIds.remove(appId))
+          .ifPresent(x -> x.values().forEach(this::closeBlockIdSets));
+      shuffleTaskInfo.getCachedBlockIds().values().forEach(BlockIdSet::close);
       shuffleBufferManager.removeBuffer(appId);
       shuffleFlushManager.removeResources(appId);
 
@@ -992,6 +1337,13 @@ public class ShuffleTaskManager {
           },
           storageRemoveOperationTimeoutSec,
           operationMsg);
+      shuffleIndexCache.removeApp(appId);
+      if (shuffleResultCache != null) {
+        shuffleResultCache.removeApp(appId);
+      }
+      if (localOrderCompactionManager != null) {
+        localOrderCompactionManager.removeApp(appId);
+      }
       if (shuffleMergeManager != null) {
         shuffleMergeManager.removeBuffer(appId);
       }
@@ -1032,6 +1384,12 @@ public class ShuffleTaskManager {
     }
   }
 
+  private void closeBlockIdSets(BlockIdSet[] blockIdSets) {
+    for (BlockIdSet blockIdSet : blockIdSets) {
+      blockIdSet.close();
+    }
+  }
+
   public void refreshAppId(String appId) {
     shuffleTaskInfos
         .computeIfAbsent(
@@ -1096,7 +1454,7 @@ public class ShuffleTaskManager {
   }
 
   @VisibleForTesting
-  public Map<String, Map<Integer, Roaring64NavigableMap[]>> getPartitionsToBlockIds() {
+  public Map<String, Map<Integer, BlockIdSet[]>> getPartitionsToBlockIds() {
     return partitionsToBlockIds;
   }
 
@@ -1135,6 +1493,9 @@ public class ShuffleTaskManager {
 
   public void stop() {
     topNShuffleDataSizeOfAppCalcTask.stop();
+    if (localOrderCompactionManager != null) {
+      localOrderCompactionManager.stop();
+    }
   }
 
   public void start() {
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * The in-memory cache of the data of the shuffle partitions, bounded by the total weight of the
+ * cached values. The entries are removed together with their shuffles and apps.
+ */
+class WeightedPartitionCache<V> {
+
+  private final Cache<PartitionKey, V> cache;
+  private final ToIntFunction<V> weigher;
+  private final AtomicLong cachedSize = new AtomicLong(0);
+
+  WeightedPartitionCache(long capacity, ToIntFunction<V> weigher, Runnable onEviction) {
+    this.weigher = weigher;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(capacity)
+            .weigher((PartitionKey key, V value) -> weigher.applyAsInt(value))
+            .removalListener(
+                notification -> {
+                  cachedSize.addAndGet(-weigher.applyAsInt(notification.getValue()));
+                  if (notification.wasEvicted()) {
+                    onEviction.run();
+                  }
+                })
+            .build();
+  }
+
+  V get(String appId, int shuffleId, int partitionId) {
+    return cache.getIfPresent(new PartitionKey(appId, shuffleId, partitionId));
+  }
+
+  void put(String appId, int shuffleId, int partitionId, V value) {
+    cachedSize.addAndGet(weigher.applyAsInt(value));
+    cache.put(new PartitionKey(appId, shuffleId, partitionId), value);
+  }
+
+  /** Replace the value only if it's still cached, it's not cached again if it has been removed. */
+  boolean replace(String appId, int shuffleId, int partitionId, V oldValue, V newValue) {
+    PartitionKey key = new PartitionKey(appId, shuffleId, partitionId);
+    cachedSize.addAndGet(weigher.applyAsInt(newValue));
+    if (cache.asMap().replace(key, oldValue, newValue)) {
+      return true;
+    }
+    cachedSize.addAndGet(-weigher.applyAsInt(newValue));
+    return false;
+  }
+
+  /** Remove the value only if it's still cached. */
+  void remove(String appId, int shuffleId, int partitionId, V value) {
+    cache.asMap().remove(new PartitionKey(appId, shuffleId, partitionId), value);
+  }
+
+  void invalidate(String appId, int shuffleId, int partitionId) {
+    cache.invalidate(new PartitionKey(appId, shuffleId, partitionId));
+  }
+
+  void removeApp(String appId) {
+    cache.asMap().keySet().removeIf(key -> key.appId.equals(appId));
+  }
+
+  void removeShuffles(String appId, Collection<Integer> shuffleIds) {
+    cache
+        .asMap()
+        .keySet()
+        .removeIf(key -> key.appId.equals(appId) && shuffleIds.contains(key.shuffleId));
+  }
+
+  long getCachedSize() {
+    return cachedSize.get();
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  private static class PartitionKey {
+    private final String appId;
+    private final int shuffleId;
+    private final int partitionId;
+
+    PartitionKey(String appId, int shuffleId, int partitionId) {
+      this.appId = appId;
+      this.shuffleId = shuffleId;
+      this.partitionId = partitionId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PartitionKey)) {
+        return false;
+      }
+      PartitionKey that = (PartitionKey) o;
+      return shuffleId == that.shuffleId
+          && partitionId == that.partitionId
+          && appId.equals(that.appId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(appId, shuffleId, partitionId);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.block;
+
+import java.io.Closeable;
+import java.util.function.LongConsumer;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import org.apache.uniffle.server.ShuffleServerConf;
+
+/**
+ * The set of block ids tracked by the shuffle server for an app, e.g. the reported, cached and
+ * committed block ids. The implementations are thread safe, and the set must be closed once the
+ * shuffle or the app is removed to release its memory.
+ */
+public interface BlockIdSet extends Closeable {
+
+  static BlockIdSet create(ShuffleServerConf conf) {
+    BlockIdSetType type = conf.get(ShuffleServerConf.SERVER_BLOCK_ID_SET_TYPE);
+    switch (type) {
+      case HEAP:
+        return new HeapBlockIdSet();
+      case OFF_HEAP:
+        return new OffHeapBlockIdSet(
+            conf.get(ShuffleServerConf.SERVER_BLOCK_ID_SET_OFF_HEAP_DELTA_THRESHOLD));
+      default:
+        throw new IllegalArgumentException("Unsupported block id set type: " + type);
+    }
+  }
+
+  void add(long blockId);
+
+  /**
+   * Adds the block ids of the bitmap in bulk.
+   *
+   * @return the number of the block ids not in the set before
+   */
+  long addAll(Roaring64NavigableMap blockIds);
+
+  boolean contains(long blockId);
+
+  long getLongCardinality();
+
+  default int getIntCardinality() {
+    return (int) getLongCardinality();
+  }
+
+  default boolean isEmpty() {
+    return getLongCardinality() == 0;
+  }
+
+  void forEach(LongConsumer consumer);
+
+  /** Returns a copy of the block ids on the heap. */
+  Roaring64NavigableMap toBitmap();
+
+  @Override
+  void close();
+}
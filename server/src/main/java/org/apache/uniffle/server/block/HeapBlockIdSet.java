@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.block;
+
+import java.util.function.LongConsumer;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import org.apache.uniffle.common.util.RssUtils;
+
+/** The {@link BlockIdSet} keeping the block ids in a {@link Roaring64NavigableMap} on the heap. */
+public class HeapBlockIdSet implements BlockIdSet {
+
+  private final Roaring64NavigableMap bitmap;
+
+  public HeapBlockIdSet() {
+    this(Roaring64NavigableMap.bitmapOf());
+  }
+
+  public HeapBlockIdSet(Roaring64NavigableMap bitmap) {
+    this.bitmap = bitmap;
+  }
+
+  @Override
+  public synchronized void add(long blockId) {
+    bitmap.addLong(blockId);
+  }
+
+  @Override
+  public synchronized long addAll(Roaring64NavigableMap blockIds) {
+    long cardinality = bitmap.getLongCardinality();
+    bitmap.or(blockIds);
+    return bitmap.getLongCardinality() - cardinality;
+  }
+
+  @Override
+  public synchronized boolean contains(long blockId) {
+    return bitmap.contains(blockId);
+  }
+
+  @Override
+  public synchronized long getLongCardinality() {
+    return bitmap.getLongCardinality();
+  }
+
+  @Override
+  public synchronized void forEach(LongConsumer consumer) {
+    bitmap.forEach(consumer::accept);
+  }
+
+  @Override
+  public synchronized Roaring64NavigableMap toBitmap() {
+    return RssUtils.cloneBitMap(bitmap);
+  }
+
+  @Override
+  public synchronized void close() {
+    bitmap.clear();
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.block;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+/**
+ * The {@link BlockIdSet} keeping the block ids in Roaring bitmaps serialized in the direct memory,
+ * so the block ids of the apps with huge number of blocks don't stay in the old generation of the
+ * heap.
+ *
+ * <p>The block ids are split by the high 32 bits like {@link Roaring64NavigableMap}, and the low 32
+ * bits of each split are kept in the immutable runs of {@link ImmutableRoaringBitmap} mapped on
+ * direct buffers. The newly added block ids are kept in the small delta bitmaps on the heap first,
+ * and written as a new run when the delta exceeds the threshold. Like a log-structured merge tree,
+ * the new run is merged with the latest runs which are not larger than it, so the runs of a split
+ * double in size from the latest to the oldest. Each block id is rewritten O(log(n / threshold))
+ * times, there are O(log(n / threshold)) runs to check in {@link #contains(long)}, and only the
+ * merge of the largest runs puts a bitmap as large as the split on the heap. The runs and the
+ * delta never overlap, so they are read without merging.
+ *
+ * <p>The direct buffers are released explicitly by {@link #close()}, the set is empty after that.
+ */
+public class OffHeapBlockIdSet implements BlockIdSet {
+
+  private static final AtomicLong TOTAL_OFF_HEAP_SIZE = new AtomicLong(0L);
+
+  private final int deltaThreshold;
+  // high 32 bits -> runs of the low 32 bits of the block ids in the direct memory, oldest first
+  private final Map<Integer, List<OffHeapBitmap>> bitmaps = new TreeMap<>();
+  // high 32 bits -> low 32 bits of the block ids not merged yet, they are not in the bitmaps
+  private final Map<Integer, MutableRoaringBitmap> deltaBitmaps = new TreeMap<>();
+  private long cardinality = 0L;
+  private int deltaCardinality = 0;
+  private long offHeapSize = 0L;
+  private boolean closed = false;
+
+  public OffHeapBlockIdSet(int deltaThreshold) {
+    this.deltaThreshold = deltaThreshold;
+  }
+
+  /** Returns the direct memory used by all the off-heap block id sets. */
+  public static long getTotalOffHeapSize() {
+    return TOTAL_OFF_HEAP_SIZE.get();
+  }
+
+  @Override
+  public synchronized void add(long blockId) {
+    if (closed || contains(blockId)) {
+      return;
+    }
+    deltaBitmaps.computeIfAbsent(high(blockId), k -> new MutableRoaringBitmap()).add(low(blockId));
+    cardinality++;
+    deltaCardinality++;
+    if (deltaCardinality >= deltaThreshold) {
+      mergeDelta();
+    }
+  }
+
+  @Override
+  public synchronized long addAll(Roaring64NavigableMap blockIds) {
+    if (closed) {
+      return 0L;
+    }
+    long added = 0L;
+    LongIterator iterator = blockIds.getLongIterator();
+    while (iterator.hasNext()) {
+      long blockId = iterator.next();
+      if (contains(blockId)) {
+        continue;
+      }
+      deltaBitmaps
+          .computeIfAbsent(high(blockId), k -> new MutableRoaringBitmap())
+          .add(low(blockId));
+      added++;
+    }
+    cardinality += added;
+    deltaCardinality += added;
+    // merge once after the whole bitmap is added, rather than splitting it into the delta batches
+    if (deltaCardinality >= deltaThreshold) {
+      mergeDelta();
+    }
+    return added;
+  }
+
+  @Override
+  public synchronized boolean contains(long blockId) {
+    int high = high(blockId);
+    int low = low(blockId);
+    MutableRoaringBitmap delta = deltaBitmaps.get(high);
+    if (delta != null && delta.contains(low)) {
+      return true;
+    }
+    List<OffHeapBitmap> runs = bitmaps.get(high);
+    if (runs == null) {
+      return false;
+    }
+    // the latest runs are the smallest ones
+    for (int i = runs.size() - 1; i >= 0; i--) {
+      if (runs.get(i).bitmap.contains(low)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized long getLongCardinality() {
+    return cardinality;
+  }
+
+  @Override
+  public synchronized void forEach(LongConsumer consumer) {
+    for (Map.Entry<Integer, List<OffHeapBitmap>> entry : bitmaps.entrySet()) {
+      long high = ((long) entry.getKey()) << 32;
+      for (OffHeapBitmap run : entry.getValue()) {
+        run.bitmap.forEach((int low) -> consumer.accept(high | (low & 0xFFFFFFFFL)));
+      }
+    }
+    for (Map.Entry<Integer, MutableRoaringBitmap> entry : deltaBitmaps.entrySet()) {
+      long high = ((long) entry.getKey()) << 32;
+      entry.getValue().forEach((int low) -> consumer.accept(high | (low & 0xFFFFFFFFL)));
+    }
+  }
+
+  @Override
+  public synchronized Roaring64NavigableMap toBitmap() {
+    Roaring64NavigableMap result = Roaring64NavigableMap.bitmapOf();
+    forEach(result::addLong);
+    return result;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    bitmaps.values().forEach(runs -> runs.forEach(OffHeapBitmap::release));
+    bitmaps.clear();
+    deltaBitmaps.clear();
+    TOTAL_OFF_HEAP_SIZE.addAndGet(-offHeapSize);
+    offHeapSize = 0L;
+    cardinality = 0L;
+    deltaCardinality = 0;
+  }
+
+  synchronized long getOffHeapSize() {
+    return offHeapSize;
+  }
+
+  /** Returns the heap memory used by the block ids not merged into the direct memory yet. */
+  synchronized long getDeltaHeapSize() {
+    return deltaBitmaps.values().stream().mapToLong(MutableRoaringBitmap::getLongSizeInBytes).sum();
+  }
+
+  synchronized int getRunNum(int high) {
+    List<OffHeapBitmap> runs = bitmaps.get(high);
+    return runs == null ? 0 : runs.size();
+  }
+
+  private void mergeDelta() {
+    if (deltaCardinality == 0) {
+      return;
+    }
+    for (Map.Entry<Integer, MutableRoaringBitmap> entry : deltaBitmaps.entrySet()) {
+      List<OffHeapBitmap> runs = bitmaps.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
+      MutableRoaringBitmap merged = entry.getValue();
+      long delta = 0L;
+      // merge the latest runs not larger than the new run
+      while (!runs.isEmpty()
+          && runs.get(runs.size() - 1).bitmap.getLongCardinality() <= merged.getLongCardinality()) {
+        OffHeapBitmap run = runs.remove(runs.size() - 1);
+        merged = ImmutableRoaringBitmap.or(run.bitmap, merged);
+        delta -= run.size();
+        run.release();
+      }
+      merged.runOptimize();
+      OffHeapBitmap bitmap = new OffHeapBitmap(merged);
+      runs.add(bitmap);
+      delta += bitmap.size();
+      offHeapSize += delta;
+      TOTAL_OFF_HEAP_SIZE.addAndGet(delta);
+    }
+    deltaBitmaps.clear();
+    deltaCardinality = 0;
+  }
+
+  private static int high(long blockId) {
+    return (int) (blockId >>> 32);
+  }
+
+  private static int low(long blockId) {
+    return (int) blockId;
+  }
+
+  private static class OffHeapBitmap {
+    private final ByteBuf buffer;
+    private final ImmutableRoaringBitmap bitmap;
+
+    OffHeapBitmap(MutableRoaringBitmap source) {
+      int size = source.serializedSizeInBytes();
+      buffer = Unpooled.directBuffer(size, size);
+      source.serialize(buffer.nioBuffer(0, size));
+      buffer.writerIndex(size);
+      bitmap = new ImmutableRoaringBitmap(buffer.nioBuffer(0, size));
+    }
+
+    int size() {
+      return buffer.capacity();
+    }
+
+    void release() {
+      buffer.release();
+    }
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.buffer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.common.exception.NoBufferException;
+import org.apache.uniffle.common.util.ThreadUtils;
+import org.apache.uniffle.server.ShuffleServerConf;
+import org.apache.uniffle.server.ShuffleServerMetrics;
+
+/**
+ * The require buffer requests which can't get memory immediately wait in this queue instead of
+ * failing and being retried by the client after a sleep. The memory released by the flush is
+ * granted to the waiting requests in time.
+ *
+ * <p>To avoid the app with the most concurrent writers taking all the released memory, the apps are
+ * served in the order of the bytes they have been granted while waiting (byte-weighted fair
+ * queuing), and the requests of the same app are served in FIFO order. An app which becomes active
+ * again can't use the time it was idle as credit. The requests which can't get memory before their
+ * deadlines fail with {@link NoBufferException}.
+ *
+ * <p>The requests which don't wait go through this queue too, so they can't overtake the waiting
+ * ones. The requests of the old clients without app id are queued as the app {@link
+ * #DEFAULT_APP_ID}.
+ */
+public class RequireMemoryWaitingQueue {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RequireMemoryWaitingQueue.class);
+
+  public static final String DEFAULT_APP_ID = "EMPTY";
+
+  private final Function<Long, Boolean> memoryAllocator;
+  private final long maxWaitTimeoutMs;
+  private final int capacity;
+  // appId -> waiting requests of the app, kept until the app is removed, guarded by this
+  private final Map<String, AppWaiters> appWaiters = new HashMap<>();
+  private int waitingNum = 0;
+  // the virtual time of the last granted request, guarded by this
+  private long virtualTime = 0;
+  private final long checkIntervalMs;
+  private final AtomicBoolean grantScheduled = new AtomicBoolean(false);
+  // started when the first request waits, guarded by this
+  private volatile ScheduledExecutorService executor;
+  private boolean stopped = false;
+
+  public RequireMemoryWaitingQueue(
+      ShuffleServerConf conf, Function<Long, Boolean> memoryAllocator) {
+    this.memoryAllocator = memoryAllocator;
+    this.maxWaitTimeoutMs = conf.get(ShuffleServerConf.SERVER_REQUIRE_BUFFER_MAX_WAIT_TIMEOUT_MS);
+    this.capacity = conf.get(ShuffleServerConf.SERVER_REQUIRE_BUFFER_WAITING_QUEUE_CAPACITY);
+    this.checkIntervalMs =
+        conf.get(ShuffleServerConf.SERVER_REQUIRE_BUFFER_WAITING_QUEUE_CHECK_INTERVAL_MS);
+  }
+
+  /**
+   * Require the memory, wait for at most {@code waitTimeoutMs} if there is no enough memory.
+   *
+   * @return the future which is completed once the memory is allocated, or completed exceptionally
+   *     with {@link NoBufferException} if it can't be allocated in time
+   */
+  public CompletableFuture<Void> require(String appId, long size, long waitTimeoutMs) {
+    long timeoutMs = Math.min(waitTimeoutMs, maxWaitTimeoutMs);
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    synchronized (this) {
+      // The new request can't overtake the waiting ones
+      if (waitingNum == 0 && memoryAllocator.apply(size)) {
+        future.complete(null);
+        return future;
+      }
+      if (timeoutMs <= 0 || waitingNum >= capacity || stopped) {
+        future.completeExceptionally(
+            new NoBufferException(
+                "No Buffer For Regular Partition, requireSize: "
+                    + size
+                    + ", waiting requests: "
+                    + waitingNum));
+        return future;
+      }
+      AppWaiters waiters = appWaiters.computeIfAbsent(appId, k -> new AppWaiters());
+      if (waiters.requests.isEmpty()) {
+        waiters.virtualTime = Math.max(waiters.virtualTime, virtualTime);
+      }
+      long now = System.currentTimeMillis();
+      waiters.requests.add(new Waiter(appId, future, size, now, now + timeoutMs));
+      waitingNum++;
+      ShuffleServerMetrics.gaugeRequireBufferWaitingNum.set(waitingNum);
+      if (executor == null) {
+        executor = ThreadUtils.getDaemonSingleThreadScheduledExecutor("requireMemoryWaitingQueue");
+        executor.scheduleAtFixedRate(
+            this::checkWaiters, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+      }
+    }
+    return future;
+  }
+
+  /** Notify the queue that some memory has been released, it's cheap and never blocks. */
+  public void onMemoryReleased() {
+    ScheduledExecutorService executor = this.executor;
+    // no request has ever waited
+    if (executor == null) {
+      return;
+    }
+    if (grantScheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(
+            () -> {
+              grantScheduled.set(false);
+              grant();
+            });
+      } catch (Exception e) {
+        grantScheduled.set(false);
+        LOG.warn("Failed to schedule granting memory to the waiting requests", e);
+      }
+    }
+  }
+
+  /** Fail all the waiting requests of the removed app. */
+  public void removeApp(String appId) {
+    AppWaiters waiters;
+    synchronized (this) {
+      waiters = appWaiters.remove(appId);
+      if (waiters == null) {
+        return;
+      }
+      waitingNum -= waiters.requests.size();
+      ShuffleServerMetrics.gaugeRequireBufferWaitingNum.set(waitingNum);
+    }
+    for (Waiter waiter : waiters.requests) {
+      waiter.future.completeExceptionally(
+          new NoBufferException("App " + appId + " is removed when requiring buffer"));
+    }
+  }
+
+  public synchronized int getWaitingNum() {
+    return waitingNum;
+  }
+
+  /** Stop the scheduler and fail all the waiting requests. */
+  public void stop() {
+    List<Waiter> waiting = new ArrayList<>();
+    synchronized (this) {
+      stopped = true;
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+      appWaiters.values().forEach(waiters -> waiting.addAll(waiters.requests));
+      appWaiters.clear();
+      waitingNum = 0;
+      ShuffleServerMetrics.gaugeRequireBufferWaitingNum.set(waitingNum);
+    }
+    for (Waiter waiter : waiting) {
+      waiter.future.completeExceptionally(
+          new NoBufferException("The shuffle server is stopped when requiring buffer"));
+    }
+  }
+
+  private void checkWaiters() {
+    try {
+      expire();
+      grant();
+    } catch (Throwable t) {
+      LOG.warn("Error happened when checking the waiting require buffer requests", t);
+    }
+  }
+
+  @VisibleForTesting
+  void grant() {
+    List<Waiter> granted = new ArrayList<>();
+    synchronized (this) {
+      while (waitingNum > 0) {
+        AppWaiters waiters = null;
+        for (AppWaiters candidate : appWaiters.values()) {
+          if (!candidate.requests.isEmpty()
+              && (waiters == null || candidate.virtualTime < waiters.virtualTime)) {
+            waiters = candidate;
+          }
+        }
+        Waiter waiter = waiters.requests.peekFirst();
+        if (!memoryAllocator.apply(waiter.size)) {
+          break;
+        }
+        waiters.requests.pollFirst();
+        waitingNum--;
+        virtualTime = waiters.virtualTime;
+        waiters.virtualTime += waiter.size;
+        granted.add(waiter);
+      }
+      ShuffleServerMetrics.gaugeRequireBufferWaitingNum.set(waitingNum);
+    }
+    long now = System.currentTimeMillis();
+    for (Waiter waiter : granted) {
+      ShuffleServerMetrics.appHistogramRequireBufferWaitTime
+          .labels(waiter.appId)
+          .observe((now - waiter.startTime) / 1000.0);
+      waiter.future.complete(null);
+    }
+  }
+
+  @VisibleForTesting
+  void expire() {
+    List<Waiter> expired = new ArrayList<>();
+    long now = System.currentTimeMillis();
+    synchronized (this) {
+      for (AppWaiters waiters : appWaiters.values()) {
+        Iterator<Waiter> iterator = waiters.requests.iterator();
+        while (iterator.hasNext()) {
+          Waiter waiter = iterator.next();
+          if (waiter.deadline <= now) {
+            iterator.remove();
+            expired.add(waiter);
+          }
+        }
+      }
+      waitingNum -= expired.size();
+      ShuffleServerMetrics.gaugeRequireBufferWaitingNum.set(waitingNum);
+    }
+    for (Waiter waiter : expired) {
+      ShuffleServerMetrics.counterTotalRequireBufferWaitTimeout.inc();
+      ShuffleServerMetrics.appHistogramRequireBufferWaitTime
+          .labels(waiter.appId)
+          .observe((now - waiter.startTime) / 1000.0);
+      waiter.future.completeExceptionally(
+          new NoBufferException(
+              "No Buffer For Regular Partition after waiting "
+                  + (now - waiter.startTime)
+                  + "ms, requireSize: "
+                  + waiter.size));
+    }
+  }
+
+  private static class AppWaiters {
+    private final Deque<Waiter> requests = new ArrayDeque<>();
+    // the bytes granted to the app, shifted to the global virtual time when the app becomes active
+    private long virtualTime;
+  }
+
+  private static class Waiter {
+    private final String appId;
+    private final CompletableFuture<Void> future;
+    private final long size;
+    private final long startTime;
+    private final long deadline;
+
+    Waiter(String appId, CompletableFuture<Void> future, long size, long startTime, long deadline) {
+      this.appId = appId;
+      this.future = future;
+      this.size = size;
+      this.startTime = startTime;
+      this.deadline = deadline;
+    }
+  }
+}
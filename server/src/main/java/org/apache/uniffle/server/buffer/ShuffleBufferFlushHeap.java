@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.buffer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An indexed max-heap of the partition buffers holding the data not flushed yet, ordered by the
+ * buffered size desc and then by the time of the oldest buffered data asc. Every node remembers
+ * its position in the heap, so the size of a buffer can be updated in O(log n) when data is
+ * appended or flushed without rebuilding the whole candidate list. No other lock is acquired while
+ * holding the lock of the heap, so it's safe to be called under the app lock of the shuffle.
+ */
+class ShuffleBufferFlushHeap {
+
+  static final class Node {
+    final String appId;
+    final int shuffleId;
+    final int startPartition;
+    final int endPartition;
+    final ShuffleBuffer buffer;
+    final long createTime;
+    long size;
+    int index;
+
+    Node(
+        String appId,
+        int shuffleId,
+        int startPartition,
+        int endPartition,
+        ShuffleBuffer buffer,
+        long createTime) {
+      this.appId = appId;
+      this.shuffleId = shuffleId;
+      this.startPartition = startPartition;
+      this.endPartition = endPartition;
+      this.buffer = buffer;
+      this.createTime = createTime;
+    }
+  }
+
+  private final List<Node> heap = new ArrayList<>();
+  // the buffers are compared by identity, the nodes are kept in the order of their create time
+  private final Map<ShuffleBuffer, Node> nodes = new LinkedHashMap<>();
+
+  /**
+   * Update the size of the buffer, the buffer is added when it becomes non-empty and removed when
+   * it becomes empty.
+   */
+  synchronized void update(
+      String appId,
+      int shuffleId,
+      int startPartition,
+      int endPartition,
+      ShuffleBuffer buffer,
+      long size) {
+    Node node = nodes.get(buffer);
+    if (size <= 0) {
+      if (node != null) {
+        removeNode(node);
+      }
+      return;
+    }
+    if (node == null) {
+      node =
+          new Node(
+              appId,
+              shuffleId,
+              startPartition,
+              endPartition,
+              buffer,
+              System.currentTimeMillis());
+      node.size = size;
+      node.index = heap.size();
+      heap.add(node);
+      nodes.put(buffer, node);
+      siftUp(node.index);
+      return;
+    }
+    long oldSize = node.size;
+    node.size = size;
+    if (size > oldSize) {
+      siftUp(node.index);
+    } else if (size < oldSize) {
+      siftDown(node.index);
+    }
+  }
+
+  synchronized void remove(ShuffleBuffer buffer) {
+    Node node = nodes.get(buffer);
+    if (node != null) {
+      removeNode(node);
+    }
+  }
+
+  synchronized Node peek() {
+    return heap.isEmpty() ? null : heap.get(0);
+  }
+
+  /** Get the node of the buffer holding the oldest data, regardless of its size. */
+  synchronized Node peekOldest() {
+    return nodes.isEmpty() ? null : nodes.values().iterator().next();
+  }
+
+  synchronized Node poll() {
+    Node node = peek();
+    if (node != null) {
+      removeNode(node);
+    }
+    return node;
+  }
+
+  synchronized int size() {
+    return heap.size();
+  }
+
+  private void removeNode(Node node) {
+    nodes.remove(node.buffer);
+    int index = node.index;
+    Node last = heap.remove(heap.size() - 1);
+    if (last != node) {
+      heap.set(index, last);
+      last.index = index;
+      siftDown(index);
+      siftUp(last.index);
+    }
+  }
+
+  // whether node a should be flushed before node b
+  private static boolean higher(Node a, Node b) {
+    if (a.size != b.size) {
+      return a.size > b.size;
+    }
+    return a.createTime < b.createTime;
+  }
+
+  private void siftUp(int index) {
+    Node node = heap.get(index);
+    while (index > 0) {
+      int parentIndex = (index - 1) >>> 1;
+      Node parent = heap.get(parentIndex);
+      if (!higher(node, parent)) {
+        break;
+      }
+      heap.set(index, parent);
+      parent.index = index;
+      index = parentIndex;
+    }
+    heap.set(index, node);
+    node.index = index;
+  }
+
+  private void siftDown(int index) {
+    Node node = heap.get(index);
+    int half = heap.size() >>> 1;
+    while (index < half) {
+      int childIndex = (index << 1) + 1;
+      Node child = heap.get(childIndex);
+      int rightIndex = childIndex + 1;
+      if (rightIndex < heap.size() && higher(heap.get(rightIndex), child)) {
+        childIndex = rightIndex;
+        child = heap.get(childIndex);
+      }
+      if (!higher(child, node)) {
+        break;
+      }
+      heap.set(index, child);
+      child.index = index;
+      index = childIndex;
+    }
+    heap.set(index, node);
+    node.index = index;
+  }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -78,6 +79,12 @@ public class ShuffleBufferManager {
   // kept in memory to
   // reduce small I/Os to persistent storage, especially for local HDDs.
   private long shuffleFlushThreshold;
+  // pick the single partition buffers instead of the whole shuffles to flush, the buffers smaller
+  // than bufferFlushMinSize are kept in memory like the small shuffles above
+  private final boolean partitionGranularFlushEnabled;
+  private final long bufferFlushMinSize;
+  private final long bufferFlushMaxAgeMs;
+  private final ShuffleBufferFlushHeap flushHeap = new ShuffleBufferFlushHeap();
   // Huge partition vars
   private ReconfigurableConfManager.Reconfigurable<Long> hugePartitionSizeThresholdRef;
   private ReconfigurableConfManager.Reconfigurable<Long> hugePartitionSizeHardLimitRef;
@@ -92,6 +99,7 @@ public class ShuffleBufferManager {
   // appId -> shuffleId -> shuffle size in buffer
   protected Map<String, Map<Integer, AtomicLong>> shuffleSizeMap = JavaUtils.newConcurrentMap();
   private final boolean appBlockSizeMetricEnabled;
+  private final RequireMemoryWaitingQueue requireMemoryWaitingQueue;
 
   public ShuffleBufferManager(
       ShuffleServerConf conf, ShuffleFlushManager shuffleFlushManager, boolean nettyServerEnabled) {
@@ -138,6 +146,10 @@ public class ShuffleBufferManager {
         conf.getInteger(ShuffleServerConf.SINGLE_BUFFER_FLUSH_BLOCKS_NUM_THRESHOLD);
     this.shuffleFlushThreshold =
         conf.getSizeAsBytes(ShuffleServerConf.SERVER_SHUFFLE_FLUSH_THRESHOLD);
+    this.partitionGranularFlushEnabled =
+        conf.getBoolean(ShuffleServerConf.SERVER_BUFFER_FLUSH_PARTITION_GRANULAR_ENABLED);
+    this.bufferFlushMinSize = conf.getSizeAsBytes(ShuffleServerConf.SERVER_BUFFER_FLUSH_MIN_SIZE);
+    this.bufferFlushMaxAgeMs = conf.get(ShuffleServerConf.SERVER_BUFFER_FLUSH_MAX_AGE_MS);
     this.hugePartitionSizeThresholdRef =
         conf.getReconfigurableConf(ShuffleServerConf.HUGE_PARTITION_SIZE_THRESHOLD);
     this.hugePartitionSizeHardLimitRef =
@@ -150,6 +162,8 @@ public class ShuffleBufferManager {
     appBlockSizeMetricEnabled =
         conf.getBoolean(ShuffleServerConf.APP_LEVEL_SHUFFLE_BLOCK_SIZE_METRIC_ENABLED);
     shuffleBufferType = conf.get(ShuffleServerConf.SERVER_SHUFFLE_BUFFER_TYPE);
+    requireMemoryWaitingQueue =
+        new RequireMemoryWaitingQueue(conf, size -> requireMemory(size, true));
 
     ShuffleServerMetrics.addLabeledCacheGauge(
         BLOCK_COUNT_IN_BUFFER_POOL,
@@ -283,6 +297,12 @@ public class ShuffleBufferManager {
         spd.getPartitionId());
     updateShuffleSize(appId, shuffleId, size);
     synchronized (this) {
+      updateFlushHeap(
+          buffer,
+          appId,
+          shuffleId,
+          entry.getKey().lowerEndpoint(),
+          entry.getKey().upperEndpoint());
       flushSingleBufferIfNecessary(
           buffer,
           appId,
@@ -381,8 +401,24 @@ public class ShuffleBufferManager {
           usedMemory.get(),
           preAllocatedSize.get(),
           inFlushSize.get());
-      Map<String, Set<Integer>> pickedShuffle = pickFlushedShuffle();
-      flush(pickedShuffle);
+      if (partitionGranularFlushEnabled) {
+        flushPartitions();
+      } else {
+        Map<String, Set<Integer>> pickedShuffle = pickFlushedShuffle();
+        flush(pickedShuffle);
+      }
+    }
+  }
+
+  private void updateFlushHeap(
+      ShuffleBuffer buffer, String appId, int shuffleId, int startPartition, int endPartition) {
+    if (partitionGranularFlushEnabled) {
+      // the size is read and updated under the lock of the buffer, otherwise a stale size read
+      // by a flush could overwrite the size updated by a concurrent append
+      synchronized (buffer) {
+        flushHeap.update(
+            appId, shuffleId, startPartition, endPartition, buffer, buffer.getEncodedLength());
+      }
     }
   }
 
@@ -435,14 +471,18 @@ public class ShuffleBufferManager {
           event.markOwnedByHugePartition();
         }
         ShuffleServerMetrics.gaugeInFlushBufferSize.set(inFlushSize.get());
+        ShuffleServerMetrics.histogramFlushedBufferSize.observe(event.getEncodedLength());
         shuffleFlushManager.addToFlushQueue(event);
       }
+      updateFlushHeap(buffer, appId, shuffleId, startPartition, endPartition);
     } finally {
       readLock.unlock();
     }
   }
 
   public void removeBuffer(String appId) {
+    requireMemoryWaitingQueue.removeApp(appId);
+    ShuffleServerMetrics.appHistogramRequireBufferWaitTime.remove(appId);
     Map<Integer, RangeMap<Integer, ShuffleBuffer>> shuffleIdToBuffers = bufferPool.get(appId);
     if (shuffleIdToBuffers == null) {
       return;
@@ -498,6 +538,14 @@ public class ShuffleBufferManager {
     return false;
   }
 
+  /**
+   * Require the pre-allocated memory, the request waits in the {@link RequireMemoryWaitingQueue}
+   * for at most {@code waitTimeoutMs} when there is no enough memory.
+   */
+  public CompletableFuture<Void> requireMemoryAsync(String appId, long size, long waitTimeoutMs) {
+    return requireMemoryWaitingQueue.require(appId, size, waitTimeoutMs);
+  }
+
   public void releaseMemory(
       long size, boolean isReleaseFlushMemory, boolean isReleasePreAllocation) {
     if (usedMemory.get() >= size) {
@@ -521,6 +569,7 @@ public class ShuffleBufferManager {
     if (isReleasePreAllocation) {
       releasePreAllocatedSize(size);
     }
+    requireMemoryWaitingQueue.onMemoryReleased();
   }
 
   private void releaseFlushMemory(long size) {
@@ -626,6 +675,55 @@ public class ShuffleBufferManager {
     }
   }
 
+  // Flush the biggest, and then the oldest, partition buffers until the expected flush size is
+  // picked. The buffers smaller than bufferFlushMinSize are kept in memory to avoid small files
+  // and small I/Os, unless less than half of the expected flush size has been picked. The buffers
+  // older than bufferFlushMaxAgeMs are flushed first, so they are never starved by bigger ones.
+  private synchronized void flushPartitions() {
+    long expectedFlushSize = highWaterMark - lowWaterMark;
+    long atLeastFlushSizeIgnoreThreshold = expectedFlushSize >>> 1;
+    long pickedFlushSize = 0L;
+    int pickedBufferNum = 0;
+    ShuffleBufferFlushHeap.Node node;
+    if (bufferFlushMaxAgeMs > 0) {
+      long expiredTime = System.currentTimeMillis() - bufferFlushMaxAgeMs;
+      while (pickedFlushSize <= expectedFlushSize
+          && (node = flushHeap.peekOldest()) != null
+          && node.createTime < expiredTime) {
+        flushHeap.remove(node.buffer);
+        pickedFlushSize += node.size;
+        pickedBufferNum++;
+        flushBuffer(node);
+      }
+    }
+    while (pickedFlushSize <= expectedFlushSize && (node = flushHeap.peek()) != null) {
+      if (node.size < bufferFlushMinSize && pickedFlushSize > atLeastFlushSizeIgnoreThreshold) {
+        // the buffers are ordered by size desc, all the remaining buffers are too small
+        break;
+      }
+      flushHeap.remove(node.buffer);
+      pickedFlushSize += node.size;
+      pickedBufferNum++;
+      flushBuffer(node);
+    }
+    LOG.info(
+        "Finish flush pick with {} bytes in {} buffers, {} buffers left",
+        pickedFlushSize,
+        pickedBufferNum,
+        flushHeap.size());
+  }
+
+  private void flushBuffer(ShuffleBufferFlushHeap.Node node) {
+    flushBuffer(
+        node.buffer,
+        node.appId,
+        node.shuffleId,
+        node.startPartition,
+        node.endPartition,
+        HugePartitionUtils.isHugePartition(
+            shuffleTaskManager, node.appId, node.shuffleId, node.startPartition));
+  }
+
   public void updateUsedMemory(long delta) {
     // add size if not allocated
     usedMemory.addAndGet(delta);
@@ -652,6 +750,10 @@ public class ShuffleBufferManager {
     ShuffleServerMetrics.gaugeAllocatedBufferSize.set(preAllocatedSize.get());
   }
 
+  public void stop() {
+    requireMemoryWaitingQueue.stop();
+  }
+
   boolean isFull() {
     return usedMemory.get() >= capacity;
   }
@@ -798,6 +900,9 @@ public class ShuffleBufferManager {
       Collection<ShuffleBuffer> buffers = bufferRangeMap.asMapOfRanges().values();
       if (buffers != null) {
         for (ShuffleBuffer buffer : buffers) {
+          if (partitionGranularFlushEnabled) {
+            flushHeap.remove(buffer);
+          }
           // the actual released size by this thread
           long releasedSize = buffer.release();
           ShuffleServerMetrics.gaugeTotalPartitionNum.dec();
@@ -31,6 +31,7 @@ import org.apache.uniffle.common.util.ThreadUtils;
 import org.apache.uniffle.server.ShuffleServerConf;
 import org.apache.uniffle.server.ShuffleServerMetrics;
 
+import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_MULTI_PASS_THREAD_POOL_SIZE;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_THREAD_ALIVE_TIME;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_THREAD_POOL_QUEUE_SIZE;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_THREAD_POOL_SIZE;
@@ -40,6 +41,9 @@ public class DefaultMergeEventHandler implements MergeEventHandler {
   private static final Logger LOG = LoggerFactory.getLogger(DefaultMergeEventHandler.class);
 
   private Executor threadPoolExecutor;
+  // The runs of multi-pass merge are merged on their own pool, so they never take the place of the
+  // merge events in the bounded queue of the merge thread pool.
+  private Executor runThreadPoolExecutor;
   protected final BlockingQueue<MergeEvent> queue = Queues.newLinkedBlockingQueue();
   private Consumer<MergeEvent> eventConsumer;
   private volatile boolean stopped = false;
@@ -59,6 +63,15 @@ public class DefaultMergeEventHandler implements MergeEventHandler {
             TimeUnit.SECONDS,
             waitQueue,
             ThreadUtils.getThreadFactory("DefaultMergeEventHandler"));
+    int runPoolSize = serverConf.get(SERVER_MERGE_MULTI_PASS_THREAD_POOL_SIZE);
+    runThreadPoolExecutor =
+        new ThreadPoolExecutor(
+            runPoolSize,
+            runPoolSize,
+            keepAliveTime,
+            TimeUnit.SECONDS,
+            Queues.newLinkedBlockingQueue(queueSize),
+            ThreadUtils.getThreadFactory("MultiPassMergeRun"));
     startEventProcessor();
   }
 
@@ -107,6 +120,11 @@ public class DefaultMergeEventHandler implements MergeEventHandler {
     return queue.size();
   }
 
+  @Override
+  public void execute(Runnable task) {
+    runThreadPoolExecutor.execute(task);
+  }
+
   @Override
   public void stop() {
     stopped = true;
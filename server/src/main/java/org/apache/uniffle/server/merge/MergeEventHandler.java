@@ -23,5 +23,9 @@ public interface MergeEventHandler {
 
   int getEventNumInMerge();
 
+  // Run a task on the thread pool used by multi-pass merge to merge runs in parallel, throws
+  // RejectedExecutionException if the pool is full.
+  void execute(Runnable task);
+
   void stop();
 }
@@ -20,11 +20,17 @@ package org.apache.uniffle.server.merge;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
 import io.netty.buffer.ByteBuf;
 import io.netty.util.IllegalReferenceCountException;
@@ -49,9 +55,12 @@ import org.apache.uniffle.common.netty.buffer.FileSegmentManagedBuffer;
 import org.apache.uniffle.common.netty.buffer.ManagedBuffer;
 import org.apache.uniffle.common.netty.buffer.NettyManagedBuffer;
 import org.apache.uniffle.common.rpc.StatusCode;
+import org.apache.uniffle.common.serializer.BufferedFileSerInputStream;
+import org.apache.uniffle.common.serializer.FileSerOutputStream;
 import org.apache.uniffle.common.serializer.SerInputStream;
 import org.apache.uniffle.common.serializer.SerOutputStream;
 import org.apache.uniffle.server.ShuffleDataReadEvent;
+import org.apache.uniffle.server.ShuffleServerMetrics;
 import org.apache.uniffle.server.buffer.ShuffleBuffer;
 import org.apache.uniffle.server.buffer.ShuffleBufferWithSkipList;
 import org.apache.uniffle.storage.common.Storage;
@@ -63,14 +72,17 @@ import static org.apache.uniffle.common.merger.MergeState.DONE;
 import static org.apache.uniffle.common.merger.MergeState.INITED;
 import static org.apache.uniffle.common.merger.MergeState.INTERNAL_ERROR;
 import static org.apache.uniffle.common.merger.MergeState.MERGING;
+import static org.apache.uniffle.common.util.Constants.SHUFFLE_DATA_FILE_SUFFIX;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_BLOCK_RING_BUFFER_SIZE;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_CACHE_MERGED_BLOCK_INIT_SLEEP_MS;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_CACHE_MERGED_BLOCK_MAX_SLEEP_MS;
+import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_MULTI_PASS_SPILL_BUFFER_SIZE;
 import static org.apache.uniffle.server.merge.ShuffleMergeManager.MERGE_APP_SUFFIX;
 
 public class Partition<K, V> {
 
   private static final Logger LOG = LoggerFactory.getLogger(Partition.class);
+  private static final String SPILL_DIR_SUFFIX = "-spill";
 
   private final Shuffle shuffle;
   private final int partitionId;
@@ -223,6 +235,19 @@ public class Partition<K, V> {
   }
 
   void merge(List<Segment> segments, SerOutputStream output, BlockFlushFileReader reader) {
+    try {
+      mergeSegments(segments, output, reader);
+      setState(DONE);
+    } catch (Exception e) {
+      LOG.info("Found exception when merge for {}, caused by", this, e);
+      setState(INTERNAL_ERROR);
+    }
+  }
+
+  // Merge segments to output. Reader, output and segments are always closed after merge.
+  private void mergeSegments(
+      List<Segment> segments, SerOutputStream output, BlockFlushFileReader reader)
+      throws IOException {
     try {
       segments.forEach(segment -> segment.init());
       // start reader must happen after init segment to allocate ring buffer.
@@ -237,10 +262,6 @@ public class Partition<K, V> {
           shuffle.vClass,
           shuffle.comparator,
           (shuffle.comparator instanceof RawComparator));
-      setState(DONE);
-    } catch (Exception e) {
-      LOG.info("Found exception when merge for {}, caused by", this, e);
-      setState(INTERNAL_ERROR);
     } finally {
       try {
         if (reader != null) {
@@ -265,6 +286,235 @@ public class Partition<K, V> {
     }
   }
 
+  // Multi-pass merge is used for partitions which have more blocks than fan-in. The blocks are
+  // divided into groups of fan-in blocks, each group is merged into a run on the run thread pool,
+  // and the run is spilled to local storage. The runs are merged in the same way until there are no
+  // more than fan-in runs, then the final pass merges them into the merged blocks.
+  void multiPassMerge(
+      RssConf rssConf,
+      List<Long> blockIds,
+      Class keyClass,
+      Class valueClass,
+      Map<Long, ByteBuf> cachedBlocks,
+      int fanIn) {
+    List<File> spilledRuns = new ArrayList<>();
+    try {
+      File spillDir = getSpillDir(rssConf);
+      if (!spillDir.isDirectory() && !spillDir.mkdirs()) {
+        throw new IOException("Can not create spill dir " + spillDir);
+      }
+
+      // 1 The first pass merges the original blocks to runs.
+      int pass = 0;
+      List<Callable<File>> tasks = new ArrayList<>();
+      List<List<Long>> blockGroups = Lists.partition(blockIds, fanIn);
+      for (int i = 0; i < blockGroups.size(); i++) {
+        List<Long> blockGroup = blockGroups.get(i);
+        File spillFile = new File(spillDir, pass + "-" + i + SHUFFLE_DATA_FILE_SUFFIX);
+        spilledRuns.add(spillFile);
+        tasks.add(
+            () ->
+                mergeBlocksToRun(
+                    rssConf, blockGroup, keyClass, valueClass, cachedBlocks, spillFile));
+      }
+      List<File> runs = mergeRunsInParallel(pass, tasks);
+
+      // 2 The intermediate passes merge runs until there are no more than fan-in runs.
+      while (runs.size() > fanIn) {
+        pass++;
+        tasks = new ArrayList<>();
+        List<List<File>> runGroups = Lists.partition(runs, fanIn);
+        for (int i = 0; i < runGroups.size(); i++) {
+          List<File> runGroup = runGroups.get(i);
+          File spillFile = new File(spillDir, pass + "-" + i + SHUFFLE_DATA_FILE_SUFFIX);
+          spilledRuns.add(spillFile);
+          tasks.add(
+              () -> {
+                SerOutputStream output = createSpillOutputStream(rssConf, spillFile);
+                mergeSegments(
+                    createRunSegments(rssConf, runGroup, keyClass, valueClass), output, null);
+                return spillFile;
+              });
+        }
+        List<File> mergedRuns = mergeRunsInParallel(pass, tasks);
+        // The runs of the previous pass are useless now, delete them as soon as possible.
+        deleteSpilledRuns(runs);
+        runs = mergedRuns;
+      }
+
+      // 3 The final pass merges the left runs to the merged blocks.
+      final long start = System.currentTimeMillis();
+      List<Segment> segments = createRunSegments(rssConf, runs, keyClass, valueClass);
+      long totalBytes = segments.stream().mapToLong(segment -> segment.getSize()).sum();
+      mergeSegments(segments, createSerOutputStream(totalBytes), null);
+      ShuffleServerMetrics.observeMergePassTime(
+          ShuffleServerMetrics.MERGE_PASS_LABEL_FINAL, System.currentTimeMillis() - start);
+      setState(DONE);
+    } catch (Exception e) {
+      LOG.info("Found exception when multi-pass merge for {}, caused by", this, e);
+      setState(INTERNAL_ERROR);
+    } finally {
+      deleteSpilledRuns(spilledRuns);
+    }
+  }
+
+  private List<File> mergeRunsInParallel(int pass, List<Callable<File>> tasks) throws Exception {
+    final long start = System.currentTimeMillis();
+    List<FutureTask<File>> futures = new ArrayList<>(tasks.size());
+    for (Callable<File> task : tasks) {
+      FutureTask<File> future =
+          new FutureTask<>(
+              () -> {
+                Thread.currentThread().setContextClassLoader(shuffle.getClassLoader());
+                return task.call();
+              });
+      futures.add(future);
+      try {
+        shuffle.eventHandler.execute(future);
+      } catch (RejectedExecutionException e) {
+        LOG.debug("Merge run thread pool is full, the run will be merged by current thread");
+      }
+    }
+    List<File> runs = new ArrayList<>(futures.size());
+    Exception exception = null;
+    for (FutureTask<File> future : futures) {
+      // Rather than just waiting, the current thread merges the runs which are not started yet,
+      // so the merge never waits for the runs queued behind other merges on the run thread pool.
+      // If the run is already started, this call does nothing.
+      future.run();
+      try {
+        runs.add(future.get());
+      } catch (ExecutionException e) {
+        // Wait for all runs to finish, so that no run still uses the cached blocks or spill files.
+        if (exception == null) {
+          exception = e;
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+    long spilledSize = runs.stream().mapToLong(File::length).sum();
+    long duration = System.currentTimeMillis() - start;
+    ShuffleServerMetrics.counterTotalMergeSpilledRunNum.inc(runs.size());
+    ShuffleServerMetrics.counterTotalMergeSpilledSize.inc(spilledSize);
+    ShuffleServerMetrics.observeMergePassTime(String.valueOf(pass), duration);
+    LOG.info(
+        "Merge pass {} for {} spilled {} runs with {} bytes, cost {} ms",
+        pass,
+        this,
+        runs.size(),
+        spilledSize,
+        duration);
+    return runs;
+  }
+
+  private File mergeBlocksToRun(
+      RssConf rssConf,
+      List<Long> blockIds,
+      Class keyClass,
+      Class valueClass,
+      Map<Long, ByteBuf> cachedBlocks,
+      File spillFile)
+      throws IOException {
+    SerOutputStream output = createSpillOutputStream(rssConf, spillFile);
+    BlockFlushFileReader reader = null;
+    List<Segment> segments = new ArrayList<>();
+    try {
+      // BlockFlushFileReader is locked by the thread which creates it, so it must be created
+      // by the thread which merges this run.
+      if (!cachedBlocks.keySet().containsAll(blockIds)) {
+        reader = createReader(rssConf);
+      }
+      if (!collectSegments(
+          rssConf, blockIds.iterator(), keyClass, valueClass, cachedBlocks, segments, reader)) {
+        throw new RssException("Can not find all blocks of " + spillFile + " for " + this);
+      }
+    } catch (Exception e) {
+      if (reader != null) {
+        reader.close();
+      }
+      output.close();
+      throw e;
+    }
+    mergeSegments(segments, output, reader);
+    return spillFile;
+  }
+
+  private List<Segment> createRunSegments(
+      RssConf rssConf, List<File> runs, Class keyClass, Class valueClass) throws IOException {
+    int bufferSize = (int) rssConf.getSizeAsBytes(SERVER_MERGE_MULTI_PASS_SPILL_BUFFER_SIZE);
+    List<Segment> segments = new ArrayList<>(runs.size());
+    try {
+      for (int i = 0; i < runs.size(); i++) {
+        File run = runs.get(i);
+        SerInputStream inputStream =
+            new BufferedFileSerInputStream(run, 0, run.length(), bufferSize);
+        // The id of segment decides the order of records with the same key, so use the index of
+        // run to keep the order of blocks.
+        segments.add(
+            new StreamedSegment(
+                rssConf,
+                inputStream,
+                i,
+                keyClass,
+                valueClass,
+                run.length(),
+                (shuffle.comparator instanceof RawComparator)));
+      }
+    } catch (IOException e) {
+      for (Segment segment : segments) {
+        segment.close();
+      }
+      throw e;
+    }
+    return segments;
+  }
+
+  private SerOutputStream createSpillOutputStream(RssConf rssConf, File spillFile)
+      throws IOException {
+    int bufferSize = (int) rssConf.getSizeAsBytes(SERVER_MERGE_MULTI_PASS_SPILL_BUFFER_SIZE);
+    return new FileSerOutputStream(spillFile, bufferSize);
+  }
+
+  // The runs are spilled to the local storage which stores the data of this partition, under the
+  // directory of the merged app, so they will be cleaned up along with the app.
+  private File getSpillDir(RssConf rssConf) {
+    Storage storage =
+        shuffle
+            .shuffleServer
+            .getStorageManager()
+            .selectStorage(
+                new ShuffleDataReadEvent(
+                    shuffle.appId, shuffle.shuffleId, partitionId, partitionId));
+    String basePath;
+    if (storage != null) {
+      basePath = storage.getStoragePath();
+    } else {
+      // All blocks are still in memory, no storage has been selected for this partition.
+      List<String> basePaths = rssConf.get(RssBaseConf.RSS_STORAGE_BASE_PATH);
+      if (basePaths == null || basePaths.isEmpty()) {
+        throw new RssException("No local storage to spill the runs of " + this);
+      }
+      basePath = basePaths.get(Math.floorMod(partitionId, basePaths.size()));
+    }
+    return new File(
+        basePath,
+        String.join(
+            "/",
+            shuffle.appId + MERGE_APP_SUFFIX,
+            String.valueOf(shuffle.shuffleId),
+            partitionId + SPILL_DIR_SUFFIX));
+  }
+
+  private void deleteSpilledRuns(List<File> runs) {
+    for (File run : runs) {
+      if (run.exists() && !run.delete()) {
+        LOG.warn("Fail to delete spilled run {} for {}", run, this);
+      }
+    }
+  }
+
   public void setState(MergeState state) {
     if (LOG.isDebugEnabled()) {
       LOG.debug("Partition is {}, transient from {} to {}.", this, this.state.name(), state.name());
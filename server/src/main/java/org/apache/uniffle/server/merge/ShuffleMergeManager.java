@@ -50,6 +50,8 @@ import org.apache.uniffle.server.ShuffleServerConf;
 
 import static org.apache.uniffle.common.merger.MergeState.INTERNAL_ERROR;
 import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_CLASS_LOADER_JARS_PATH;
+import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_MULTI_PASS_ENABLE;
+import static org.apache.uniffle.server.ShuffleServerConf.SERVER_MERGE_MULTI_PASS_FAN_IN;
 
 public class ShuffleMergeManager {
 
@@ -62,6 +64,8 @@ public class ShuffleMergeManager {
   private final Map<String, Map<Integer, Shuffle>> shuffles = JavaUtils.newConcurrentMap();
   private final MergeEventHandler eventHandler;
   private final Map<String, ClassLoader> cachedClassLoader = new HashMap<>();
+  private final boolean multiPassEnabled;
+  private final int mergeFanIn;
 
   // If comparator is not set, will use hashCode to compare. It is used for shuffle that does not
   // require
@@ -81,6 +85,8 @@ public class ShuffleMergeManager {
     this.serverConf = serverConf;
     this.shuffleServer = shuffleServer;
     this.eventHandler = new DefaultMergeEventHandler(this.serverConf, this::processEvent);
+    this.multiPassEnabled = serverConf.get(SERVER_MERGE_MULTI_PASS_ENABLE);
+    this.mergeFanIn = serverConf.get(SERVER_MERGE_MULTI_PASS_FAN_IN);
     initCacheClassLoader();
   }
 
@@ -249,6 +255,22 @@ public class ShuffleMergeManager {
       boolean allCached =
           partition.collectBlocks(event.getExpectedBlockIdMap().iterator(), cachedBlocks);
 
+      // If there are too many blocks, merge in multiple passes to limit the number of segments
+      // merged by one thread.
+      if (multiPassEnabled && event.getExpectedBlockIdMap().getLongCardinality() > mergeFanIn) {
+        List<Long> blockIds = new ArrayList<>();
+        event.getExpectedBlockIdMap().forEach(blockIds::add);
+        partition.multiPassMerge(
+            serverConf,
+            blockIds,
+            event.getKeyClass(),
+            event.getValueClass(),
+            cachedBlocks,
+            mergeFanIn);
+        success = true;
+        return;
+      }
+
       // 2 If the size of cacheBlock is less than total block, we will read from file, so construct
       // reader
       BlockFlushFileReader reader = null;
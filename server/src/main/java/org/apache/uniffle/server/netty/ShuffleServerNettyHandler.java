@@ -34,8 +34,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.PartitionDataSegment;
 import org.apache.uniffle.common.ReconfigurableRegistry;
 import org.apache.uniffle.common.ShuffleDataResult;
+import org.apache.uniffle.common.ShuffleDataSegment;
 import org.apache.uniffle.common.ShuffleIndexResult;
 import org.apache.uniffle.common.ShufflePartitionedBlock;
 import org.apache.uniffle.common.ShufflePartitionedData;
@@ -45,10 +47,15 @@ import org.apache.uniffle.common.exception.ExceedHugePartitionHardLimitException
 import org.apache.uniffle.common.exception.FileNotFoundException;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.merger.MergeState;
+import org.apache.uniffle.common.netty.buffer.CompositeManagedBuffer;
 import org.apache.uniffle.common.netty.buffer.ManagedBuffer;
 import org.apache.uniffle.common.netty.buffer.NettyManagedBuffer;
 import org.apache.uniffle.common.netty.client.TransportClient;
 import org.apache.uniffle.common.netty.handle.BaseMessageHandler;
+import org.apache.uniffle.common.netty.protocol.GetFilteredLocalShuffleDataRequest;
+import org.apache.uniffle.common.netty.protocol.GetFilteredLocalShuffleDataResponse;
+import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataBatchRequest;
+import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataBatchResponse;
 import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataRequest;
 import org.apache.uniffle.common.netty.protocol.GetLocalShuffleDataResponse;
 import org.apache.uniffle.common.netty.protocol.GetLocalShuffleIndexRequest;
@@ -130,6 +137,10 @@ public class ShuffleServerNettyHandler implements BaseMessageHandler {
       handleGetMemoryShuffleDataRequest(client, (GetMemoryShuffleDataRequest) msg);
     } else if (msg instanceof GetSortedShuffleDataRequest) {
       handleGetSortedShuffleDataRequest(client, (GetSortedShuffleDataRequest) msg);
+    } else if (msg instanceof GetFilteredLocalShuffleDataRequest) {
+      handleGetFilteredLocalShuffleData(client, (GetFilteredLocalShuffleDataRequest) msg);
+    } else if (msg instanceof GetLocalShuffleDataBatchRequest) {
+      handleGetLocalShuffleDataBatch(client, (GetLocalShuffleDataBatchRequest) msg);
     } else {
       throw new RssException("Can not handle message " + msg.type());
     }
@@ -759,6 +770,342 @@ public class ShuffleServerNettyHandler implements BaseMessageHandler {
     }
   }
 
+  public void handleGetFilteredLocalShuffleData(
+      TransportClient client, GetFilteredLocalShuffleDataRequest req) {
+    try (ServerRpcAuditContext auditContext =
+        createAuditContext("getFilteredLocalShuffleData", client)) {
+      GetFilteredLocalShuffleDataResponse response;
+      String appId = req.getAppId();
+      int shuffleId = req.getShuffleId();
+      int partitionId = req.getPartitionId();
+      int partitionNumPerRange = req.getPartitionNumPerRange();
+      int partitionNum = req.getPartitionNum();
+      long offset = req.getOffset();
+      int readBufferSize = req.getReadBufferSize();
+      auditContext.withAppId(appId);
+      auditContext.withShuffleId(shuffleId);
+      auditContext.withArgs(
+          "requestId="
+              + req.getRequestId()
+              + ", partitionId="
+              + partitionId
+              + ", partitionNumPerRange="
+              + partitionNumPerRange
+              + ", partitionNum="
+              + partitionNum
+              + ", offset="
+              + offset
+              + ", readBufferSize="
+              + readBufferSize);
+      StatusCode status = verifyRequest(appId);
+      if (status != StatusCode.SUCCESS) {
+        auditContext.withStatusCode(status);
+        response =
+            new GetFilteredLocalShuffleDataResponse(
+                req.getRequestId(),
+                status,
+                status.toString(),
+                Lists.newArrayList(),
+                -1L,
+                NettyManagedBuffer.EMPTY_BUFFER);
+        client.getChannel().writeAndFlush(response);
+        return;
+      }
+      long timestamp = req.getTimestamp();
+      if (timestamp > 0) {
+        long transportTime = System.currentTimeMillis() - timestamp;
+        if (transportTime > 0) {
+          shuffleServer
+              .getNettyMetrics()
+              .recordTransportTime(
+                  GetFilteredLocalShuffleDataRequest.class.getName(), transportTime);
+        }
+      }
+      String storageType =
+          shuffleServer.getShuffleServerConf().get(RssBaseConf.RSS_STORAGE_TYPE).name();
+      String msg = "OK";
+      String requestInfo =
+          "appId["
+              + appId
+              + "], shuffleId["
+              + shuffleId
+              + "], partitionId["
+              + partitionId
+              + "], offset["
+              + offset
+              + "]";
+
+      int[] range =
+          ShuffleStorageUtils.getPartitionRange(partitionId, partitionNumPerRange, partitionNum);
+      Storage storage =
+          shuffleServer
+              .getStorageManager()
+              .selectStorage(new ShuffleDataReadEvent(appId, shuffleId, partitionId, range[0]));
+      if (storage != null) {
+        storage.updateReadMetrics(new StorageReadMetrics(appId, shuffleId));
+      }
+
+      if (shuffleServer.getShuffleBufferManager().requireReadMemory(readBufferSize)) {
+        ShuffleDataResult sdr = null;
+        try {
+          final long start = System.currentTimeMillis();
+          ShuffleDataSegment segment =
+              shuffleServer
+                  .getShuffleTaskManager()
+                  .getExpectedShuffleDataSegment(
+                      appId,
+                      shuffleId,
+                      partitionId,
+                      partitionNumPerRange,
+                      partitionNum,
+                      req.getExpectedTaskIdsBitmap(),
+                      readBufferSize,
+                      offset);
+          ManagedBuffer data = NettyManagedBuffer.EMPTY_BUFFER;
+          List<BufferSegment> bufferSegments = Lists.newArrayList();
+          long nextOffset = -1L;
+          if (segment != null) {
+            sdr =
+                shuffleServer
+                    .getShuffleTaskManager()
+                    .getShuffleData(
+                        appId,
+                        shuffleId,
+                        partitionId,
+                        partitionNumPerRange,
+                        partitionNum,
+                        storageType,
+                        segment.getOffset(),
+                        segment.getLength());
+            data = sdr.getManagedBuffer();
+            bufferSegments = segment.getBufferSegments();
+            nextOffset = segment.getOffset() + segment.getLength();
+            ShuffleServerMetrics.counterTotalReadDataSize.inc(data.size());
+            ShuffleServerMetrics.counterTotalReadLocalDataFileSize.inc(data.size());
+            ShuffleServerMetrics.gaugeReadLocalDataFileThreadNum.inc();
+            ShuffleServerMetrics.gaugeReadLocalDataFileBufferSize.inc(readBufferSize);
+          }
+          response =
+              new GetFilteredLocalShuffleDataResponse(
+                  req.getRequestId(), status, msg, bufferSegments, nextOffset, data);
+          ReleaseMemoryAndRecordReadTimeListener listener =
+              new ReleaseMemoryAndRecordReadTimeListener(
+                  start, readBufferSize, data.size(), requestInfo, req, response, client);
+          client.getChannel().writeAndFlush(response).addListener(listener);
+          auditContext.withStatusCode(response.getStatusCode());
+          auditContext.withReturnValue(
+              "len=" + data.size() + ", bufferSegments=" + bufferSegments.size());
+          return;
+        } catch (Exception e) {
+          shuffleServer.getShuffleBufferManager().releaseReadMemory(readBufferSize);
+          if (sdr != null) {
+            sdr.release();
+          }
+          status = StatusCode.INTERNAL_ERROR;
+          msg =
+              "Error happened when get filtered shuffle data for "
+                  + requestInfo
+                  + ", "
+                  + e.getMessage();
+          LOG.error(msg, e);
+          response =
+              new GetFilteredLocalShuffleDataResponse(
+                  req.getRequestId(),
+                  status,
+                  msg,
+                  Lists.newArrayList(),
+                  -1L,
+                  NettyManagedBuffer.EMPTY_BUFFER);
+        }
+      } else {
+        status = StatusCode.NO_BUFFER;
+        msg = "Can't require memory to get filtered shuffle data";
+        LOG.warn("{} for {}", msg, requestInfo);
+        response =
+            new GetFilteredLocalShuffleDataResponse(
+                req.getRequestId(),
+                status,
+                msg,
+                Lists.newArrayList(),
+                -1L,
+                NettyManagedBuffer.EMPTY_BUFFER);
+      }
+      auditContext.withStatusCode(response.getStatusCode());
+      client.getChannel().writeAndFlush(response);
+    }
+  }
+
+  /**
+   * Read the next data segment of many partitions in one request, so the reducers of the coalesced
+   * partitions don't need a request per partition. The segments are sent as they are in the data
+   * files without being copied into memory.
+   */
+  public void handleGetLocalShuffleDataBatch(
+      TransportClient client, GetLocalShuffleDataBatchRequest req) {
+    try (ServerRpcAuditContext auditContext =
+        createAuditContext("getLocalShuffleDataBatch", client)) {
+      GetLocalShuffleDataBatchResponse response;
+      String appId = req.getAppId();
+      int shuffleId = req.getShuffleId();
+      int partitionNumPerRange = req.getPartitionNumPerRange();
+      int partitionNum = req.getPartitionNum();
+      Map<Integer, Long> partitionOffsets = req.getPartitionOffsets();
+      int readBufferSize = req.getReadBufferSize();
+      auditContext.withAppId(appId);
+      auditContext.withShuffleId(shuffleId);
+      auditContext.withArgs(
+          "requestId="
+              + req.getRequestId()
+              + ", partitionNumPerRange="
+              + partitionNumPerRange
+              + ", partitionNum="
+              + partitionNum
+              + ", partitionSize="
+              + partitionOffsets.size()
+              + ", readBufferSize="
+              + readBufferSize);
+      StatusCode status = verifyRequest(appId);
+      if (status != StatusCode.SUCCESS) {
+        auditContext.withStatusCode(status);
+        response =
+            new GetLocalShuffleDataBatchResponse(
+                req.getRequestId(),
+                status,
+                status.toString(),
+                Lists.newArrayList(),
+                NettyManagedBuffer.EMPTY_BUFFER);
+        client.getChannel().writeAndFlush(response);
+        return;
+      }
+      long timestamp = req.getTimestamp();
+      if (timestamp > 0) {
+        long transportTime = System.currentTimeMillis() - timestamp;
+        if (transportTime > 0) {
+          shuffleServer
+              .getNettyMetrics()
+              .recordTransportTime(GetLocalShuffleDataBatchRequest.class.getName(), transportTime);
+        }
+      }
+      String storageType =
+          shuffleServer.getShuffleServerConf().get(RssBaseConf.RSS_STORAGE_TYPE).name();
+      String msg = "OK";
+      String requestInfo =
+          "appId["
+              + appId
+              + "], shuffleId["
+              + shuffleId
+              + "], partitions"
+              + partitionOffsets.keySet();
+
+      if (shuffleServer.getShuffleBufferManager().requireReadMemory(readBufferSize)) {
+        List<ManagedBuffer> buffers = Lists.newArrayList();
+        try {
+          final long start = System.currentTimeMillis();
+          ShuffleTaskManager shuffleTaskManager = shuffleServer.getShuffleTaskManager();
+          List<PartitionDataSegment> partitionDataSegments = Lists.newArrayList();
+          int remaining = readBufferSize;
+          for (Map.Entry<Integer, Long> entry : partitionOffsets.entrySet()) {
+            if (remaining <= 0) {
+              // the rest partitions keep their offsets and are read by the following requests
+              break;
+            }
+            int partitionId = entry.getKey();
+            long offset = entry.getValue();
+            ShuffleDataSegment segment = null;
+            try {
+              segment =
+                  shuffleTaskManager.getExpectedShuffleDataSegment(
+                      appId,
+                      shuffleId,
+                      partitionId,
+                      partitionNumPerRange,
+                      partitionNum,
+                      req.getExpectedTaskIdsBitmap(),
+                      remaining,
+                      offset);
+            } catch (FileNotFoundException e) {
+              LOG.debug("No local data for partition {} of {}", partitionId, requestInfo);
+            }
+            if (segment == null) {
+              partitionDataSegments.add(
+                  new PartitionDataSegment(partitionId, 0, Lists.newArrayList(), -1L));
+              continue;
+            }
+            ShuffleDataResult sdr =
+                shuffleTaskManager.getShuffleData(
+                    appId,
+                    shuffleId,
+                    partitionId,
+                    partitionNumPerRange,
+                    partitionNum,
+                    storageType,
+                    segment.getOffset(),
+                    segment.getLength());
+            buffers.add(sdr.getManagedBuffer());
+            partitionDataSegments.add(
+                new PartitionDataSegment(
+                    partitionId,
+                    segment.getLength(),
+                    segment.getBufferSegments(),
+                    segment.getOffset() + segment.getLength()));
+            remaining -= segment.getLength();
+          }
+          ManagedBuffer data =
+              buffers.isEmpty()
+                  ? NettyManagedBuffer.EMPTY_BUFFER
+                  : new CompositeManagedBuffer(buffers);
+          if (data.size() > 0) {
+            ShuffleServerMetrics.counterTotalReadDataSize.inc(data.size());
+            ShuffleServerMetrics.counterTotalReadLocalDataFileSize.inc(data.size());
+            ShuffleServerMetrics.gaugeReadLocalDataFileThreadNum.inc();
+            ShuffleServerMetrics.gaugeReadLocalDataFileBufferSize.inc(readBufferSize);
+          }
+          response =
+              new GetLocalShuffleDataBatchResponse(
+                  req.getRequestId(), status, msg, partitionDataSegments, data);
+          ReleaseMemoryAndRecordReadTimeListener listener =
+              new ReleaseMemoryAndRecordReadTimeListener(
+                  start, readBufferSize, data.size(), requestInfo, req, response, client);
+          client.getChannel().writeAndFlush(response).addListener(listener);
+          auditContext.withStatusCode(response.getStatusCode());
+          auditContext.withReturnValue(
+              "len=" + data.size() + ", partitionDataSegments=" + partitionDataSegments.size());
+          return;
+        } catch (Exception e) {
+          shuffleServer.getShuffleBufferManager().releaseReadMemory(readBufferSize);
+          buffers.forEach(ManagedBuffer::release);
+          status = StatusCode.INTERNAL_ERROR;
+          msg =
+              "Error happened when get shuffle data batch for "
+                  + requestInfo
+                  + ", "
+                  + e.getMessage();
+          LOG.error(msg, e);
+          response =
+              new GetLocalShuffleDataBatchResponse(
+                  req.getRequestId(),
+                  status,
+                  msg,
+                  Lists.newArrayList(),
+                  NettyManagedBuffer.EMPTY_BUFFER);
+        }
+      } else {
+        status = StatusCode.NO_BUFFER;
+        msg = "Can't require memory to get shuffle data batch";
+        LOG.warn("{} for {}", msg, requestInfo);
+        response =
+            new GetLocalShuffleDataBatchResponse(
+                req.getRequestId(),
+                status,
+                msg,
+                Lists.newArrayList(),
+                NettyManagedBuffer.EMPTY_BUFFER);
+      }
+      auditContext.withStatusCode(response.getStatusCode());
+      client.getChannel().writeAndFlush(response);
+    }
+  }
+
   public void handleGetSortedShuffleDataRequest(
       TransportClient client, GetSortedShuffleDataRequest req) {
     final long start = System.currentTimeMillis();
@@ -943,6 +1290,18 @@ public class ShuffleServerNettyHandler implements BaseMessageHandler {
           ShuffleServerMetrics.gaugeReadMemoryDataThreadNum.dec();
           ShuffleServerMetrics.gaugeReadMemoryDataBufferSize.dec(readBufferSize);
         }
+      } else if (request instanceof GetFilteredLocalShuffleDataRequest) {
+        GetFilteredLocalShuffleDataResponse getFilteredLocalShuffleDataResponse =
+            (GetFilteredLocalShuffleDataResponse) response;
+        if (CollectionUtils.isNotEmpty(getFilteredLocalShuffleDataResponse.getBufferSegments())) {
+          ShuffleServerMetrics.gaugeReadLocalDataFileThreadNum.dec();
+          ShuffleServerMetrics.gaugeReadLocalDataFileBufferSize.dec(readBufferSize);
+        }
+      } else if (request instanceof GetLocalShuffleDataBatchRequest) {
+        if (dataSize > 0) {
+          ShuffleServerMetrics.gaugeReadLocalDataFileThreadNum.dec();
+          ShuffleServerMetrics.gaugeReadLocalDataFileBufferSize.dec(readBufferSize);
+        }
       }
       if (!future.isSuccess()) {
         Throwable cause = future.cause();
@@ -987,6 +1346,23 @@ public class ShuffleServerNettyHandler implements BaseMessageHandler {
                     -1L,
                     MergeState.INTERNAL_ERROR.code(),
                     Unpooled.EMPTY_BUFFER);
+          } else if (request instanceof GetFilteredLocalShuffleDataRequest) {
+            errorResponse =
+                new GetFilteredLocalShuffleDataResponse(
+                    request.getRequestId(),
+                    StatusCode.INTERNAL_ERROR,
+                    errorMsg,
+                    Lists.newArrayList(),
+                    -1L,
+                    NettyManagedBuffer.EMPTY_BUFFER);
+          } else if (request instanceof GetLocalShuffleDataBatchRequest) {
+            errorResponse =
+                new GetLocalShuffleDataBatchResponse(
+                    request.getRequestId(),
+                    StatusCode.INTERNAL_ERROR,
+                    errorMsg,
+                    Lists.newArrayList(),
+                    NettyManagedBuffer.EMPTY_BUFFER);
           } else {
             LOG.error("Cannot handle request {}", request.type(), cause);
             return;
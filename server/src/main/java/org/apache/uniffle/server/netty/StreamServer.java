@@ -28,17 +28,14 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.epoll.EpollEventLoopGroup;
-import io.netty.channel.epoll.EpollServerSocketChannel;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.NettyRuntime;
 import io.netty.util.concurrent.SingleThreadEventExecutor;
 import io.netty.util.internal.SystemPropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.uniffle.common.netty.IOMode;
 import org.apache.uniffle.common.netty.TransportFrameDecoder;
 import org.apache.uniffle.common.netty.client.TransportConf;
 import org.apache.uniffle.common.netty.client.TransportContext;
@@ -59,6 +56,7 @@ public class StreamServer implements ServerInterface {
   private static final int MIN_NETTY_SERVER_WORKER_THREAD_COUNT_DEFAULT = 100;
 
   private ShuffleServer shuffleServer;
+  private final IOMode ioMode;
   private EventLoopGroup shuffleBossGroup;
   private EventLoopGroup shuffleWorkerGroup;
   private ShuffleServerConf shuffleServerConf;
@@ -73,8 +71,14 @@ public class StreamServer implements ServerInterface {
   public StreamServer(ShuffleServer shuffleServer) {
     this.shuffleServer = shuffleServer;
     this.shuffleServerConf = shuffleServer.getShuffleServerConf();
-    boolean isEpollEnable =
-        shuffleServerConf.getBoolean(ShuffleServerConf.NETTY_SERVER_EPOLL_ENABLE);
+    IOMode configuredIOMode =
+        shuffleServerConf
+            .getOptional(ShuffleServerConf.NETTY_SERVER_IO_MODE)
+            .orElse(
+                shuffleServerConf.getBoolean(ShuffleServerConf.NETTY_SERVER_EPOLL_ENABLE)
+                    ? IOMode.EPOLL
+                    : IOMode.NIO);
+    this.ioMode = NettyUtils.resolveIOMode(configuredIOMode);
     int acceptThreads = shuffleServerConf.getInteger(ShuffleServerConf.NETTY_SERVER_ACCEPT_THREAD);
     int workerThreads = shuffleServerConf.getInteger(ShuffleServerConf.NETTY_SERVER_WORKER_THREAD);
     if (workerThreads == 0) {
@@ -84,13 +88,9 @@ public class StreamServer implements ServerInterface {
               SystemPropertyUtil.getInt(
                   "io.netty.eventLoopThreads", NettyRuntime.availableProcessors() * 2));
     }
-    if (isEpollEnable) {
-      shuffleBossGroup = new EpollEventLoopGroup(acceptThreads);
-      shuffleWorkerGroup = new EpollEventLoopGroup(workerThreads);
-    } else {
-      shuffleBossGroup = new NioEventLoopGroup(acceptThreads);
-      shuffleWorkerGroup = new NioEventLoopGroup(workerThreads);
-    }
+    shuffleBossGroup = NettyUtils.createEventLoop(ioMode, acceptThreads);
+    shuffleWorkerGroup = NettyUtils.createEventLoop(ioMode, workerThreads);
+    LOG.info("Init the netty server with io mode {}", ioMode);
     this.pendingTasksNumMetricsPollingInterval =
         shuffleServerConf.getLong(
             ShuffleServerConf.SERVER_NETTY_PENDING_TASKS_NUM_TRACKER_INTERVAL);
@@ -132,11 +132,7 @@ public class StreamServer implements ServerInterface {
       int sendBuf,
       int receiveBuf) {
     ServerBootstrap serverBootstrap = new ServerBootstrap().group(bossGroup, workerGroup);
-    if (bossGroup instanceof EpollEventLoopGroup) {
-      serverBootstrap.channel(EpollServerSocketChannel.class);
-    } else {
-      serverBootstrap.channel(NioServerSocketChannel.class);
-    }
+    serverBootstrap.channel(NettyUtils.getServerChannelClass(ioMode));
 
     ShuffleServerNettyHandler serverNettyHandler = new ShuffleServerNettyHandler(shuffleServer);
     TransportContext transportContext =
@@ -107,6 +107,8 @@ public class HadoopStorageManager extends SingleStorageManager {
         storage.removeHandlers(appId);
         appIdToStorages.remove(appId);
         purgeForExpired = ((AppPurgeEvent) event).isAppExpired();
+      } else {
+        storage.removeHandlers(appId, event.getShuffleIds());
       }
       ShuffleDeleteHandler deleteHandler =
           ShuffleHandlerFactory.getInstance()
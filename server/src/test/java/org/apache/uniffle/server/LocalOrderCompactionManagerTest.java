@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.apache.uniffle.common.ShuffleDataResult;
+import org.apache.uniffle.common.ShuffleIndexResult;
+import org.apache.uniffle.common.ShufflePartitionedBlock;
+import org.apache.uniffle.storage.common.FileBasedShuffleSegment;
+import org.apache.uniffle.storage.handler.impl.LocalFileServerReadHandler;
+import org.apache.uniffle.storage.handler.impl.LocalFileWriteHandler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalOrderCompactionManagerTest {
+
+  @BeforeAll
+  public static void setup() {
+    ShuffleServerMetrics.register();
+  }
+
+  @AfterAll
+  public static void clear() {
+    ShuffleServerMetrics.clear();
+  }
+
+  @Test
+  public void compactPartitionTest(@TempDir File tmpDir) throws Exception {
+    LocalFileWriteHandler writeHandler =
+        new LocalFileWriteHandler("appId", 0, 1, 1, tmpDir.getAbsolutePath(), "pre");
+    Map<Long, byte[]> blockData = Maps.newHashMap();
+    // every flush is sorted by itself, but the file is not
+    writeHandler.write(generateBlocks(blockData, new long[] {2, 3, 3}, 0));
+    writeHandler.write(generateBlocks(blockData, new long[] {1, 2}, 3));
+    File partitionFolder = new File(tmpDir, "appId/0/1-1");
+    File dataFile = new File(partitionFolder, "pre.data");
+    long dataLength = dataFile.length();
+
+    LocalOrderCompactionManager manager =
+        new LocalOrderCompactionManager(new ShuffleServerConf(), null);
+    assertTrue(manager.compactPartition("appId", 0, 1, partitionFolder, writeHandler));
+    // the ordered run is appended after the original data
+    assertEquals(dataLength * 2, dataFile.length());
+    assertEquals(2, partitionFolder.list().length);
+
+    ByteBuffer index =
+        ByteBuffer.wrap(Files.readAllBytes(new File(partitionFolder, "pre.index").toPath()));
+    byte[] data = Files.readAllBytes(dataFile.toPath());
+    long[] expectedTaskIds = new long[] {1, 2, 2, 3, 3};
+    long[] expectedBlockIds = new long[] {3, 0, 4, 1, 2};
+    long expectedOffset = dataLength;
+    for (int i = 0; i < expectedTaskIds.length; i++) {
+      FileBasedShuffleSegment segment = readSegment(index, i);
+      assertEquals(expectedTaskIds[i], segment.getTaskAttemptId());
+      assertEquals(expectedBlockIds[i], segment.getBlockId());
+      assertEquals(expectedOffset, segment.getOffset());
+      byte[] blockBytes = new byte[segment.getLength()];
+      System.arraycopy(data, (int) segment.getOffset(), blockBytes, 0, segment.getLength());
+      assertArrayEquals(blockData.get(segment.getBlockId()), blockBytes);
+      expectedOffset += segment.getLength();
+    }
+
+    // the sorted partition is not compacted again
+    assertFalse(manager.compactPartition("appId", 0, 1, partitionFolder, writeHandler));
+    manager.stop();
+  }
+
+  @Test
+  public void readBeforeCompactionTest(@TempDir File tmpDir) throws Exception {
+    LocalFileWriteHandler writeHandler =
+        new LocalFileWriteHandler("appId", 0, 1, 1, tmpDir.getAbsolutePath(), "pre");
+    Map<Long, byte[]> blockData = Maps.newHashMap();
+    writeHandler.write(generateBlocks(blockData, new long[] {2, 3}, 0));
+    writeHandler.write(generateBlocks(blockData, new long[] {1}, 2));
+    File partitionFolder = new File(tmpDir, "appId/0/1-1");
+    LocalFileServerReadHandler readHandler =
+        new LocalFileServerReadHandler("appId", 0, 1, 1, 2, tmpDir.getAbsolutePath());
+    // the reader gets the original index before the compaction
+    ShuffleIndexResult originalIndex = readHandler.getShuffleIndex();
+    ByteBuffer index = ByteBuffer.wrap(originalIndex.getData());
+
+    LocalOrderCompactionManager manager =
+        new LocalOrderCompactionManager(new ShuffleServerConf(), null);
+    assertTrue(manager.compactPartition("appId", 0, 1, partitionFolder, writeHandler));
+    ByteBuffer compactedIndex = ByteBuffer.wrap(readHandler.getShuffleIndex().getData());
+    assertEquals(1, readSegment(compactedIndex, 0).getTaskAttemptId());
+
+    // the offsets of the original index are still valid after the swap
+    for (int i = 0; i < 3; i++) {
+      FileBasedShuffleSegment segment = readSegment(index, i);
+      ShuffleDataResult result =
+          readHandler.getShuffleData(segment.getOffset(), segment.getLength());
+      assertArrayEquals(blockData.get(segment.getBlockId()), result.getData());
+      result.release();
+    }
+    originalIndex.release();
+    manager.stop();
+  }
+
+  @Test
+  public void recoverPartitionTest(@TempDir File tmpDir) throws Exception {
+    File partitionFolder = new File(tmpDir, "appId/0/1-1");
+    assertTrue(partitionFolder.mkdirs());
+    File dataFile = new File(partitionFolder, "pre.data");
+    File indexFile = new File(partitionFolder, "pre.index");
+    Files.write(dataFile.toPath(), new byte[] {1});
+    Files.write(indexFile.toPath(), new byte[] {1});
+
+    // the compaction failed before the swap was committed
+    Files.write(new File(partitionFolder, "pre.data.compacting").toPath(), new byte[] {2});
+    LocalOrderCompactionManager.recoverPartition(partitionFolder);
+    assertEquals(2, partitionFolder.list().length);
+    assertArrayEquals(new byte[] {1}, Files.readAllBytes(dataFile.toPath()));
+
+    // the swap failed after the data file was moved
+    Files.write(dataFile.toPath(), new byte[] {2});
+    Files.write(new File(partitionFolder, "pre.index.compacting").toPath(), new byte[] {2});
+    Files.createFile(new File(partitionFolder, "pre.compacted").toPath());
+    LocalOrderCompactionManager.recoverPartition(partitionFolder);
+    assertEquals(2, partitionFolder.list().length);
+    assertArrayEquals(new byte[] {2}, Files.readAllBytes(dataFile.toPath()));
+    assertArrayEquals(new byte[] {2}, Files.readAllBytes(indexFile.toPath()));
+  }
+
+  private static FileBasedShuffleSegment readSegment(ByteBuffer index, int i) {
+    int position = i * FileBasedShuffleSegment.SEGMENT_SIZE;
+    return new FileBasedShuffleSegment(
+        index.getLong(position + 24),
+        index.getLong(position),
+        index.getInt(position + 8),
+        index.getInt(position + 12),
+        index.getLong(position + 16),
+        index.getLong(position + 32));
+  }
+
+  private static List<ShufflePartitionedBlock> generateBlocks(
+      Map<Long, byte[]> blockData, long[] taskAttemptIds, long startBlockId) {
+    List<ShufflePartitionedBlock> blocks = Lists.newArrayList();
+    for (int i = 0; i < taskAttemptIds.length; i++) {
+      long blockId = startBlockId + i;
+      byte[] data = new byte[10 + i];
+      for (int j = 0; j < data.length; j++) {
+        data[j] = (byte) (blockId * 31 + j);
+      }
+      blockData.put(blockId, data);
+      blocks.add(
+          new ShufflePartitionedBlock(
+              data.length, data.length, 0, blockId, taskAttemptIds[i], data));
+    }
+    return blocks;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server;
+
+import java.io.File;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.apache.uniffle.common.ShuffleIndexResult;
+import org.apache.uniffle.common.ShufflePartitionedBlock;
+import org.apache.uniffle.storage.common.FileBasedShuffleSegment;
+import org.apache.uniffle.storage.handler.impl.LocalFileServerReadHandler;
+import org.apache.uniffle.storage.handler.impl.LocalFileWriteHandler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShuffleIndexCacheTest {
+
+  @BeforeAll
+  public static void setup() {
+    ShuffleServerMetrics.register();
+  }
+
+  @AfterAll
+  public static void clear() {
+    ShuffleServerMetrics.clear();
+  }
+
+  @Test
+  public void cacheTest(@TempDir File tmpDir) throws Exception {
+    String basePath = tmpDir.getAbsolutePath();
+    LocalFileWriteHandler writeHandler =
+        new LocalFileWriteHandler("appId", 0, 1, 1, basePath, "pre");
+    writeHandler.write(generateBlocks(0, 3));
+    LocalFileServerReadHandler readHandler =
+        new LocalFileServerReadHandler("appId", 0, 1, 1, 10, basePath);
+    ShuffleIndexCache indexCache = new ShuffleIndexCache(1024 * 1024);
+
+    double hit = ShuffleServerMetrics.counterTotalIndexCacheHit.get();
+    double miss = ShuffleServerMetrics.counterTotalIndexCacheMiss.get();
+    validate(readHandler, indexCache.get("appId", 0, 1, readHandler));
+    validate(readHandler, indexCache.get("appId", 0, 1, readHandler));
+    assertEquals(hit + 1, ShuffleServerMetrics.counterTotalIndexCacheHit.get());
+    assertEquals(miss + 1, ShuffleServerMetrics.counterTotalIndexCacheMiss.get());
+    assertEquals(3 * FileBasedShuffleSegment.SEGMENT_SIZE, indexCache.getCachedSize());
+
+    // the appended segments are visible after the refresh of the flush
+    writeHandler.write(generateBlocks(3, 2));
+    indexCache.refresh("appId", 0, 1);
+    assertEquals(5 * FileBasedShuffleSegment.SEGMENT_SIZE, indexCache.getCachedSize());
+    validate(readHandler, indexCache.get("appId", 0, 1, readHandler));
+
+    // the appended segments are visible even without the refresh
+    writeHandler.write(generateBlocks(5, 1));
+    validate(readHandler, indexCache.get("appId", 0, 1, readHandler));
+    assertEquals(hit + 3, ShuffleServerMetrics.counterTotalIndexCacheHit.get());
+    assertEquals(miss + 1, ShuffleServerMetrics.counterTotalIndexCacheMiss.get());
+    assertEquals(6 * FileBasedShuffleSegment.SEGMENT_SIZE, indexCache.getCachedSize());
+
+    indexCache.removeShuffles("appId", Lists.newArrayList(1));
+    assertEquals(1, indexCache.getCachedIndexNum());
+    indexCache.removeApp("appId");
+    assertEquals(0, indexCache.getCachedIndexNum());
+    assertEquals(0, indexCache.getCachedSize());
+  }
+
+  @Test
+  public void evictionTest(@TempDir File tmpDir) throws Exception {
+    String basePath = tmpDir.getAbsolutePath();
+    long capacity = FileBasedShuffleSegment.SEGMENT_SIZE * 20;
+    ShuffleIndexCache indexCache = new ShuffleIndexCache(capacity);
+    double eviction = ShuffleServerMetrics.counterTotalIndexCacheEviction.get();
+    for (int partition = 0; partition < 20; partition++) {
+      new LocalFileWriteHandler("appId", 0, partition, partition, basePath, "pre")
+          .write(generateBlocks(partition * 10, 2));
+      LocalFileServerReadHandler readHandler =
+          new LocalFileServerReadHandler("appId", 0, partition, 1, 20, basePath);
+      validate(readHandler, indexCache.get("appId", 0, partition, readHandler));
+    }
+    assertTrue(ShuffleServerMetrics.counterTotalIndexCacheEviction.get() > eviction);
+    assertTrue(indexCache.getCachedSize() <= capacity);
+    assertEquals(
+        indexCache.getCachedIndexNum() * 2 * FileBasedShuffleSegment.SEGMENT_SIZE,
+        indexCache.getCachedSize());
+  }
+
+  private void validate(LocalFileServerReadHandler readHandler, ShuffleIndexResult result) {
+    ShuffleIndexResult expected = readHandler.getShuffleIndex();
+    try {
+      assertArrayEquals(expected.getData(), result.getData());
+      assertEquals(expected.getDataFileLen(), result.getDataFileLen());
+    } finally {
+      expected.release();
+      result.release();
+    }
+  }
+
+  private List<ShufflePartitionedBlock> generateBlocks(int startBlockId, int num) {
+    List<ShufflePartitionedBlock> blocks = Lists.newArrayList();
+    for (int i = 0; i < num; i++) {
+      byte[] data = new byte[16 + i];
+      blocks.add(
+          new ShufflePartitionedBlock(data.length, data.length, 0, startBlockId + i, 0, data));
+    }
+    return blocks;
+  }
+}
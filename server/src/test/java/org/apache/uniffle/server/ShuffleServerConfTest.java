@@ -25,6 +25,7 @@ import org.apache.uniffle.common.util.ByteUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static uk.org.webcompere.systemstubs.SystemStubs.withEnvironmentVariables;
 
 public class ShuffleServerConfTest {
@@ -137,4 +138,37 @@ public class ShuffleServerConfTest {
         shuffleServerConf.getLong(ShuffleServerConf.SERVER_EVENT_SIZE_THRESHOLD_L3), 120 * MB);
     assertEquals(shuffleServerConf.getLong(ShuffleServerConf.DISK_CAPACITY), 120 * GB);
   }
+
+  @Test
+  public void pooledAllocatorConfTest() {
+    ShuffleServerConf shuffleServerConf = new ShuffleServerConf();
+    shuffleServerConf.setString(
+        ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_PAGE_SIZE.key(), "16k");
+    assertEquals(
+        16 * 1024,
+        shuffleServerConf.getSizeAsBytes(
+            ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_PAGE_SIZE));
+    // the page size must be a power of 2 and at least 4K
+    for (String pageSize : new String[] {"12k", "2k", "2g"}) {
+      shuffleServerConf.setString(
+          ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_PAGE_SIZE.key(), pageSize);
+      assertThrows(
+          IllegalArgumentException.class,
+          () ->
+              shuffleServerConf.getSizeAsBytes(
+                  ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_PAGE_SIZE));
+    }
+    shuffleServerConf.setString(
+        ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_MAX_ORDER.key(), "15");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> shuffleServerConf.get(ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_MAX_ORDER));
+    shuffleServerConf.setString(
+        ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_SMALL_CACHE_SIZE.key(), "-1");
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            shuffleServerConf.get(
+                ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_SMALL_CACHE_SIZE));
+  }
 }
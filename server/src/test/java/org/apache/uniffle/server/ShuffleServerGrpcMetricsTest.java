@@ -18,18 +18,28 @@
 package org.apache.uniffle.server;
 
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import io.prometheus.client.CollectorRegistry;
-import io.prometheus.client.Summary;
+import io.prometheus.client.Histogram;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.apache.uniffle.common.util.Constants;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ShuffleServerGrpcMetricsTest {
+  private static final Logger LOG = LoggerFactory.getLogger(ShuffleServerGrpcMetricsTest.class);
+
   @Test
-  public void testLatencyMetrics() throws InterruptedException {
+  public void testLatencyMetrics() {
     ShuffleServerConf shuffleServerConf = new ShuffleServerConf();
     ShuffleServerGrpcMetrics metrics =
         new ShuffleServerGrpcMetrics(shuffleServerConf, Constants.SHUFFLE_SERVER_VERSION);
@@ -40,31 +50,102 @@ public class ShuffleServerGrpcMetricsTest {
     metrics.recordProcessTime(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD, 1000);
     metrics.recordProcessTime(ShuffleServerGrpcMetrics.GET_SHUFFLE_DATA_METHOD, 500);
     metrics.recordProcessTime(ShuffleServerGrpcMetrics.GET_MEMORY_SHUFFLE_DATA_METHOD, 200);
-    Map<String, Summary.Child> sendTimeSummaryTime = metrics.getTransportTimeSummaryMap();
-    Map<String, Summary.Child> processTimeSummaryTime = metrics.getProcessTimeSummaryMap();
-    assertEquals(4, sendTimeSummaryTime.size());
-    assertEquals(6, processTimeSummaryTime.size());
+    Map<String, Histogram.Child> sendTimeHistogram = metrics.getTransportTimeHistogramMap();
+    Map<String, Histogram.Child> processTimeHistogram = metrics.getProcessTimeHistogramMap();
+    assertEquals(4, sendTimeHistogram.size());
+    assertEquals(6, processTimeHistogram.size());
 
-    Thread.sleep(1000L);
     assertEquals(
-        1D, sendTimeSummaryTime.get(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD).get().sum);
+        1D, sendTimeHistogram.get(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD).get().sum);
     assertEquals(
-        0.5D, sendTimeSummaryTime.get(ShuffleServerGrpcMetrics.GET_SHUFFLE_DATA_METHOD).get().sum);
+        0.5D, sendTimeHistogram.get(ShuffleServerGrpcMetrics.GET_SHUFFLE_DATA_METHOD).get().sum);
     assertEquals(
         0.2D,
-        sendTimeSummaryTime.get(ShuffleServerGrpcMetrics.GET_MEMORY_SHUFFLE_DATA_METHOD).get().sum);
+        sendTimeHistogram.get(ShuffleServerGrpcMetrics.GET_MEMORY_SHUFFLE_DATA_METHOD).get().sum);
 
     assertEquals(
-        1D,
-        processTimeSummaryTime.get(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD).get().sum);
+        1D, processTimeHistogram.get(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD).get().sum);
     assertEquals(
-        0.5D,
-        processTimeSummaryTime.get(ShuffleServerGrpcMetrics.GET_SHUFFLE_DATA_METHOD).get().sum);
+        0.5D, processTimeHistogram.get(ShuffleServerGrpcMetrics.GET_SHUFFLE_DATA_METHOD).get().sum);
     assertEquals(
         0.2D,
-        processTimeSummaryTime
+        processTimeHistogram
             .get(ShuffleServerGrpcMetrics.GET_MEMORY_SHUFFLE_DATA_METHOD)
             .get()
             .sum);
   }
+
+  @Test
+  public void testLatencyBuckets() {
+    ShuffleServerConf shuffleServerConf = new ShuffleServerConf();
+    shuffleServerConf.setString("rss.rpc.metrics.latencyBuckets", "1,0.1,10");
+    ShuffleServerGrpcMetrics metrics =
+        new ShuffleServerGrpcMetrics(shuffleServerConf, Constants.SHUFFLE_SERVER_VERSION);
+    metrics.register(new CollectorRegistry(true));
+    metrics.recordProcessTime(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD, 50);
+    metrics.recordProcessTime(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD, 500);
+    metrics.recordProcessTime(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD, 50000);
+    // the buckets are cumulative, and the last one is +Inf
+    assertArrayEquals(
+        new double[] {1, 2, 2, 3},
+        metrics
+            .getProcessTimeHistogramMap()
+            .get(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD)
+            .get()
+            .buckets);
+  }
+
+  @Test
+  public void testRecordLatencyUnderContention() throws Exception {
+    ShuffleServerGrpcMetrics metrics =
+        new ShuffleServerGrpcMetrics(new ShuffleServerConf(), Constants.SHUFFLE_SERVER_VERSION);
+    metrics.register(new CollectorRegistry(true));
+    int threadNum = 16;
+    int recordNum = 100000;
+    ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+    CountDownLatch startLatch = new CountDownLatch(1);
+    CountDownLatch finishLatch = new CountDownLatch(threadNum);
+    for (int i = 0; i < threadNum; i++) {
+      executor.submit(
+          () -> {
+            try {
+              startLatch.await();
+              for (int j = 0; j < recordNum; j++) {
+                metrics.recordTransportTime(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD, 1);
+                metrics.recordProcessTime(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD, 1);
+              }
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            } finally {
+              finishLatch.countDown();
+            }
+          });
+    }
+    long start = System.nanoTime();
+    startLatch.countDown();
+    assertTrue(finishLatch.await(60, TimeUnit.SECONDS));
+    long costNs = System.nanoTime() - start;
+    executor.shutdownNow();
+    LOG.info(
+        "Recorded {} latencies by {} threads, {} ns per record in each thread",
+        2L * threadNum * recordNum,
+        threadNum,
+        costNs / (2L * recordNum));
+
+    // no sample is lost
+    double[] transportBuckets =
+        metrics
+            .getTransportTimeHistogramMap()
+            .get(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD)
+            .get()
+            .buckets;
+    double[] processBuckets =
+        metrics
+            .getProcessTimeHistogramMap()
+            .get(ShuffleServerGrpcMetrics.SEND_SHUFFLE_DATA_METHOD)
+            .get()
+            .buckets;
+    assertEquals(threadNum * recordNum, transportBuckets[transportBuckets.length - 1]);
+    assertEquals(threadNum * recordNum, processBuckets[processBuckets.length - 1]);
+  }
 }
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server;
+
+import com.google.protobuf.ByteString;
+import io.grpc.stub.StreamObserver;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.uniffle.common.ShufflePartitionedBlock;
+import org.apache.uniffle.common.ShufflePartitionedData;
+import org.apache.uniffle.common.rpc.StatusCode;
+import org.apache.uniffle.common.util.Constants;
+import org.apache.uniffle.common.util.NettyUtils;
+import org.apache.uniffle.proto.RssProtos.SendShuffleDataRequest;
+import org.apache.uniffle.proto.RssProtos.SendShuffleDataResponse;
+import org.apache.uniffle.proto.RssProtos.ShuffleBlock;
+import org.apache.uniffle.proto.RssProtos.ShuffleData;
+import org.apache.uniffle.server.buffer.PreAllocatedBufferInfo;
+import org.apache.uniffle.server.buffer.ShuffleBufferManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ShuffleServerGrpcServiceTest {
+
+  private PooledByteBufAllocator allocator;
+
+  @BeforeEach
+  public void setUp() {
+    ShuffleServerMetrics.register();
+    // without the thread caches, the released buffers are returned to the arenas immediately
+    allocator = NettyUtils.initPooledShuffleDataAllocator(1, 8192, 11, 0, 0);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    NettyUtils.clearPooledShuffleDataAllocator();
+    ShuffleServerMetrics.clear();
+  }
+
+  @Test
+  public void pooledAllocatorMetricsTest() {
+    ShuffleServer.registerPooledAllocatorMetrics(allocator.metric());
+    ByteBuf buf = NettyUtils.getShuffleDataAllocator().directBuffer(1024);
+    try {
+      int chunkSize = allocator.metric().chunkSize();
+      assertEquals(chunkSize, getGauge(ShuffleServerMetrics.POOLED_ALLOCATOR_USED_DIRECT_MEMORY));
+      assertEquals(1, getGauge(ShuffleServerMetrics.POOLED_ALLOCATOR_CHUNK_NUM));
+      // the small buffer takes a page of the chunk
+      assertEquals(8192, getGauge(ShuffleServerMetrics.POOLED_ALLOCATOR_ACTIVE_BYTES));
+      assertEquals(
+          1.0 - 8192.0 / chunkSize,
+          getGauge(ShuffleServerMetrics.POOLED_ALLOCATOR_FRAGMENTATION_RATIO),
+          1e-9);
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void sendShuffleDataTest() {
+    ShuffleServerConf conf = new ShuffleServerConf();
+    conf.set(ShuffleServerConf.SERVER_BUFFER_POOLED_ALLOCATOR_ENABLED, true);
+    ShuffleServer shuffleServer = mock(ShuffleServer.class);
+    ShuffleTaskManager shuffleTaskManager = mock(ShuffleTaskManager.class);
+    ShuffleBufferManager shuffleBufferManager = mock(ShuffleBufferManager.class);
+    when(shuffleServer.getShuffleServerConf()).thenReturn(conf);
+    when(shuffleServer.getShuffleTaskManager()).thenReturn(shuffleTaskManager);
+    when(shuffleServer.getShuffleBufferManager()).thenReturn(shuffleBufferManager);
+    when(shuffleServer.getGrpcMetrics()).thenReturn(mock(ShuffleServerGrpcMetrics.class));
+    when(shuffleTaskManager.getShuffleTaskInfo("appId")).thenReturn(new ShuffleTaskInfo("appId"));
+    when(shuffleTaskManager.getAndRemovePreAllocatedBuffer(1L))
+        .thenReturn(new PreAllocatedBufferInfo("appId", 1L, System.currentTimeMillis(), 660));
+    // the second partition fails to be cached
+    when(shuffleTaskManager.cacheShuffleData(
+            anyString(), anyInt(), anyBoolean(), any(ShufflePartitionedData.class)))
+        .thenReturn(StatusCode.SUCCESS, StatusCode.NO_BUFFER);
+
+    SendShuffleDataRequest request =
+        SendShuffleDataRequest.newBuilder()
+            .setAppId("appId")
+            .setShuffleId(0)
+            .setRequireBufferId(1L)
+            .addShuffleData(generateShuffleData(1, 1L, 2L))
+            .addShuffleData(generateShuffleData(2, 3L))
+            .addShuffleData(generateShuffleData(3, 4L, 5L))
+            .build();
+    StreamObserver<SendShuffleDataResponse> responseObserver = mock(StreamObserver.class);
+    new ShuffleServerGrpcService(shuffleServer).sendShuffleData(request, responseObserver);
+
+    ArgumentCaptor<SendShuffleDataResponse> response =
+        ArgumentCaptor.forClass(SendShuffleDataResponse.class);
+    verify(responseObserver).onNext(response.capture());
+    assertEquals(StatusCode.NO_BUFFER, StatusCode.fromProto(response.getValue().getStatus()));
+
+    // the partitions after the failed one are skipped instead of being cached
+    ArgumentCaptor<ShufflePartitionedData> cachedData =
+        ArgumentCaptor.forClass(ShufflePartitionedData.class);
+    verify(shuffleTaskManager, times(2))
+        .cacheShuffleData(anyString(), anyInt(), anyBoolean(), cachedData.capture());
+    assertEquals(2, cachedData.getAllValues().get(1).getPartitionId());
+    // the memory of the failed and the skipped partitions is released, every block takes 132 bytes
+    verify(shuffleBufferManager).releaseMemory(132L, false, false);
+    verify(shuffleBufferManager).releaseMemory(264L, false, false);
+    verify(shuffleTaskManager).releasePreAllocatedSize(264L);
+    verify(shuffleTaskManager).releasePreAllocatedSize(396L);
+
+    // the blocks are copied into the pooled buffers, and only the cached blocks are still held
+    ShufflePartitionedBlock[] cachedBlocks = cachedData.getAllValues().get(0).getBlockList();
+    for (ShufflePartitionedBlock block : cachedBlocks) {
+      assertTrue(block.getData().isDirect());
+      assertSame(allocator, block.getData().alloc());
+    }
+    PooledByteBufAllocatorMetric metric = allocator.metric();
+    assertEquals(2, metric.directArenas().get(0).numActiveAllocations());
+    for (ShufflePartitionedBlock block : cachedBlocks) {
+      block.getData().release();
+    }
+    assertEquals(0, metric.directArenas().get(0).numActiveAllocations());
+  }
+
+  private static ShuffleData generateShuffleData(int partitionId, long... blockIds) {
+    ShuffleData.Builder builder = ShuffleData.newBuilder().setPartitionId(partitionId);
+    for (long blockId : blockIds) {
+      builder.addBlock(
+          ShuffleBlock.newBuilder()
+              .setBlockId(blockId)
+              .setLength(100)
+              .setUncompressLength(100)
+              .setData(ByteString.copyFrom(new byte[100]))
+              .setTaskAttemptId(blockId));
+    }
+    return builder.build();
+  }
+
+  private static double getGauge(String name) {
+    return ShuffleServerMetrics.getCollectorRegistry()
+        .getSampleValue(
+            name,
+            new String[] {Constants.METRICS_TAG_LABEL_NAME},
+            new String[] {Constants.SHUFFLE_SERVER_VERSION});
+  }
+}
@@ -231,7 +231,7 @@ public class ShuffleServerMetricsTest {
     ObjectMapper mapper = new ObjectMapper();
     JsonNode actualObj = mapper.readTree(content);
     assertEquals(2, actualObj.size());
-    assertEquals(102, actualObj.get("metrics").size());
+    assertEquals(202, actualObj.get("metrics").size());
   }
 
   @Test
@@ -240,7 +240,7 @@ public class ShuffleServerMetricsTest {
     ObjectMapper mapper = new ObjectMapper();
     JsonNode actualObj = mapper.readTree(content);
     assertEquals(2, actualObj.size());
-    assertEquals(84, actualObj.get("metrics").size());
+    assertEquals(184, actualObj.get("metrics").size());
   }
 
   @Test
@@ -18,6 +18,7 @@
 package org.apache.uniffle.server;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -951,6 +952,24 @@ public class ShuffleTaskManagerTest extends HadoopTestBase {
     Roaring64NavigableMap resBlockIds = RssUtils.deserializeBitMap(serializeBitMap);
     assertEquals(expectedBlockIds, resBlockIds);
 
+    // the block ids reported again in the bitmaps are merged without duplication
+    Map<Integer, Roaring64NavigableMap> bitmapsToReport = Maps.newHashMap();
+    for (Map.Entry<Integer, long[]> entry : blockIdsToReport.entrySet()) {
+      bitmapsToReport.put(entry.getKey(), Roaring64NavigableMap.bitmapOf(entry.getValue()));
+    }
+    assertEquals(
+        0,
+        shuffleTaskManager.addFinishedBlockIdBitmaps(appId, shuffleId, bitmapsToReport, bitNum));
+    long newBlockId = layout.getBlockId(blocksPerTask, endPartition, 0);
+    bitmapsToReport.put(endPartition, Roaring64NavigableMap.bitmapOf(newBlockId));
+    assertEquals(
+        1,
+        shuffleTaskManager.addFinishedBlockIdBitmaps(appId, shuffleId, bitmapsToReport, bitNum));
+    expectedBlockIds.addLong(newBlockId);
+    serializeBitMap =
+        shuffleTaskManager.getFinishedBlockIds(appId, shuffleId, requestPartitions, layout);
+    assertEquals(expectedBlockIds, RssUtils.deserializeBitMap(serializeBitMap));
+
     try {
       // calling with same appId and shuffleId but different bitmapNum should fail
       shuffleTaskManager.addFinishedBlockIds(appId, shuffleId, blockIdsToReport, bitNum - 1);
@@ -960,6 +979,97 @@ public class ShuffleTaskManagerTest extends HadoopTestBase {
     }
   }
 
+  @Test
+  public void testGetFinishedBlockIdsOfPartitionsWithCache() throws Exception {
+    ShuffleServerConf conf = new ShuffleServerConf();
+    String storageBasePath = HDFS_URI + "rss/test";
+    String appId = "testGetFinishedBlockIdsOfPartitionsWithCache";
+    final int shuffleId = 1;
+    final int bitNum = 2;
+    conf.set(ShuffleServerConf.RPC_SERVER_PORT, 1234);
+    conf.set(ShuffleServerConf.RSS_COORDINATOR_QUORUM, "localhost:9527");
+    conf.set(ShuffleServerConf.JETTY_HTTP_PORT, 12345);
+    conf.set(ShuffleServerConf.JETTY_CORE_POOL_SIZE, 64);
+    conf.set(ShuffleServerConf.SERVER_BUFFER_CAPACITY, 128L);
+    conf.set(ShuffleServerConf.SERVER_MEMORY_SHUFFLE_HIGHWATERMARK_PERCENTAGE, 50.0);
+    conf.set(ShuffleServerConf.SERVER_MEMORY_SHUFFLE_LOWWATERMARK_PERCENTAGE, 0.0);
+    conf.set(ShuffleServerConf.RSS_STORAGE_BASE_PATH, Arrays.asList(storageBasePath));
+    conf.setString(ShuffleServerConf.RSS_STORAGE_TYPE.key(), StorageType.HDFS.name());
+    conf.set(ShuffleServerConf.RSS_TEST_MODE_ENABLE, true);
+    conf.set(ShuffleServerConf.SERVER_COMMIT_TIMEOUT, 10000L);
+    conf.set(ShuffleServerConf.SERVER_APP_EXPIRED_WITHOUT_HEARTBEAT, 2000L);
+    conf.set(ShuffleServerConf.HEALTH_CHECK_ENABLE, false);
+    conf.set(ShuffleServerConf.SERVER_SHUFFLE_RESULT_CACHE_ENABLED, true);
+
+    shuffleServer = new ShuffleServer(conf);
+    ShuffleTaskManager shuffleTaskManager =
+        new ShuffleTaskManager(
+            conf,
+            shuffleServer.getShuffleFlushManager(),
+            shuffleServer.getShuffleBufferManager(),
+            shuffleServer.getStorageManager());
+    BlockIdLayout layout = BlockIdLayout.DEFAULT;
+    Map<Integer, long[]> blockIdsToReport = Maps.newHashMap();
+    for (int partitionId = 0; partitionId < 3; partitionId++) {
+      shuffleTaskManager.registerShuffle(
+          appId,
+          shuffleId,
+          Lists.newArrayList(new PartitionRange(partitionId, partitionId)),
+          new RemoteStorageInfo(storageBasePath),
+          StringUtils.EMPTY);
+      blockIdsToReport.put(
+          partitionId,
+          new long[] {layout.getBlockId(0, partitionId, 1), layout.getBlockId(1, partitionId, 1)});
+    }
+    // partition 2 has no block
+    blockIdsToReport.remove(2);
+    shuffleTaskManager.addFinishedBlockIds(appId, shuffleId, blockIdsToReport, bitNum);
+
+    Set<Integer> partitions = Sets.newHashSet(0, 1, 2);
+    List<byte[]> partitionBitmaps =
+        shuffleTaskManager.getFinishedBlockIdsOfPartitions(appId, shuffleId, partitions, layout);
+    assertEquals(2, partitionBitmaps.size());
+    assertEquals(3, shuffleTaskManager.getShuffleResultCache().getCachedResultNum());
+    Roaring64NavigableMap expected = Roaring64NavigableMap.bitmapOf();
+    blockIdsToReport.values().forEach(expected::add);
+    assertEquals(expected, merge(partitionBitmaps));
+
+    // the cached block ids are served as they are
+    double hit = ShuffleServerMetrics.counterTotalShuffleResultCacheHit.get();
+    List<byte[]> cachedBitmaps =
+        shuffleTaskManager.getFinishedBlockIdsOfPartitions(appId, shuffleId, partitions, layout);
+    assertEquals(hit + 3, ShuffleServerMetrics.counterTotalShuffleResultCacheHit.get());
+    assertTrue(partitionBitmaps.containsAll(cachedBitmaps));
+
+    // the cached block ids of the partition are invalidated by the newly reported block ids
+    long newBlockId = layout.getBlockId(0, 2, 2);
+    Map<Integer, long[]> newBlockIds = Maps.newHashMap();
+    newBlockIds.put(2, new long[] {newBlockId});
+    shuffleTaskManager.addFinishedBlockIds(appId, shuffleId, newBlockIds, bitNum);
+    assertEquals(2, shuffleTaskManager.getShuffleResultCache().getCachedResultNum());
+    expected.addLong(newBlockId);
+    assertEquals(
+        expected,
+        merge(
+            shuffleTaskManager.getFinishedBlockIdsOfPartitions(
+                appId, shuffleId, partitions, layout)));
+    assertEquals(
+        Roaring64NavigableMap.bitmapOf(newBlockId),
+        RssUtils.deserializeBitMap(
+            shuffleTaskManager.getFinishedBlockIds(appId, shuffleId, Sets.newHashSet(2), layout)));
+
+    shuffleTaskManager.removeResourcesByShuffleIds(appId, Lists.newArrayList(shuffleId));
+    assertEquals(0, shuffleTaskManager.getShuffleResultCache().getCachedResultNum());
+  }
+
+  private static Roaring64NavigableMap merge(List<byte[]> partitionBitmaps) throws IOException {
+    Roaring64NavigableMap result = Roaring64NavigableMap.bitmapOf();
+    for (byte[] partitionBitmap : partitionBitmaps) {
+      result.or(RssUtils.deserializeBitMap(partitionBitmap));
+    }
+    return result;
+  }
+
   @Test
   public void testAddFinishedBlockIdsWithoutRegister() throws Exception {
     ShuffleServerConf conf = new ShuffleServerConf();
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WeightedPartitionCacheTest {
+
+  @Test
+  public void cachedSizeTest() {
+    WeightedPartitionCache<byte[]> cache =
+        new WeightedPartitionCache<>(1024, value -> value.length, () -> {});
+    byte[] value1 = new byte[10];
+    byte[] value2 = new byte[20];
+    cache.put("app1", 0, 0, value1);
+    cache.put("app1", 1, 0, value2);
+    cache.put("app2", 0, 0, new byte[30]);
+    assertEquals(60, cache.getCachedSize());
+
+    byte[] latestValue = new byte[40];
+    assertTrue(cache.replace("app1", 0, 0, value1, latestValue));
+    assertSame(latestValue, cache.get("app1", 0, 0));
+    assertEquals(90, cache.getCachedSize());
+    // the value has been replaced by others
+    assertFalse(cache.replace("app1", 0, 0, value1, new byte[50]));
+    assertEquals(90, cache.getCachedSize());
+
+    cache.remove("app1", 1, 0, value1);
+    assertSame(value2, cache.get("app1", 1, 0));
+    cache.removeShuffles("app1", Collections.singleton(1));
+    assertNull(cache.get("app1", 1, 0));
+    assertEquals(70, cache.getCachedSize());
+    cache.removeApp("app2");
+    assertEquals(1, cache.size());
+    assertEquals(40, cache.getCachedSize());
+    cache.invalidate("app1", 0, 0);
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getCachedSize());
+  }
+
+  @Test
+  public void evictionTest() {
+    AtomicInteger evictionNum = new AtomicInteger();
+    WeightedPartitionCache<byte[]> cache =
+        new WeightedPartitionCache<>(100, value -> value.length, evictionNum::incrementAndGet);
+    for (int i = 0; i < 10; i++) {
+      cache.put("app", 0, i, new byte[30]);
+    }
+    assertTrue(cache.size() <= 3);
+    assertEquals(10 - cache.size(), evictionNum.get());
+    assertEquals(cache.size() * 30, cache.getCachedSize());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.block;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapBlockIdSetTest {
+
+  @Test
+  public void testAddAndContains() {
+    OffHeapBlockIdSet blockIdSet = new OffHeapBlockIdSet(10);
+    Roaring64NavigableMap expected = Roaring64NavigableMap.bitmapOf();
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      // cover the block ids with different high 32 bits
+      long blockId = i % 3 == 0 ? random.nextLong() : random.nextInt(5000);
+      blockIdSet.add(blockId);
+      expected.addLong(blockId);
+      assertEquals(expected.getLongCardinality(), blockIdSet.getLongCardinality());
+    }
+    assertTrue(blockIdSet.getOffHeapSize() > 0);
+    expected.forEach(blockId -> assertTrue(blockIdSet.contains(blockId)));
+    assertFalse(blockIdSet.contains(5001L));
+    assertEquals(expected, blockIdSet.toBitmap());
+
+    Roaring64NavigableMap iterated = Roaring64NavigableMap.bitmapOf();
+    blockIdSet.forEach(iterated::addLong);
+    assertEquals(expected, iterated);
+    blockIdSet.close();
+  }
+
+  @Test
+  public void testSameAsHeapBlockIdSet() {
+    BlockIdSet heap = new HeapBlockIdSet();
+    OffHeapBlockIdSet offHeap = new OffHeapBlockIdSet(7);
+    for (long blockId = 0; blockId < 100; blockId++) {
+      heap.add(blockId * 3);
+      offHeap.add(blockId * 3);
+      // the duplicated block ids
+      heap.add(blockId);
+      offHeap.add(blockId);
+    }
+    assertEquals(heap.getLongCardinality(), offHeap.getLongCardinality());
+    assertEquals(heap.toBitmap(), offHeap.toBitmap());
+    offHeap.close();
+  }
+
+  @Test
+  public void testAddAll() {
+    BlockIdSet heap = new HeapBlockIdSet();
+    OffHeapBlockIdSet offHeap = new OffHeapBlockIdSet(50);
+    Roaring64NavigableMap blockIds = Roaring64NavigableMap.bitmapOf();
+    for (long blockId = 0; blockId < 100; blockId++) {
+      blockIds.addLong(blockId);
+    }
+    assertEquals(100, heap.addAll(blockIds));
+    assertEquals(100, offHeap.addAll(blockIds));
+    // only the block ids not in the set are counted
+    blockIds.addLong(Long.MAX_VALUE);
+    assertEquals(1, heap.addAll(blockIds));
+    assertEquals(1, offHeap.addAll(blockIds));
+    assertEquals(101, offHeap.getLongCardinality());
+    assertEquals(heap.toBitmap(), offHeap.toBitmap());
+    offHeap.close();
+  }
+
+  @Test
+  public void testRunNum() {
+    int deltaThreshold = 16;
+    OffHeapBlockIdSet blockIdSet = new OffHeapBlockIdSet(deltaThreshold);
+    Random random = new Random(42);
+    Roaring64NavigableMap expected = Roaring64NavigableMap.bitmapOf();
+    for (int i = 0; i < 100000; i++) {
+      long blockId = random.nextInt(Integer.MAX_VALUE);
+      blockIdSet.add(blockId);
+      expected.addLong(blockId);
+      // the runs are merged like a binary counter of the delta batches
+      long batches = (expected.getLongCardinality() / deltaThreshold) + 1;
+      assertTrue(blockIdSet.getRunNum(0) <= 64 - Long.numberOfLeadingZeros(batches));
+    }
+    // reading doesn't merge the delta
+    long deltaHeapSize = blockIdSet.getDeltaHeapSize();
+    assertEquals(expected, blockIdSet.toBitmap());
+    assertEquals(deltaHeapSize, blockIdSet.getDeltaHeapSize());
+    blockIdSet.close();
+    assertEquals(0, blockIdSet.getRunNum(0));
+  }
+
+  @Test
+  public void testHeapFootprint() {
+    int deltaThreshold = 4096;
+    HeapBlockIdSet heap = new HeapBlockIdSet();
+    OffHeapBlockIdSet offHeap = new OffHeapBlockIdSet(deltaThreshold);
+    Random random = new Random(42);
+    long maxDeltaHeapSize = 0L;
+    for (int i = 0; i < 500000; i++) {
+      // the sparse block ids of many partitions and task attempts
+      long blockId = random.nextLong() & 0xFFFFFFFFFL;
+      heap.add(blockId);
+      offHeap.add(blockId);
+      if (i % 1000 == 0) {
+        maxDeltaHeapSize = Math.max(maxDeltaHeapSize, offHeap.getDeltaHeapSize());
+      }
+    }
+    assertEquals(heap.toBitmap(), offHeap.toBitmap());
+    long heapSize = heap.toBitmap().getLongSizeInBytes();
+    // only the delta stays on the heap, which is bounded by the threshold rather than the set size
+    assertTrue(maxDeltaHeapSize * 10 < heapSize);
+    assertTrue(offHeap.getOffHeapSize() > 0);
+    offHeap.close();
+  }
+
+  @Test
+  public void testClose() {
+    long totalSize = OffHeapBlockIdSet.getTotalOffHeapSize();
+    OffHeapBlockIdSet blockIdSet = new OffHeapBlockIdSet(1);
+    for (long blockId = 0; blockId < 100; blockId++) {
+      blockIdSet.add(blockId);
+    }
+    assertEquals(totalSize + blockIdSet.getOffHeapSize(), OffHeapBlockIdSet.getTotalOffHeapSize());
+
+    blockIdSet.close();
+    assertEquals(totalSize, OffHeapBlockIdSet.getTotalOffHeapSize());
+    assertTrue(blockIdSet.isEmpty());
+    assertFalse(blockIdSet.contains(1L));
+    blockIdSet.add(1L);
+    assertTrue(blockIdSet.isEmpty());
+    // close again is a no-op
+    blockIdSet.close();
+  }
+}
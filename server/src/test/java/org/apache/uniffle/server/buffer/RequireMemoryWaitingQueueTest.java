@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.buffer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.uniffle.common.exception.NoBufferException;
+import org.apache.uniffle.server.ShuffleServerConf;
+import org.apache.uniffle.server.ShuffleServerMetrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequireMemoryWaitingQueueTest {
+
+  private AtomicLong availableMemory;
+  private RequireMemoryWaitingQueue queue;
+
+  @BeforeEach
+  public void setUp() {
+    ShuffleServerMetrics.register();
+    ShuffleServerConf conf = new ShuffleServerConf();
+    conf.set(ShuffleServerConf.SERVER_REQUIRE_BUFFER_WAITING_QUEUE_CAPACITY, 5);
+    // check manually in the tests
+    conf.set(ShuffleServerConf.SERVER_REQUIRE_BUFFER_WAITING_QUEUE_CHECK_INTERVAL_MS, 3600000L);
+    availableMemory = new AtomicLong(0);
+    queue =
+        new RequireMemoryWaitingQueue(
+            conf,
+            size -> {
+              if (availableMemory.get() >= size) {
+                availableMemory.addAndGet(-size);
+                return true;
+              }
+              return false;
+            });
+  }
+
+  @AfterEach
+  public void tearDown() {
+    queue.stop();
+    ShuffleServerMetrics.clear();
+  }
+
+  @Test
+  public void requireWithoutWaitingTest() {
+    availableMemory.set(10);
+    assertTrue(queue.require("app1", 10, 0).isDone());
+    CompletableFuture<Void> future = queue.require("app1", 10, 0);
+    assertNoBuffer(future);
+    assertEquals(0, queue.getWaitingNum());
+  }
+
+  @Test
+  public void fairGrantTest() {
+    final CompletableFuture<Void> app1Future1 = queue.require("app1", 10, 10000);
+    final CompletableFuture<Void> app1Future2 = queue.require("app1", 10, 10000);
+    final CompletableFuture<Void> app1Future3 = queue.require("app1", 10, 10000);
+    final CompletableFuture<Void> app2Future = queue.require("app2", 10, 10000);
+    assertEquals(4, queue.getWaitingNum());
+
+    // The new request can't overtake the waiting ones even if there is enough memory
+    availableMemory.set(10);
+    assertFalse(queue.require("app3", 10, 10000).isDone());
+    assertEquals(5, queue.getWaitingNum());
+    // The queue is full
+    assertNoBuffer(queue.require("app3", 10, 10000));
+
+    availableMemory.addAndGet(10);
+    queue.grant();
+    // app1 can't take all the released memory
+    assertTrue(app1Future1.isDone());
+    assertTrue(app2Future.isDone());
+    assertFalse(app1Future2.isDone());
+    assertEquals(3, queue.getWaitingNum());
+
+    availableMemory.set(20);
+    queue.grant();
+    assertTrue(app1Future2.isDone());
+    assertFalse(app1Future3.isDone());
+    assertEquals(1, queue.getWaitingNum());
+  }
+
+  @Test
+  public void expireTest() throws Exception {
+    CompletableFuture<Void> expiredFuture = queue.require("app1", 10, 1);
+    final CompletableFuture<Void> waitingFuture = queue.require("app1", 10, 10000);
+    Thread.sleep(10);
+    queue.expire();
+    assertNoBuffer(expiredFuture);
+    assertFalse(waitingFuture.isDone());
+    assertEquals(1, queue.getWaitingNum());
+    assertEquals(1, ShuffleServerMetrics.counterTotalRequireBufferWaitTimeout.get());
+
+    availableMemory.set(10);
+    queue.onMemoryReleased();
+    waitingFuture.get();
+    assertEquals(0, queue.getWaitingNum());
+  }
+
+  @Test
+  public void removeAppTest() {
+    CompletableFuture<Void> app1Future = queue.require("app1", 10, 10000);
+    CompletableFuture<Void> app2Future = queue.require("app2", 10, 10000);
+    queue.removeApp("app1");
+    assertNoBuffer(app1Future);
+    assertFalse(app2Future.isDone());
+    assertEquals(1, queue.getWaitingNum());
+  }
+
+  @Test
+  public void requireWithoutWaitingCantOvertakeTest() {
+    CompletableFuture<Void> waitingFuture = queue.require("app1", 10, 10000);
+    availableMemory.set(10);
+    // the requests of the old clients without app id don't wait and can't overtake the others
+    assertNoBuffer(queue.require(RequireMemoryWaitingQueue.DEFAULT_APP_ID, 10, 0));
+    queue.grant();
+    assertTrue(waitingFuture.isDone());
+    availableMemory.set(10);
+    assertTrue(queue.require(RequireMemoryWaitingQueue.DEFAULT_APP_ID, 10, 0).isDone());
+  }
+
+  @Test
+  public void stopTest() {
+    CompletableFuture<Void> waitingFuture = queue.require("app1", 10, 10000);
+    queue.stop();
+    assertNoBuffer(waitingFuture);
+    assertEquals(0, queue.getWaitingNum());
+    assertNoBuffer(queue.require("app1", 10, 10000));
+  }
+
+  private void assertNoBuffer(CompletableFuture<Void> future) {
+    assertTrue(future.isCompletedExceptionally());
+    ExecutionException e = assertThrows(ExecutionException.class, future::get);
+    assertTrue(e.getCause() instanceof NoBufferException);
+  }
+}
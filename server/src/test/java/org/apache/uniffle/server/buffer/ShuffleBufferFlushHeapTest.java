@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ShuffleBufferFlushHeapTest {
+
+  @Test
+  public void pickOrderTest() {
+    ShuffleBufferFlushHeap heap = new ShuffleBufferFlushHeap();
+    ShuffleBuffer[] buffers = new ShuffleBuffer[5];
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = new ShuffleBufferWithLinkedList();
+      heap.update("app", 0, i, i, buffers[i], (i + 1) * 10L);
+    }
+    assertEquals(5, heap.size());
+
+    // grow, shrink, empty and remove the buffers
+    heap.update("app", 0, 0, 0, buffers[0], 100L);
+    heap.update("app", 0, 4, 4, buffers[4], 5L);
+    heap.update("app", 0, 2, 2, buffers[2], 0L);
+    heap.remove(buffers[3]);
+    assertEquals(3, heap.size());
+
+    assertSame(buffers[0], heap.poll().buffer);
+    assertSame(buffers[1], heap.poll().buffer);
+    ShuffleBufferFlushHeap.Node node = heap.poll();
+    assertSame(buffers[4], node.buffer);
+    assertEquals(4, node.startPartition);
+    assertEquals(5L, node.size);
+    assertNull(heap.poll());
+  }
+
+  @Test
+  public void oldestFirstTest() throws Exception {
+    ShuffleBufferFlushHeap heap = new ShuffleBufferFlushHeap();
+    ShuffleBuffer older = new ShuffleBufferWithLinkedList();
+    ShuffleBuffer newer = new ShuffleBufferWithLinkedList();
+    heap.update("app", 0, 0, 0, older, 10L);
+    Thread.sleep(5);
+    heap.update("app", 0, 1, 1, newer, 10L);
+    assertSame(older, heap.peek().buffer);
+    heap.update("app", 0, 1, 1, newer, 20L);
+    assertSame(newer, heap.poll().buffer);
+    assertSame(older, heap.poll().buffer);
+  }
+
+  @Test
+  public void peekOldestTest() throws Exception {
+    ShuffleBufferFlushHeap heap = new ShuffleBufferFlushHeap();
+    ShuffleBuffer older = new ShuffleBufferWithLinkedList();
+    ShuffleBuffer newer = new ShuffleBufferWithLinkedList();
+    heap.update("app", 0, 0, 0, older, 10L);
+    Thread.sleep(5);
+    heap.update("app", 0, 1, 1, newer, 100L);
+    // the oldest buffer is picked regardless of its size
+    assertSame(newer, heap.peek().buffer);
+    assertSame(older, heap.peekOldest().buffer);
+
+    // the buffer becomes the newest after being emptied
+    heap.update("app", 0, 0, 0, older, 0L);
+    heap.update("app", 0, 0, 0, older, 10L);
+    assertSame(newer, heap.peekOldest().buffer);
+    heap.remove(newer);
+    heap.remove(older);
+    assertNull(heap.peekOldest());
+  }
+}
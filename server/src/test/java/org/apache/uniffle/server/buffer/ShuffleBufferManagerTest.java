@@ -640,6 +640,48 @@ public class ShuffleBufferManagerTest extends BufferTestBase {
     assertEquals(0, shuffleBufferManager.getInFlushSize());
   }
 
+  @Test
+  public void partitionGranularFlushTest() {
+    ShuffleServerConf serverConf = new ShuffleServerConf();
+    serverConf.addAll(conf);
+    serverConf.set(ShuffleServerConf.SERVER_BUFFER_FLUSH_PARTITION_GRANULAR_ENABLED, true);
+    serverConf.set(ShuffleServerConf.SERVER_BUFFER_FLUSH_MIN_SIZE, 64L);
+    shuffleBufferManager = new ShuffleBufferManager(serverConf, mockShuffleFlushManager, false);
+
+    String appId = "partitionGranularFlushTest";
+    shuffleBufferManager.setShuffleTaskManager(mockShuffleTaskManager);
+    ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+    when(mockShuffleTaskManager.getAppReadLock(appId)).thenReturn(rwLock.readLock());
+
+    shuffleBufferManager.registerBuffer(appId, 0, 0, 1);
+    shuffleBufferManager.registerBuffer(appId, 0, 2, 3);
+    shuffleBufferManager.registerBuffer(appId, 0, 4, 5);
+    shuffleBufferManager.registerBuffer(appId, 1, 0, 1);
+    shuffleBufferManager.cacheShuffleData(appId, 0, false, createData(0, 168));
+    shuffleBufferManager.cacheShuffleData(appId, 0, false, createData(2, 8));
+    shuffleBufferManager.cacheShuffleData(appId, 1, false, createData(0, 118));
+    assertEquals(390, shuffleBufferManager.getUsedMemory());
+    assertEquals(0, shuffleBufferManager.getInFlushSize());
+
+    // high watermark is 400 and low watermark is 100, the biggest buffers are picked until
+    // more than 300 bytes are picked, the small buffers of shuffle 0 are kept in memory
+    shuffleBufferManager.cacheShuffleData(appId, 0, false, createData(4, 8));
+    assertEquals(430, shuffleBufferManager.getUsedMemory());
+    assertEquals(350, shuffleBufferManager.getInFlushSize());
+    verify(mockShuffleFlushManager, times(2)).addToFlushQueue(any());
+    assertEquals(0, shuffleBufferManager.getShuffleBuffer(appId, 0, 0).getEncodedLength());
+    assertEquals(40, shuffleBufferManager.getShuffleBuffer(appId, 0, 2).getEncodedLength());
+    assertEquals(40, shuffleBufferManager.getShuffleBuffer(appId, 0, 4).getEncodedLength());
+    assertEquals(0, shuffleBufferManager.getShuffleBuffer(appId, 1, 0).getEncodedLength());
+
+    // the removed buffers are not picked any more
+    shuffleBufferManager.removeBufferByShuffleId(appId, Arrays.asList(0));
+    shuffleBufferManager.resetSize();
+    shuffleBufferManager.cacheShuffleData(appId, 1, false, createData(0, 400));
+    assertEquals(432, shuffleBufferManager.getInFlushSize());
+    verify(mockShuffleFlushManager, times(3)).addToFlushQueue(any());
+  }
+
   private void waitForFlush(
       ShuffleFlushManager shuffleFlushManager, String appId, int shuffleId, int expectedBlockNum)
       throws Exception {
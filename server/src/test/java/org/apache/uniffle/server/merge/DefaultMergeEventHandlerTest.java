@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.server.merge;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.uniffle.server.ShuffleServerConf;
+import org.apache.uniffle.server.ShuffleServerMetrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DefaultMergeEventHandlerTest {
+
+  @BeforeEach
+  public void beforeEach() {
+    ShuffleServerMetrics.clear();
+    ShuffleServerMetrics.register();
+  }
+
+  @AfterEach
+  public void afterEach() {
+    ShuffleServerMetrics.clear();
+  }
+
+  @Test
+  public void testEventsAreHandledWhenRunPoolIsFull() {
+    ShuffleServerConf serverConf = new ShuffleServerConf();
+    serverConf.set(ShuffleServerConf.SERVER_MERGE_THREAD_POOL_SIZE, 1);
+    serverConf.set(ShuffleServerConf.SERVER_MERGE_THREAD_POOL_QUEUE_SIZE, 1);
+    serverConf.set(ShuffleServerConf.SERVER_MERGE_MULTI_PASS_THREAD_POOL_SIZE, 1);
+    AtomicInteger handledEvents = new AtomicInteger();
+    DefaultMergeEventHandler handler =
+        new DefaultMergeEventHandler(serverConf, event -> handledEvents.incrementAndGet());
+    CountDownLatch runLatch = new CountDownLatch(1);
+    Runnable run =
+        () -> {
+          try {
+            runLatch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+    try {
+      // one run is running and one is queued, the run pool is full
+      handler.execute(run);
+      handler.execute(run);
+      assertThrows(RejectedExecutionException.class, () -> handler.execute(run));
+
+      // the merge events are still handled by the merge thread pool
+      for (int i = 0; i < 3; i++) {
+        assertTrue(handler.handle(new MergeEvent("app", 0, i, null, null, null)));
+        int expected = i + 1;
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> handledEvents.get() == expected);
+      }
+      Awaitility.await()
+          .atMost(5, TimeUnit.SECONDS)
+          .until(() -> ShuffleServerMetrics.gaugeMergeEventQueueSize.get() == 0);
+      assertEquals(0, handler.getEventNumInMerge());
+    } finally {
+      runLatch.countDown();
+      handler.stop();
+    }
+  }
+}
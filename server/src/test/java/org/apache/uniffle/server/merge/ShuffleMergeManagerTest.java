@@ -113,6 +113,40 @@ public class ShuffleMergeManagerTest {
         "org.apache.hadoop.io.Text,org.apache.hadoop.io.IntWritable,false,false",
       })
   public void testMergerManager(String classes) throws Exception {
+    testMerge(classes, 4);
+  }
+
+  @Timeout(10)
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "org.apache.hadoop.io.Text,org.apache.hadoop.io.IntWritable,true,true",
+        "org.apache.hadoop.io.Text,org.apache.hadoop.io.IntWritable,false,false",
+      })
+  public void testMultiPassMerge(String classes) throws Exception {
+    serverConf.set(ShuffleServerConf.SERVER_MERGE_MULTI_PASS_ENABLE, true);
+    serverConf.set(ShuffleServerConf.SERVER_MERGE_MULTI_PASS_FAN_IN, 2);
+    // 5 blocks with fan-in 2 need the first pass, an intermediate pass and the final pass.
+    testMerge(classes, 5);
+    assertEquals(5, (int) ShuffleServerMetrics.counterTotalMergeSpilledRunNum.get());
+    // The spilled runs should be deleted after merge
+    for (File tempDir : new File[] {tempDir1, tempDir2}) {
+      File spillDir =
+          new File(
+              tempDir,
+              APP_ID
+                  + ShuffleMergeManager.MERGE_APP_SUFFIX
+                  + "/"
+                  + SHUFFLE_ID
+                  + "/"
+                  + PARTITION_ID
+                  + "-spill");
+      File[] spilledRuns = spillDir.listFiles();
+      assertTrue(spilledRuns == null || spilledRuns.length == 0);
+    }
+  }
+
+  private void testMerge(String classes, int blockNum) throws Exception {
     // 1 Construct serializer and comparator
     final String[] classArray = classes.split(",");
     final String keyClassName = classArray[0];
@@ -155,18 +189,17 @@ public class ShuffleMergeManagerTest {
 
     // 4 report blocks
     // 4.1 send shuffle data
-    // Upstream have 2 task, each task generate 2 blocks
+    // Upstream tasks generate 2 blocks each
     BlockIdLayout blockIdLayout = BlockIdLayout.from(serverConf);
-    long[] blocks = new long[4];
-    blocks[0] = blockIdLayout.getBlockId(0, PARTITION_ID, 0);
-    blocks[1] = blockIdLayout.getBlockId(1, PARTITION_ID, 0);
-    blocks[2] = blockIdLayout.getBlockId(0, PARTITION_ID, 1);
-    blocks[3] = blockIdLayout.getBlockId(1, PARTITION_ID, 1);
-    ShufflePartitionedBlock[] shufflePartitionedBlocks = new ShufflePartitionedBlock[4];
-    for (int i = 0; i < 4; i++) {
+    long[] blocks = new long[blockNum];
+    for (int i = 0; i < blockNum; i++) {
+      blocks[i] = blockIdLayout.getBlockId(i % 2, PARTITION_ID, i / 2);
+    }
+    ShufflePartitionedBlock[] shufflePartitionedBlocks = new ShufflePartitionedBlock[blockNum];
+    for (int i = 0; i < blockNum; i++) {
       ByteBuf byteBuf =
           SerializerUtils.genSortedRecordBuffer(
-              serverConf, keyClass, valueClass, i, 4, RECORDS_NUMBER, 1, direct);
+              serverConf, keyClass, valueClass, i, blockNum, RECORDS_NUMBER, 1, direct);
       shufflePartitionedBlocks[i] =
           new ShufflePartitionedBlock(
               byteBuf.readableBytes(),
@@ -254,7 +287,7 @@ public class ShuffleMergeManagerTest {
           fail("Find invalid merge state!");
       }
     }
-    assertEquals(RECORDS_NUMBER * 4, index);
+    assertEquals(RECORDS_NUMBER * blockNum, index);
 
     // 8 cleanup
     mergeManager.removeBuffer(APP_ID, SHUFFLE_ID);
@@ -30,11 +30,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import org.apache.uniffle.common.RemoteStorageInfo;
+import org.apache.uniffle.common.config.RssBaseConf;
 import org.apache.uniffle.server.ShuffleServerConf;
 import org.apache.uniffle.server.ShuffleServerMetrics;
 import org.apache.uniffle.server.event.AppPurgeEvent;
 import org.apache.uniffle.server.event.ShufflePurgeEvent;
 import org.apache.uniffle.storage.common.HadoopStorage;
+import org.apache.uniffle.storage.request.CreateShuffleWriteHandlerRequest;
 import org.apache.uniffle.storage.util.ShuffleStorageUtils;
 import org.apache.uniffle.storage.util.StorageType;
 
@@ -80,6 +82,49 @@ public class HadoopStorageManagerTest {
     assertEquals(0, appStorageMap.size());
   }
 
+  @Test
+  public void testRemoveConsolidatedWriteHandlers(@TempDir File remoteBasePath) throws Exception {
+    ShuffleServerConf conf = new ShuffleServerConf();
+    conf.setString(
+        ShuffleServerConf.RSS_STORAGE_TYPE.key(), StorageType.MEMORY_LOCALFILE_HDFS.name());
+    conf.set(RssBaseConf.RSS_STORAGE_HDFS_CONSOLIDATED_ENABLED, true);
+    HadoopStorageManager hadoopStorageManager = new HadoopStorageManager(conf);
+    String appId = "testRemoveConsolidatedWriteHandlers";
+    hadoopStorageManager.registerRemoteStorage(
+        appId,
+        new RemoteStorageInfo(
+            new File(remoteBasePath, "path1").getAbsolutePath(), Maps.newHashMap()));
+    HadoopStorage storage = hadoopStorageManager.getAppIdToStorages().get(appId);
+    for (int shuffleId = 0; shuffleId < 2; shuffleId++) {
+      for (int partition = 0; partition < 2; partition++) {
+        storage.getOrCreateWriteHandler(
+            new CreateShuffleWriteHandlerRequest(
+                conf,
+                StorageType.HDFS.name(),
+                appId,
+                shuffleId,
+                partition,
+                partition,
+                new String[] {storage.getStoragePath()},
+                "prefix",
+                storage.getConf(),
+                1,
+                "user",
+                1));
+      }
+    }
+    assertEquals(2, storage.getConsolidatedWriteHandlerNum(appId));
+
+    hadoopStorageManager.removeResources(new ShufflePurgeEvent(appId, "", Arrays.asList(0)));
+    assertEquals(1, storage.getConsolidatedWriteHandlerNum(appId));
+    assertFalse(storage.containsWriteHandler(appId, 0, 0));
+    assertTrue(storage.containsWriteHandler(appId, 1, 0));
+
+    hadoopStorageManager.removeResources(new AppPurgeEvent(appId, ""));
+    assertEquals(0, storage.getConsolidatedWriteHandlerNum(appId));
+    assertFalse(storage.containsWriteHandler(appId));
+  }
+
   @Test
   public void testRegisterRemoteStorage() {
     ShuffleServerConf conf = new ShuffleServerConf();
@@ -17,6 +17,7 @@
 
 package org.apache.uniffle.storage.common;
 
+import java.util.Collection;
 import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -90,6 +91,15 @@ public abstract class AbstractStorage implements Storage {
     return map.containsKey(partitionKeyExceptAppId);
   }
 
+  /** Get the write handler of the partition range starting with the given partition, or null. */
+  public ShuffleWriteHandler getWriteHandler(String appId, int shuffleId, int startPartition) {
+    Map<String, ShuffleWriteHandler> map = writerHandlers.get(appId);
+    if (map == null) {
+      return null;
+    }
+    return map.get(generatePartitionKeyExceptAppId(shuffleId, startPartition));
+  }
+
   public static String generatePartitionKeyExceptAppId(Integer shuffleId, Integer partition) {
     return String.join(
         Constants.KEY_SPLIT_CHAR, String.valueOf(shuffleId), String.valueOf(partition));
@@ -102,6 +112,22 @@ public abstract class AbstractStorage implements Storage {
     requests.remove(appId);
   }
 
+  /** Remove the handlers of the given shuffles, the handlers of the other shuffles are kept. */
+  public void removeHandlers(String appId, Collection<Integer> shuffleIds) {
+    for (Integer shuffleId : shuffleIds) {
+      String prefix = shuffleId + Constants.KEY_SPLIT_CHAR;
+      removeByKeyPrefix(writerHandlers.get(appId), prefix);
+      removeByKeyPrefix(readerHandlers.get(appId), prefix);
+      removeByKeyPrefix(requests.get(appId), prefix);
+    }
+  }
+
+  private static void removeByKeyPrefix(Map<String, ?> map, String prefix) {
+    if (map != null) {
+      map.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+  }
+
   @VisibleForTesting
   public int getHandlerSize() {
     return writerHandlers.size();
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.common;
+
+import java.util.Objects;
+
+/**
+ * The record of the partition index file in the consolidated Hadoop storage, it points to the
+ * {@link FileBasedShuffleSegment}s of a partition in the index file.
+ */
+public class FileBasedPartitionSegment extends ShuffleSegment {
+  private static final long serialVersionUID = 0L;
+  public static final int SEGMENT_SIZE = Long.BYTES + 2 * Integer.BYTES;
+  private int partitionId;
+  private long offset;
+  private int length;
+
+  public FileBasedPartitionSegment(int partitionId, long offset, int length) {
+    this.partitionId = partitionId;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  public int getPartitionId() {
+    return partitionId;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    FileBasedPartitionSegment that = (FileBasedPartitionSegment) o;
+    return partitionId == that.partitionId && offset == that.offset && length == that.length;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(partitionId, offset, length);
+  }
+
+  @Override
+  public String toString() {
+    return "FileBasedPartitionSegment{"
+        + "partitionId["
+        + partitionId
+        + "], offset["
+        + offset
+        + "], length["
+        + length
+        + "]}";
+  }
+}
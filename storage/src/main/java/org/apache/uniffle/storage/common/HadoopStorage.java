@@ -19,14 +19,20 @@ package org.apache.uniffle.storage.common;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Map;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.hadoop.conf.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.uniffle.common.config.RssBaseConf;
 import org.apache.uniffle.common.exception.RssException;
+import org.apache.uniffle.common.util.JavaUtils;
 import org.apache.uniffle.storage.handler.api.ServerReadHandler;
 import org.apache.uniffle.storage.handler.api.ShuffleWriteHandler;
+import org.apache.uniffle.storage.handler.impl.HadoopConsolidatedShuffleWriteHandler;
 import org.apache.uniffle.storage.handler.impl.HadoopShuffleWriteHandler;
 import org.apache.uniffle.storage.handler.impl.PooledHadoopShuffleWriteHandler;
 import org.apache.uniffle.storage.request.CreateShuffleReadHandlerRequest;
@@ -39,6 +45,9 @@ public class HadoopStorage extends AbstractStorage {
   private final String storagePath;
   private final Configuration conf;
   private String storageHost;
+  // appId -> shuffleId -> the write handler shared by all the partitions of the shuffle
+  private final Map<String, Map<Integer, HadoopConsolidatedShuffleWriteHandler>>
+      consolidatedWriteHandlers = JavaUtils.newConcurrentMap();
 
   public HadoopStorage(String path, Configuration conf) {
     this.storagePath = path;
@@ -81,7 +90,12 @@ public class HadoopStorage extends AbstractStorage {
   ShuffleWriteHandler newWriteHandler(CreateShuffleWriteHandlerRequest request) {
     try {
       String user = request.getUser();
-      if (request.getMaxFileNumber() == 1) {
+      RssBaseConf rssBaseConf = request.getRssBaseConf();
+      if (rssBaseConf != null
+          && rssBaseConf.getBoolean(RssBaseConf.RSS_STORAGE_HDFS_CONSOLIDATED_ENABLED)) {
+        return getOrCreateConsolidatedWriteHandler(request)
+            .getPartitionWriteHandler(request.getStartPartition());
+      } else if (request.getMaxFileNumber() == 1) {
         return new HadoopShuffleWriteHandler(
             request.getRssBaseConf(),
             request.getAppId(),
@@ -110,6 +124,57 @@ public class HadoopStorage extends AbstractStorage {
     }
   }
 
+  private HadoopConsolidatedShuffleWriteHandler getOrCreateConsolidatedWriteHandler(
+      CreateShuffleWriteHandlerRequest request) {
+    return consolidatedWriteHandlers
+        .computeIfAbsent(request.getAppId(), key -> JavaUtils.newConcurrentMap())
+        .computeIfAbsent(
+            request.getShuffleId(),
+            key -> {
+              try {
+                return new HadoopConsolidatedShuffleWriteHandler(
+                    request.getRssBaseConf(),
+                    request.getAppId(),
+                    request.getShuffleId(),
+                    storagePath,
+                    request.getFileNamePrefix(),
+                    conf,
+                    request.getUser(),
+                    request
+                        .getRssBaseConf()
+                        .get(RssBaseConf.RSS_STORAGE_HDFS_CONSOLIDATED_FILE_NUMBER));
+              } catch (Exception e) {
+                throw new RssException(e);
+              }
+            });
+  }
+
+  // the consolidated handlers open and close the files in every write, so there is nothing to
+  // close, they are only removed to release the memory
+  @Override
+  public void removeHandlers(String appId) {
+    super.removeHandlers(appId);
+    consolidatedWriteHandlers.remove(appId);
+  }
+
+  @Override
+  public void removeHandlers(String appId, Collection<Integer> shuffleIds) {
+    super.removeHandlers(appId, shuffleIds);
+    consolidatedWriteHandlers.computeIfPresent(
+        appId,
+        (key, handlers) -> {
+          shuffleIds.forEach(handlers::remove);
+          return handlers.isEmpty() ? null : handlers;
+        });
+  }
+
+  @VisibleForTesting
+  public int getConsolidatedWriteHandlerNum(String appId) {
+    Map<Integer, HadoopConsolidatedShuffleWriteHandler> handlers =
+        consolidatedWriteHandlers.get(appId);
+    return handlers == null ? 0 : handlers.size();
+  }
+
   @Override
   protected ServerReadHandler newReadHandler(CreateShuffleReadHandlerRequest request) {
     throw new RssException("Hadoop FS storage don't support to read from sever");
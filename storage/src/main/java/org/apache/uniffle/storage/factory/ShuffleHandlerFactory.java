@@ -28,13 +28,18 @@ import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.apache.uniffle.client.api.ShuffleServerClient;
 import org.apache.uniffle.client.factory.ShuffleServerClientFactory;
 import org.apache.uniffle.common.ShuffleServerInfo;
+import org.apache.uniffle.common.config.RssClientConf;
+import org.apache.uniffle.common.config.RssConf;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.util.RssUtils;
+import org.apache.uniffle.storage.handler.ReadBufferSizeController;
 import org.apache.uniffle.storage.handler.api.ClientReadHandler;
 import org.apache.uniffle.storage.handler.api.ShuffleDeleteHandler;
 import org.apache.uniffle.storage.handler.impl.ComposedClientReadHandler;
 import org.apache.uniffle.storage.handler.impl.HadoopClientReadHandler;
 import org.apache.uniffle.storage.handler.impl.HadoopShuffleDeleteHandler;
+import org.apache.uniffle.storage.handler.impl.LocalFileBatchReadContext;
+import org.apache.uniffle.storage.handler.impl.LocalFileBatchReader;
 import org.apache.uniffle.storage.handler.impl.LocalFileClientReadHandler;
 import org.apache.uniffle.storage.handler.impl.LocalFileDeleteHandler;
 import org.apache.uniffle.storage.handler.impl.MemoryClientReadHandler;
@@ -95,7 +100,8 @@ public class ShuffleHandlerFactory {
       return getHadoopClientReadHandler(request, serverInfo);
     }
     if (StorageType.LOCALFILE == type) {
-      return getLocalfileClientReaderHandler(request, serverInfo);
+      return getLocalfileClientReaderHandler(
+          request, serverInfo, getLocalFileBatchReader(request, serverInfo));
     }
 
     List<Supplier<ClientReadHandler>> handlers = new ArrayList<>();
@@ -103,7 +109,10 @@ public class ShuffleHandlerFactory {
       handlers.add(() -> getMemoryClientReadHandler(request, serverInfo));
     }
     if (StorageType.withLocalfile(type)) {
-      handlers.add(() -> getLocalfileClientReaderHandler(request, serverInfo));
+      // the localfile handler is created lazily, but the partition should be registered in advance
+      // to be read together with the other partitions
+      LocalFileBatchReader batchReader = getLocalFileBatchReader(request, serverInfo);
+      handlers.add(() -> getLocalfileClientReaderHandler(request, serverInfo, batchReader));
     }
     if (StorageType.withHadoop(type)) {
       handlers.add(() -> getHadoopClientReadHandler(request, serverInfo));
@@ -127,7 +136,7 @@ public class ShuffleHandlerFactory {
       realExceptBlockIds.xor(request.getProcessBlockIds());
       expectTaskIds = RssUtils.generateTaskIdBitMap(realExceptBlockIds, request.getIdHelper());
     }
-    ClientReadHandler memoryClientReadHandler =
+    MemoryClientReadHandler memoryClientReadHandler =
         new MemoryClientReadHandler(
             request.getAppId(),
             request.getShuffleId(),
@@ -137,33 +146,108 @@ public class ShuffleHandlerFactory {
             expectTaskIds,
             request.getRetryMax(),
             request.getRetryIntervalMax());
+    memoryClientReadHandler.setReadBufferSizeController(createReadBufferSizeController(request));
     return memoryClientReadHandler;
   }
 
   private ClientReadHandler getLocalfileClientReaderHandler(
-      CreateShuffleReadHandlerRequest request, ShuffleServerInfo ssi) {
+      CreateShuffleReadHandlerRequest request,
+      ShuffleServerInfo ssi,
+      LocalFileBatchReader batchReader) {
     ShuffleServerClient shuffleServerClient =
         ShuffleServerClientFactory.getInstance()
             .getShuffleServerClient(request.getClientType().name(), ssi, request.getClientConf());
-    return new LocalFileClientReadHandler(
-        request.getAppId(),
-        request.getShuffleId(),
-        request.getPartitionId(),
-        request.getIndexReadLimit(),
-        request.getPartitionNumPerRange(),
-        request.getPartitionNum(),
+    RssConf clientConf = request.getClientConf() == null ? new RssConf() : request.getClientConf();
+    LocalFileClientReadHandler localFileClientReadHandler =
+        new LocalFileClientReadHandler(
+            request.getAppId(),
+            request.getShuffleId(),
+            request.getPartitionId(),
+            request.getIndexReadLimit(),
+            request.getPartitionNumPerRange(),
+            request.getPartitionNum(),
+            request.getReadBufferSize(),
+            request.getExpectBlockIds(),
+            request.getProcessBlockIds(),
+            shuffleServerClient,
+            request.getDistributionType(),
+            request.getExpectTaskIds(),
+            request.getRetryMax(),
+            request.getRetryIntervalMax(),
+            clientConf.get(RssClientConf.RSS_CLIENT_READ_LOCALFILE_SERVER_FILTER_ENABLED));
+    localFileClientReadHandler.setReadBufferSizeController(createReadBufferSizeController(request));
+    localFileClientReadHandler.setShortCircuitReadEnabled(
+        isShortCircuitReadEnabled(clientConf, ssi));
+    localFileClientReadHandler.setBatchReader(batchReader);
+    return localFileClientReadHandler;
+  }
+
+  private boolean isShortCircuitReadEnabled(RssConf clientConf, ShuffleServerInfo ssi) {
+    return clientConf.get(RssClientConf.RSS_CLIENT_READ_LOCALFILE_SHORT_CIRCUIT_ENABLED)
+        && RssUtils.isLocalAddress(ssi.getHost());
+  }
+
+  /**
+   * Register the partition to the batch reader of the server shared by the coalesced partitions of
+   * the reducer, null if the partition isn't read in batch.
+   */
+  private LocalFileBatchReader getLocalFileBatchReader(
+      CreateShuffleReadHandlerRequest request, ShuffleServerInfo ssi) {
+    LocalFileBatchReadContext context = request.getLocalFileBatchReadContext();
+    RssConf clientConf = request.getClientConf() == null ? new RssConf() : request.getClientConf();
+    if (context == null
+        || request.getExpectTaskIds() == null
+        || request.getExpectBlockIds() == null
+        || request.getExpectBlockIds().isEmpty()
+        || isShortCircuitReadEnabled(clientConf, ssi)) {
+      return null;
+    }
+    LocalFileBatchReader batchReader =
+        context.getOrCreateReader(
+            ssi,
+            () ->
+                new LocalFileBatchReader(
+                    ShuffleServerClientFactory.getInstance()
+                        .getShuffleServerClient(
+                            request.getClientType().name(), ssi, request.getClientConf()),
+                    request.getAppId(),
+                    request.getShuffleId(),
+                    request.getPartitionNumPerRange(),
+                    request.getPartitionNum(),
+                    request.getReadBufferSize(),
+                    request.getExpectTaskIds(),
+                    request.getRetryMax(),
+                    request.getRetryIntervalMax()));
+    batchReader.register(request.getPartitionId());
+    return batchReader;
+  }
+
+  /** Each reader tunes its own read buffer size, null if the adaptive read buffer is disabled. */
+  private ReadBufferSizeController createReadBufferSizeController(
+      CreateShuffleReadHandlerRequest request) {
+    RssConf clientConf = request.getClientConf();
+    if (clientConf == null
+        || !clientConf.get(RssClientConf.RSS_CLIENT_READ_BUFFER_ADAPTIVE_ENABLED)) {
+      return null;
+    }
+    long minSize =
+        clientConf.getSizeAsBytes(
+            RssClientConf.RSS_CLIENT_READ_BUFFER_ADAPTIVE_MIN_SIZE.key(),
+            RssClientConf.RSS_CLIENT_READ_BUFFER_ADAPTIVE_MIN_SIZE.defaultValue());
+    long maxSize =
+        clientConf.getSizeAsBytes(
+            RssClientConf.RSS_CLIENT_READ_BUFFER_ADAPTIVE_MAX_SIZE.key(),
+            RssClientConf.RSS_CLIENT_READ_BUFFER_ADAPTIVE_MAX_SIZE.defaultValue());
+    return new ReadBufferSizeController(
         request.getReadBufferSize(),
-        request.getExpectBlockIds(),
-        request.getProcessBlockIds(),
-        shuffleServerClient,
-        request.getDistributionType(),
-        request.getExpectTaskIds(),
-        request.getRetryMax(),
-        request.getRetryIntervalMax());
+        (int) Math.min(Integer.MAX_VALUE, minSize),
+        (int) Math.min(Integer.MAX_VALUE, maxSize),
+        clientConf.get(RssClientConf.RSS_CLIENT_READ_BUFFER_ADAPTIVE_TARGET_LATENCY_MS));
   }
 
   private ClientReadHandler getHadoopClientReadHandler(
       CreateShuffleReadHandlerRequest request, ShuffleServerInfo ssi) {
+    RssConf clientConf = request.getClientConf() == null ? new RssConf() : request.getClientConf();
     return new HadoopClientReadHandler(
         request.getAppId(),
         request.getShuffleId(),
@@ -179,7 +263,9 @@ public class ShuffleHandlerFactory {
         request.getDistributionType(),
         request.getExpectTaskIds(),
         ssi.getId(),
-        request.isOffHeapEnabled());
+        request.isOffHeapEnabled(),
+        clientConf.get(RssClientConf.RSS_CLIENT_READ_HADOOP_READ_AHEAD_NUM),
+        clientConf.get(RssClientConf.RSS_CLIENT_READ_HADOOP_CONSOLIDATED_ENABLED));
   }
 
   public ShuffleDeleteHandler createShuffleDeleteHandler(
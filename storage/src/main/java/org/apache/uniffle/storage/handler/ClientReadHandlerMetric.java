@@ -28,6 +28,11 @@ public class ClientReadHandlerMetric {
   private long skippedReadLength = 0L;
   private long skippedReadUncompressLength = 0L;
 
+  // the adaptive read buffer, the size is 0 if the read buffer size is fixed
+  private int readBufferSize = 0;
+  private long readBufferIncreaseNum = 0L;
+  private long readBufferDecreaseNum = 0L;
+
   public long getReadBlockNum() {
     return readBlockNum;
   }
@@ -76,6 +81,30 @@ public class ClientReadHandlerMetric {
     this.skippedReadUncompressLength += skippedReadUncompressLength;
   }
 
+  public int getReadBufferSize() {
+    return readBufferSize;
+  }
+
+  public void setReadBufferSize(int readBufferSize) {
+    this.readBufferSize = readBufferSize;
+  }
+
+  public long getReadBufferIncreaseNum() {
+    return readBufferIncreaseNum;
+  }
+
+  public void setReadBufferIncreaseNum(long readBufferIncreaseNum) {
+    this.readBufferIncreaseNum = readBufferIncreaseNum;
+  }
+
+  public long getReadBufferDecreaseNum() {
+    return readBufferDecreaseNum;
+  }
+
+  public void setReadBufferDecreaseNum(long readBufferDecreaseNum) {
+    this.readBufferDecreaseNum = readBufferDecreaseNum;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -90,7 +119,10 @@ public class ClientReadHandlerMetric {
         && readUncompressLength == that.getReadUncompressLength()
         && skippedReadBlockNum == that.getSkippedReadBlockNum()
         && skippedReadLength == that.getSkippedReadLength()
-        && skippedReadUncompressLength == that.getSkippedReadUncompressLength();
+        && skippedReadUncompressLength == that.getSkippedReadUncompressLength()
+        && readBufferSize == that.getReadBufferSize()
+        && readBufferIncreaseNum == that.getReadBufferIncreaseNum()
+        && readBufferDecreaseNum == that.getReadBufferDecreaseNum();
   }
 
   @Override
@@ -101,6 +133,9 @@ public class ClientReadHandlerMetric {
         readUncompressLength,
         skippedReadBlockNum,
         skippedReadLength,
-        skippedReadUncompressLength);
+        skippedReadUncompressLength,
+        readBufferSize,
+        readBufferIncreaseNum,
+        readBufferDecreaseNum);
   }
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler;
+
+/**
+ * Tunes the read buffer size of a client read handler from the observed reads, like the congestion
+ * window of TCP. The size grows exponentially until the slow start threshold and linearly after
+ * that, as long as the reads fill the buffer within the target latency. Once a read is slower than
+ * the target latency or its throughput drops below half of the best observed one, the threshold and
+ * the size are halved. The size is always kept between the min and the max size, so the memory of
+ * a reader stays bounded.
+ *
+ * <p>It isn't thread safe, since a client read handler reads its partition sequentially.
+ */
+public class ReadBufferSizeController {
+  private final int minSize;
+  private final int maxSize;
+  private final long targetLatencyMs;
+
+  private int readBufferSize;
+  private int slowStartThreshold;
+  // bytes per millisecond of the full reads since the last decrease
+  private double bestThroughput = 0;
+
+  private long readNum = 0L;
+  private long readLength = 0L;
+  private long readTimeMs = 0L;
+  private long increaseNum = 0L;
+  private long decreaseNum = 0L;
+
+  public ReadBufferSizeController(int initialSize, int minSize, int maxSize, long targetLatencyMs) {
+    if (minSize <= 0 || minSize > maxSize) {
+      throw new IllegalArgumentException(
+          "Illegal read buffer size range [" + minSize + ", " + maxSize + "]");
+    }
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.targetLatencyMs = targetLatencyMs;
+    this.readBufferSize = Math.min(maxSize, Math.max(minSize, initialSize));
+    this.slowStartThreshold = maxSize;
+  }
+
+  /**
+   * Records a read and adjusts the read buffer size for the next one.
+   *
+   * @param requestedSize the read buffer size of the read
+   * @param length the length of the data returned by the read
+   * @param costMs the time spent on the read
+   */
+  public void onRead(int requestedSize, long length, long costMs) {
+    readNum++;
+    readLength += length;
+    readTimeMs += costMs;
+    if (costMs > targetLatencyMs) {
+      decrease();
+      return;
+    }
+    // the remaining data is less than the buffer, neither its latency nor its throughput tells
+    // whether a larger buffer would be better
+    if (length < requestedSize / 2) {
+      return;
+    }
+    double throughput = (double) length / Math.max(1L, costMs);
+    if (throughput < bestThroughput / 2) {
+      decrease();
+      return;
+    }
+    bestThroughput = Math.max(bestThroughput, throughput);
+    increase();
+  }
+
+  private void increase() {
+    long newSize =
+        readBufferSize < slowStartThreshold ? 2L * readBufferSize : (long) readBufferSize + minSize;
+    newSize = Math.min(maxSize, newSize);
+    if (newSize > readBufferSize) {
+      readBufferSize = (int) newSize;
+      increaseNum++;
+    }
+  }
+
+  private void decrease() {
+    slowStartThreshold = Math.max(minSize, readBufferSize / 2);
+    bestThroughput = 0;
+    if (slowStartThreshold < readBufferSize) {
+      readBufferSize = slowStartThreshold;
+      decreaseNum++;
+    }
+  }
+
+  public int getReadBufferSize() {
+    return readBufferSize;
+  }
+
+  public int getMinSize() {
+    return minSize;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getReadNum() {
+    return readNum;
+  }
+
+  public long getReadLength() {
+    return readLength;
+  }
+
+  public long getReadTimeMs() {
+    return readTimeMs;
+  }
+
+  public long getIncreaseNum() {
+    return increaseNum;
+  }
+
+  public long getDecreaseNum() {
+    return decreaseNum;
+  }
+
+  @Override
+  public String toString() {
+    return "ReadBufferSizeController{"
+        + "readBufferSize="
+        + readBufferSize
+        + ", slowStartThreshold="
+        + slowStartThreshold
+        + ", readNum="
+        + readNum
+        + ", readLength="
+        + readLength
+        + ", readTimeMs="
+        + readTimeMs
+        + ", increaseNum="
+        + increaseNum
+        + ", decreaseNum="
+        + decreaseNum
+        + '}';
+  }
+}
@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import org.apache.uniffle.common.BufferSegment;
 import org.apache.uniffle.common.ShuffleDataResult;
 import org.apache.uniffle.storage.handler.ClientReadHandlerMetric;
+import org.apache.uniffle.storage.handler.ReadBufferSizeController;
 import org.apache.uniffle.storage.handler.api.ClientReadHandler;
 
 public abstract class AbstractClientReadHandler implements ClientReadHandler {
@@ -32,6 +33,8 @@ public abstract class AbstractClientReadHandler implements ClientReadHandler {
   protected int partitionId;
   protected int readBufferSize;
   protected ClientReadHandlerMetric readHandlerMetric = new ClientReadHandlerMetric();
+  // null if the read buffer size is fixed
+  protected ReadBufferSizeController readBufferSizeController;
 
   @Override
   public ShuffleDataResult readShuffleData() {
@@ -67,6 +70,34 @@ public abstract class AbstractClientReadHandler implements ClientReadHandler {
             + " uncompressed bytes:"
             + readHandlerMetric.getSkippedReadUncompressLength()
             + "]");
+    if (readBufferSizeController != null) {
+      LOG.info(
+          "Client read buffer of {} [size:{}, increased:{} times, decreased:{} times]",
+          getClass().getSimpleName(),
+          readHandlerMetric.getReadBufferSize(),
+          readHandlerMetric.getReadBufferIncreaseNum(),
+          readHandlerMetric.getReadBufferDecreaseNum());
+    }
+  }
+
+  /** The read buffer size of the next read, which is tuned if the adaptive read is enabled. */
+  protected int getReadBufferSize() {
+    return readBufferSizeController == null
+        ? readBufferSize
+        : readBufferSizeController.getReadBufferSize();
+  }
+
+  protected void onRead(int requestedSize, long length, long costMs) {
+    if (readBufferSizeController != null) {
+      readBufferSizeController.onRead(requestedSize, length, costMs);
+      updateReadBufferMetric();
+    }
+  }
+
+  private void updateReadBufferMetric() {
+    readHandlerMetric.setReadBufferSize(readBufferSizeController.getReadBufferSize());
+    readHandlerMetric.setReadBufferIncreaseNum(readBufferSizeController.getIncreaseNum());
+    readHandlerMetric.setReadBufferDecreaseNum(readBufferSizeController.getDecreaseNum());
   }
 
   protected void updateBlockMetric(
@@ -85,4 +116,15 @@ public abstract class AbstractClientReadHandler implements ClientReadHandler {
   public ClientReadHandlerMetric getReadHandlerMetric() {
     return readHandlerMetric;
   }
+
+  public ReadBufferSizeController getReadBufferSizeController() {
+    return readBufferSizeController;
+  }
+
+  public void setReadBufferSizeController(ReadBufferSizeController readBufferSizeController) {
+    this.readBufferSizeController = readBufferSizeController;
+    if (readBufferSizeController != null) {
+      updateReadBufferMetric();
+    }
+  }
 }
@@ -156,6 +156,20 @@ public class ComposedClientReadHandler extends AbstractClientReadHandler {
     LOG.info(getReadBlockNumInfo());
     LOG.info(getReadLengthInfo());
     LOG.info(getReadUncompressLengthInfo());
+    handlerMap.forEach(
+        (tier, handler) -> {
+          if (handler instanceof AbstractClientReadHandler
+              && ((AbstractClientReadHandler) handler).getReadBufferSizeController() != null) {
+            ClientReadHandlerMetric metric =
+                ((AbstractClientReadHandler) handler).getReadHandlerMetric();
+            LOG.info(
+                "Client read buffer of {} tier [size:{}, increased:{} times, decreased:{} times]",
+                tier,
+                metric.getReadBufferSize(),
+                metric.getReadBufferIncreaseNum(),
+                metric.getReadBufferDecreaseNum());
+          }
+        });
   }
 
   @VisibleForTesting
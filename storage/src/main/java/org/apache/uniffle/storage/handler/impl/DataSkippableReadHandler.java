@@ -24,6 +24,7 @@ import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.uniffle.common.BufferSegment;
 import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleDataResult;
 import org.apache.uniffle.common.ShuffleDataSegment;
@@ -67,42 +68,112 @@ public abstract class DataSkippableReadHandler extends AbstractClientReadHandler
 
   @Override
   public ShuffleDataResult readShuffleData() {
+    if (!loadShuffleDataSegments()) {
+      return null;
+    }
+
+    // We should skip unexpected and processed segments when handler is read
+    ShuffleDataResult result = null;
+    while (segmentIndex < shuffleDataSegments.size()) {
+      ShuffleDataSegment segment = shuffleDataSegments.get(segmentIndex);
+      if (hasUnprocessedBlocks(segment)) {
+        if (readBufferSizeController == null) {
+          result = readShuffleData(segment);
+          segmentIndex++;
+        } else {
+          result = readMergedShuffleData();
+        }
+        break;
+      }
+      segmentIndex++;
+    }
+    return result;
+  }
+
+  private boolean hasUnprocessedBlocks(ShuffleDataSegment segment) {
+    Roaring64NavigableMap blocksOfSegment = getExpectedBlocks(segment);
+    if (blocksOfSegment.isEmpty()) {
+      return false;
+    }
+    // skip processed blockIds
+    blocksOfSegment.or(processBlockIds);
+    blocksOfSegment.xor(processBlockIds);
+    return !blocksOfSegment.isEmpty();
+  }
+
+  /**
+   * The segments are split by the min read buffer size when the adaptive read buffer is enabled,
+   * so the current segment is merged with the following contiguous ones up to the current read
+   * buffer size, then read at once.
+   */
+  private ShuffleDataResult readMergedShuffleData() {
+    int requestedSize = getReadBufferSize();
+    ShuffleDataSegment segment = shuffleDataSegments.get(segmentIndex++);
+    long offset = segment.getOffset();
+    int length = segment.getLength();
+    List<BufferSegment> bufferSegments = Lists.newArrayList(segment.getBufferSegments());
+    while (segmentIndex < shuffleDataSegments.size()) {
+      ShuffleDataSegment next = shuffleDataSegments.get(segmentIndex);
+      if (next.getOffset() != offset + length
+          || (long) length + next.getLength() > requestedSize
+          || !hasUnprocessedBlocks(next)) {
+        break;
+      }
+      for (BufferSegment bs : next.getBufferSegments()) {
+        bufferSegments.add(
+            new BufferSegment(
+                bs.getBlockId(),
+                bs.getOffset() + length,
+                bs.getLength(),
+                bs.getUncompressLength(),
+                bs.getCrc(),
+                bs.getTaskAttemptId()));
+      }
+      length += next.getLength();
+      segmentIndex++;
+    }
+    long start = System.currentTimeMillis();
+    ShuffleDataResult result =
+        readShuffleData(new ShuffleDataSegment(offset, length, bufferSegments));
+    onRead(requestedSize, length, System.currentTimeMillis() - start);
+    return result;
+  }
+
+  /**
+   * Read the index and split it into the data segments if they are not loaded yet.
+   *
+   * @return false if there is no index
+   */
+  protected boolean loadShuffleDataSegments() {
     if (shuffleDataSegments.isEmpty()) {
       ShuffleIndexResult shuffleIndexResult = readShuffleIndex();
       if (shuffleIndexResult == null || shuffleIndexResult.isEmpty()) {
-        return null;
+        return false;
       }
 
       try {
         shuffleDataSegments =
             SegmentSplitterFactory.getInstance()
-                .get(distributionType, expectTaskIds, readBufferSize)
+                .get(distributionType, expectTaskIds, getSplitSize())
                 .split(shuffleIndexResult);
       } finally {
         shuffleIndexResult.release();
       }
     }
+    return true;
+  }
 
-    // We should skip unexpected and processed segments when handler is read
-    ShuffleDataResult result = null;
-    while (segmentIndex < shuffleDataSegments.size()) {
-      ShuffleDataSegment segment = shuffleDataSegments.get(segmentIndex);
-      Roaring64NavigableMap blocksOfSegment = Roaring64NavigableMap.bitmapOf();
-      segment.getBufferSegments().forEach(block -> blocksOfSegment.addLong(block.getBlockId()));
-      // skip unexpected blockIds
-      blocksOfSegment.and(expectBlockIds);
-      if (!blocksOfSegment.isEmpty()) {
-        // skip processed blockIds
-        blocksOfSegment.or(processBlockIds);
-        blocksOfSegment.xor(processBlockIds);
-        if (!blocksOfSegment.isEmpty()) {
-          result = readShuffleData(segment);
-          segmentIndex++;
-          break;
-        }
-      }
-      segmentIndex++;
-    }
-    return result;
+  private int getSplitSize() {
+    return readBufferSizeController == null
+        ? readBufferSize
+        : readBufferSizeController.getMinSize();
+  }
+
+  // skip unexpected blockIds
+  protected Roaring64NavigableMap getExpectedBlocks(ShuffleDataSegment segment) {
+    Roaring64NavigableMap blocksOfSegment = Roaring64NavigableMap.bitmapOf();
+    segment.getBufferSegments().forEach(block -> blocksOfSegment.addLong(block.getBlockId()));
+    blocksOfSegment.and(expectBlockIds);
+    return blocksOfSegment;
   }
 }
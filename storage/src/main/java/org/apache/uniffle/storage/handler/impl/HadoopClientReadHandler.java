@@ -20,9 +20,13 @@ package org.apache.uniffle.storage.handler.impl;
 import java.io.FileNotFoundException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
@@ -36,11 +40,19 @@ import org.apache.uniffle.common.ShuffleDataResult;
 import org.apache.uniffle.common.exception.RssException;
 import org.apache.uniffle.common.filesystem.HadoopFilesystemProvider;
 import org.apache.uniffle.common.util.Constants;
+import org.apache.uniffle.common.util.ThreadUtils;
 import org.apache.uniffle.storage.util.ShuffleStorageUtils;
 
+/**
+ * Read the data of a partition from the Hadoop files written by the shuffle servers one by one.
+ * When the read ahead is enabled, the first expected segments of the following files are read
+ * concurrently while the current file is being read.
+ */
 public class HadoopClientReadHandler extends AbstractClientReadHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(HadoopClientReadHandler.class);
+  private static final ExecutorService READ_AHEAD_EXECUTOR =
+      ThreadUtils.getDaemonCachedThreadPool("hadoop-client-read-ahead");
 
   protected final int partitionNumPerRange;
   protected final int partitionNum;
@@ -55,6 +67,10 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
   private ShuffleDataDistributionType distributionType;
   private Roaring64NavigableMap expectTaskIds;
   private boolean offHeapEnable = false;
+  private final int readAheadNum;
+  private final boolean consolidatedEnabled;
+  // the index of the read handler -> the read ahead task of it
+  private final Map<Integer, Future<?>> readAheadFutures = Maps.newHashMap();
 
   public HadoopClientReadHandler(
       String appId,
@@ -71,7 +87,9 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
       ShuffleDataDistributionType distributionType,
       Roaring64NavigableMap expectTaskIds,
       String shuffleServerId,
-      boolean offHeapEnable) {
+      boolean offHeapEnable,
+      int readAheadNum,
+      boolean consolidatedEnabled) {
     this.appId = appId;
     this.shuffleId = shuffleId;
     this.partitionId = partitionId;
@@ -87,6 +105,8 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
     this.expectTaskIds = expectTaskIds;
     this.shuffleServerId = shuffleServerId;
     this.offHeapEnable = offHeapEnable;
+    this.readAheadNum = readAheadNum;
+    this.consolidatedEnabled = consolidatedEnabled;
   }
 
   // Only for test
@@ -117,6 +137,8 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
         ShuffleDataDistributionType.NORMAL,
         Roaring64NavigableMap.bitmapOf(),
         null,
+        false,
+        0,
         false);
   }
 
@@ -129,44 +151,52 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
       throw new RssException("Can't get FileSystem for " + baseFolder);
     }
 
-    FileStatus[] indexFiles = null;
-    try {
-      // get all index files
-      indexFiles =
-          fs.listStatus(
-              baseFolder,
-              file ->
-                  file.getName().endsWith(Constants.SHUFFLE_INDEX_FILE_SUFFIX)
-                      && (shuffleServerId == null || file.getName().startsWith(shuffleServerId)));
-    } catch (Exception e) {
-      if (e instanceof FileNotFoundException) {
-        LOG.info(
-            "Directory["
-                + baseFolder
-                + "] not found. The data may not be flushed to this directory. Nothing will be read.");
-      } else {
-        String failedGetIndexFileMsg = "Can't list index file in  " + baseFolder;
-        LOG.error(failedGetIndexFileMsg, e);
+    for (FileStatus status : listFiles(fs, baseFolder, Constants.SHUFFLE_INDEX_FILE_SUFFIX)) {
+      LOG.info(
+          "Find index file for shuffleId["
+              + shuffleId
+              + "], partitionId["
+              + partitionId
+              + "] "
+              + status.getPath());
+      String filePrefix = getFileNamePrefix(status.getPath().toUri().toString());
+      try {
+        HadoopShuffleReadHandler handler =
+            new HadoopShuffleReadHandler(
+                appId,
+                shuffleId,
+                partitionId,
+                filePrefix,
+                readBufferSize,
+                expectBlockIds,
+                processBlockIds,
+                hadoopConf,
+                distributionType,
+                expectTaskIds,
+                offHeapEnable);
+        readHandlers.add(handler);
+      } catch (Exception e) {
+        LOG.warn("Can't create ShuffleReaderHandler for " + filePrefix, e);
       }
-      return;
     }
 
-    if (indexFiles != null && indexFiles.length != 0) {
-      for (FileStatus status : indexFiles) {
-        LOG.info(
-            "Find index file for shuffleId["
-                + shuffleId
-                + "], partitionId["
-                + partitionId
-                + "] "
-                + status.getPath());
+    if (consolidatedEnabled) {
+      Path consolidatedFolder =
+          new Path(
+              ShuffleStorageUtils.getFullShuffleDataFolder(
+                  storageBasePath, ShuffleStorageUtils.getConsolidatedDataPath(appId, shuffleId)));
+      int startPartition =
+          ShuffleStorageUtils.getPartitionRange(partitionId, partitionNumPerRange, partitionNum)[0];
+      for (FileStatus status :
+          listFiles(fs, consolidatedFolder, Constants.SHUFFLE_PARTITION_INDEX_FILE_SUFFIX)) {
         String filePrefix = getFileNamePrefix(status.getPath().toUri().toString());
         try {
-          HadoopShuffleReadHandler handler =
-              new HadoopShuffleReadHandler(
+          readHandlers.add(
+              new HadoopConsolidatedShuffleReadHandler(
                   appId,
                   shuffleId,
                   partitionId,
+                  startPartition,
                   filePrefix,
                   readBufferSize,
                   expectBlockIds,
@@ -174,12 +204,14 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
                   hadoopConf,
                   distributionType,
                   expectTaskIds,
-                  offHeapEnable);
-          readHandlers.add(handler);
+                  offHeapEnable));
         } catch (Exception e) {
           LOG.warn("Can't create ShuffleReaderHandler for " + filePrefix, e);
         }
       }
+    }
+
+    if (!readHandlers.isEmpty()) {
       Collections.shuffle(readHandlers);
       LOG.info(
           "Reading order of Hadoop files with name prefix: {}",
@@ -187,6 +219,29 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
     }
   }
 
+  private FileStatus[] listFiles(FileSystem fs, Path folder, String suffix) {
+    try {
+      FileStatus[] files =
+          fs.listStatus(
+              folder,
+              file ->
+                  file.getName().endsWith(suffix)
+                      && (shuffleServerId == null || file.getName().startsWith(shuffleServerId)));
+      return files == null ? new FileStatus[0] : files;
+    } catch (Exception e) {
+      if (e instanceof FileNotFoundException) {
+        LOG.info(
+            "Directory["
+                + folder
+                + "] not found. The data may not be flushed to this directory. Nothing will be read.");
+      } else {
+        String failedGetIndexFileMsg = "Can't list index file in  " + folder;
+        LOG.error(failedGetIndexFileMsg, e);
+      }
+      return new FileStatus[0];
+    }
+  }
+
   @Override
   public ShuffleDataResult readShuffleData() {
     // init lazily like LocalFileClientRead
@@ -199,23 +254,41 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
       init(fullShufflePath);
     }
 
-    if (readHandlerIndex >= readHandlers.size()) {
-      return new ShuffleDataResult();
+    while (readHandlerIndex < readHandlers.size()) {
+      waitReadAhead(readHandlerIndex);
+      readAhead();
+      ShuffleDataResult shuffleDataResult = readHandlers.get(readHandlerIndex).readShuffleData();
+      if (shuffleDataResult != null) {
+        return shuffleDataResult;
+      }
+      ++readHandlerIndex;
     }
+    return new ShuffleDataResult();
+  }
 
-    HadoopShuffleReadHandler hadoopShuffleFileReader = readHandlers.get(readHandlerIndex);
-    ShuffleDataResult shuffleDataResult = hadoopShuffleFileReader.readShuffleData();
-
-    while (shuffleDataResult == null) {
-      ++readHandlerIndex;
-      if (readHandlerIndex >= readHandlers.size()) {
-        return new ShuffleDataResult();
+  private void readAhead() {
+    int end = Math.min(readHandlerIndex + readAheadNum, readHandlers.size() - 1);
+    for (int i = readHandlerIndex + 1; i <= end; i++) {
+      if (!readAheadFutures.containsKey(i)) {
+        readAheadFutures.put(i, READ_AHEAD_EXECUTOR.submit(readHandlers.get(i)::prefetch));
       }
-      hadoopShuffleFileReader = readHandlers.get(readHandlerIndex);
-      shuffleDataResult = hadoopShuffleFileReader.readShuffleData();
     }
+  }
 
-    return shuffleDataResult;
+  private void waitReadAhead(int index) {
+    Future<?> future = readAheadFutures.remove(index);
+    if (future == null) {
+      return;
+    }
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RssException("Interrupted when waiting for the read ahead of " + index);
+    } catch (Exception e) {
+      // the data will be read again by the current thread
+      LOG.warn("Fail to read ahead {}", readHandlers.get(index).filePrefix, e);
+    }
   }
 
   protected String getFileNamePrefix(String fileName) {
@@ -225,6 +298,14 @@ public class HadoopClientReadHandler extends AbstractClientReadHandler {
 
   @Override
   public synchronized void close() {
+    for (Future<?> future : readAheadFutures.values()) {
+      try {
+        future.get();
+      } catch (Exception e) {
+        LOG.warn("Error happened when waiting for the read ahead", e);
+      }
+    }
+    readAheadFutures.clear();
     for (HadoopShuffleReadHandler handler : readHandlers) {
       handler.close();
     }
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.conf.Configuration;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.common.ShuffleDataDistributionType;
+import org.apache.uniffle.common.ShuffleDataSegment;
+import org.apache.uniffle.common.ShuffleIndexResult;
+import org.apache.uniffle.common.segment.SegmentSplitter;
+import org.apache.uniffle.common.segment.SegmentSplitterFactory;
+import org.apache.uniffle.storage.common.FileBasedPartitionSegment;
+import org.apache.uniffle.storage.util.ShuffleStorageUtils;
+
+/**
+ * The read handler of a partition in the consolidated files written by {@link
+ * HadoopConsolidatedShuffleWriteHandler}. The partition index file is read to find the index ranges
+ * of the partition, and only these ranges of the index file are read. The data of different ranges
+ * isn't continuous in the data file, so every range is split into the data segments separately.
+ */
+public class HadoopConsolidatedShuffleReadHandler extends HadoopShuffleReadHandler {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(HadoopConsolidatedShuffleReadHandler.class);
+
+  private final int startPartition;
+
+  public HadoopConsolidatedShuffleReadHandler(
+      String appId,
+      int shuffleId,
+      int partitionId,
+      int startPartition,
+      String filePrefix,
+      int readBufferSize,
+      Roaring64NavigableMap expectBlockIds,
+      Roaring64NavigableMap processBlockIds,
+      Configuration conf,
+      ShuffleDataDistributionType distributionType,
+      Roaring64NavigableMap expectTaskIds,
+      boolean offHeapEnabled)
+      throws Exception {
+    super(
+        appId,
+        shuffleId,
+        partitionId,
+        filePrefix,
+        readBufferSize,
+        expectBlockIds,
+        processBlockIds,
+        conf,
+        distributionType,
+        expectTaskIds,
+        offHeapEnabled);
+    this.startPartition = startPartition;
+  }
+
+  @Override
+  protected ShuffleIndexResult readShuffleIndex() {
+    List<ByteBuffer> indexRanges = readIndexRanges();
+    if (indexRanges.isEmpty()) {
+      return new ShuffleIndexResult();
+    }
+    int length = indexRanges.stream().mapToInt(ByteBuffer::remaining).sum();
+    ByteBuffer indexData = ByteBuffer.allocate(length);
+    indexRanges.forEach(indexData::put);
+    indexData.flip();
+    return new ShuffleIndexResult(indexData, getDataFileLen());
+  }
+
+  @Override
+  protected boolean loadShuffleDataSegments() {
+    if (shuffleDataSegments.isEmpty()) {
+      List<ByteBuffer> indexRanges = readIndexRanges();
+      if (indexRanges.isEmpty()) {
+        return false;
+      }
+      long dataFileLen = getDataFileLen();
+      SegmentSplitter splitter =
+          SegmentSplitterFactory.getInstance().get(distributionType, expectTaskIds, readBufferSize);
+      List<ShuffleDataSegment> segments = Lists.newArrayList();
+      for (ByteBuffer indexRange : indexRanges) {
+        segments.addAll(splitter.split(new ShuffleIndexResult(indexRange, dataFileLen)));
+      }
+      shuffleDataSegments = segments;
+    }
+    return true;
+  }
+
+  private List<ByteBuffer> readIndexRanges() {
+    long start = System.currentTimeMillis();
+    List<ByteBuffer> indexRanges = Lists.newArrayList();
+    try {
+      for (FileBasedPartitionSegment segment : readPartitionSegments()) {
+        byte[] indexData = getIndexReader().read(segment.getOffset(), segment.getLength());
+        if (indexData.length != segment.getLength()) {
+          LOG.warn(
+              "Fail to read expected[{}] index, actual[{}] and segment is {} from file {}.index",
+              segment.getLength(),
+              indexData.length,
+              segment,
+              filePrefix);
+          break;
+        }
+        indexRanges.add(ByteBuffer.wrap(indexData));
+      }
+      LOG.info(
+          "Read {} index ranges of partition {} from {}.index for {} ms",
+          indexRanges.size(),
+          startPartition,
+          filePrefix,
+          System.currentTimeMillis() - start);
+    } catch (Exception e) {
+      LOG.info("Fail to read index files {}.index", filePrefix, e);
+    }
+    return indexRanges;
+  }
+
+  private List<FileBasedPartitionSegment> readPartitionSegments() throws Exception {
+    byte[] data;
+    try (HadoopFileReader reader =
+        createHadoopReader(
+            ShuffleStorageUtils.generatePartitionIndexFileName(filePrefix), hadoopConf)) {
+      data = reader.read();
+    }
+    // the incomplete record at the tail is ignored
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    List<FileBasedPartitionSegment> segments = Lists.newArrayList();
+    while (buffer.remaining() >= FileBasedPartitionSegment.SEGMENT_SIZE) {
+      int partition = buffer.getInt();
+      long offset = buffer.getLong();
+      int length = buffer.getInt();
+      if (partition == startPartition) {
+        segments.add(new FileBasedPartitionSegment(partition, offset, length));
+      }
+    }
+    return segments;
+  }
+}
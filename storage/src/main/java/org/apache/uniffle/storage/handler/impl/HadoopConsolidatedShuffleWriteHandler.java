@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.common.ShufflePartitionedBlock;
+import org.apache.uniffle.common.config.RssBaseConf;
+import org.apache.uniffle.common.exception.RssException;
+import org.apache.uniffle.common.filesystem.HadoopFilesystemProvider;
+import org.apache.uniffle.storage.common.FileBasedPartitionSegment;
+import org.apache.uniffle.storage.common.FileBasedShuffleSegment;
+import org.apache.uniffle.storage.handler.api.ShuffleWriteHandler;
+import org.apache.uniffle.storage.util.ShuffleStorageUtils;
+
+/**
+ * The {@link HadoopConsolidatedShuffleWriteHandler} appends the blocks of all the partitions of a
+ * shuffle into a few consolidated file groups instead of the files per partition, which reduces the
+ * file number in Hadoop FS a lot.
+ *
+ * <p>Every file group contains a data file, an index file of {@link FileBasedShuffleSegment}s and a
+ * partition index file of {@link FileBasedPartitionSegment}s. The segments of each write are
+ * continuous in the index file, so a partition index record points to them. The partition index is
+ * written after the data and the index are closed, so the readers never see the partition index
+ * pointing to incomplete data.
+ */
+public class HadoopConsolidatedShuffleWriteHandler {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(HadoopConsolidatedShuffleWriteHandler.class);
+
+  private final Configuration hadoopConf;
+  private final String basePath;
+  private final String fileNamePrefix;
+  private final FileSystem fileSystem;
+  private final int dataBufferSize;
+  private final int indexBufferSize;
+  private final int maxFileNumber;
+  private final LinkedBlockingDeque<FileGroup> queue;
+  private volatile int initializedFileNumber = 0;
+
+  public HadoopConsolidatedShuffleWriteHandler(
+      RssBaseConf rssBaseConf,
+      String appId,
+      int shuffleId,
+      String storageBasePath,
+      String fileNamePrefix,
+      Configuration hadoopConf,
+      String user,
+      int maxFileNumber)
+      throws Exception {
+    this.hadoopConf = hadoopConf;
+    this.fileNamePrefix = fileNamePrefix;
+    this.basePath =
+        ShuffleStorageUtils.getFullShuffleDataFolder(
+            storageBasePath, ShuffleStorageUtils.getConsolidatedDataPath(appId, shuffleId));
+    this.dataBufferSize =
+        (int)
+            rssBaseConf.getSizeAsBytes(
+                RssBaseConf.RSS_STORAGE_HDFS_WRITE_DATA_BUFFER_SIZE.key(),
+                RssBaseConf.RSS_STORAGE_HDFS_WRITE_DATA_BUFFER_SIZE.defaultValue());
+    this.indexBufferSize =
+        (int)
+            rssBaseConf.getSizeAsBytes(
+                RssBaseConf.RSS_STORAGE_HDFS_WRITE_INDEX_BUFFER_SIZE.key(),
+                RssBaseConf.RSS_STORAGE_HDFS_WRITE_INDEX_BUFFER_SIZE.defaultValue());
+    this.maxFileNumber = maxFileNumber;
+    this.queue = new LinkedBlockingDeque<>(maxFileNumber);
+    Path path = new Path(basePath);
+    LOG.info("User: {}, Path: {}", user, path);
+    this.fileSystem = HadoopFilesystemProvider.getFilesystem(user, path, hadoopConf);
+    ShuffleStorageUtils.createDirIfNotExist(fileSystem, basePath);
+  }
+
+  /** Get the write handler of the partitions range starting with the partition. */
+  public ShuffleWriteHandler getPartitionWriteHandler(int startPartition) {
+    return shuffleBlocks -> write(startPartition, shuffleBlocks);
+  }
+
+  public void write(int startPartition, Collection<ShufflePartitionedBlock> shuffleBlocks)
+      throws Exception {
+    if (queue.isEmpty() && initializedFileNumber < maxFileNumber) {
+      synchronized (this) {
+        if (initializedFileNumber < maxFileNumber) {
+          queue.add(new FileGroup(fileNamePrefix + "_" + initializedFileNumber++));
+        }
+      }
+    }
+    FileGroup fileGroup = queue.take();
+    try {
+      fileGroup.write(startPartition, shuffleBlocks);
+    } finally {
+      queue.addFirst(fileGroup);
+    }
+  }
+
+  private HadoopFileWriter createWriter(String fileName, int bufferSize) throws IOException {
+    return new HadoopFileWriter(fileSystem, new Path(basePath, fileName), hadoopConf, bufferSize);
+  }
+
+  private class FileGroup {
+    private final String prefix;
+    private int failTimes = 0;
+
+    FileGroup(String prefix) {
+      this.prefix = prefix;
+    }
+
+    void write(int startPartition, Collection<ShufflePartitionedBlock> shuffleBlocks) {
+      // Write to HDFS will be failed with lease problem, and can't write the same file again
+      // change the prefix of file name if write failed before
+      String filePrefix = prefix + "_" + failTimes;
+      try {
+        long indexOffset;
+        try (HadoopFileWriter dataWriter =
+                createWriter(ShuffleStorageUtils.generateDataFileName(filePrefix), dataBufferSize);
+            HadoopFileWriter indexWriter =
+                createWriter(
+                    ShuffleStorageUtils.generateIndexFileName(filePrefix), indexBufferSize)) {
+          indexOffset = indexWriter.nextOffset();
+          for (ShufflePartitionedBlock block : shuffleBlocks) {
+            long startOffset = dataWriter.nextOffset();
+            dataWriter.writeData(block.getData());
+            indexWriter.writeIndex(
+                new FileBasedShuffleSegment(
+                    block.getBlockId(),
+                    startOffset,
+                    block.getDataLength(),
+                    block.getUncompressLength(),
+                    block.getCrc(),
+                    block.getTaskAttemptId()));
+          }
+        }
+        try (HadoopFileWriter partitionIndexWriter =
+            createWriter(
+                ShuffleStorageUtils.generatePartitionIndexFileName(filePrefix), indexBufferSize)) {
+          partitionIndexWriter.writePartitionIndex(
+              new FileBasedPartitionSegment(
+                  startPartition,
+                  indexOffset,
+                  shuffleBlocks.size() * FileBasedShuffleSegment.SEGMENT_SIZE));
+        }
+      } catch (IOException e) {
+        LOG.warn(
+            "Write failed with {} blocks of partition {} for {}",
+            shuffleBlocks.size(),
+            startPartition,
+            filePrefix,
+            e);
+        failTimes++;
+        throw new RssException(e);
+      }
+    }
+  }
+}
@@ -58,11 +58,14 @@ public class HadoopFileReader implements FileReader, Closeable {
     fsDataInputStream = fileSystem.open(path);
   }
 
+  /**
+   * Read the data by the positional read which doesn't change the position of the stream, so the
+   * reads of the same file don't need to be serialized.
+   */
   public byte[] read(long offset, int length) {
     try {
-      fsDataInputStream.seek(offset);
       byte[] buf = new byte[length];
-      fsDataInputStream.readFully(buf);
+      fsDataInputStream.readFully(offset, buf);
       return buf;
     } catch (Exception e) {
       LOG.warn(
@@ -78,7 +81,7 @@ public class HadoopFileReader implements FileReader, Closeable {
     return new byte[0];
   }
 
-  public byte[] read() {
+  public synchronized byte[] read() {
     try {
       return IOUtils.toByteArray(fsDataInputStream);
     } catch (IOException e) {
@@ -87,8 +90,9 @@ public class HadoopFileReader implements FileReader, Closeable {
     }
   }
 
+  // The positional read into ByteBuffer isn't supported by the Hadoop version, so seek is used here
   @Override
-  public ByteBuffer readAsByteBuffer(long offset, int length) {
+  public synchronized ByteBuffer readAsByteBuffer(long offset, int length) {
     try {
       fsDataInputStream.seek(offset);
       ByteBuffer buffer = ByteBuffer.allocateDirect(length);
@@ -110,7 +114,7 @@ public class HadoopFileReader implements FileReader, Closeable {
   }
 
   @Override
-  public ByteBuffer readAsByteBuffer() {
+  public synchronized ByteBuffer readAsByteBuffer() {
     try {
       long length = getFileLen();
       if (length - fsDataInputStream.getPos() > Integer.MAX_VALUE) {
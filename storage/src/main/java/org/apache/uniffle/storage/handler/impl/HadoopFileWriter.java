@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.uniffle.common.util.ByteBufUtils;
 import org.apache.uniffle.storage.api.FileWriter;
+import org.apache.uniffle.storage.common.FileBasedPartitionSegment;
 import org.apache.uniffle.storage.common.FileBasedShuffleSegment;
 
 public class HadoopFileWriter implements FileWriter {
@@ -117,6 +118,12 @@ public class HadoopFileWriter implements FileWriter {
     fsDataOutputStream.writeLong(segment.getTaskAttemptId());
   }
 
+  public void writePartitionIndex(FileBasedPartitionSegment segment) throws IOException {
+    fsDataOutputStream.writeInt(segment.getPartitionId());
+    fsDataOutputStream.writeLong(segment.getOffset());
+    fsDataOutputStream.writeInt(segment.getLength());
+  }
+
   public long nextOffset() {
     return nextOffset;
   }
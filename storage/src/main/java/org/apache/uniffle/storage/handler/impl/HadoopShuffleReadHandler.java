@@ -36,15 +36,20 @@ import org.apache.uniffle.storage.util.ShuffleStorageUtils;
 
 /**
  * HadoopShuffleFileReadHandler is a shuffle-specific file read handler, it contains two
- * HadoopFileReader instances created by using the index file and its indexed data file.
+ * HadoopFileReader instances created by using the index file and its indexed data file. The readers
+ * are opened lazily when the index or the data is read for the first time.
  */
 public class HadoopShuffleReadHandler extends DataSkippableReadHandler {
   private static final Logger LOG = LoggerFactory.getLogger(HadoopShuffleReadHandler.class);
 
   protected final String filePrefix;
-  protected final HadoopFileReader indexReader;
-  protected final HadoopFileReader dataReader;
+  protected final Configuration hadoopConf;
+  protected HadoopFileReader indexReader;
+  protected HadoopFileReader dataReader;
   protected final boolean offHeapEnabled;
+  // the segment read ahead by another thread and its data, guarded by this
+  private ShuffleDataSegment prefetchedSegment;
+  private ShuffleDataResult prefetchedResult;
 
   public HadoopShuffleReadHandler(
       String appId,
@@ -69,10 +74,7 @@ public class HadoopShuffleReadHandler extends DataSkippableReadHandler {
         distributionType,
         expectTaskIds);
     this.filePrefix = filePrefix;
-    this.indexReader =
-        createHadoopReader(ShuffleStorageUtils.generateIndexFileName(filePrefix), conf);
-    this.dataReader =
-        createHadoopReader(ShuffleStorageUtils.generateDataFileName(filePrefix), conf);
+    this.hadoopConf = conf;
     this.offHeapEnabled = offHeapEnabled;
   }
 
@@ -107,9 +109,9 @@ public class HadoopShuffleReadHandler extends DataSkippableReadHandler {
     try {
       ByteBuffer indexData = null;
       if (offHeapEnabled) {
-        indexData = indexReader.readAsByteBuffer();
+        indexData = getIndexReader().readAsByteBuffer();
       } else {
-        indexData = ByteBuffer.wrap(indexReader.read());
+        indexData = ByteBuffer.wrap(getIndexReader().read());
       }
       int indexDataLength = indexData.limit() - indexData.position();
       int segmentNumber = indexDataLength / FileBasedShuffleSegment.SEGMENT_SIZE;
@@ -130,7 +132,62 @@ public class HadoopShuffleReadHandler extends DataSkippableReadHandler {
     return new ShuffleIndexResult();
   }
 
-  protected ShuffleDataResult readShuffleData(ShuffleDataSegment shuffleDataSegment) {
+  /**
+   * Read the data of the first segment which contains the expected blocks, so that it could be
+   * returned without waiting for the IO when the segment is read. The processed blocks are not
+   * checked here because they are updated by the reading thread.
+   */
+  public synchronized void prefetch() {
+    if (prefetchedResult != null || !loadShuffleDataSegments()) {
+      return;
+    }
+    for (int i = segmentIndex; i < shuffleDataSegments.size(); i++) {
+      ShuffleDataSegment segment = shuffleDataSegments.get(i);
+      if (!getExpectedBlocks(segment).isEmpty()) {
+        prefetchedSegment = segment;
+        prefetchedResult = readSegmentData(segment);
+        return;
+      }
+    }
+  }
+
+  @Override
+  protected synchronized ShuffleDataResult readShuffleData(ShuffleDataSegment shuffleDataSegment) {
+    if (prefetchedSegment != null) {
+      ShuffleDataResult result = prefetchedResult;
+      boolean hit = prefetchedSegment == shuffleDataSegment;
+      prefetchedSegment = null;
+      prefetchedResult = null;
+      if (hit) {
+        return result;
+      }
+      if (result != null) {
+        result.release();
+      }
+    }
+    return readSegmentData(shuffleDataSegment);
+  }
+
+  protected byte[] readShuffleData(long offset, int expectedLength) {
+    byte[] data;
+    try {
+      data = getDataReader().read(offset, expectedLength);
+    } catch (Exception e) {
+      LOG.warn("Fail to open data file {}.data", filePrefix, e);
+      return new byte[0];
+    }
+    if (data.length != expectedLength) {
+      LOG.warn(
+          "Fail to read expected[{}] data, actual[{}] from file {}.data",
+          expectedLength,
+          data.length,
+          filePrefix);
+      return new byte[0];
+    }
+    return data;
+  }
+
+  private ShuffleDataResult readSegmentData(ShuffleDataSegment shuffleDataSegment) {
     // Here we make an assumption that the rest of the file is corrupted, if an unexpected data is
     // read.
     int expectedLength = shuffleDataSegment.getLength();
@@ -171,21 +228,14 @@ public class HadoopShuffleReadHandler extends DataSkippableReadHandler {
     return shuffleDataResult;
   }
 
-  protected byte[] readShuffleData(long offset, int expectedLength) {
-    byte[] data = dataReader.read(offset, expectedLength);
-    if (data.length != expectedLength) {
-      LOG.warn(
-          "Fail to read expected[{}] data, actual[{}] from file {}.data",
-          expectedLength,
-          data.length,
-          filePrefix);
-      return new byte[0];
-    }
-    return data;
-  }
-
   private ByteBuffer readShuffleDataByteBuffer(long offset, int expectedLength) {
-    ByteBuffer data = dataReader.readAsByteBuffer(offset, expectedLength);
+    ByteBuffer data;
+    try {
+      data = getDataReader().readAsByteBuffer(offset, expectedLength);
+    } catch (Exception e) {
+      LOG.warn("Fail to open data file {}.data", filePrefix, e);
+      return ByteBuffer.allocateDirect(0);
+    }
     int length = data.limit() - data.position();
     if (length != expectedLength) {
       LOG.warn(
@@ -198,10 +248,10 @@ public class HadoopShuffleReadHandler extends DataSkippableReadHandler {
     return data;
   }
 
-  private long getDataFileLen() {
+  protected long getDataFileLen() {
     try {
-      return dataReader.getFileLen();
-    } catch (IOException ioException) {
+      return getDataReader().getFileLen();
+    } catch (Exception ioException) {
       LOG.error(
           "getDataFileLen failed for " + ShuffleStorageUtils.generateDataFileName(filePrefix),
           ioException);
@@ -210,21 +260,47 @@ public class HadoopShuffleReadHandler extends DataSkippableReadHandler {
   }
 
   public synchronized void close() {
+    if (prefetchedResult != null) {
+      prefetchedResult.release();
+      prefetchedSegment = null;
+      prefetchedResult = null;
+    }
+
     try {
-      dataReader.close();
+      if (dataReader != null) {
+        dataReader.close();
+      }
     } catch (IOException ioe) {
       String message = "Error happened when close index filer reader for " + filePrefix + ".data";
       LOG.warn(message, ioe);
     }
 
     try {
-      indexReader.close();
+      if (indexReader != null) {
+        indexReader.close();
+      }
     } catch (IOException ioe) {
       String message = "Error happened when close data file reader for " + filePrefix + ".index";
       LOG.warn(message, ioe);
     }
   }
 
+  protected synchronized HadoopFileReader getIndexReader() throws Exception {
+    if (indexReader == null) {
+      indexReader =
+          createHadoopReader(ShuffleStorageUtils.generateIndexFileName(filePrefix), hadoopConf);
+    }
+    return indexReader;
+  }
+
+  protected synchronized HadoopFileReader getDataReader() throws Exception {
+    if (dataReader == null) {
+      dataReader =
+          createHadoopReader(ShuffleStorageUtils.generateDataFileName(filePrefix), hadoopConf);
+    }
+    return dataReader;
+  }
+
   protected HadoopFileReader createHadoopReader(String fileName, Configuration hadoopConf)
       throws Exception {
     Path path = new Path(fileName);
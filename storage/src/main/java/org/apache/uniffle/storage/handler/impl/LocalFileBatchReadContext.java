@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.google.common.collect.Maps;
+
+import org.apache.uniffle.common.ShuffleServerInfo;
+
+/**
+ * Shared by the readers of the coalesced partitions of a reducer, so the partitions on the same
+ * shuffle server are read by the same {@link LocalFileBatchReader}.
+ */
+public class LocalFileBatchReadContext {
+
+  private final Map<String, LocalFileBatchReader> readers = Maps.newConcurrentMap();
+
+  public LocalFileBatchReader getOrCreateReader(
+      ShuffleServerInfo serverInfo, Supplier<LocalFileBatchReader> supplier) {
+    return readers.computeIfAbsent(serverInfo.getId(), id -> supplier.get());
+  }
+
+  /** The partition won't be read any more, release the data read for it. */
+  public void unregister(int partitionId) {
+    readers.values().forEach(reader -> reader.unregister(partitionId));
+  }
+}
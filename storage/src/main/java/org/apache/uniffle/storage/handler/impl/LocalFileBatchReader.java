@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import org.apache.uniffle.client.api.ShuffleServerClient;
+import org.apache.uniffle.client.request.RssGetShuffleDataBatchRequest;
+import org.apache.uniffle.client.response.RssGetShuffleDataBatchResponse;
+import org.apache.uniffle.common.PartitionDataSegment;
+import org.apache.uniffle.common.ShuffleDataResult;
+import org.apache.uniffle.common.exception.RssException;
+import org.apache.uniffle.common.netty.buffer.ManagedBuffer;
+import org.apache.uniffle.common.rpc.StatusCode;
+
+/**
+ * Reads the local file data of many partitions from one shuffle server, so the reducer of the
+ * coalesced partitions doesn't send requests for each partition. Each request reads the next data
+ * segment of the requesting partition and the following partitions up to the read buffer size, the
+ * segments of the other partitions are kept until they are read.
+ */
+public class LocalFileBatchReader {
+
+  private final ShuffleServerClient shuffleServerClient;
+  private final String appId;
+  private final int shuffleId;
+  private final int partitionNumPerRange;
+  private final int partitionNum;
+  private final int readBufferSize;
+  private final Roaring64NavigableMap expectTaskIds;
+  private final int retryMax;
+  private final long retryIntervalMax;
+  // the unfinished partitions in the order to read, with the data file offset to continue from
+  private final Map<Integer, Long> partitionOffsets = new LinkedHashMap<>();
+  private final Map<Integer, PendingResult> pendingResults = Maps.newHashMap();
+  // the batch of the result being consumed by each partition
+  private final Map<Integer, BatchData> consumingBatches = Maps.newHashMap();
+  private long pendingSize = 0;
+  private boolean failed = false;
+  private boolean notSupported = false;
+
+  public LocalFileBatchReader(
+      ShuffleServerClient shuffleServerClient,
+      String appId,
+      int shuffleId,
+      int partitionNumPerRange,
+      int partitionNum,
+      int readBufferSize,
+      Roaring64NavigableMap expectTaskIds,
+      int retryMax,
+      long retryIntervalMax) {
+    this.shuffleServerClient = shuffleServerClient;
+    this.appId = appId;
+    this.shuffleId = shuffleId;
+    this.partitionNumPerRange = partitionNumPerRange;
+    this.partitionNum = partitionNum;
+    this.readBufferSize = readBufferSize;
+    this.expectTaskIds = expectTaskIds;
+    this.retryMax = retryMax;
+    this.retryIntervalMax = retryIntervalMax;
+  }
+
+  public synchronized void register(int partitionId) {
+    partitionOffsets.putIfAbsent(partitionId, 0L);
+  }
+
+  public synchronized void unregister(int partitionId) {
+    partitionOffsets.remove(partitionId);
+    PendingResult pendingResult = pendingResults.remove(partitionId);
+    if (pendingResult != null) {
+      pendingSize -= pendingResult.result.getDataLength();
+      pendingResult.batch.consumed();
+    }
+    BatchData batch = consumingBatches.remove(partitionId);
+    if (batch != null) {
+      batch.consumed();
+    }
+  }
+
+  /**
+   * Whether the shuffle server doesn't support the batched read, the partitions should be read one
+   * by one if true.
+   */
+  public synchronized boolean isNotSupported() {
+    return notSupported;
+  }
+
+  /**
+   * Read the next data segment of the partition, the previous one returned for the partition must
+   * not be used any more.
+   *
+   * @return null if there is no more data of the partition, or the batched read isn't supported
+   */
+  public synchronized ShuffleDataResult read(int partitionId) {
+    BatchData consumed = consumingBatches.remove(partitionId);
+    if (consumed != null) {
+      consumed.consumed();
+    }
+    PendingResult pendingResult = pendingResults.remove(partitionId);
+    if (pendingResult == null) {
+      if (!partitionOffsets.containsKey(partitionId) || notSupported) {
+        return null;
+      }
+      if (failed) {
+        throw new RssException(
+            "Failed to read shuffle data in batch with " + shuffleServerClient.getClientInfo());
+      }
+      readBatch(partitionId);
+      pendingResult = pendingResults.remove(partitionId);
+      if (pendingResult == null) {
+        return null;
+      }
+    }
+    pendingSize -= pendingResult.result.getDataLength();
+    consumingBatches.put(partitionId, pendingResult.batch);
+    return pendingResult.result;
+  }
+
+  private void readBatch(int partitionId) {
+    // the requesting partition is always read first
+    Map<Integer, Long> offsets = new LinkedHashMap<>();
+    offsets.put(partitionId, partitionOffsets.get(partitionId));
+    if (pendingSize < readBufferSize) {
+      partitionOffsets.forEach(
+          (id, offset) -> {
+            if (!pendingResults.containsKey(id)) {
+              offsets.putIfAbsent(id, offset);
+            }
+          });
+    }
+    RssGetShuffleDataBatchResponse response;
+    try {
+      response =
+          shuffleServerClient.getShuffleDataBatch(
+              new RssGetShuffleDataBatchRequest(
+                  appId,
+                  shuffleId,
+                  partitionNumPerRange,
+                  partitionNum,
+                  offsets,
+                  readBufferSize,
+                  expectTaskIds,
+                  retryMax,
+                  retryIntervalMax));
+    } catch (Exception e) {
+      failed = true;
+      throw e;
+    }
+    if (response.getStatusCode() == StatusCode.NOT_SUPPORTED) {
+      notSupported = true;
+      return;
+    }
+
+    ManagedBuffer data = response.getData();
+    ByteBuffer dataBuffer = data.nioByteBuffer();
+    BatchData batch = new BatchData(data);
+    int offset = 0;
+    for (PartitionDataSegment segment : response.getPartitionDataSegments()) {
+      int id = segment.getPartitionId();
+      if (segment.getNextOffset() < 0) {
+        partitionOffsets.remove(id);
+        continue;
+      }
+      int length = segment.getLength();
+      if (partitionOffsets.containsKey(id)) {
+        partitionOffsets.put(id, segment.getNextOffset());
+        ByteBuffer partitionData = dataBuffer.duplicate();
+        partitionData.position(offset);
+        partitionData.limit(offset + length);
+        pendingResults.put(
+            id,
+            new PendingResult(
+                new ShuffleDataResult(partitionData.slice(), segment.getBufferSegments()), batch));
+        pendingSize += length;
+        batch.unconsumed++;
+      }
+      offset += length;
+    }
+    if (batch.unconsumed == 0) {
+      data.release();
+    }
+  }
+
+  private static class PendingResult {
+    private final ShuffleDataResult result;
+    private final BatchData batch;
+
+    PendingResult(ShuffleDataResult result, BatchData batch) {
+      this.result = result;
+      this.batch = batch;
+    }
+  }
+
+  /** The data of a batched response, released once the data of all its partitions are consumed. */
+  private static class BatchData {
+    private final ManagedBuffer data;
+    private int unconsumed = 0;
+
+    BatchData(ManagedBuffer data) {
+      this.data = data;
+    }
+
+    void consumed() {
+      if (--unconsumed == 0) {
+        data.release();
+      }
+    }
+  }
+}
@@ -17,15 +17,22 @@
 
 package org.apache.uniffle.storage.handler.impl;
 
+import java.util.List;
+
 import com.google.common.annotations.VisibleForTesting;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.uniffle.client.api.ShuffleServerClient;
+import org.apache.uniffle.client.request.RssGetFilteredShuffleDataRequest;
+import org.apache.uniffle.client.request.RssGetShuffleDataFileRequest;
 import org.apache.uniffle.client.request.RssGetShuffleDataRequest;
 import org.apache.uniffle.client.request.RssGetShuffleIndexRequest;
+import org.apache.uniffle.client.response.RssGetFilteredShuffleDataResponse;
+import org.apache.uniffle.client.response.RssGetShuffleDataFileResponse;
 import org.apache.uniffle.client.response.RssGetShuffleDataResponse;
+import org.apache.uniffle.common.BufferSegment;
 import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleDataResult;
 import org.apache.uniffle.common.ShuffleDataSegment;
@@ -40,6 +47,14 @@ public class LocalFileClientReadHandler extends DataSkippableReadHandler {
   private ShuffleServerClient shuffleServerClient;
   private int retryMax;
   private long retryIntervalMax;
+  private boolean serverSideFilterEnabled;
+  // the data file offset to continue the server-side filtered read from, -1 means finished
+  private long filteredReadOffset = 0;
+  // read the data file directly if it's stored by the shuffle server on the same host
+  private boolean shortCircuitReadEnabled;
+  private ShortCircuitDataFile shortCircuitDataFile;
+  // read the data together with the other coalesced partitions on the same shuffle server
+  private LocalFileBatchReader batchReader;
 
   public LocalFileClientReadHandler(
       String appId,
@@ -55,7 +70,8 @@ public class LocalFileClientReadHandler extends DataSkippableReadHandler {
       ShuffleDataDistributionType distributionType,
       Roaring64NavigableMap expectTaskIds,
       int retryMax,
-      long retryIntervalMax) {
+      long retryIntervalMax,
+      boolean serverSideFilterEnabled) {
     super(
         appId,
         shuffleId,
@@ -70,6 +86,44 @@ public class LocalFileClientReadHandler extends DataSkippableReadHandler {
     this.partitionNum = partitionNum;
     this.retryMax = retryMax;
     this.retryIntervalMax = retryIntervalMax;
+    this.serverSideFilterEnabled =
+        serverSideFilterEnabled
+            && distributionType == ShuffleDataDistributionType.LOCAL_ORDER
+            && expectTaskIds != null
+            && !expectTaskIds.isEmpty();
+  }
+
+  public LocalFileClientReadHandler(
+      String appId,
+      int shuffleId,
+      int partitionId,
+      int indexReadLimit,
+      int partitionNumPerRange,
+      int partitionNum,
+      int readBufferSize,
+      Roaring64NavigableMap expectBlockIds,
+      Roaring64NavigableMap processBlockIds,
+      ShuffleServerClient shuffleServerClient,
+      ShuffleDataDistributionType distributionType,
+      Roaring64NavigableMap expectTaskIds,
+      int retryMax,
+      long retryIntervalMax) {
+    this(
+        appId,
+        shuffleId,
+        partitionId,
+        indexReadLimit,
+        partitionNumPerRange,
+        partitionNum,
+        readBufferSize,
+        expectBlockIds,
+        processBlockIds,
+        shuffleServerClient,
+        distributionType,
+        expectTaskIds,
+        retryMax,
+        retryIntervalMax,
+        false);
   }
 
   @VisibleForTesting
@@ -101,6 +155,106 @@ public class LocalFileClientReadHandler extends DataSkippableReadHandler {
         0);
   }
 
+  @Override
+  public ShuffleDataResult readShuffleData() {
+    if (batchReader != null) {
+      try {
+        ShuffleDataResult result = readBatchedShuffleData();
+        if (!batchReader.isNotSupported()) {
+          return result;
+        }
+        LOG.info(
+            "The batched read isn't supported by {}, read the shuffle index instead",
+            shuffleServerClient.getClientInfo());
+        batchReader.unregister(partitionId);
+        batchReader = null;
+      } catch (Exception e) {
+        // the data returned before are all processed and will be skipped when reading the index
+        LOG.warn(
+            "Failed to read shuffle data in batch with {}, fall back to read the shuffle index",
+            shuffleServerClient.getClientInfo(),
+            e);
+        batchReader.unregister(partitionId);
+        batchReader = null;
+      }
+    }
+    if (serverSideFilterEnabled) {
+      try {
+        return readFilteredShuffleData();
+      } catch (Exception e) {
+        if (filteredReadOffset != 0) {
+          throw e;
+        }
+        // the shuffle server may not support the filtered read, fall back to read the index
+        LOG.warn(
+            "Failed to read filtered shuffle data with {}, fall back to read the shuffle index",
+            shuffleServerClient.getClientInfo(),
+            e);
+        serverSideFilterEnabled = false;
+      }
+    }
+    return super.readShuffleData();
+  }
+
+  /**
+   * Let the shuffle server locate the next data segment of the expected tasks, so the index is
+   * never transferred to the client. Segments whose blocks are all processed are skipped.
+   */
+  private ShuffleDataResult readFilteredShuffleData() {
+    while (filteredReadOffset >= 0) {
+      int requestedSize = getReadBufferSize();
+      RssGetFilteredShuffleDataRequest request =
+          new RssGetFilteredShuffleDataRequest(
+              appId,
+              shuffleId,
+              partitionId,
+              partitionNumPerRange,
+              partitionNum,
+              filteredReadOffset,
+              requestedSize,
+              expectTaskIds,
+              retryMax,
+              retryIntervalMax);
+      long start = System.currentTimeMillis();
+      RssGetFilteredShuffleDataResponse response =
+          shuffleServerClient.getFilteredShuffleData(request);
+      onRead(requestedSize, response.getData().size(), System.currentTimeMillis() - start);
+      List<BufferSegment> bufferSegments = response.getBufferSegments();
+      if (bufferSegments == null || bufferSegments.isEmpty()) {
+        filteredReadOffset = -1;
+        response.getData().release();
+        return null;
+      }
+      filteredReadOffset = response.getNextOffset();
+      int length = response.getData().size();
+      ShuffleDataSegment segment = new ShuffleDataSegment(0, length, bufferSegments);
+      Roaring64NavigableMap blocksOfSegment = getExpectedBlocks(segment);
+      // skip processed blockIds
+      blocksOfSegment.andNot(processBlockIds);
+      if (!blocksOfSegment.isEmpty()) {
+        return new ShuffleDataResult(response.getData(), bufferSegments);
+      }
+      response.getData().release();
+    }
+    return null;
+  }
+
+  /** Read the next data segment of the expected tasks, segments of processed blocks are skipped. */
+  private ShuffleDataResult readBatchedShuffleData() {
+    ShuffleDataResult result;
+    while ((result = batchReader.read(partitionId)) != null) {
+      ShuffleDataSegment segment =
+          new ShuffleDataSegment(0, result.getDataLength(), result.getBufferSegments());
+      Roaring64NavigableMap blocksOfSegment = getExpectedBlocks(segment);
+      // skip processed blockIds
+      blocksOfSegment.andNot(processBlockIds);
+      if (!blocksOfSegment.isEmpty()) {
+        return result;
+      }
+    }
+    return null;
+  }
+
   @Override
   public ShuffleIndexResult readShuffleIndex() {
     ShuffleIndexResult shuffleIndexResult = null;
@@ -128,9 +282,57 @@ public class LocalFileClientReadHandler extends DataSkippableReadHandler {
               + "]",
           e);
     }
+    if (shortCircuitReadEnabled && shortCircuitDataFile == null) {
+      openShortCircuitDataFile();
+    }
     return shuffleIndexResult;
   }
 
+  private void openShortCircuitDataFile() {
+    try {
+      RssGetShuffleDataFileResponse response =
+          shuffleServerClient.getShuffleDataFile(
+              new RssGetShuffleDataFileRequest(
+                  appId, shuffleId, partitionId, partitionNumPerRange, partitionNum));
+      if (response.getDataFilePath() != null) {
+        shortCircuitDataFile =
+            ShortCircuitDataFile.open(response.getDataFilePath(), response.getToken());
+      }
+    } catch (Exception e) {
+      // the shuffle server may not support the short-circuit read
+      LOG.warn(
+          "Failed to get shuffle data file with {}, read data through the network",
+          shuffleServerClient.getClientInfo(),
+          e);
+    }
+    if (shortCircuitDataFile == null) {
+      shortCircuitReadEnabled = false;
+    }
+  }
+
+  private ShuffleDataResult readShortCircuitShuffleData(ShuffleDataSegment shuffleDataSegment) {
+    try {
+      return new ShuffleDataResult(
+          shortCircuitDataFile.map(shuffleDataSegment.getOffset(), shuffleDataSegment.getLength()),
+          shuffleDataSegment.getBufferSegments());
+    } catch (Exception e) {
+      LOG.warn(
+          "Failed to read data file {} directly, read data through the network",
+          shortCircuitDataFile.getPath(),
+          e);
+      closeShortCircuitDataFile();
+      shortCircuitReadEnabled = false;
+      return null;
+    }
+  }
+
+  private void closeShortCircuitDataFile() {
+    if (shortCircuitDataFile != null) {
+      shortCircuitDataFile.close();
+      shortCircuitDataFile = null;
+    }
+  }
+
   @Override
   public ShuffleDataResult readShuffleData(ShuffleDataSegment shuffleDataSegment) {
     ShuffleDataResult result = null;
@@ -148,6 +350,12 @@ public class LocalFileClientReadHandler extends DataSkippableReadHandler {
               + expectedLength
               + " <= 0!");
     }
+    if (shortCircuitDataFile != null) {
+      result = readShortCircuitShuffleData(shuffleDataSegment);
+      if (result != null) {
+        return result;
+      }
+    }
     RssGetShuffleDataRequest request =
         new RssGetShuffleDataRequest(
             appId,
@@ -176,4 +384,17 @@ public class LocalFileClientReadHandler extends DataSkippableReadHandler {
     }
     return result;
   }
+
+  @Override
+  public void close() {
+    closeShortCircuitDataFile();
+  }
+
+  public void setShortCircuitReadEnabled(boolean shortCircuitReadEnabled) {
+    this.shortCircuitReadEnabled = shortCircuitReadEnabled;
+  }
+
+  public void setBatchReader(LocalFileBatchReader batchReader) {
+    this.batchReader = batchReader;
+  }
 }
@@ -75,17 +75,19 @@ public class MemoryClientReadHandler extends AbstractClientReadHandler {
   public ShuffleDataResult readShuffleData() {
     ShuffleDataResult result = null;
 
+    int requestedSize = getReadBufferSize();
     RssGetInMemoryShuffleDataRequest request =
         new RssGetInMemoryShuffleDataRequest(
             appId,
             shuffleId,
             partitionId,
             lastBlockId,
-            readBufferSize,
+            requestedSize,
             expectTaskIds,
             retryMax,
             retryIntervalMax);
 
+    long start = System.currentTimeMillis();
     try {
       RssGetInMemoryShuffleDataResponse response =
           shuffleServerClient.getInMemoryShuffleData(request);
@@ -98,6 +100,8 @@ public class MemoryClientReadHandler extends AbstractClientReadHandler {
           "Failed to read in memory shuffle data with " + shuffleServerClient.getClientInfo(), e);
     }
 
+    onRead(requestedSize, result.getDataLength(), System.currentTimeMillis() - start);
+
     // update lastBlockId for next rpc call
     if (!result.isEmpty()) {
       List<BufferSegment> bufferSegments = result.getBufferSegments();
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.uniffle.common.exception.RssException;
+import org.apache.uniffle.common.netty.buffer.ManagedBuffer;
+import org.apache.uniffle.common.netty.buffer.NettyManagedBuffer;
+import org.apache.uniffle.common.util.RssUtils;
+import org.apache.uniffle.storage.util.ShuffleStorageUtils;
+
+/**
+ * The data file of a partition stored by the shuffle server on the same host, which is mapped into
+ * the reader's memory instead of being transferred through the network. The file is opened once
+ * and kept open, so it's still readable after being deleted by the shuffle server.
+ *
+ * <p>Every mapped region is unmapped once its buffer is released, the regions still mapped are
+ * unmapped when the file is closed, so the mappings don't wait for the GC to be released.
+ */
+public class ShortCircuitDataFile implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ShortCircuitDataFile.class);
+  private final String path;
+  private final FileChannel channel;
+  private final Set<MappedByteBuffer> mappedBuffers =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  private boolean closed = false;
+
+  private ShortCircuitDataFile(String path, FileChannel channel) {
+    this.path = path;
+    this.channel = channel;
+  }
+
+  /**
+   * Open the data file only if it's still the file identified by the token.
+   *
+   * @return null if the file can't be opened or has been replaced
+   */
+  public static ShortCircuitDataFile open(String path, String token) {
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(new File(path).toPath(), StandardOpenOption.READ);
+      // check after opening, the opened file can't be replaced any more
+      if (token != null && token.equals(ShuffleStorageUtils.getFileKey(new File(path)))) {
+        return new ShortCircuitDataFile(path, channel);
+      }
+      LOG.info("Data file {} doesn't match the token {}, it can't be read directly", path, token);
+    } catch (Exception e) {
+      LOG.warn("Can't open data file {} to read directly", path, e);
+    }
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException ioe) {
+        LOG.warn("Error happen when close " + path, ioe);
+      }
+    }
+    return null;
+  }
+
+  public synchronized ManagedBuffer map(long offset, int length) {
+    if (closed) {
+      throw new RssException("Can't map data file " + path + " which has been closed");
+    }
+    try {
+      long size = channel.size();
+      if (offset + length > size) {
+        throw new RssException(
+            "Can't map data file "
+                + path
+                + " with offset["
+                + offset
+                + "], length["
+                + length
+                + "], the file size is "
+                + size);
+      }
+      MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+      mappedBuffers.add(mappedBuffer);
+      return new MappedManagedBuffer(mappedBuffer);
+    } catch (IOException e) {
+      throw new RssException("Can't map data file " + path, e);
+    }
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  @VisibleForTesting
+  synchronized int getMappedBufferNum() {
+    return mappedBuffers.size();
+  }
+
+  private void unmap(MappedByteBuffer mappedBuffer) {
+    synchronized (this) {
+      if (!mappedBuffers.remove(mappedBuffer)) {
+        return;
+      }
+    }
+    RssUtils.releaseByteBuffer(mappedBuffer);
+  }
+
+  @Override
+  public void close() {
+    List<MappedByteBuffer> unreleasedBuffers;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      unreleasedBuffers = new ArrayList<>(mappedBuffers);
+      mappedBuffers.clear();
+    }
+    unreleasedBuffers.forEach(RssUtils::releaseByteBuffer);
+    try {
+      channel.close();
+    } catch (IOException ioe) {
+      LOG.warn("Error happen when close " + path, ioe);
+    }
+  }
+
+  /** The buffer of a mapped region, which is unmapped once the buffer is fully released. */
+  private class MappedManagedBuffer extends NettyManagedBuffer {
+    private final ByteBuf buf;
+    private final MappedByteBuffer mappedBuffer;
+
+    MappedManagedBuffer(MappedByteBuffer mappedBuffer) {
+      this(Unpooled.wrappedBuffer(mappedBuffer), mappedBuffer);
+    }
+
+    private MappedManagedBuffer(ByteBuf buf, MappedByteBuffer mappedBuffer) {
+      super(buf);
+      this.buf = buf;
+      this.mappedBuffer = mappedBuffer;
+    }
+
+    @Override
+    public ManagedBuffer release() {
+      super.release();
+      if (buf.refCnt() == 0) {
+        unmap(mappedBuffer);
+      }
+      return this;
+    }
+  }
+}
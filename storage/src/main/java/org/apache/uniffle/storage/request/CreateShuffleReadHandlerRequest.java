@@ -28,6 +28,7 @@ import org.apache.uniffle.common.ShuffleServerInfo;
 import org.apache.uniffle.common.config.RssBaseConf;
 import org.apache.uniffle.common.config.RssConf;
 import org.apache.uniffle.common.util.IdHelper;
+import org.apache.uniffle.storage.handler.impl.LocalFileBatchReadContext;
 
 public class CreateShuffleReadHandlerRequest {
 
@@ -57,6 +58,8 @@ public class CreateShuffleReadHandlerRequest {
 
   private ClientType clientType;
 
+  private LocalFileBatchReadContext localFileBatchReadContext;
+
   public CreateShuffleReadHandlerRequest() {}
 
   public RssBaseConf getRssBaseConf() {
@@ -242,4 +245,12 @@ public class CreateShuffleReadHandlerRequest {
   public void setClientType(ClientType clientType) {
     this.clientType = clientType;
   }
+
+  public LocalFileBatchReadContext getLocalFileBatchReadContext() {
+    return localFileBatchReadContext;
+  }
+
+  public void setLocalFileBatchReadContext(LocalFileBatchReadContext localFileBatchReadContext) {
+    this.localFileBatchReadContext = localFileBatchReadContext;
+  }
 }
@@ -21,6 +21,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.List;
 
@@ -55,6 +57,10 @@ public class ShuffleStorageUtils {
     return fileNamePrefix + Constants.SHUFFLE_INDEX_FILE_SUFFIX;
   }
 
+  public static String generatePartitionIndexFileName(String fileNamePrefix) {
+    return fileNamePrefix + Constants.SHUFFLE_PARTITION_INDEX_FILE_SUFFIX;
+  }
+
   public static List<DataFileSegment> mergeSegments(
       String path, List<FileBasedShuffleSegment> segments, int readBufferSize) {
     List<DataFileSegment> dataFileSegments = Lists.newArrayList();
@@ -133,6 +139,10 @@ public class ShuffleStorageUtils {
     return String.join(HADOOP_PATH_SEPARATOR, appId, String.valueOf(shuffleId), "combine");
   }
 
+  public static String getConsolidatedDataPath(String appId, int shuffleId) {
+    return String.join(HADOOP_PATH_SEPARATOR, appId, String.valueOf(shuffleId), "consolidated");
+  }
+
   public static String getFullShuffleDataFolder(String basePath, String subPath) {
     return String.join(HADOOP_PATH_SEPARATOR, basePath, subPath);
   }
@@ -216,6 +226,21 @@ public class ShuffleStorageUtils {
     }
   }
 
+  /**
+   * Get the key which identifies the file itself rather than its path, e.g. the device and the
+   * inode on Unix, so a file recreated at the same path after being deleted can be told apart.
+   *
+   * @return null if the file doesn't exist or the file system doesn't support the file keys
+   */
+  public static String getFileKey(File file) {
+    try {
+      Object fileKey = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+      return fileKey == null ? null : fileKey.toString();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
   public static boolean containsLocalFile(String storageType) {
     return StorageType.LOCALFILE.name().equals(storageType)
         || StorageType.LOCALFILE_HDFS.name().equals(storageType)
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReadBufferSizeControllerTest {
+
+  @Test
+  public void testSlowStartAndCongestionAvoidance() {
+    ReadBufferSizeController controller = new ReadBufferSizeController(4, 1, 64, 100);
+    assertEquals(4, controller.getReadBufferSize());
+
+    // grow exponentially until the max size
+    for (int expected : new int[] {8, 16, 32, 64, 64}) {
+      int size = controller.getReadBufferSize();
+      controller.onRead(size, size, 10);
+      assertEquals(expected, controller.getReadBufferSize());
+    }
+    assertEquals(4, controller.getIncreaseNum());
+
+    // a slow read halves the size and the slow start threshold
+    controller.onRead(64, 64, 200);
+    assertEquals(32, controller.getReadBufferSize());
+    assertEquals(1, controller.getDecreaseNum());
+
+    // grow linearly after reaching the slow start threshold
+    controller.onRead(32, 32, 10);
+    assertEquals(33, controller.getReadBufferSize());
+    controller.onRead(33, 33, 10);
+    assertEquals(34, controller.getReadBufferSize());
+
+    // the reads which don't fill the buffer keep the size
+    controller.onRead(34, 1, 10);
+    assertEquals(34, controller.getReadBufferSize());
+
+    // the collapse of the throughput halves the size
+    controller.onRead(34, 34, 50);
+    assertEquals(17, controller.getReadBufferSize());
+    assertEquals(2, controller.getDecreaseNum());
+
+    assertEquals(10, controller.getReadNum());
+    assertEquals(4 + 8 + 16 + 32 + 64 + 64 + 32 + 33 + 1 + 34, controller.getReadLength());
+    assertEquals(10 * 8 + 200 + 50, controller.getReadTimeMs());
+  }
+
+  @Test
+  public void testSizeRange() {
+    assertEquals(64, new ReadBufferSizeController(1000, 1, 64, 100).getReadBufferSize());
+    ReadBufferSizeController controller = new ReadBufferSizeController(0, 2, 64, 100);
+    assertEquals(2, controller.getReadBufferSize());
+    controller.onRead(2, 2, 1000);
+    assertEquals(2, controller.getReadBufferSize());
+    assertEquals(0, controller.getDecreaseNum());
+
+    assertThrows(IllegalArgumentException.class, () -> new ReadBufferSizeController(1, 0, 64, 1));
+    assertThrows(IllegalArgumentException.class, () -> new ReadBufferSizeController(1, 8, 4, 1));
+  }
+}
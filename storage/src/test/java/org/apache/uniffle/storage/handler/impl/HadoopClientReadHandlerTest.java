@@ -17,6 +17,7 @@
 
 package org.apache.uniffle.storage.handler.impl;
 
+import java.io.File;
 import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Random;
@@ -27,9 +28,11 @@ import com.google.common.collect.Sets;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleDataResult;
 import org.apache.uniffle.common.ShuffleIndexResult;
 import org.apache.uniffle.storage.HadoopTestBase;
@@ -47,6 +50,12 @@ public class HadoopClientReadHandlerTest extends HadoopTestBase {
 
   public static void createAndRunCases(
       String clusterPathPrefix, Configuration hadoopConf, String writeUser) throws Exception {
+    createAndRunCases(clusterPathPrefix, hadoopConf, writeUser, 0);
+  }
+
+  public static void createAndRunCases(
+      String clusterPathPrefix, Configuration hadoopConf, String writeUser, int readAheadNum)
+      throws Exception {
     String basePath = clusterPathPrefix + "clientReadTest1";
     HadoopShuffleWriteHandler writeHandler =
         new HadoopShuffleWriteHandler("appId", 0, 1, 1, basePath, "test", hadoopConf, writeUser);
@@ -107,7 +116,13 @@ public class HadoopClientReadHandlerTest extends HadoopTestBase {
             expectBlockIds,
             processBlockIds,
             basePath,
-            hadoopConf);
+            hadoopConf,
+            ShuffleDataDistributionType.NORMAL,
+            Roaring64NavigableMap.bitmapOf(),
+            null,
+            false,
+            readAheadNum,
+            false);
     Set<Long> actualBlockIds = Sets.newHashSet();
 
     for (int i = 0; i < total; ++i) {
@@ -135,4 +150,14 @@ public class HadoopClientReadHandlerTest extends HadoopTestBase {
   public void test() throws Exception {
     createAndRunCases(HDFS_URI, conf, StringUtils.EMPTY);
   }
+
+  @Test
+  public void testReadAhead() throws Exception {
+    createAndRunCases(HDFS_URI + "readAhead/", conf, StringUtils.EMPTY, 2);
+  }
+
+  @Test
+  public void testReadAheadWithLocalFileSystem(@TempDir File tempDir) throws Exception {
+    createAndRunCases(tempDir.toURI().toString(), new Configuration(), StringUtils.EMPTY, 10);
+  }
 }
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.ShuffleDataDistributionType;
+import org.apache.uniffle.common.ShuffleDataResult;
+import org.apache.uniffle.common.ShufflePartitionedBlock;
+import org.apache.uniffle.common.config.RssBaseConf;
+import org.apache.uniffle.common.util.BlockIdLayout;
+import org.apache.uniffle.common.util.ChecksumUtils;
+import org.apache.uniffle.storage.HadoopTestBase;
+import org.apache.uniffle.storage.util.ShuffleStorageUtils;
+
+import static org.apache.uniffle.storage.HadoopShuffleHandlerTestBase.checkData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HadoopConsolidatedShuffleHandlerTest extends HadoopTestBase {
+
+  @Test
+  public void writeAndReadTest() throws Exception {
+    String basePath = HDFS_URI + "consolidatedTest";
+    int partitionNum = 4;
+    int fileNumber = 2;
+    HadoopConsolidatedShuffleWriteHandler writeHandler =
+        new HadoopConsolidatedShuffleWriteHandler(
+            new RssBaseConf(), "appId", 0, basePath, "server1", conf, "", fileNumber);
+
+    Map<Long, byte[]> expectedData = Maps.newConcurrentMap();
+    Map<Integer, Set<Long>> expectedBlockIds = Maps.newConcurrentMap();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> futures = Lists.newArrayList();
+    int blockSeq = 0;
+    // the partitions are written concurrently and several times, so their data are interleaved
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < partitionNum; i++) {
+        final int partitionId = i;
+        List<ShufflePartitionedBlock> blocks =
+            createBlocks(blockSeq, 1 + new Random().nextInt(10), partitionId, expectedData);
+        blockSeq += blocks.size();
+        blocks.forEach(
+            block ->
+                expectedBlockIds
+                    .computeIfAbsent(partitionId, k -> Sets.newConcurrentHashSet())
+                    .add(block.getBlockId()));
+        futures.add(
+            executor.submit(
+                () -> {
+                  writeHandler.getPartitionWriteHandler(partitionId).write(blocks);
+                  return null;
+                }));
+      }
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    FileStatus[] files =
+        fs.listStatus(
+            new Path(
+                ShuffleStorageUtils.getFullShuffleDataFolder(
+                    basePath, ShuffleStorageUtils.getConsolidatedDataPath("appId", 0))));
+    assertTrue(files.length <= 3 * fileNumber);
+
+    for (int partitionId = 0; partitionId < partitionNum; partitionId++) {
+      Roaring64NavigableMap expectBlockIds = Roaring64NavigableMap.bitmapOf();
+      expectedBlockIds.get(partitionId).forEach(expectBlockIds::addLong);
+      HadoopClientReadHandler readHandler =
+          new HadoopClientReadHandler(
+              "appId",
+              0,
+              partitionId,
+              1024,
+              1,
+              partitionNum,
+              20,
+              expectBlockIds,
+              Roaring64NavigableMap.bitmapOf(),
+              basePath,
+              conf,
+              ShuffleDataDistributionType.NORMAL,
+              Roaring64NavigableMap.bitmapOf(),
+              "server1",
+              false,
+              0,
+              true);
+      Set<Long> actualBlockIds = Sets.newHashSet();
+      ShuffleDataResult result = readHandler.readShuffleData();
+      while (!result.isEmpty()) {
+        checkData(result, expectedData);
+        for (BufferSegment bufferSegment : result.getBufferSegments()) {
+          actualBlockIds.add(bufferSegment.getBlockId());
+        }
+        result = readHandler.readShuffleData();
+      }
+      readHandler.close();
+      assertEquals(expectedBlockIds.get(partitionId), actualBlockIds);
+    }
+  }
+
+  private List<ShufflePartitionedBlock> createBlocks(
+      int blockSeq, int num, int partitionId, Map<Long, byte[]> expectedData) {
+    List<ShufflePartitionedBlock> blocks = Lists.newArrayList();
+    for (int i = 0; i < num; i++) {
+      byte[] buf = new byte[3 + new Random().nextInt(10)];
+      new Random().nextBytes(buf);
+      long blockId = BlockIdLayout.DEFAULT.getBlockId(blockSeq + i, partitionId, partitionId);
+      blocks.add(
+          new ShufflePartitionedBlock(
+              buf.length, buf.length, ChecksumUtils.getCrc32(buf), blockId, partitionId, buf));
+      expectedData.put(blockId, buf);
+    }
+    return blocks;
+  }
+}
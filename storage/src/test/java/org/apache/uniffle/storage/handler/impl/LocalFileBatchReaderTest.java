@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import org.apache.uniffle.client.api.ShuffleServerClient;
+import org.apache.uniffle.client.request.RssGetShuffleDataBatchRequest;
+import org.apache.uniffle.client.response.RssGetShuffleDataBatchResponse;
+import org.apache.uniffle.client.response.RssGetShuffleIndexResponse;
+import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.PartitionDataSegment;
+import org.apache.uniffle.common.ShuffleDataDistributionType;
+import org.apache.uniffle.common.ShuffleDataResult;
+import org.apache.uniffle.common.netty.buffer.NettyManagedBuffer;
+import org.apache.uniffle.common.rpc.StatusCode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalFileBatchReaderTest {
+
+  @Test
+  public void testRead() {
+    ShuffleServerClient client = Mockito.mock(ShuffleServerClient.class);
+    ByteBuf firstBatch = Unpooled.wrappedBuffer(new byte[] {1, 2, 3, 4, 5});
+    List<BufferSegment> segments1 = Lists.newArrayList(new BufferSegment(1, 0, 3, 3, 0, 1));
+    List<BufferSegment> segments2 = Lists.newArrayList(new BufferSegment(2, 0, 2, 2, 0, 1));
+    when(client.getShuffleDataBatch(any()))
+        .thenReturn(
+            new RssGetShuffleDataBatchResponse(
+                StatusCode.SUCCESS,
+                new NettyManagedBuffer(firstBatch),
+                Lists.newArrayList(
+                    new PartitionDataSegment(1, 3, segments1, 3),
+                    new PartitionDataSegment(2, 2, segments2, 2),
+                    new PartitionDataSegment(3, 0, Lists.newArrayList(), -1))))
+        .thenReturn(
+            new RssGetShuffleDataBatchResponse(
+                StatusCode.SUCCESS,
+                NettyManagedBuffer.EMPTY_BUFFER,
+                Lists.newArrayList(new PartitionDataSegment(1, 0, Lists.newArrayList(), -1))));
+
+    LocalFileBatchReader reader =
+        new LocalFileBatchReader(
+            client, "appId", 0, 1, 10, 1024, Roaring64NavigableMap.bitmapOf(1), 1, 0);
+    reader.register(1);
+    reader.register(2);
+    reader.register(3);
+
+    // the data of all the partitions are read by the first request
+    ShuffleDataResult result = reader.read(1);
+    assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), result.getDataBuffer());
+    assertEquals(segments1, result.getBufferSegments());
+    result = reader.read(2);
+    assertEquals(ByteBuffer.wrap(new byte[] {4, 5}), result.getDataBuffer());
+    assertEquals(segments2, result.getBufferSegments());
+    assertNull(reader.read(3));
+    verify(client, times(1)).getShuffleDataBatch(any());
+    assertEquals(1, firstBatch.refCnt());
+
+    // the partitions continue from their offsets, the finished partition 3 isn't read again
+    assertNull(reader.read(1));
+    reader.unregister(2);
+    assertEquals(0, firstBatch.refCnt());
+    ArgumentCaptor<RssGetShuffleDataBatchRequest> captor =
+        ArgumentCaptor.forClass(RssGetShuffleDataBatchRequest.class);
+    verify(client, times(2)).getShuffleDataBatch(captor.capture());
+    assertEquals(
+        ImmutableMap.of(1, 0L, 2, 0L, 3, 0L), captor.getAllValues().get(0).getPartitionOffsets());
+    assertEquals(ImmutableMap.of(1, 3L, 2, 2L), captor.getAllValues().get(1).getPartitionOffsets());
+    assertNull(reader.read(2));
+  }
+
+  @Test
+  public void testNotSupported() {
+    ShuffleServerClient client = Mockito.mock(ShuffleServerClient.class);
+    when(client.getShuffleDataBatch(any()))
+        .thenReturn(
+            new RssGetShuffleDataBatchResponse(
+                StatusCode.NOT_SUPPORTED, null, Collections.emptyList()));
+    when(client.getShuffleIndex(any()))
+        .thenReturn(
+            new RssGetShuffleIndexResponse(
+                StatusCode.SUCCESS, new NettyManagedBuffer(Unpooled.EMPTY_BUFFER), 0L));
+    Roaring64NavigableMap expectTaskIds = Roaring64NavigableMap.bitmapOf(1);
+    LocalFileBatchReader reader =
+        new LocalFileBatchReader(client, "appId", 0, 1, 10, 1024, expectTaskIds, 1, 0);
+    reader.register(1);
+    reader.register(2);
+
+    // the partition falls back to read the index without an exception
+    LocalFileClientReadHandler handler =
+        new LocalFileClientReadHandler(
+            "appId",
+            0,
+            1,
+            -1,
+            1,
+            10,
+            1024,
+            Roaring64NavigableMap.bitmapOf(1L),
+            Roaring64NavigableMap.bitmapOf(),
+            client,
+            ShuffleDataDistributionType.NORMAL,
+            expectTaskIds,
+            1,
+            0,
+            false);
+    handler.setBatchReader(reader);
+    assertNull(handler.readShuffleData());
+    assertTrue(reader.isNotSupported());
+    verify(client, times(1)).getShuffleIndex(any());
+
+    // the other partitions don't send the batched request again
+    assertNull(reader.read(2));
+    verify(client, times(1)).getShuffleDataBatch(any());
+  }
+}
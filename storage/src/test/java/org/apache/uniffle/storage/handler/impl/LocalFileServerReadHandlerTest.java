@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
@@ -32,15 +33,20 @@ import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import org.apache.uniffle.client.api.ShuffleServerClient;
 import org.apache.uniffle.client.request.RssGetShuffleDataRequest;
+import org.apache.uniffle.client.response.RssGetFilteredShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetShuffleDataResponse;
 import org.apache.uniffle.client.response.RssGetShuffleIndexResponse;
+import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.ShuffleDataDistributionType;
 import org.apache.uniffle.common.ShuffleDataResult;
 import org.apache.uniffle.common.ShufflePartitionedBlock;
+import org.apache.uniffle.common.exception.RssFetchFailedException;
 import org.apache.uniffle.common.netty.buffer.NettyManagedBuffer;
 import org.apache.uniffle.common.rpc.StatusCode;
 import org.apache.uniffle.storage.common.FileBasedShuffleSegment;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class LocalFileServerReadHandlerTest {
   @Test
@@ -144,4 +150,91 @@ public class LocalFileServerReadHandlerTest {
     }
     assertEquals(actualWriteDataBlock, readBlocks);
   }
+
+  @Test
+  public void testServerSideFilteredRead() {
+    ShuffleServerClient mockShuffleServerClient = Mockito.mock(ShuffleServerClient.class);
+    Roaring64NavigableMap expectBlockIds = Roaring64NavigableMap.bitmapOf(1L, 2L);
+    Roaring64NavigableMap processBlockIds = Roaring64NavigableMap.bitmapOf(1L);
+    Roaring64NavigableMap expectTaskIds = Roaring64NavigableMap.bitmapOf(5L);
+
+    // the first segment only contains the processed block, it should be skipped
+    Mockito.doReturn(
+            new RssGetFilteredShuffleDataResponse(
+                StatusCode.SUCCESS,
+                ByteBuffer.wrap(new byte[10]),
+                Lists.newArrayList(new BufferSegment(1L, 0, 10, 10, 0, 5L)),
+                10L))
+        .when(mockShuffleServerClient)
+        .getFilteredShuffleData(Mockito.argThat(request -> request.getOffset() == 0));
+    Mockito.doReturn(
+            new RssGetFilteredShuffleDataResponse(
+                StatusCode.SUCCESS,
+                ByteBuffer.wrap(new byte[20]),
+                Lists.newArrayList(new BufferSegment(2L, 0, 20, 20, 0, 5L)),
+                30L))
+        .when(mockShuffleServerClient)
+        .getFilteredShuffleData(Mockito.argThat(request -> request.getOffset() == 10));
+    Mockito.doReturn(
+            new RssGetFilteredShuffleDataResponse(
+                StatusCode.SUCCESS, ByteBuffer.allocate(0), Lists.newArrayList(), -1L))
+        .when(mockShuffleServerClient)
+        .getFilteredShuffleData(Mockito.argThat(request -> request.getOffset() == 30));
+
+    LocalFileClientReadHandler handler =
+        new LocalFileClientReadHandler(
+            "app1",
+            1,
+            1,
+            -1,
+            1,
+            1,
+            100,
+            expectBlockIds,
+            processBlockIds,
+            mockShuffleServerClient,
+            ShuffleDataDistributionType.LOCAL_ORDER,
+            expectTaskIds,
+            1,
+            0,
+            true);
+    ShuffleDataResult result = handler.readShuffleData();
+    assertEquals(1, result.getBufferSegments().size());
+    assertEquals(2L, result.getBufferSegments().get(0).getBlockId());
+    assertEquals(20, result.getDataLength());
+    assertNull(handler.readShuffleData());
+    assertNull(handler.readShuffleData());
+    Mockito.verify(mockShuffleServerClient, Mockito.never()).getShuffleIndex(Mockito.any());
+    Mockito.verify(mockShuffleServerClient, Mockito.times(3)).getFilteredShuffleData(Mockito.any());
+
+    // fall back to read the index if the shuffle server doesn't support the filtered read
+    ShuffleServerClient oldShuffleServerClient = Mockito.mock(ShuffleServerClient.class);
+    Mockito.doThrow(new RssFetchFailedException("unsupported"))
+        .when(oldShuffleServerClient)
+        .getFilteredShuffleData(Mockito.any());
+    Mockito.doReturn(
+            new RssGetShuffleIndexResponse(
+                StatusCode.SUCCESS, new NettyManagedBuffer(Unpooled.EMPTY_BUFFER), 0L))
+        .when(oldShuffleServerClient)
+        .getShuffleIndex(Mockito.any());
+    handler =
+        new LocalFileClientReadHandler(
+            "app1",
+            1,
+            1,
+            -1,
+            1,
+            1,
+            100,
+            expectBlockIds,
+            processBlockIds,
+            oldShuffleServerClient,
+            ShuffleDataDistributionType.LOCAL_ORDER,
+            expectTaskIds,
+            1,
+            0,
+            true);
+    assertNull(handler.readShuffleData());
+    Mockito.verify(oldShuffleServerClient, Mockito.times(1)).getShuffleIndex(Mockito.any());
+  }
 }
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.nio.ByteBuffer;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import org.apache.uniffle.client.api.ShuffleServerClient;
+import org.apache.uniffle.client.request.RssGetInMemoryShuffleDataRequest;
+import org.apache.uniffle.client.response.RssGetInMemoryShuffleDataResponse;
+import org.apache.uniffle.common.BufferSegment;
+import org.apache.uniffle.common.rpc.StatusCode;
+import org.apache.uniffle.storage.handler.ClientReadHandlerMetric;
+import org.apache.uniffle.storage.handler.ReadBufferSizeController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class MemoryClientReadHandlerTest {
+
+  @Test
+  public void testReadBufferMetric() {
+    ShuffleServerClient client = Mockito.mock(ShuffleServerClient.class);
+    // every read fills the requested buffer
+    when(client.getInMemoryShuffleData(any()))
+        .thenAnswer(
+            invocation -> {
+              int size =
+                  ((RssGetInMemoryShuffleDataRequest) invocation.getArgument(0))
+                      .getReadBufferSize();
+              return new RssGetInMemoryShuffleDataResponse(
+                  StatusCode.SUCCESS,
+                  ByteBuffer.allocate(size),
+                  Lists.newArrayList(new BufferSegment(1L, 0, size, size, 0, 1L)));
+            });
+    MemoryClientReadHandler handler =
+        new MemoryClientReadHandler("appId", 0, 1, 4, client, Roaring64NavigableMap.bitmapOf(1L));
+    ClientReadHandlerMetric metric = handler.getReadHandlerMetric();
+    assertEquals(0, metric.getReadBufferSize());
+
+    handler.setReadBufferSizeController(new ReadBufferSizeController(4, 1, 16, 60000));
+    assertEquals(4, metric.getReadBufferSize());
+
+    // the fast full reads grow the buffer until the max size
+    for (int expected : new int[] {8, 16, 16}) {
+      handler.readShuffleData();
+      assertEquals(expected, metric.getReadBufferSize());
+    }
+    assertEquals(2, metric.getReadBufferIncreaseNum());
+    assertEquals(0, metric.getReadBufferDecreaseNum());
+
+    // a slow read shrinks it
+    handler.onRead(16, 16, 60001);
+    assertEquals(8, metric.getReadBufferSize());
+    assertEquals(2, metric.getReadBufferIncreaseNum());
+    assertEquals(1, metric.getReadBufferDecreaseNum());
+  }
+}
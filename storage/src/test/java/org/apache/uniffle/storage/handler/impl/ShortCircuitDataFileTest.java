@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.uniffle.storage.handler.impl;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.apache.uniffle.common.exception.RssException;
+import org.apache.uniffle.common.netty.buffer.ManagedBuffer;
+import org.apache.uniffle.storage.util.ShuffleStorageUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShortCircuitDataFileTest {
+
+  @Test
+  public void mapTest(@TempDir File tmpDir) throws Exception {
+    File dataFile = new File(tmpDir, "test.data");
+    Files.write(dataFile.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+    String token = ShuffleStorageUtils.getFileKey(dataFile);
+    assertNotNull(token);
+
+    ShortCircuitDataFile shortCircuitDataFile =
+        ShortCircuitDataFile.open(dataFile.getAbsolutePath(), token);
+    assertNotNull(shortCircuitDataFile);
+    // the opened file is still readable after being deleted
+    assertTrue(dataFile.delete());
+    ManagedBuffer buffer = shortCircuitDataFile.map(2, 5);
+    ByteBuffer data = buffer.nioByteBuffer();
+    byte[] bytes = new byte[data.remaining()];
+    data.get(bytes);
+    assertEquals("23456", new String(bytes, StandardCharsets.UTF_8));
+    assertEquals(1, shortCircuitDataFile.getMappedBufferNum());
+    buffer.release();
+    assertEquals(0, shortCircuitDataFile.getMappedBufferNum());
+    assertThrows(RssException.class, () -> shortCircuitDataFile.map(8, 5));
+    assertEquals(0, shortCircuitDataFile.getMappedBufferNum());
+
+    // the regions not released are unmapped on close
+    shortCircuitDataFile.map(0, 5);
+    shortCircuitDataFile.map(5, 5);
+    assertEquals(2, shortCircuitDataFile.getMappedBufferNum());
+    shortCircuitDataFile.close();
+    assertEquals(0, shortCircuitDataFile.getMappedBufferNum());
+    assertThrows(RssException.class, () -> shortCircuitDataFile.map(0, 5));
+  }
+
+  @Test
+  public void tokenMismatchTest(@TempDir File tmpDir) throws Exception {
+    File dataFile = new File(tmpDir, "test.data");
+    Files.write(dataFile.toPath(), new byte[10]);
+    String token = ShuffleStorageUtils.getFileKey(dataFile);
+    // a file recreated at the same path isn't the file identified by the token
+    File otherFile = new File(tmpDir, "other.data");
+    Files.write(otherFile.toPath(), new byte[10]);
+    assertTrue(dataFile.delete());
+    assertTrue(otherFile.renameTo(dataFile));
+
+    assertNull(ShortCircuitDataFile.open(dataFile.getAbsolutePath(), token));
+    assertNull(ShortCircuitDataFile.open(dataFile.getAbsolutePath(), null));
+    assertNull(ShortCircuitDataFile.open(new File(tmpDir, "missing").getAbsolutePath(), token));
+  }
+}